@@ -0,0 +1,94 @@
+package client;
+
+import org.openjdk.jmh.annotations.*;
+import server.BoardFixtures;
+
+import java.awt.Graphics2D;
+import java.awt.event.ContainerEvent;
+import java.awt.event.ContainerListener;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+// 클라이언트 보드 갱신 한 번의 프레임 시간: 서버 보드 적용(BoardPanel.loadBoardFromServer) + 배치 + 그리기
+// 턴 시작 보드 ↔ 한 수 둔 보드(BoardFixtures, stage=LATE 면 100장)를 번갈아 적용
+//   retained : 이미 보드에 있는 TileView 는 위치만 옮기고 바뀐 것만 add / remove
+//   rebuild  : 갱신마다 removeAll 뒤 전부 다시 add (이전 방식의 컴포넌트 교체 비용)
+// 헤드리스 JVM 에서 측정 스레드가 직접 호출하고 1:1 크기 오프스크린 이미지에 그림 (EDT / 화면 합성은 빠짐)
+// 헤드리스에서는 컴포넌트에 peer 가 없어 add / remove 때의 addNotify / removeNotify 비용이 빠지므로
+// 갱신당 실제로 트리에 더하고 뺀 컴포넌트 수를 같이 봄 (화면에 떠 있으면 하나하나가 그 비용)
+//
+// 사용법: java -jar target/benchmarks.jar BoardPanelBenchmark -prof gc
+// 트라이얼이 끝나면 "added / removed per update" 를 출력
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g", "-Djava.awt.headless=true" })
+@State(Scope.Thread)
+public class BoardPanelBenchmark {
+
+    @Param({ "MID", "LATE" })
+    public BoardFixtures.Stage stage;
+
+    private BoardPanel panel;
+    private String before;
+    private String after;
+    private int version;
+    private BufferedImage frame;
+    private Graphics2D g;
+    private long updates;
+    private long added;
+    private long removed;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BoardFixtures.Play play = BoardFixtures.generate(stage, true, 42);
+        before = BoardFixtures.encode(play.oldBoard);
+        after = BoardFixtures.encode(play.newBoard);
+        TileImages.get(0); // 타일 이미지 캐시가 준비될 때까지
+
+        panel = new BoardPanel();
+        panel.setSize(panel.getPreferredSize());
+        frame = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+        g = frame.createGraphics();
+        panel.addContainerListener(new ContainerListener() {
+            @Override
+            public void componentAdded(ContainerEvent e) {
+                added++;
+            }
+
+            @Override
+            public void componentRemoved(ContainerEvent e) {
+                removed++;
+            }
+        });
+        panel.loadBoardFromServer(++version, before);
+        added = removed = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        g.dispose();
+        System.out.println();
+        System.out.printf("added / removed per update: %.1f / %.1f (%d tiles on board)%n",
+                (double) added / updates, (double) removed / updates, panel.getComponentCount());
+    }
+
+    private int update() {
+        panel.loadBoardFromServer(++version, (version & 1) == 0 ? after : before);
+        panel.paint(g);
+        updates++;
+        return panel.getComponentCount();
+    }
+
+    @Benchmark
+    public int retained() {
+        return update();
+    }
+
+    @Benchmark
+    public int rebuild() {
+        panel.removeAll();
+        return update();
+    }
+}
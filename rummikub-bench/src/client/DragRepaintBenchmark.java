@@ -0,0 +1,101 @@
+package client;
+
+import org.openjdk.jmh.annotations.*;
+import server.BoardFixtures;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// 타일 드래그 한 프레임을 그리는 비용 (1024x720 창, 보드에 타일 stage 장)
+//   fullWindow : 이전 방식 — 창 전체 repaint, 배경을 매번 창 크기로 늘려 그리고 어둡게 덮은 뒤 보드 전체
+//   dirtyRegion: 지금 방식 — 고스트의 이전 / 새 위치 합집합(타일 하나 + 이동 거리)만 clip, 배경은 미리 늘려 둔 이미지 복사
+// 헤드리스 오프스크린 이미지에 그리므로 화면 합성 / 버퍼 교환은 빠짐 (16.6 ms 안에 얼마나 여유가 있는지 보는 용도)
+//
+// 사용법: (저장소 루트에서, 배경 이미지 assets/images/login_bg.png) java -jar rummikub-bench/target/benchmarks.jar DragRepaintBenchmark -prof gc
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g", "-Djava.awt.headless=true" })
+@State(Scope.Thread)
+public class DragRepaintBenchmark {
+
+    private static final int W = 1024;
+    private static final int H = 720;
+    private static final int STEP = 12; // 프레임당 마우스 이동 (px)
+
+    @Param({ "LATE" })
+    public BoardFixtures.Stage stage;
+
+    private BoardPanel panel;
+    private BufferedImage background;
+    private BufferedImage scaledBackground;
+    private BufferedImage frame;
+    private Graphics2D g;
+    private int x = 100;
+    private final Color dim = new Color(0, 0, 0, 60);
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        BoardFixtures.Play play = BoardFixtures.generate(stage, true, 42);
+        TileImages.get(0);
+
+        panel = new BoardPanel();
+        panel.setSize(W, H);
+        panel.loadBoardFromServer(1, BoardFixtures.encode(play.newBoard));
+
+        background = ImageIO.read(new File("assets/images/login_bg.png"));
+        scaledBackground = new BufferedImage(W, H, BufferedImage.TYPE_INT_RGB);
+        Graphics2D bg = scaledBackground.createGraphics();
+        paintBackground(bg);
+        bg.dispose();
+
+        frame = new BufferedImage(W, H, BufferedImage.TYPE_INT_RGB);
+        g = frame.createGraphics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        g.dispose();
+    }
+
+    private void paintBackground(Graphics2D g) {
+        double s = Math.max(W / (double) background.getWidth(), H / (double) background.getHeight());
+        int dw = (int) (background.getWidth() * s);
+        int dh = (int) (background.getHeight() * s);
+        g.drawImage(background, (W - dw) / 2, (H - dh) / 2, dw, dh, null);
+        g.setColor(dim);
+        g.fillRect(0, 0, W, H);
+    }
+
+    private int nextX() {
+        x += STEP;
+        if (x > W - 200) x = 100;
+        return x;
+    }
+
+    @Benchmark
+    public BufferedImage fullWindow() {
+        nextX();
+        g.setClip(0, 0, W, H);
+        paintBackground(g);
+        panel.paint(g);
+        return frame;
+    }
+
+    @Benchmark
+    public BufferedImage dirtyRegion() {
+        int nx = nextX();
+        Rectangle dirty = new Rectangle(nx - STEP, 200, TileImages.WIDTH, TileImages.HEIGHT);
+        dirty.add(new Rectangle(nx, 200, TileImages.WIDTH, TileImages.HEIGHT));
+        g.setClip(dirty);
+        g.drawImage(scaledBackground, 0, 0, null);
+        panel.paint(g);
+        g.drawImage(TileImages.get(0), nx, 200, null);
+        return frame;
+    }
+}
@@ -0,0 +1,178 @@
+package server;
+
+import common.Tile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.StringJoiner;
+
+// JMH 벤치마크용 보드 생성기 (고정 시드라 매번 같은 보드)
+// - 유효한 멜드를 무작위로 쌓아 목표 장 수의 테이블을 만든 뒤
+// - 마지막 멜드 하나 + 긴 RUN 의 끝 타일 하나를 "이번 턴에 낸 타일"로 떼어 냄
+// → oldBoard(턴 시작 보드), newBoard(클라이언트가 보내는 보드), moveData(PLAY 본문)
+// (Stage 는 JMH 가 생성하는 jmh_generated 패키지에서, generate / encode / 두 보드는 client 패키지의 벤치마크에서 쓰므로 public)
+public final class BoardFixtures {
+
+    public enum Stage {
+        EARLY(12), MID(50), LATE(100);
+
+        final int tiles;
+
+        Stage(int tiles) { this.tiles = tiles; }
+    }
+
+    public static final class Play {
+        public final List<byte[]> oldBoard;
+        public final List<byte[]> newBoard;
+        final byte[] played;
+        final String moveData;
+        final int[] hand; // 타일 종류별 개수 (낸 타일 포함)
+
+        Play(List<byte[]> oldBoard, List<byte[]> newBoard, byte[] played, int[] hand) {
+            this.oldBoard = oldBoard;
+            this.newBoard = newBoard;
+            this.played = played;
+            this.moveData = encode(newBoard);
+            this.hand = hand;
+        }
+    }
+
+    private BoardFixtures() {}
+
+    // handlePlay 가 실제로 받아들이는 보드가 나올 때까지 시드를 바꿔 가며 생성
+    public static Play generate(Stage stage, boolean jokers, long seed) {
+        for (long s = seed; s < seed + 1000; s++) {
+            Play p = tryGenerate(stage, jokers, new Random(s));
+            if (p != null && accepted(p)) return p;
+        }
+        throw new IllegalStateException("보드 생성 실패: " + stage + " jokers=" + jokers);
+    }
+
+    public static String encode(List<byte[]> board) {
+        StringJoiner melds = new StringJoiner(";");
+        for (byte[] m : board) {
+            StringJoiner tiles = new StringJoiner(",");
+            for (byte t : m) tiles.add(Tile.name(t));
+            melds.add(tiles.toString());
+        }
+        return melds.toString();
+    }
+
+    // ============================================================
+
+    private static Play tryGenerate(Stage stage, boolean jokers, Random rnd) {
+        int[] deck = new int[Tile.KIND_COUNT];
+        Arrays.fill(deck, 0, Tile.RED_JOKER, 2);
+        if (jokers) deck[Tile.RED_JOKER] = deck[Tile.BLACK_JOKER] = 1;
+
+        List<byte[]> melds = new ArrayList<>();
+        int total = 0;
+        for (int guard = 0; total < stage.tiles && guard < 10_000; guard++) {
+            byte[] m = rnd.nextBoolean() ? randomRun(rnd, deck) : randomSet(rnd, deck);
+            if (m == null) continue;
+            melds.add(m);
+            total += m.length;
+        }
+        if (melds.size() < 2) return null;
+
+        // 조커는 서로 다른 멜드의 타일 하나를 대신함 (뺀 타일은 더미로)
+        if (jokers) {
+            int[] jk = { Tile.RED_JOKER, Tile.BLACK_JOKER };
+            for (int j = 0; j < jk.length; j++) {
+                byte[] m = melds.get(rnd.nextInt(melds.size() - 1));
+                if (countJokers(m) > 0) continue;
+                int pos = rnd.nextInt(m.length);
+                deck[m[pos]]++;
+                m[pos] = (byte) jk[j];
+                deck[jk[j]]--;
+            }
+        }
+
+        // 이번 턴에 낸 타일: 마지막 멜드 전체 + (있으면) 4장 이상 RUN 의 마지막 실제 타일
+        byte[] playedMeld = melds.remove(melds.size() - 1);
+        List<byte[]> oldBoard = new ArrayList<>();
+        List<byte[]> newBoard = new ArrayList<>();
+        byte extension = -1;
+
+        for (byte[] m : melds) {
+            if (extension < 0 && m.length >= 4 && isRun(m) && !Tile.isJoker(m[m.length - 1])) {
+                extension = m[m.length - 1];
+                oldBoard.add(Arrays.copyOf(m, m.length - 1));
+            } else {
+                oldBoard.add(m);
+            }
+            newBoard.add(m);
+        }
+        newBoard.add(playedMeld);
+
+        byte[] played = extension < 0 ? playedMeld : Arrays.copyOf(playedMeld, playedMeld.length + 1);
+        if (extension >= 0) played[played.length - 1] = extension;
+
+        // 손패: 낸 타일 + 더미에서 몇 장
+        int[] hand = new int[Tile.KIND_COUNT];
+        for (byte t : played) hand[t]++;
+        for (int i = 0; i < 8; i++) {
+            int k = rnd.nextInt(Tile.RED_JOKER);
+            if (deck[k] > 0) { deck[k]--; hand[k]++; }
+        }
+        return new Play(oldBoard, newBoard, played, hand);
+    }
+
+    private static byte[] randomRun(Random rnd, int[] deck) {
+        int color = rnd.nextInt(Tile.COLOR_COUNT);
+        int len = 3 + rnd.nextInt(4);
+        int start = 1 + rnd.nextInt(Tile.MAX_NUMBER - len + 1);
+        byte[] m = new byte[len];
+        for (int i = 0; i < len; i++) {
+            int k = Tile.kind(color, start + i);
+            if (deck[k] == 0) return null;
+            m[i] = (byte) k;
+        }
+        for (byte t : m) deck[t]--;
+        return m;
+    }
+
+    private static byte[] randomSet(Random rnd, int[] deck) {
+        int number = 1 + rnd.nextInt(Tile.MAX_NUMBER);
+        int size = 3 + rnd.nextInt(2);
+        int skip = size == 4 ? -1 : rnd.nextInt(Tile.COLOR_COUNT);
+        byte[] m = new byte[size];
+        int p = 0;
+        for (int c = 0; c < Tile.COLOR_COUNT; c++) {
+            if (c == skip) continue;
+            int k = Tile.kind(c, number);
+            if (deck[k] == 0) return null;
+            m[p++] = (byte) k;
+        }
+        for (byte t : m) deck[t]--;
+        return m;
+    }
+
+    // 실제 타일이 모두 같은 색이고 숫자가 서로 다르면 RUN
+    private static boolean isRun(byte[] m) {
+        int color = -1, number = -1;
+        for (byte t : m) {
+            if (Tile.isJoker(t)) continue;
+            if (color >= 0 && (color != Tile.colorOf(t) || number == Tile.numberOf(t))) return false;
+            color = Tile.colorOf(t);
+            number = Tile.numberOf(t);
+        }
+        return true;
+    }
+
+    private static int countJokers(byte[] m) {
+        int n = 0;
+        for (byte t : m) if (Tile.isJoker(t)) n++;
+        return n;
+    }
+
+    // 보드 유효성 + handlePlay 통과 여부 (이미 보드에 있는 종류를 또 내는 경우 등은 버림)
+    private static boolean accepted(Play p) {
+        GameCore core = new GameCore();
+        if (!core.restoreBoard(p.oldBoard)) return false;
+        core.restorePlayer("bench", p.hand, true);
+        return core.handlePlay("bench", p.moveData);
+    }
+}
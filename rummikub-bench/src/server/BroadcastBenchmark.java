@@ -0,0 +1,95 @@
+package server;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+// 브로드캐스트 팬아웃: 세션마다 인코딩(이전 방식) vs 한 번 인코딩한 Frame 공유(Room.broadcast)
+// 메시지는 PLAY_OK|이름|보드 (보드 크기 EARLY/MID/LATE), 받는 세션 수는 recipients (4인 방 + 관전자 가정)
+// 세션은 받은 버퍼를 소비만 하는 가짜 세션이라 소켓 write 비용은 빠짐
+//
+// 사용법: java -jar target/benchmarks.jar BroadcastBenchmark -prof gc
+// 트라이얼이 끝나면 "encoded bytes / broadcast" 를 출력 (gc.alloc.rate.norm 과 함께 비교)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Thread)
+public class BroadcastBenchmark {
+
+    @Param({ "EARLY", "MID", "LATE" })
+    public BoardFixtures.Stage stage;
+
+    @Param({ "4", "16" })
+    public int recipients;
+
+    private String msg;
+    private SinkSession[] sessions;
+    private final Counter counter = new Counter();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BoardFixtures.Play play = BoardFixtures.generate(stage, true, 42);
+        msg = "PLAY_OK|bench|" + BoardFixtures.encode(play.newBoard);
+
+        sessions = new SinkSession[recipients];
+        for (int i = 0; i < recipients; i++)
+            sessions[i] = new SinkSession(counter);
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.println();
+        System.out.println("encoded bytes / broadcast: " + counter.encodedBytes / Math.max(1, counter.broadcasts)
+                + " (message " + Frame.of(msg).length() + " B × recipients " + recipients + ")");
+    }
+
+    // 이전 방식: 세션마다 send(String) → 세션마다 UTF-8 인코딩
+    @Benchmark
+    public long perSessionEncode() {
+        counter.broadcasts++;
+        for (SinkSession s : sessions) s.send(msg);
+        return counter.writtenBytes;
+    }
+
+    // Room.broadcast: 한 번 인코딩한 Frame 을 모든 세션이 공유
+    @Benchmark
+    public long encodeOnce() {
+        counter.broadcasts++;
+        Frame frame = Frame.of(msg);
+        for (SinkSession s : sessions) s.send(frame);
+        return counter.writtenBytes;
+    }
+
+    static final class Counter {
+        long broadcasts;
+        long encodedBytes;  // 새로 인코딩된 Frame 바이트 합
+        long writtenBytes;  // 세션 쓰기 큐로 넘어간 바이트 합
+        Frame last;
+    }
+
+    // 쓰기 큐 대신 받은 버퍼를 바로 소비하는 세션
+    static final class SinkSession extends ClientSession {
+        private final Counter counter;
+
+        SinkSession(Counter counter) {
+            super(null);
+            this.counter = counter;
+        }
+
+        @Override
+        void send(Frame frame) {
+            if (frame != counter.last) {
+                counter.last = frame;
+                counter.encodedBytes += frame.length();
+            }
+            ByteBuffer b = frame.buffer(false);
+            counter.writtenBytes += b.remaining();
+        }
+
+        @Override
+        protected void closeConnection() {}
+    }
+}
@@ -0,0 +1,67 @@
+package server;
+
+import common.Tile;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// 게임 하나를 만들고 4명에게 14장씩(56장) 나눠 주는 비용
+//   arrayPool: 지금 방식 — 방별 SplittableRandom 에서 뽑은 시드로 GameCore 생성(물리 타일 id 배열 셔플), 뒤에서부터 뽑기
+//   listPool : 이전 방식 — 타일 문자열 ArrayList 를 시드 없는 Random 으로 셔플하고 remove(0) 으로 뽑기 (아래에 그대로 옮겨 둠)
+// 같은 시드로 만든 두 GameCore 의 손패가 같은지(딜 재현) 시작할 때 확인
+//
+// 사용법: java -jar target/benchmarks.jar DealBenchmark -prof gc
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Thread)
+public class DealBenchmark {
+
+    private static final String[] PLAYERS = { "p0", "p1", "p2", "p3" };
+
+    private SplittableRandom room;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        room = new SplittableRandom(42).split();
+
+        GameCore a = new GameCore(7), b = new GameCore(7);
+        for (String p : PLAYERS) {
+            a.onPlayerJoin(p);
+            b.onPlayerJoin(p);
+            if (!a.getHand(p).equals(b.getHand(p)))
+                throw new IllegalStateException("같은 시드인데 손패가 다름: " + p);
+        }
+    }
+
+    @Benchmark
+    public GameCore arrayPool() {
+        GameCore core = new GameCore(room.nextLong());
+        for (String p : PLAYERS) core.onPlayerJoin(p);
+        return core;
+    }
+
+    @Benchmark
+    public void listPool(Blackhole bh) {
+        List<String> pool = new ArrayList<>();
+        for (int id = 0; id < Tile.PHYSICAL_COUNT; id++)
+            pool.add(Tile.name(Tile.kindOf(id)));
+        Collections.shuffle(pool, new Random());
+
+        for (String p : PLAYERS) {
+            List<String> hand = new ArrayList<>();
+            for (int i = 0; i < 14; i++)
+                hand.add(pool.remove(0));
+            bh.consume(hand);
+        }
+        bh.consume(pool);
+    }
+}
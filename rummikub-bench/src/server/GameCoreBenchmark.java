@@ -0,0 +1,92 @@
+package server;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// PLAY 처리 단계별 JMH 벤치마크 (보드 크기 EARLY/MID/LATE × 조커 유무)
+//
+// 사용법 (루트에서 mvn package 후, rummikub-bench 디렉터리에서):
+//   java -jar target/benchmarks.jar GameCoreBenchmark -prof gc
+//   java -jar target/benchmarks.jar GameCoreBenchmark.rearrange -p stage=LATE
+// -prof gc 의 gc.alloc.rate.norm 이 호출당 할당 바이트
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Thread)
+public class GameCoreBenchmark {
+
+    @Param({ "EARLY", "MID", "LATE" })
+    public BoardFixtures.Stage stage;
+
+    @Param({ "false", "true" })
+    public boolean jokers;
+
+    private BoardFixtures.Play play;
+    private GameCore core;          // 보드 = newBoard (encodeBoard / 검증용)
+    private GameCore turnStart;     // 보드 = oldBoard (바뀐 멜드만 검증)
+    private GameCore empty;         // 보드 없음 (모든 멜드 검증)
+    private final List<byte[]> values = new ArrayList<>();
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // 규칙 엔진의 println 로그가 측정을 가리지 않게
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        play = BoardFixtures.generate(stage, jokers, 42);
+        core = new GameCore();
+        if (!core.restoreBoard(play.newBoard))
+            throw new IllegalStateException("newBoard 가 유효하지 않음");
+        turnStart = new GameCore();
+        turnStart.restoreBoard(play.oldBoard);
+        empty = new GameCore();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(console);
+        System.out.println();
+        System.out.println("melds, turn start board: " + turnStart.meldCacheStats() + " / no board: " + empty.meldCacheStats());
+    }
+
+    @Benchmark
+    public List<byte[]> parseMoveData() {
+        return core.parseMoveData(play.moveData);
+    }
+
+    @Benchmark
+    public boolean validateBoardConsistency() {
+        return core.validateBoardConsistency(play.oldBoard, play.newBoard);
+    }
+
+    // 턴 시작 보드에서 제출 보드 검증: 그대로인 멜드는 캐시, 바뀐 멜드만 검증
+    @Benchmark
+    public boolean validateRemainingMelds() {
+        return turnStart.validateRemainingMeldsAfterRearrange(play.newBoard, values);
+    }
+
+    // 비교용: 캐시할 보드가 없어 모든 멜드를 검증 (이전 방식)
+    @Benchmark
+    public boolean validateRemainingMeldsFull() {
+        return empty.validateRemainingMeldsAfterRearrange(play.newBoard, values);
+    }
+
+    @Benchmark
+    public void rearrange(Blackhole bh) throws MeldRearranger.RearrangeFailedException {
+        bh.consume(MeldRearranger.rearrange(play.oldBoard, play.played));
+    }
+
+    @Benchmark
+    public String encodeBoard() {
+        return core.encodeBoard();
+    }
+}
@@ -0,0 +1,81 @@
+package server;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// 게임 한 판의 GameCore 수명 (만들기 → 4명 입장 딜 → 40턴 NO_TILE → 라운드 종료) 당 시간 / 할당
+//   fresh : 판마다 새 GameCore (방마다 새로 만들던 방식)
+//   pooled: 끝난 방의 코어를 GameCorePool 에 돌려주고 새 방이 받아 recycle (플레이어 / 점수까지 비움)
+//   reset : 같은 방에서 다음 판 — 같은 코어를 resetRound 로 제자리에서 다시 섞고 딜
+// 라운드 종료의 점수 로그(println)는 버림
+//
+// 사용법: java -jar target/benchmarks.jar GameLifecycleBenchmark -prof gc
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Thread)
+public class GameLifecycleBenchmark {
+
+    private static final String[] PLAYERS = { "p0", "p1", "p2", "p3" };
+    private static final int TURNS = 40;
+
+    private SplittableRandom room;
+    private GameCorePool pool;
+    private GameCore same;
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        room = new SplittableRandom(42).split();
+        pool = new GameCorePool(16);
+        same = new GameCore(room.nextLong());
+        for (String p : PLAYERS) same.onPlayerJoin(p);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(console);
+        System.out.println();
+        System.out.println("core pool: " + pool.stats());
+    }
+
+    private static GameCore play(GameCore core) {
+        for (int t = 0; t < TURNS; t++) {
+            core.drawRandomTileFor(core.getCurrentTurnPlayer());
+            core.nextTurnAndGetPlayer();
+        }
+        core.onRoundWin(PLAYERS[0]);
+        return core;
+    }
+
+    @Benchmark
+    public GameCore fresh() {
+        GameCore core = new GameCore(room.nextLong());
+        for (String p : PLAYERS) core.onPlayerJoin(p);
+        return play(core);
+    }
+
+    @Benchmark
+    public GameCore pooled() {
+        GameCore core = pool.acquire(room.nextLong());
+        for (String p : PLAYERS) core.onPlayerJoin(p);
+        play(core);
+        pool.release(core);
+        return core;
+    }
+
+    @Benchmark
+    public GameCore reset() {
+        same.resetRound(room.nextLong());
+        return play(same);
+    }
+}
@@ -0,0 +1,57 @@
+package server;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+// handlePlay 전체 (파싱 → 검증 → 재조합 → 조커 값 확정 → 보드 교체) JMH 벤치마크
+// handlePlay 는 보드와 손패를 바꾸므로 매 호출 전에 턴 시작 상태로 되돌림 (복원 비용은 측정에서 빠짐)
+//
+// 사용법: java -jar target/benchmarks.jar HandlePlayBenchmark -prof gc
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Thread)
+public class HandlePlayBenchmark {
+
+    private static final String PLAYER = "bench";
+
+    @Param({ "EARLY", "MID", "LATE" })
+    public BoardFixtures.Stage stage;
+
+    @Param({ "false", "true" })
+    public boolean jokers;
+
+    private BoardFixtures.Play play;
+    private GameCore core;
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        play = BoardFixtures.generate(stage, jokers, 42);
+        core = new GameCore();
+    }
+
+    @Setup(Level.Invocation)
+    public void resetTurn() {
+        core.restoreBoard(play.oldBoard);
+        core.restorePlayer(PLAYER, play.hand, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public boolean handlePlay() {
+        return core.handlePlay(PLAYER, play.moveData);
+    }
+}
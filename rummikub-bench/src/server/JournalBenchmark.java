@@ -0,0 +1,88 @@
+package server;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 게임 저널 덧붙이기 비용 (방 액터가 내는 몫): PLAY(보드 크기 stage) / NO_TILE 레코드를 방 10k 개에 돌아가며 기록
+// 파일 쓰기 + force 는 writer 스레드가 flushMillis 마다 그룹 커밋 (측정 스레드는 버퍼에 덧붙이기 + 버퍼가 넘칠 때 대기)
+//
+// 사용법: java -jar target/benchmarks.jar JournalBenchmark -prof gc
+// 트라이얼이 끝나면 저널 stats (그룹당 레코드 수, 평균 fsync, 대기 횟수) 출력
+// 재시작 복구 시간은 JournalRecoveryCheck 로 측정
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Thread)
+public class JournalBenchmark {
+
+    private static final int ROOMS = 10_000;
+
+    @Param({ "EARLY", "LATE" })
+    public BoardFixtures.Stage stage;
+
+    @Param({ "5" })
+    public long flushMillis;
+
+    private Path dir;
+    private GameJournal journal;
+    private List<byte[]> melds;
+    private List<byte[]> values;
+    private byte[] played;
+    private final String[] names = new String[ROOMS];
+    private int room;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("journal-bench");
+        journal = GameJournal.open(dir, flushMillis, 64L << 20);
+        journal.recover(null);
+
+        BoardFixtures.Play play = BoardFixtures.generate(stage, true, 42);
+        melds = play.newBoard;
+        values = new ArrayList<>();
+        for (byte[] m : melds) {
+            byte[] v = new byte[m.length];
+            for (int i = 0; i < m.length; i++) v[i] = (byte) common.Tile.numberOf(m[i]);
+            values.add(v);
+        }
+        played = play.played;
+        for (int i = 0; i < ROOMS; i++) names[i] = "player" + i;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        System.out.println();
+        System.out.println("journal: " + journal.stats());
+        try (var files = Files.list(dir)) {
+            for (Path p : files.toList()) Files.delete(p);
+        }
+        Files.delete(dir);
+    }
+
+    private int nextRoom() {
+        int r = room;
+        room = (r + 1 == ROOMS) ? 0 : r + 1;
+        return r;
+    }
+
+    @Benchmark
+    public void play() {
+        int r = nextRoom();
+        journal.played(r, names[r], melds, values, played);
+    }
+
+    @Benchmark
+    public void noTile() {
+        int r = nextRoom();
+        journal.noTile(r, names[r]);
+    }
+}
@@ -0,0 +1,250 @@
+package server;
+
+import common.Tile;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// 게임 저널(GameJournal) 처리량 + 재시작 복구 시간 측정, 복구한 상태가 죽기 전과 같은지 검증
+// 같은 JVM 안에서 소켓 없이 방 N 개에 가짜 세션 4개씩 넣어 게임을 진행시킨 뒤 (방마다 --turns 턴, 끝나지 않은 게임이 대부분)
+// 저널을 닫고 같은 디렉터리로 새 GameServer 를 만들어 복구 → 방마다 자리 / 보드 / 손패 / 턴 / 남은 더미 비교
+//
+// 사용법: java -cp target/benchmarks.jar server.JournalRecoveryCheck [--rooms=10000] [--turns=40] [--segment-mb=16]
+// 세션은 방 액터 안에서 TURN 을 받으면 바로 다음 수를 넣음 (손패의 런 / 세트, 낼 게 없거나 PLAY_FAIL 이면 NO_TILE)
+public class JournalRecoveryCheck {
+
+    public static void main(String[] args) throws Exception {
+        int rooms = 10_000;
+        int turns = 40;
+        long segmentMb = 16;
+        for (String a : args) {
+            if (a.startsWith("--rooms=")) rooms = Integer.parseInt(a.substring(8));
+            else if (a.startsWith("--turns=")) turns = Integer.parseInt(a.substring(8));
+            else if (a.startsWith("--segment-mb=")) segmentMb = Long.parseLong(a.substring(13));
+        }
+
+        Path dir = Files.createTempDirectory("rummikub-journal");
+        System.setProperty("rummikub.journal.dir", dir.toString());
+        System.setProperty("rummikub.journal.segmentBytes", Long.toString(segmentMb << 20));
+        System.setProperty("rummikub.scores.dir", "");
+        System.setProperty("rummikub.replay.dir", "");
+
+        // 같은 JVM 서버의 println 로그(재조합 / 점수)가 측정을 가리지 않게
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        // ===== 1) 게임 진행 (저널 기록)
+        GameServer server = new GameServer(0, GameServer.IoMode.NIO, 1);
+        CountDownLatch done = new CountDownLatch(rooms);
+        long t0 = System.nanoTime();
+        for (int r = 0; r < rooms; r++) {
+            Room room = server.createRoom("bench" + r);
+            Table table = new Table(room, turns, done);
+            for (int p = 0; p < 4; p++) {
+                Seat seat = new Seat(table);
+                seat.onLine("LOGIN|r" + r + "p" + p);
+                room.addPlayer(seat); // 4명째에 자동 시작 → 첫 TURN 부터 진행
+            }
+        }
+        if (!done.await(10, TimeUnit.MINUTES)) console.println("시간 초과: 남은 방 " + done.getCount());
+        server.journal().close();
+        long playMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+
+        Map<Integer, String> before = new HashMap<>();
+        for (Room room : server.getRooms()) before.put(room.getId(), describe(room));
+
+        long journalBytes = 0;
+        try (var files = Files.list(dir)) {
+            for (Path p : files.toList()) journalBytes += Files.size(p);
+        }
+
+        console.println();
+        console.println("rooms / turns   : " + rooms + " / " + turns + " (끝난 게임 " + Table.finished + ")");
+        console.println("play phase      : " + playMs + " ms");
+        console.println("journal         : " + server.journal().stats());
+        console.println("actions         : " + Table.actions + " (PLAY " + Table.plays + ", NO_TILE " + Table.noTiles
+                + "), " + (playMs > 0 ? Table.actions * 1000L / playMs : 0) + " actions/s");
+        console.println("on disk         : " + journalBytes / 1024 + " KB");
+
+        // ===== 2) 재시작 복구
+        long t1 = System.nanoTime();
+        GameServer recovered = new GameServer(0, GameServer.IoMode.NIO, 1);
+        long recoverMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t1);
+
+        int mismatch = 0, missing = 0;
+        for (Map.Entry<Integer, String> e : before.entrySet()) {
+            Room room = recovered.findRoomById(e.getKey());
+            if (room == null) {
+                missing++;
+                continue;
+            }
+            if (!describe(room).equals(e.getValue())) {
+                if (mismatch++ < 3) {
+                    console.println("mismatch room " + e.getKey());
+                    console.println("  before : " + e.getValue());
+                    console.println("  after  : " + describe(room));
+                }
+            }
+        }
+        recovered.journal().close();
+
+        console.println("recovery        : " + recoverMs + " ms (GameServer 생성 포함, 새 세그먼트 스냅샷 포함)");
+        console.println("verified rooms  : " + before.size() + ", mismatch " + mismatch + ", missing " + missing
+                + ", extra " + (recovered.getRooms().size() - before.size() + missing));
+
+        try (var files = Files.list(dir)) {
+            for (Path p : files.toList()) Files.delete(p);
+        }
+        Files.delete(dir);
+        System.exit(mismatch + missing == 0 ? 0 : 1);
+    }
+
+    // 방 상태 요약 (복구 전후 비교용, 방 액터가 멈춘 뒤에만 호출)
+    private static String describe(Room room) {
+        GameCore core = room.gameCore();
+        StringBuilder sb = new StringBuilder();
+        sb.append(room.getName()).append(' ').append(room.members())
+                .append(" turn=").append(core.getCurrentTurnPlayer())
+                .append(" v").append(core.getBoardVersion())
+                .append(" pool=").append(core.poolOrder().length)
+                .append(" board=").append(core.encodeBoard());
+        for (String m : room.members())
+            sb.append(' ').append(m).append(core.getHand(m)).append(core.playedThisTurn(m) ? "*" : "");
+        return sb.toString();
+    }
+
+    // 방 하나의 진행 상태 (그 방 액터 안에서만 바뀜)
+    private static final class Table {
+        static volatile long finished;
+        static volatile long actions;
+        static volatile long plays;
+        static volatile long noTiles;
+
+        final Room room;
+        final CountDownLatch done;
+        int turnsLeft;
+        boolean stopped;
+
+        Table(Room room, int turns, CountDownLatch done) {
+            this.room = room;
+            this.turnsLeft = turns;
+            this.done = done;
+        }
+
+        void stop(boolean gameOver) {
+            if (stopped) return;
+            stopped = true;
+            if (gameOver) synchronized (Table.class) { finished++; }
+            done.countDown();
+        }
+
+        static synchronized void count(boolean play) {
+            actions++;
+            if (play) plays++;
+            else noTiles++;
+        }
+    }
+
+    // 소켓 없는 세션: 받은 줄을 보고 자기 턴이면 바로 다음 수를 방에 넣음
+    private static final class Seat extends ClientSession {
+        private final Table table;
+        private boolean initialDone;
+
+        Seat(Table table) {
+            super(null);
+            this.table = table;
+        }
+
+        @Override
+        void send(Frame frame) {
+            String msg = frame.message();
+            String me = getPlayerName();
+            if (msg.startsWith("TURN|")) {
+                if (!msg.substring(5).equals(me) || table.stopped) return;
+                if (table.turnsLeft-- <= 0) {
+                    table.stop(false);
+                    return;
+                }
+                act();
+            } else if (msg.startsWith("PLAY_FAIL|")) {
+                Table.count(false);
+                table.room.handleNoTile(me);
+            } else if (msg.startsWith("PLAY_OK|" + me + "|")) {
+                initialDone = true;
+            } else if (msg.startsWith("GAME_END|")) {
+                table.stop(true);
+            }
+        }
+
+        private void act() {
+            String me = getPlayerName();
+            List<byte[]> melds = findMelds(table.room.gameCore(), me, initialDone);
+            if (melds == null) {
+                Table.count(false);
+                table.room.handleNoTile(me);
+                return;
+            }
+            Table.count(true);
+            List<byte[]> board = new ArrayList<>(table.room.gameCore().boardMelds());
+            board.addAll(melds);
+            table.room.handlePlay(me, board);
+        }
+
+        @Override
+        protected void closeConnection() {}
+    }
+
+    // 손패로 만드는 새 런(같은 색 3장 이상) / 세트(같은 숫자 3~4색), 초기 등록 전에는 합 30 이상일 때만 (ReplayCheck 도 사용)
+    static List<byte[]> findMelds(GameCore core, String player, boolean initialDone) {
+        int[] avail = new int[Tile.KIND_COUNT];
+        for (String t : core.getHand(player)) avail[Tile.parse(t)]++;
+
+        List<byte[]> out = new ArrayList<>();
+        int score = 0;
+        for (int c = 0; c < Tile.COLOR_COUNT; c++) {
+            int n = 1;
+            while (n <= Tile.MAX_NUMBER) {
+                int s = n;
+                while (n <= Tile.MAX_NUMBER && avail[Tile.kind(c, n)] > 0) n++;
+                if (n - s >= 3) {
+                    byte[] run = new byte[n - s];
+                    for (int i = 0; i < run.length; i++) {
+                        run[i] = (byte) Tile.kind(c, s + i);
+                        avail[run[i]]--;
+                        score += s + i;
+                    }
+                    out.add(run);
+                }
+                if (n == s) n++;
+            }
+        }
+        for (int n = 1; n <= Tile.MAX_NUMBER; n++) {
+            int colors = 0;
+            for (int c = 0; c < Tile.COLOR_COUNT; c++)
+                if (avail[Tile.kind(c, n)] > 0) colors++;
+            if (colors < 3) continue;
+            byte[] set = new byte[colors];
+            int i = 0;
+            for (int c = 0; c < Tile.COLOR_COUNT; c++) {
+                int k = Tile.kind(c, n);
+                if (avail[k] > 0) {
+                    set[i++] = (byte) k;
+                    avail[k]--;
+                }
+            }
+            score += n * colors;
+            out.add(set);
+        }
+
+        if (out.isEmpty() || (!initialDone && score < 30)) return null;
+        return out;
+    }
+}
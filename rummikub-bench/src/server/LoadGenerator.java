@@ -0,0 +1,808 @@
+package server;
+
+import client.NetIO;
+import common.Tile;
+import common.Wire;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// 헤드리스 부하 생성기: 봇 N 명이 실제 라인 프로토콜(LOGIN / CREATE / JOIN / START_GAME / PLAY / NO_TILE / CHAT / LEADERBOARD)로
+// 테이블(--players 명) 단위 게임을 끝까지 진행. 송수신은 클라이언트와 같은 NetIO 를 쓰고 Swing 은 띄우지 않음
+// 봇은 손패에서 규칙에 맞는 멜드(런 / 세트 / 조커 보충)와 보드 멜드 이어 붙이기를 골라 내므로 규칙 엔진이 실제로 돎
+//
+// 사용법: java -cp rummikub-bench/target/benchmarks.jar server.LoadGenerator
+//           [--bots=400] [--players=4] [--games=3] [--max-turns=200] [--chat-every=10] [--timeout-sec=300]
+//           [--mode=thread|virtual|nio] [--io-threads=N] [--room-threads=N]
+//           [--host=H --port=P]   (이미 떠 있는 서버에 붙음, 이 경우 힙 / 송신 큐 지표는 측정하지 않음)
+//           [--stalled=N]         (LIST_SUBSCRIBE 후 읽지 않는 느린 클라이언트 N 개 → 송신 큐 워터마크 / 강제 종료 확인)
+//           [--wire=text|binary]  (binary: 봇이 LOGIN 직후 바이너리 프레임을 협상하고 PLAY_OK / BOARD / 타일 메시지는 필드를 직접 읽음)
+//           [--record=FILE]       (첫 테이블 첫 판의 송수신을 텍스트 줄로 기록: "> 보낸 줄" / "< 받은 줄", WireBenchmark 입력)
+//           [--verbose]           (같은 JVM 서버의 로그 출력)
+// 게임은 누군가 손패를 다 내거나 --max-turns 턴이 지나 모두 LEAVE 하면 끝나고, 같은 테이블이 새 방을 만들어 --games 판 반복
+// 봇 하나마다 NetIO 수신 스레드가 하나씩 뜨므로 봇 수가 많으면 ulimit -n / -u 를 충분히 올려야 함
+public class LoadGenerator {
+
+    private static final String LOGIN_INFO = "INFO|로비에 입장했습니다.";
+    private static final String LEAVE_INFO = "INFO|로비로 이동했습니다.";
+
+    private static int maxTurns = 200;
+    private static int chatEvery = 10;
+    private static boolean binaryWire = false;
+    private static final List<String> recorded = Collections.synchronizedList(new ArrayList<>());
+
+    // 전체 봇 합계
+    private static final LongAdder sent = new LongAdder();
+    private static final LongAdder received = new LongAdder();
+    private static final LongAdder plays = new LongAdder();
+    private static final LongAdder playFails = new LongAdder();
+    private static final LongAdder noTiles = new LongAdder();
+    private static final LongAdder chats = new LongAdder();
+    private static final LongAdder errors = new LongAdder();
+    private static final LongAdder wins = new LongAdder();
+    private static final LongAdder gamesDone = new LongAdder();
+    private static final LongAdder boardSyncs = new LongAdder();
+    private static final LongAdder diffBytes = new LongAdder();   // PLAY_OK 변경분 길이 합
+    private static final LongAdder fullBytes = new LongAdder();   // 같은 시점 보드 전체 길이 합 (비교용)
+
+    public static void main(String[] args) throws Exception {
+        int botCount = 400;
+        int players = 4;
+        int games = 3;
+        int timeoutSec = 300;
+        int stalledCount = 0;
+        GameServer.IoMode mode = GameServer.IoMode.NIO;
+        int ioThreads = Runtime.getRuntime().availableProcessors();
+        int roomThreads = Runtime.getRuntime().availableProcessors();
+        String host = "127.0.0.1";
+        int port = 0;
+        boolean verbose = false;
+        String recordPath = null;
+
+        for (String a : args) {
+            if (a.startsWith("--bots=")) botCount = Integer.parseInt(a.substring(7));
+            else if (a.startsWith("--players=")) players = Integer.parseInt(a.substring(10));
+            else if (a.startsWith("--games=")) games = Integer.parseInt(a.substring(8));
+            else if (a.startsWith("--max-turns=")) maxTurns = Integer.parseInt(a.substring(12));
+            else if (a.startsWith("--chat-every=")) chatEvery = Integer.parseInt(a.substring(13));
+            else if (a.startsWith("--timeout-sec=")) timeoutSec = Integer.parseInt(a.substring(14));
+            else if (a.startsWith("--stalled=")) stalledCount = Integer.parseInt(a.substring(10));
+            else if (a.startsWith("--mode=")) mode = GameServer.IoMode.valueOf(a.substring(7).toUpperCase());
+            else if (a.startsWith("--io-threads=")) ioThreads = Integer.parseInt(a.substring(13));
+            else if (a.startsWith("--room-threads=")) roomThreads = Integer.parseInt(a.substring(15));
+            else if (a.startsWith("--host=")) host = a.substring(7);
+            else if (a.startsWith("--port=")) port = Integer.parseInt(a.substring(7));
+            else if (a.startsWith("--wire=")) binaryWire = a.substring(7).equals("binary");
+            else if (a.startsWith("--record=")) recordPath = a.substring(9);
+            else if (a.equals("--verbose")) verbose = true;
+        }
+        if (players < 2 || players > 4)
+            throw new IllegalArgumentException("--players 는 2~4");
+
+        // 같은 JVM 서버의 println 로그가 측정을 가리지 않게
+        PrintStream console = System.out;
+        if (!verbose) System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        boolean local = (port == 0);
+        GameServer server = null;
+        if (local) {
+            // 누적 점수 / 게임 저널 / 리플레이는 따로 지정하지 않으면 임시 디렉터리에 (저장 비용은 측정에 포함)
+            String data = null;
+            if (System.getProperty("rummikub.scores.dir") == null || System.getProperty("rummikub.journal.dir") == null
+                    || System.getProperty("rummikub.replay.dir") == null)
+                data = Files.createTempDirectory("rummikub-data").toString();
+            if (System.getProperty("rummikub.scores.dir") == null) System.setProperty("rummikub.scores.dir", data);
+            if (System.getProperty("rummikub.journal.dir") == null) System.setProperty("rummikub.journal.dir", data);
+            if (System.getProperty("rummikub.replay.dir") == null)
+                System.setProperty("rummikub.replay.dir", Path.of(data, "replays").toString());
+            server = new GameServer(0, mode, ioThreads, roomThreads);
+            Thread acceptor = new Thread(server::start, "load-acceptor");
+            acceptor.setDaemon(true);
+            acceptor.start();
+            port = server.getLocalPort();
+        }
+
+        HeapSampler heap = local ? HeapSampler.start() : null;
+
+        // 로비 푸시(ROOM_LIST_DELTA)를 받기만 하고 읽지 않는 연결 (수신 버퍼를 작게 잡아 금방 막히게)
+        List<Socket> stalled = new ArrayList<>(stalledCount);
+        for (int i = 0; i < stalledCount; i++) {
+            Socket s = new Socket();
+            s.setReceiveBufferSize(4096);
+            s.connect(new InetSocketAddress(host, port));
+            s.getOutputStream().write(("LOGIN|stalled" + i + "\nLIST_SUBSCRIBE\n").getBytes(StandardCharsets.UTF_8));
+            stalled.add(s);
+        }
+
+        // 1) 접속 + LOGIN (연결 ~ 로비 입장 응답까지를 접속 시간으로 봄)
+        int tableCount = botCount / players;
+        CountDownLatch loggedIn = new CountDownLatch(tableCount * players);
+        CountDownLatch finished = new CountDownLatch(tableCount);
+        List<Table> tables = new ArrayList<>(tableCount);
+        List<Bot> bots = new ArrayList<>(tableCount * players);
+
+        long c0 = System.nanoTime();
+        for (int t = 0; t < tableCount; t++) {
+            Table table = new Table(t, players, games, finished);
+            for (int i = 0; i < players; i++) {
+                Bot b = new Bot("bot" + (t * players + i), table, loggedIn);
+                b.recording = recordPath != null && t == 0;
+                table.bots[i] = b;
+                bots.add(b);
+                b.connect(host, port);
+            }
+            tables.add(table);
+        }
+        if (!loggedIn.await(timeoutSec, TimeUnit.SECONDS))
+            console.println("LOGIN 응답 대기 시간 초과: " + loggedIn.getCount() + " 명 남음");
+        long connectMs = (System.nanoTime() - c0) / 1_000_000;
+
+        // 2) 게임 진행
+        long sent0 = sent.sum(), recv0 = received.sum();
+        long g0 = System.nanoTime();
+        for (Table t : tables) t.startGame();
+        boolean done = finished.await(timeoutSec, TimeUnit.SECONDS);
+        long gameNs = System.nanoTime() - g0;
+        long msgs = sent.sum() - sent0 + received.sum() - recv0;
+
+        long heapAfterKb = local ? HeapSampler.usedAfterGcKb() : -1;
+
+        // 3) 결과
+        long[] connect = new long[bots.size()];
+        long[] latency = new long[0];
+        long wireSent = 0, wireReceived = 0;
+        for (int i = 0; i < bots.size(); i++) {
+            Bot b = bots.get(i);
+            connect[i] = b.connectNs;
+            latency = concat(latency, b.latencies, b.latencyCount);
+            wireSent += b.io.bytesSent();
+            wireReceived += b.io.bytesReceived();
+        }
+        long allMsgs = sent.sum() + received.sum();
+        Arrays.sort(connect);
+        Arrays.sort(latency);
+
+        console.println("server          : " + (local ? "local " + mode : host + ":" + port));
+        console.println("bots / tables   : " + bots.size() + " / " + tableCount + " (" + players + "명, "
+                + games + "판, 최대 " + maxTurns + "턴)");
+        console.println("connect+LOGIN   : " + connectMs + " ms 전체, p50 " + micros(connect, 0.50)
+                + " µs, p99 " + micros(connect, 0.99) + " µs, max " + micros(connect, 1.0) + " µs");
+        console.println("games           : " + gamesDone.sum() + " / " + (long) tableCount * games
+                + " (승리 종료 " + wins.sum() + ", 턴 제한 " + (gamesDone.sum() - wins.sum()) + ")"
+                + (done ? "" : " ← 시간 초과"));
+        console.println("game phase      : " + gameNs / 1_000_000 + " ms");
+        console.println("messages        : " + msgs + " (" + (long) (msgs / (gameNs / 1e9)) + " msg/s, 송신+수신)");
+        console.println("PLAY → PLAY_OK  : " + latency.length + " 회, p50 " + micros(latency, 0.50)
+                + " µs, p99 " + micros(latency, 0.99) + " µs, max " + micros(latency, 1.0) + " µs");
+        console.println("PLAY / FAIL     : " + plays.sum() + " / " + playFails.sum()
+                + ", NO_TILE " + noTiles.sum() + ", CHAT " + chats.sum() + ", ERROR " + errors.sum());
+        console.println("PLAY_OK board   : 변경분 " + diffBytes.sum() + " B (보드 전체였다면 " + fullBytes.sum()
+                + " B), BOARD_SYNC " + boardSyncs.sum());
+        console.println("wire bytes      : " + (binaryWire ? "binary" : "text") + ", 송신 " + wireSent + " B, 수신 "
+                + wireReceived + " B (" + String.format("%.1f", (wireSent + wireReceived) / (double) Math.max(1, allMsgs))
+                + " B/msg)");
+        if (local) {
+            console.println("heap used (KB)  : " + heap.beforeKb + " -> 최대 " + heap.peakKb.get()
+                    + " -> GC 후 " + heapAfterKb + " (서버와 봇이 같은 JVM)");
+            console.println("outbound queue  : " + OutboundQueue.stats());
+            console.println("score store     : " + server.scores().stats() + ", players " + server.scores().playerCount());
+            console.println("game journal    : " + server.journal().stats());
+            server.replays().close();
+            console.println("replays         : " + server.replays().stats() + " → "
+                    + System.getProperty("rummikub.replay.dir"));
+        }
+
+        for (Bot b : bots) b.io.close();
+        for (Socket s : stalled) s.close();
+
+        if (recordPath != null) {
+            Files.write(Path.of(recordPath), recorded, StandardCharsets.UTF_8);
+            console.println("recorded        : " + recorded.size() + " 줄 → " + recordPath);
+        }
+    }
+
+    private static long[] concat(long[] a, long[] b, int bLen) {
+        long[] out = Arrays.copyOf(a, a.length + bLen);
+        System.arraycopy(b, 0, out, a.length, bLen);
+        return out;
+    }
+
+    // 정렬된 ns 배열의 백분위 (µs)
+    private static long micros(long[] sorted, double q) {
+        if (sorted.length == 0) return 0;
+        int i = (int) Math.ceil(q * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(i, sorted.length - 1))] / 1000;
+    }
+
+    // ============================================================
+    // 테이블: 같은 방에서 함께 게임하는 봇 묶음 (방 생성 → 입장 → 시작 → 퇴장 → 다음 판)
+    // 여러 봇의 수신 스레드에서 불리므로 synchronized
+    private static final class Table {
+        final int id;
+        final Bot[] bots;
+        final CountDownLatch finished;
+        int gamesLeft;
+        int joined;
+        int left;
+
+        Table(int id, int players, int games, CountDownLatch finished) {
+            this.id = id;
+            this.bots = new Bot[players];
+            this.gamesLeft = games;
+            this.finished = finished;
+        }
+
+        synchronized void startGame() {
+            joined = 0;
+            left = 0;
+            bots[0].send("CREATE|load-" + id);
+        }
+
+        // 방장 JOIN_OK|방ID → 나머지 입장, 전원 입장하면(4명 미만일 때) 방장이 시작
+        synchronized void joined(Bot b, String roomId) {
+            if (b == bots[0]) {
+                for (int i = 1; i < bots.length; i++)
+                    bots[i].send("JOIN|" + roomId);
+            }
+            if (++joined == bots.length && bots.length < 4)
+                bots[0].send("START_GAME");
+        }
+
+        synchronized void left() {
+            if (++left < bots.length) return;
+            gamesDone.increment();
+            if (--gamesLeft > 0) startGame();
+            else finished.countDown();
+        }
+    }
+
+    // ============================================================
+    // 봇 한 명: NetIO 수신 스레드에서 메시지마다 상태를 갱신하고 자기 턴이면 수를 둠
+    private static final class Bot implements NetIO.MessageHandler {
+        final String name;
+        final Table table;
+        final CountDownLatch loggedIn;
+        final NetIO io = new NetIO();
+
+        final int[] hand = new int[Tile.KIND_COUNT];
+        List<byte[]> board = new ArrayList<>();           // 타일 종류 (수 찾기용)
+        final List<String> boardText = new ArrayList<>(); // 서버가 보낸 멜드 문자열 (변경분 적용용)
+        int boardVersion;
+        boolean syncing;
+        boolean playing;
+        boolean initialDone;
+        int turns;
+
+        boolean login;
+        long connectStart;
+        long connectNs;
+
+        boolean recording; // 첫 판을 나갈 때까지 송수신 줄 기록 (--record)
+
+        byte[] pending;   // 보낸 PLAY 에서 손패로 낸 타일 (PLAY_OK 때 손패에서 뺌)
+        long playSentAt;
+        long[] latencies = new long[64];
+        int latencyCount;
+
+        Bot(String name, Table table, CountDownLatch loggedIn) {
+            this.name = name;
+            this.table = table;
+            this.loggedIn = loggedIn;
+            io.setHandler(this);
+        }
+
+        void connect(String host, int port) throws IOException {
+            connectStart = System.nanoTime();
+            io.connect(host, port);
+            send("LOGIN|" + name);
+            if (binaryWire) io.requestBinary();
+        }
+
+        void send(String line) {
+            sent.increment();
+            if (recording) recorded.add("> " + line);
+            io.send(line);
+        }
+
+        // 바이너리 모드: 매 턴 오가는 메시지는 필드를 바로 읽고, 나머지(와 기록 중)는 텍스트 줄로 바꿔 onMessage
+        @Override
+        public void onFrame(ByteBuffer payload) {
+            int op = payload.get(payload.position()) & 0xFF;
+            boolean direct = op == Wire.OP_TURN || op == Wire.OP_PLAY_OK || op == Wire.OP_BOARD
+                    || op == Wire.OP_INITIAL_TILES || op == Wire.OP_NEW_TILE;
+            if (recording || !direct) {
+                onMessage(Wire.toText(payload));
+                return;
+            }
+            received.increment();
+            payload.get();
+
+            switch (op) {
+                case Wire.OP_INITIAL_TILES:
+                    Arrays.fill(hand, 0);
+                    for (byte t : Wire.readTiles(payload)) hand[t]++;
+                    break;
+
+                case Wire.OP_NEW_TILE:
+                    for (byte t : Wire.readTiles(payload)) hand[t]++;
+                    break;
+
+                case Wire.OP_TURN:
+                    onTurn(Wire.readString(payload));
+                    break;
+
+                case Wire.OP_PLAY_OK: {
+                    String who = Wire.readString(payload);
+                    int version = Wire.readInt(payload);
+                    if (inSequence(version)) applyDiff(version, payload);
+                    onPlayOk(who);
+                    break;
+                }
+
+                case Wire.OP_BOARD: {
+                    boardVersion = Wire.readInt(payload);
+                    board = Wire.readBoard(payload);
+                    syncing = false;
+                    break;
+                }
+            }
+        }
+
+        @Override
+        public void onMessage(String line) {
+            received.increment();
+            if (recording) recorded.add("< " + line);
+
+            int sep = line.indexOf('|');
+            String type = sep < 0 ? line : line.substring(0, sep);
+            String data = sep < 0 ? "" : line.substring(sep + 1);
+
+            switch (type) {
+                case "INFO":
+                    if (!login && line.equals(LOGIN_INFO)) {
+                        login = true;
+                        connectNs = System.nanoTime() - connectStart;
+                        loggedIn.countDown();
+                    } else if (line.equals(LEAVE_INFO)) {
+                        recording = false;
+                        send("LEADERBOARD|10");
+                        table.left();
+                    }
+                    break;
+
+                case "JOIN_OK":
+                    table.joined(this, data);
+                    break;
+
+                case "GAME_START":
+                    playing = true;
+                    initialDone = false;
+                    turns = 0;
+                    board = new ArrayList<>();
+                    boardText.clear();
+                    boardVersion = 0;
+                    syncing = false;
+                    pending = null;
+                    break;
+
+                case "INITIAL_TILES":
+                    Arrays.fill(hand, 0);
+                    for (String t : data.split(","))
+                        if (!t.isEmpty()) hand[Tile.parse(t)]++;
+                    break;
+
+                case "NEW_TILE":
+                    hand[Tile.parse(data)]++;
+                    break;
+
+                case "TURN":
+                    onTurn(data);
+                    break;
+
+                case "PLAY_OK": { // PLAY_OK|이름|버전|변경분
+                    String[] p = data.split("\\|", 3);
+                    int version = Integer.parseInt(p[1]);
+                    if (inSequence(version)) applyDiff(version, p[2]);
+                    onPlayOk(p[0]);
+                    break;
+                }
+
+                case "BOARD": { // BOARD|버전|보드 전체 (BOARD_SYNC 응답)
+                    int p = data.indexOf('|');
+                    boardText.clear();
+                    if (p + 1 < data.length())
+                        boardText.addAll(Arrays.asList(data.substring(p + 1).split(";")));
+                    boardVersion = Integer.parseInt(data.substring(0, p));
+                    syncing = false;
+                    board = parseBoard(boardText);
+                    break;
+                }
+
+                case "PLAY_FAIL":
+                    // 거절되면 한 장 뽑고 턴 넘김
+                    playFails.increment();
+                    pending = null;
+                    noTiles.increment();
+                    send("NO_TILE");
+                    break;
+
+                case "GAME_END":
+                    if (!playing) break;
+                    if (data.equals(name)) wins.increment();
+                    leave();
+                    break;
+
+                case "ERROR":
+                    errors.increment();
+                    break;
+
+                default:
+                    // CHAT / SCORE / PLAYER_COUNT / OWNER / LEADERBOARD 등은 세기만 함
+                    break;
+            }
+        }
+
+        private void onTurn(String who) {
+            if (!playing) return;
+            if (++turns > maxTurns) {
+                leave();
+            } else if (who.equals(name)) {
+                takeTurn();
+            }
+        }
+
+        private void onPlayOk(String who) {
+            if (pending != null && who.equals(name)) {
+                record(System.nanoTime() - playSentAt);
+                for (byte t : pending) hand[t]--;
+                pending = null;
+                initialDone = true;
+            }
+        }
+
+        // 클라이언트 BoardPanel 과 같은 규칙: 버전이 이어지면 변경분 적용(true), 끊겼으면 BOARD_SYNC
+        private boolean inSequence(int version) {
+            if (version <= boardVersion || syncing) return false;
+            if (version != boardVersion + 1) {
+                syncing = true;
+                boardSyncs.increment();
+                send("BOARD_SYNC");
+                return false;
+            }
+            return true;
+        }
+
+        private void applyDiff(int version, String diff) {
+            List<String> next = new ArrayList<>();
+            if (!diff.isEmpty()) {
+                for (String item : diff.split(";")) {
+                    char op = item.charAt(0);
+                    if (op == '=') {
+                        int dash = item.indexOf('-');
+                        int a = Integer.parseInt(dash < 0 ? item.substring(1) : item.substring(1, dash));
+                        int b = dash < 0 ? a : Integer.parseInt(item.substring(dash + 1));
+                        for (int k = a; k <= b; k++) next.add(boardText.get(k));
+                    } else if (op == '~') {
+                        next.add(item.substring(item.indexOf(':') + 1));
+                    } else {
+                        next.add(item.substring(1));
+                    }
+                }
+            }
+            boardText.clear();
+            boardText.addAll(next);
+            boardVersion = version;
+            board = parseBoard(boardText);
+
+            diffBytes.add(diff.length());
+            fullBytes.add(String.join(";", boardText).length());
+        }
+
+        // 바이너리 변경분: 종류 코드 보드에 바로 적용 (바이트 수도 바이너리 기준)
+        private void applyDiff(int version, ByteBuffer in) {
+            int start = in.position();
+            int n = Wire.readVarint(in);
+            List<byte[]> next = new ArrayList<>(board.size() + 1);
+            for (int i = 0; i < n; i++) {
+                int kind = in.get();
+                if (kind == Wire.DIFF_KEEP) {
+                    int lo = Wire.readVarint(in);
+                    int hi = lo + Wire.readVarint(in);
+                    for (int k = lo; k <= hi; k++) next.add(board.get(k));
+                } else {
+                    if (kind == Wire.DIFF_CHANGE) Wire.readVarint(in);
+                    next.add(Wire.readMeld(in));
+                }
+            }
+            board = next;
+            boardVersion = version;
+
+            diffBytes.add(in.position() - start);
+            int full = 1;
+            for (byte[] m : board) {
+                full += 1 + m.length;
+                for (byte t : m) if (Tile.isJoker(t)) full++;
+            }
+            fullBytes.add(full);
+        }
+
+        private void leave() {
+            playing = false;
+            send("LEAVE");
+        }
+
+        private void record(long ns) {
+            if (latencyCount == latencies.length)
+                latencies = Arrays.copyOf(latencies, latencyCount * 2);
+            latencies[latencyCount++] = ns;
+        }
+
+        private void takeTurn() {
+            if (chatEvery > 0 && turns % chatEvery == 0) {
+                chats.increment();
+                send("CHAT|gg");
+            }
+
+            Move m = findMove();
+            if (m == null) {
+                noTiles.increment();
+                send("NO_TILE");
+                return;
+            }
+            pending = m.played;
+            plays.increment();
+            playSentAt = System.nanoTime();
+            send("PLAY|" + encode(m.board));
+        }
+
+        // 손패로 낼 수 있는 수: 새 멜드(런 3장 이상 / 세트 / 두 장 + 조커) + 초기 등록 후에는 보드 멜드에 이어 붙이기
+        // 초기 등록 전에는 새 멜드 점수 합이 30 이상일 때만 냄. 낼 게 없으면 null
+        private Move findMove() {
+            int[] avail = hand.clone();
+
+            List<byte[]> melds = new ArrayList<>();
+
+            // 1) 같은 색 연속 구간
+            for (int c = 0; c < Tile.COLOR_COUNT; c++) {
+                int n = 1;
+                while (n <= Tile.MAX_NUMBER) {
+                    int s = n;
+                    while (n <= Tile.MAX_NUMBER && avail[Tile.kind(c, n)] > 0) n++;
+                    if (n - s >= 3) {
+                        byte[] run = new byte[n - s];
+                        for (int i = 0; i < run.length; i++) {
+                            run[i] = (byte) Tile.kind(c, s + i);
+                            avail[run[i]]--;
+                        }
+                        melds.add(run);
+                    }
+                    if (n == s) n++;
+                }
+            }
+
+            // 2) 같은 숫자 다른 색 3~4장
+            for (int n = 1; n <= Tile.MAX_NUMBER; n++) {
+                int colors = 0;
+                for (int c = 0; c < Tile.COLOR_COUNT; c++)
+                    if (avail[Tile.kind(c, n)] > 0) colors++;
+                if (colors < 3) continue;
+
+                byte[] set = new byte[colors];
+                int i = 0;
+                for (int c = 0; c < Tile.COLOR_COUNT; c++) {
+                    int k = Tile.kind(c, n);
+                    if (avail[k] > 0) {
+                        set[i++] = (byte) k;
+                        avail[k]--;
+                    }
+                }
+                melds.add(set);
+            }
+
+            // 3) 남은 조커로 두 장짜리 런 / 세트 보충
+            for (int j = Tile.RED_JOKER; j <= Tile.BLACK_JOKER; j++) {
+                while (avail[j] > 0) {
+                    byte[] pair = findJokerPair(avail);
+                    if (pair == null) break;
+                    avail[pair[0]]--;
+                    avail[pair[1]]--;
+                    avail[j]--;
+                    melds.add(new byte[] { pair[0], pair[1], (byte) j });
+                }
+            }
+
+            if (!initialDone) {
+                int score = 0;
+                for (byte[] m : melds) score += meldScore(m);
+                if (score < 30) return null;
+            }
+
+            // 4) 초기 등록 후: 조커 없는 보드 멜드 양끝 / 빈 색에 이어 붙이기
+            List<byte[]> next = new ArrayList<>(board.size() + melds.size());
+            int laid = 0;
+            for (byte[] m : board) {
+                byte[] ext = initialDone ? extend(m, avail) : m;
+                laid += ext.length - m.length;
+                next.add(ext);
+            }
+            if (melds.isEmpty() && laid == 0) return null;
+            next.addAll(melds);
+
+            int[] count = new int[Tile.KIND_COUNT];
+            for (byte[] m : next)
+                for (byte t : m)
+                    count[t]++;
+            for (byte[] m : board)
+                for (byte t : m)
+                    count[t]--;
+
+            int n = 0;
+            for (int c : count) n += c;
+            byte[] played = new byte[n];
+            int p = 0;
+            for (int k = 0; k < Tile.KIND_COUNT; k++)
+                for (int c = 0; c < count[k]; c++)
+                    played[p++] = (byte) k;
+
+            return new Move(next, played);
+        }
+
+        // 조커 하나로 채울 수 있는 두 장 (같은 색 n, n+1 / n, n+2 또는 같은 숫자 다른 색)
+        private static byte[] findJokerPair(int[] avail) {
+            for (int c = 0; c < Tile.COLOR_COUNT; c++) {
+                for (int n = 1; n < Tile.MAX_NUMBER; n++) {
+                    int a = Tile.kind(c, n);
+                    if (avail[a] == 0) continue;
+                    if (avail[a + 1] > 0) return new byte[] { (byte) a, (byte) (a + 1) };
+                    if (n + 2 <= Tile.MAX_NUMBER && avail[a + 2] > 0) return new byte[] { (byte) a, (byte) (a + 2) };
+                }
+            }
+            for (int n = 1; n <= Tile.MAX_NUMBER; n++) {
+                int first = -1;
+                for (int c = 0; c < Tile.COLOR_COUNT; c++) {
+                    int k = Tile.kind(c, n);
+                    if (avail[k] == 0) continue;
+                    if (first >= 0) return new byte[] { (byte) first, (byte) k };
+                    first = k;
+                }
+            }
+            return null;
+        }
+
+        // 조커가 없는 멜드에 붙일 수 있는 타일을 avail 에서 꺼내 붙인 새 배열 (붙일 게 없으면 그대로)
+        private static byte[] extend(byte[] meld, int[] avail) {
+            int color = Tile.colorOf(meld[0]);
+            int number = Tile.numberOf(meld[0]);
+            boolean set = false;
+            int lo = Tile.MAX_NUMBER, hi = 1;
+            int colorMask = 0;
+            for (byte t : meld) {
+                if (Tile.isJoker(t)) return meld;
+                if (Tile.numberOf(t) == number && t != meld[0]) set = true;
+                lo = Math.min(lo, Tile.numberOf(t));
+                hi = Math.max(hi, Tile.numberOf(t));
+                colorMask |= 1 << Tile.colorOf(t);
+            }
+
+            byte[] add = new byte[Tile.MAX_NUMBER];
+            int n = 0;
+            if (set) {
+                for (int c = 0; c < Tile.COLOR_COUNT && meld.length + n < Tile.COLOR_COUNT; c++) {
+                    int k = Tile.kind(c, number);
+                    if ((colorMask & (1 << c)) == 0 && avail[k] > 0) {
+                        avail[k]--;
+                        add[n++] = (byte) k;
+                    }
+                }
+            } else {
+                while (lo > 1 && avail[Tile.kind(color, lo - 1)] > 0) {
+                    avail[Tile.kind(color, --lo)]--;
+                    add[n++] = (byte) Tile.kind(color, lo);
+                }
+                while (hi < Tile.MAX_NUMBER && avail[Tile.kind(color, hi + 1)] > 0) {
+                    avail[Tile.kind(color, ++hi)]--;
+                    add[n++] = (byte) Tile.kind(color, hi);
+                }
+            }
+            if (n == 0) return meld;
+
+            byte[] out = Arrays.copyOf(meld, meld.length + n);
+            System.arraycopy(add, 0, out, meld.length, n);
+            return out;
+        }
+
+        // 서버와 같은 조커 값 규칙: 세트는 숫자 × 장수, 런은 start = min(최소 숫자, 14 - 길이) 부터 연속
+        private static int meldScore(byte[] meld) {
+            int lo = Tile.MAX_NUMBER, hi = 0;
+            for (byte t : meld) {
+                if (Tile.isJoker(t)) continue;
+                lo = Math.min(lo, Tile.numberOf(t));
+                hi = Math.max(hi, Tile.numberOf(t));
+            }
+            int len = meld.length;
+            boolean set = lo == hi;
+            if (set) return lo * len;
+            int start = Math.min(lo, Tile.MAX_NUMBER + 1 - len);
+            return len * start + len * (len - 1) / 2;
+        }
+    }
+
+    private record Move(List<byte[]> board, byte[] played) {}
+
+    // 멜드 문자열("R1,R2,RJoker(3)") 목록 → 멜드별 종류 코드 (조커 값은 무시)
+    private static List<byte[]> parseBoard(List<String> melds) {
+        List<byte[]> out = new ArrayList<>(melds.size());
+        for (String meld : melds) {
+            String[] tiles = meld.split(",");
+            byte[] m = new byte[tiles.length];
+            for (int i = 0; i < tiles.length; i++) {
+                String t = tiles[i];
+                int paren = t.indexOf('(');
+                m[i] = (byte) Tile.parse(t, 0, paren < 0 ? t.length() : paren);
+            }
+            out.add(m);
+        }
+        return out;
+    }
+
+    private static String encode(List<byte[]> board) {
+        StringBuilder sb = new StringBuilder();
+        for (byte[] m : board) {
+            if (sb.length() > 0) sb.append(';');
+            for (int i = 0; i < m.length; i++) {
+                if (i > 0) sb.append(',');
+                sb.append(Tile.name(m[i]));
+            }
+        }
+        return sb.toString();
+    }
+
+    // ============================================================
+    // 힙 사용량: 시작 전(GC 후) / 진행 중 최대(50ms 간격 샘플) / 종료 후(GC 후)
+    private static final class HeapSampler {
+        private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+        long beforeKb;
+        final AtomicLong peakKb = new AtomicLong();
+
+        static HeapSampler start() throws InterruptedException {
+            HeapSampler h = new HeapSampler();
+            h.beforeKb = usedAfterGcKb();
+            Thread t = new Thread(() -> {
+                while (true) {
+                    long kb = MEMORY.getHeapMemoryUsage().getUsed() / 1024;
+                    h.peakKb.accumulateAndGet(kb, Math::max);
+                    try { Thread.sleep(50); } catch (InterruptedException e) { return; }
+                }
+            }, "heap-sampler");
+            t.setDaemon(true);
+            t.start();
+            return h;
+        }
+
+        static long usedAfterGcKb() throws InterruptedException {
+            for (int i = 0; i < 3; i++) {
+                System.gc();
+                Thread.sleep(100);
+            }
+            return MEMORY.getHeapMemoryUsage().getUsed() / 1024;
+        }
+    }
+}
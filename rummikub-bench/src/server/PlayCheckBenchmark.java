@@ -0,0 +1,111 @@
+package server;
+
+import common.Tile;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// handlePlay 3) ~ 6) 단계 (보드 타일 보존, 손패 확인, 이번 턴에 낸 타일) JMH 벤치마크
+//   counts : 지금 방식 — GameCore.checkPlayedTiles, 재사용하는 종류별 개수 배열(54칸) 세 개를 몇 번 훑음 (할당은 결과 배열뿐)
+//   scan   : 이전 방식 — 개수 배열 두 개를 새로 만들어 비교, 제출 보드 타일마다 기존 보드 전체를 훑어 손패 확인,
+//            낸 타일 계산에 boolean 배열 + 두 번 훑기 (아래에 그대로 옮겨 둠)
+// stage=LATE 가 100장 보드
+//
+// 사용법: java -jar target/benchmarks.jar PlayCheckBenchmark -prof gc
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Thread)
+public class PlayCheckBenchmark {
+
+    @Param({ "MID", "LATE" })
+    public BoardFixtures.Stage stage;
+
+    @Param({ "false", "true" })
+    public boolean jokers;
+
+    private BoardFixtures.Play play;
+    private GameCore core;
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        play = BoardFixtures.generate(stage, jokers, 42);
+        core = new GameCore();
+        if (core.checkPlayedTiles(play.hand, play.oldBoard, play.newBoard) == null)
+            throw new IllegalStateException("제출 보드가 검증을 통과하지 못함");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public byte[] counts() {
+        return core.checkPlayedTiles(play.hand, play.oldBoard, play.newBoard);
+    }
+
+    @Benchmark
+    public byte[] scan() {
+        return scan(play.hand, play.oldBoard, play.newBoard);
+    }
+
+    // ============================================================
+    // 이전 GameCore (validateBoardConsistency → 손패 확인 → calcJustPlayedTilesCorrect)
+
+    private static byte[] scan(int[] hand, List<byte[]> oldBoard, List<byte[]> newBoard) {
+        int[] oldCount = new int[Tile.KIND_COUNT];
+        for (byte[] meld : oldBoard)
+            for (byte t : meld)
+                oldCount[t]++;
+        int[] newCount = new int[Tile.KIND_COUNT];
+        for (byte[] meld : newBoard)
+            for (byte t : meld)
+                newCount[t]++;
+        for (int k = 0; k < Tile.KIND_COUNT; k++)
+            if (newCount[k] < oldCount[k])
+                return null;
+
+        for (byte[] meld : newBoard)
+            for (byte t : meld) {
+                if (oldBoardContains(oldBoard, t))
+                    continue;
+                if (hand == null || hand[t] == 0)
+                    return null;
+            }
+
+        boolean[] inOld = new boolean[Tile.KIND_COUNT];
+        for (byte[] m : oldBoard)
+            for (byte t : m)
+                inOld[t] = true;
+        int n = 0;
+        for (byte[] m : newBoard)
+            for (byte t : m)
+                if (!inOld[t])
+                    n++;
+        byte[] diff = new byte[n];
+        int p = 0;
+        for (byte[] m : newBoard)
+            for (byte t : m)
+                if (!inOld[t])
+                    diff[p++] = t;
+        return diff; // 보드에 이미 있는 종류를 더 낸 경우 이전 방식은 빈 배열(→ 제출 실패)이지만 하는 일은 같음
+    }
+
+    private static boolean oldBoardContains(List<byte[]> oldBoard, byte tile) {
+        for (byte[] meld : oldBoard)
+            for (byte t : meld)
+                if (t == tile)
+                    return true;
+        return false;
+    }
+}
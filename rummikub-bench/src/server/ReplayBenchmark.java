@@ -0,0 +1,98 @@
+package server;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 리플레이 재생 속도: mmap 한 파일의 게임 하나를 GameCore 로 처음부터 끝까지 다시 돌림 (moves 카운터 = 초당 수)
+//   fast   : 기록된 최종 보드를 그대로 적용 (GameCore.applyRecordedPlay)
+//   verify : 제출 보드를 handlePlay 로 다시 검증하고 결과를 기록과 비교
+// archive 가 비어 있으면 ReplayCheck.generate 로 게임 1000 판을 임시 디렉터리에 만들어 씀
+//
+// 사용법: java -jar target/benchmarks.jar ReplayBenchmark -prof gc [-p archive=/path/replays-20261018.rkr]
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Thread)
+public class ReplayBenchmark {
+
+    @Param({ "" })
+    public String archive;
+
+    private Path generated;
+    private Path file;
+    private ReplayArchive.Reader reader;
+    private final List<GameReplay> games = new ArrayList<>();
+    private int next;
+    private PrintStream console;
+
+    // 호출당 수 (게임마다 길이가 달라 ops/s 대신 이 값을 봄)
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Moves {
+        public long moves;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            moves = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        if (archive.isEmpty()) {
+            generated = Files.createTempDirectory("replay-bench");
+            file = ReplayCheck.generate(1000, 400, generated);
+        } else {
+            file = Path.of(archive);
+        }
+        reader = new ReplayArchive.Reader(file);
+        for (GameReplay g; (g = reader.next()) != null; ) games.add(g);
+        if (games.isEmpty()) throw new IllegalStateException(file + ": 게임 없음");
+
+        // 라운드 종료 [SCORE] 로그가 측정을 가리지 않게
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.setOut(console);
+        reader.close();
+        if (generated != null) {
+            try (var files = Files.list(generated)) {
+                for (Path p : files.toList()) Files.delete(p);
+            }
+            Files.delete(generated);
+        }
+    }
+
+    private GameReplay nextGame() {
+        GameReplay g = games.get(next);
+        next = (next + 1 == games.size()) ? 0 : next + 1;
+        return g;
+    }
+
+    @Benchmark
+    public GameCore fast(Moves m) {
+        GameReplay.Result r = nextGame().simulate(false);
+        m.moves += r.moves;
+        return r.core;
+    }
+
+    @Benchmark
+    public GameCore verify(Moves m) {
+        GameReplay.Result r = nextGame().simulate(true);
+        m.moves += r.moves;
+        return r.core;
+    }
+}
@@ -0,0 +1,220 @@
+package server;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// 리플레이 보관소(ReplayArchive) 파일 만들기 / 검증 / 재생 속도 측정
+//
+// 사용법:
+//   java -cp target/benchmarks.jar server.ReplayCheck --generate=2000 [--out=dir] [--max-turns=400]
+//     소켓 없이 같은 JVM 서버에서 4인 게임 N 판을 끝까지 진행해 리플레이 파일을 만듦
+//     (max-turns 가 지나도 안 끝난 게임은 세 명이 나가서 끝냄 → LEAVE 도 기록됨)
+//   java -cp target/benchmarks.jar server.ReplayCheck <replays-yyyyMMdd.rkr> [--dump=게임번호]
+//     모든 게임을 규칙 엔진으로 검증 재생(handlePlay) → 어긋난 게임 수, 파일 크기(B/game, B/move),
+//     빠른 재생(기록된 보드 적용) / 검증 재생 속도(moves/s)
+// JMH 측정은 ReplayBenchmark
+public class ReplayCheck {
+
+    public static void main(String[] args) throws Exception {
+        int generate = 0;
+        int maxTurns = 400;
+        int dump = -1;
+        Path out = null;
+        Path file = null;
+        for (String a : args) {
+            if (a.startsWith("--generate=")) generate = Integer.parseInt(a.substring(11));
+            else if (a.startsWith("--out=")) out = Path.of(a.substring(6));
+            else if (a.startsWith("--max-turns=")) maxTurns = Integer.parseInt(a.substring(12));
+            else if (a.startsWith("--dump=")) dump = Integer.parseInt(a.substring(7));
+            else file = Path.of(a);
+        }
+
+        if (generate > 0) {
+            if (out == null) out = Files.createTempDirectory("rummikub-replays");
+            file = generate(generate, maxTurns, out);
+        }
+        if (file == null) {
+            System.out.println("사용법: ReplayCheck --generate=N [--out=dir] | ReplayCheck <파일.rkr> [--dump=i]");
+            return;
+        }
+        check(file, dump);
+    }
+
+    // ============================================================
+    // 만들기
+
+    // games 판을 진행하고 만들어진 리플레이 파일 경로
+    static Path generate(int games, int maxTurns, Path dir) throws Exception {
+        System.setProperty("rummikub.scores.dir", "");
+        System.setProperty("rummikub.journal.dir", "");
+        System.setProperty("rummikub.replay.dir", dir.toString());
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        GameServer server = new GameServer(0, GameServer.IoMode.NIO, 1);
+        CountDownLatch done = new CountDownLatch(games);
+        long t0 = System.nanoTime();
+        for (int g = 0; g < games; g++) {
+            Room room = server.createRoom("replay" + g);
+            Table table = new Table(room, maxTurns, done);
+            for (int p = 0; p < 4; p++) {
+                Seat seat = new Seat(table);
+                seat.onLine("LOGIN|g" + g + "p" + p);
+                table.seats.add(seat);
+                room.addPlayer(seat); // 4명째에 자동 시작
+            }
+        }
+        boolean finished = done.await(10, TimeUnit.MINUTES);
+        server.replays().close();
+        System.setOut(console);
+
+        if (!finished) console.println("시간 초과: 남은 게임 " + done.getCount());
+        console.println("generated       : " + games + " games in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0) + " ms, " + server.replays().stats());
+
+        try (var files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".rkr")).sorted()
+                    .reduce((a, b) -> b).orElseThrow();
+        }
+    }
+
+    private static final class Table {
+        final Room room;
+        final CountDownLatch done;
+        final List<Seat> seats = new ArrayList<>();
+        int turnsLeft;
+        boolean stopped;
+
+        Table(Room room, int turns, CountDownLatch done) {
+            this.room = room;
+            this.turnsLeft = turns;
+            this.done = done;
+        }
+
+        void stop() {
+            if (stopped) return;
+            stopped = true;
+            done.countDown();
+        }
+    }
+
+    // 소켓 없는 세션: 자기 턴이면 손패의 런 / 세트를 내고, 없거나 PLAY_FAIL 이면 NO_TILE
+    private static final class Seat extends ClientSession {
+        private final Table table;
+        private boolean initialDone;
+
+        Seat(Table table) {
+            super(null);
+            this.table = table;
+        }
+
+        @Override
+        void send(Frame frame) {
+            String msg = frame.message();
+            String me = getPlayerName();
+            if (msg.startsWith("TURN|")) {
+                if (!msg.substring(5).equals(me) || table.stopped) return;
+                if (table.turnsLeft-- <= 0) {
+                    // 더미가 떨어져 아무도 못 내는 게임: 나머지 셋이 나가서 끝냄
+                    for (Seat s : table.seats)
+                        if (s != this) table.room.removePlayer(s);
+                    return;
+                }
+                act();
+            } else if (msg.startsWith("PLAY_FAIL|")) {
+                table.room.handleNoTile(me);
+            } else if (msg.startsWith("PLAY_OK|" + me + "|")) {
+                initialDone = true;
+            } else if (msg.startsWith("GAME_END|")) {
+                table.stop();
+            }
+        }
+
+        private void act() {
+            String me = getPlayerName();
+            GameCore core = table.room.gameCore();
+            List<byte[]> melds = JournalRecoveryCheck.findMelds(core, me, initialDone);
+            if (melds == null) {
+                table.room.handleNoTile(me);
+                return;
+            }
+            List<byte[]> board = new ArrayList<>(core.boardMelds());
+            board.addAll(melds);
+            table.room.handlePlay(me, board);
+        }
+
+        @Override
+        protected void closeConnection() {}
+    }
+
+    // ============================================================
+    // 검증 / 측정
+
+    static void check(Path file, int dump) throws Exception {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // 라운드 종료 [SCORE] 로그
+
+        List<GameReplay> games = new ArrayList<>();
+        long moves = 0, plays = 0, failed = 0, timeouts = 0;
+        String firstFailure = null;
+        try (ReplayArchive.Reader reader = new ReplayArchive.Reader(file)) {
+            for (GameReplay g; (g = reader.next()) != null; ) {
+                GameReplay.Result r = g.simulate(true);
+                moves += r.moves;
+                plays += r.plays;
+                timeouts += r.solverTimeouts;
+                if (!r.ok()) {
+                    failed++;
+                    if (firstFailure == null) firstFailure = "game " + games.size() + " (room " + g.roomId + "): " + r.failure;
+                }
+                games.add(g);
+            }
+            if (reader.error() != null) console.println("파일 끝: " + reader.error());
+
+            long size = Files.size(file);
+            console.println("file            : " + file + ", " + size + " B");
+            console.println("games / moves   : " + games.size() + " / " + moves + " (PLAY " + plays + ")");
+            if (!games.isEmpty() && moves > 0)
+                console.println("size            : " + size / games.size() + " B/game, "
+                        + String.format("%.2f", (double) size / moves) + " B/move");
+            console.println("verify          : 어긋난 게임 " + failed + ", 재조합 시간 한도로 갈린 PLAY " + timeouts
+                    + (firstFailure != null ? " — " + firstFailure : ""));
+
+            if (!games.isEmpty()) {
+                console.println("fast replay     : " + rate(games, false, moves) + " moves/s");
+                console.println("verified replay : " + rate(games, true, moves) + " moves/s");
+            }
+
+            if (dump >= 0 && dump < games.size()) {
+                GameReplay g = games.get(dump);
+                GameReplay.Result r = g.simulate(false);
+                console.println();
+                console.println("game " + dump + ": room " + g.roomId + ", seed " + g.seed + ", " + g.bodyBytes() + " B, "
+                        + r.moves + " moves (PLAY " + r.plays + ", NO_TILE " + r.draws + "), winner " + r.winner);
+                console.println("  board " + r.core.encodeBoard());
+            }
+        }
+        System.setOut(console);
+        if (failed > 0) System.exit(1);
+    }
+
+    // 전체 게임을 여러 번 돌려 (처음 몇 바퀴는 워밍업) 초당 수
+    private static long rate(List<GameReplay> games, boolean verify, long movesPerPass) {
+        long best = 0;
+        for (int pass = 0; pass < 8; pass++) {
+            long t = System.nanoTime();
+            long n = 0;
+            for (GameReplay g : games) n += g.simulate(verify).moves;
+            long ns = System.nanoTime() - t;
+            if (pass >= 3) best = Math.max(best, n * 1_000_000_000L / Math.max(1, ns));
+        }
+        return best;
+    }
+}
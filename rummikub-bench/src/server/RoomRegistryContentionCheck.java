@@ -0,0 +1,135 @@
+package server;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// 방 목록 경합 측정: 여러 스레드가 동시에 LIST / JOIN(조회) / CREATE 호출
+// - registry : 현재 GameServer (RoomRegistry + RoomListFeed 캐시)
+// - legacy   : 예전 방식 (synchronizedList + 서버 모니터 + 선형 탐색) 재현
+//
+// 사용법: java server.RoomRegistryContentionCheck [--threads=N] [--rooms=N] [--seconds=N]
+public class RoomRegistryContentionCheck {
+
+    // 호출 비율 (%): LIST / JOIN / 나머지(1%) CREATE
+    private static final int LIST_PCT = 80;
+    private static final int JOIN_PCT = 19;
+
+    interface Lobby {
+        String list();
+        Room find(int id);
+        Room create(String name);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = 64;
+        int rooms = 2000;
+        int seconds = 5;
+
+        for (String a : args) {
+            if (a.startsWith("--threads=")) threads = Integer.parseInt(a.substring(10));
+            else if (a.startsWith("--rooms=")) rooms = Integer.parseInt(a.substring(8));
+            else if (a.startsWith("--seconds=")) seconds = Integer.parseInt(a.substring(10));
+        }
+
+        if (System.getProperty("rummikub.scores.dir") == null) System.setProperty("rummikub.scores.dir", ""); // 게임 없음
+        if (System.getProperty("rummikub.journal.dir") == null) System.setProperty("rummikub.journal.dir", "");
+        if (System.getProperty("rummikub.replay.dir") == null) System.setProperty("rummikub.replay.dir", "");
+        GameServer server = new GameServer(0, GameServer.IoMode.NIO, 1);
+
+        // createRoom 의 로그 출력이 측정을 가리지 않도록 결과 출력 외에는 버림
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        Lobby registry = new Lobby() {
+            public String list() { return server.buildRoomListMessage(); }
+            public Room find(int id) { return server.findRoomById(id); }
+            public Room create(String name) { return server.createRoom(name); }
+        };
+        Lobby legacy = new LegacyLobby(server);
+
+        for (Lobby lobby : new Lobby[] { legacy, registry }) {
+            for (int i = 0; i < rooms; i++) lobby.create("room" + i);
+        }
+
+        run(console, "legacy  ", legacy, threads, rooms, seconds);
+        run(console, "registry", registry, threads, rooms, seconds);
+    }
+
+    private static void run(PrintStream console, String label, Lobby lobby,
+                            int threads, int rooms, int seconds) throws InterruptedException {
+
+        LongAdder ops = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Thread> workers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            Thread w = new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                try { start.await(); } catch (InterruptedException e) { return; }
+                long n = 0;
+                int sink = 0;
+                while ((n & 255) != 0 || System.nanoTime() < deadline) {
+                    int p = rnd.nextInt(100);
+                    if (p < LIST_PCT) {
+                        sink += lobby.list().length();
+                    } else if (p < LIST_PCT + JOIN_PCT) {
+                        Room r = lobby.find(rnd.nextInt(rooms));
+                        if (r != null) sink++;
+                    } else {
+                        lobby.create("bench");
+                    }
+                    n++;
+                }
+                ops.add(n);
+                if (sink == 42) System.out.print(""); // 결과를 사용해 최적화로 제거되지 않게
+            }, "bench-" + t);
+            workers.add(w);
+            w.start();
+        }
+
+        start.countDown();
+        for (Thread w : workers) w.join();
+
+        console.printf("%s threads=%d  ops/s=%,d%n", label, threads, ops.sum() / seconds);
+    }
+
+    // 변경 전 GameServer 의 방 관리 코드를 그대로 옮긴 비교 대상
+    private static final class LegacyLobby implements Lobby {
+        private final GameServer server;
+        private final List<Room> rooms = Collections.synchronizedList(new ArrayList<>());
+        private int nextRoomId = 0;
+
+        LegacyLobby(GameServer server) { this.server = server; }
+
+        public synchronized Room create(String name) {
+            Room room = new Room(nextRoomId++, name, server);
+            rooms.add(room);
+            return room;
+        }
+
+        public synchronized Room find(int id) {
+            for (Room r : rooms) {
+                if (r.getId() == id) return r;
+            }
+            return null;
+        }
+
+        public synchronized String list() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("ROOM_LIST|");
+            for (int i = 0; i < rooms.size(); i++) {
+                Room r = rooms.get(i);
+                if (i > 0) sb.append(";");
+                sb.append(r.getId()).append(",").append(r.getName()).append(",").append(r.getPlayerCount());
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package server;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// 누적 점수 저장소(ScoreStore): 라운드 기록(recordRound)과 리더보드 조회(LEADERBOARD|10) 비용
+// 플레이어 수(players)만큼 미리 채운 뒤, 무작위 4명 방의 라운드 결과를 계속 기록
+// 파일은 임시 디렉터리에 쓰고 writer 스레드가 flushMillis 마다 배치로 내림 (측정 스레드는 메모리 인덱스만 건드림)
+//
+// 사용법: java -jar target/benchmarks.jar ScoreStoreBenchmark -prof gc
+// 트라이얼이 끝나면 저장소 stats (배치 수, 쓴 바이트, B/round) 를 출력
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Thread)
+public class ScoreStoreBenchmark {
+
+    @Param({ "1000", "100000" })
+    public int players;
+
+    private Path dir;
+    private ScoreStore store;
+    private String[] names;
+    private final SplittableRandom rnd = new SplittableRandom(42);
+    private final Map<String, Integer> deltas = new HashMap<>();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("score-bench");
+        store = ScoreStore.open(dir, 200);
+        names = new String[players];
+        for (int i = 0; i < players; i++) names[i] = "player" + i;
+        for (int i = 0; i < players; i++) round();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        System.out.println();
+        System.out.println("score store: " + store.stats() + ", players " + store.playerCount());
+        try (var files = Files.list(dir)) {
+            for (Path p : files.toList()) Files.delete(p);
+        }
+        Files.delete(dir);
+    }
+
+    // 4인 방 한 라운드: 패자 셋은 남은 타일 합만큼 감점, 승자는 그 합만큼 가점
+    private void round() {
+        deltas.clear();
+        String winner = names[rnd.nextInt(players)];
+        int sum = 0;
+        while (deltas.size() < 3) {
+            String p = names[rnd.nextInt(players)];
+            if (p.equals(winner) || deltas.containsKey(p)) continue;
+            int remain = rnd.nextInt(1, 80);
+            deltas.put(p, -remain);
+            sum += remain;
+        }
+        deltas.put(winner, sum);
+        store.recordRound(winner, deltas);
+    }
+
+    @Benchmark
+    public void recordRound() {
+        round();
+    }
+
+    @Benchmark
+    public String leaderboard() {
+        return store.leaderboardMessage(10);
+    }
+}
@@ -0,0 +1,118 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// 세션 실행 방식별(thread / virtual / nio) 연결 수 · 세션당 메모리 측정
+// 같은 JVM 안에서 서버를 띄우고 N 개의 유휴 로비 연결(LOGIN 만 보낸 상태)을 만든 뒤 전후를 비교
+//
+// 사용법: java server.SessionLoadCheck [--mode=thread|virtual|nio] [--clients=N] [--io-threads=N]
+// 가상 스레드 고정 여부 확인: -Djdk.tracePinnedThreads=full
+// 연결 수가 많으면 ulimit -n 을 충분히 올려야 함
+public class SessionLoadCheck {
+
+    public static void main(String[] args) throws Exception {
+        GameServer.IoMode mode = GameServer.IoMode.VIRTUAL;
+        int clients = 2000;
+        int ioThreads = Runtime.getRuntime().availableProcessors();
+
+        for (String a : args) {
+            if (a.startsWith("--mode=")) mode = GameServer.IoMode.valueOf(a.substring(7).toUpperCase());
+            else if (a.startsWith("--clients=")) clients = Integer.parseInt(a.substring(10));
+            else if (a.startsWith("--io-threads=")) ioThreads = Integer.parseInt(a.substring(13));
+        }
+
+        if (System.getProperty("rummikub.scores.dir") == null) System.setProperty("rummikub.scores.dir", ""); // 게임 없음
+        if (System.getProperty("rummikub.journal.dir") == null) System.setProperty("rummikub.journal.dir", "");
+        if (System.getProperty("rummikub.replay.dir") == null) System.setProperty("rummikub.replay.dir", "");
+        GameServer server = new GameServer(0, mode, ioThreads);
+        Thread acceptor = new Thread(server::start, "load-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        int port = server.getLocalPort();
+
+        Snapshot before = Snapshot.take();
+
+        List<Socket> sockets = new ArrayList<>(clients);
+        long t0 = System.nanoTime();
+        int connected = 0;
+        for (int i = 0; i < clients; i++) {
+            try {
+                Socket s = new Socket("127.0.0.1", port);
+                OutputStream out = s.getOutputStream();
+                out.write(("LOGIN|bot" + i + "\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+
+                // 로비 입장 응답까지 받아야 세션이 실제로 떠 있는 것으로 간주
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8), 64);
+                if (in.readLine() == null) break;
+
+                sockets.add(s);
+                connected++;
+            } catch (IOException e) {
+                System.out.println("connect stopped at " + i + ": " + e.getMessage());
+                break;
+            }
+        }
+        long elapsedMs = (System.nanoTime() - t0) / 1_000_000;
+
+        Snapshot after = Snapshot.take();
+
+        System.out.println("mode            : " + mode);
+        System.out.println("connected       : " + connected + " / " + clients + " (" + elapsedMs + " ms)");
+        System.out.println("threads         : " + before.threads + " -> " + after.threads);
+        System.out.println("heap used (KB)  : " + before.heapKb + " -> " + after.heapKb);
+        System.out.println("RSS (KB)        : " + before.rssKb + " -> " + after.rssKb);
+        if (connected > 0) {
+            System.out.println("heap / session  : " + (after.heapKb - before.heapKb) * 1024 / connected + " B");
+            System.out.println("RSS / session   : " + (after.rssKb - before.rssKb) * 1024 / connected + " B"
+                    + " (클라이언트 소켓 포함)");
+        }
+
+        for (Socket s : sockets) {
+            try { s.close(); } catch (IOException ignore) {}
+        }
+    }
+
+    // 측정 시점의 스레드 수 / GC 후 힙 사용량 / 프로세스 RSS
+    private static final class Snapshot {
+        long threads;
+        long heapKb;
+        long rssKb;
+
+        static Snapshot take() throws InterruptedException {
+            for (int i = 0; i < 3; i++) {
+                System.gc();
+                Thread.sleep(100);
+            }
+            Snapshot s = new Snapshot();
+            s.threads = ManagementFactory.getThreadMXBean().getThreadCount();
+            Runtime rt = Runtime.getRuntime();
+            s.heapKb = (rt.totalMemory() - rt.freeMemory()) / 1024;
+            s.rssKb = readRssKb();
+            return s;
+        }
+
+        // Linux 전용, 그 외 환경에서는 -1
+        private static long readRssKb() {
+            try {
+                for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                    if (line.startsWith("VmRSS:")) {
+                        return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                    }
+                }
+            } catch (IOException | RuntimeException ignore) {}
+            return -1;
+        }
+    }
+}
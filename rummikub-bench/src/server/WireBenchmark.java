@@ -0,0 +1,197 @@
+package server;
+
+import common.Tile;
+import common.Wire;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 텍스트 줄 vs 바이너리 프레임(common.Wire): 기록한 게임 한 판의 메시지를 순서대로 돌며 메시지당 CPU 측정
+// 입력은 LoadGenerator --record 로 만든 파일 (첫 테이블 첫 판의 송수신 줄, "> 보냄" / "< 받음")
+//   java -cp target/benchmarks.jar server.LoadGenerator --bots=4 --games=1 --record=wire-game.txt
+//   java -jar target/benchmarks.jar WireBenchmark -p recording=wire-game.txt -prof gc
+//
+// encode: 보내는 쪽 (텍스트는 UTF-8 인코딩, 바이너리는 같은 줄을 Wire.toBinary 로 변환 — 서버 Frame / NetIO 와 같은 경로)
+// decode: 받는 쪽이 메시지를 쓸 수 있는 형태까지 (타입 분기 + 숫자 / 타일 종류 코드 / 보드 멜드)
+//   텍스트는 지금 서버 / 봇이 하는 대로 indexOf·split + parseInt + GameCore.parseMoveData / Tile.parse,
+//   바이너리는 opcode 분기 후 필드를 바로 읽음
+// 트라이얼이 끝나면 기록 전체의 텍스트 / 바이너리 바이트 수를 출력
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Thread)
+public class WireBenchmark {
+
+    @Param({ "wire-game.txt" })
+    public String recording;
+
+    private String[] lines;
+    private byte[][] textFrames;
+    private byte[][] binaryFrames;
+    private int next;
+    private final GameCore core = new GameCore();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Path path = Path.of(recording);
+        if (!Files.exists(path))
+            throw new IllegalStateException(recording + " 없음: LoadGenerator --record=" + recording + " 로 먼저 기록");
+
+        List<String> msgs = new ArrayList<>();
+        for (String l : Files.readAllLines(path, StandardCharsets.UTF_8))
+            if (l.startsWith("> ") || l.startsWith("< ")) msgs.add(l.substring(2));
+
+        lines = msgs.toArray(new String[0]);
+        textFrames = new byte[lines.length][];
+        binaryFrames = new byte[lines.length][];
+        long textBytes = 0, binaryBytes = 0;
+        for (int i = 0; i < lines.length; i++) {
+            textFrames[i] = (lines[i] + "\n").getBytes(StandardCharsets.UTF_8);
+            binaryFrames[i] = Wire.toBinary(lines[i]);
+            textBytes += textFrames[i].length;
+            // LOGIN 은 협상 전이라 바이너리 모드에서도 텍스트 줄
+            binaryBytes += lines[i].startsWith("LOGIN|") ? textFrames[i].length : binaryFrames[i].length;
+        }
+
+        System.out.println();
+        System.out.println("recorded messages: " + lines.length + ", text " + textBytes + " B, binary "
+                + binaryBytes + " B (" + String.format("%.1f%%", 100.0 * binaryBytes / textBytes) + ")");
+    }
+
+    private int nextIndex() {
+        int i = next;
+        next = (i + 1 == lines.length) ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public byte[] textEncode() {
+        return (lines[nextIndex()] + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return Wire.toBinary(lines[nextIndex()]);
+    }
+
+    @Benchmark
+    public long textDecode() {
+        byte[] frame = textFrames[nextIndex()];
+        String line = new String(frame, 0, frame.length - 1, StandardCharsets.UTF_8);
+
+        int sep = line.indexOf('|');
+        String type = sep < 0 ? line : line.substring(0, sep);
+        String data = sep < 0 ? "" : line.substring(sep + 1);
+
+        switch (type) {
+            case "PLAY":
+                return core.parseMoveData(data).size();
+            case "BOARD": {
+                int p = data.indexOf('|');
+                return Integer.parseInt(data.substring(0, p)) + core.parseMoveData(data.substring(p + 1)).size();
+            }
+            case "PLAY_OK": {
+                String[] p = data.split("\\|", 3);
+                return p[0].length() + Integer.parseInt(p[1]) + textDiff(p[2]);
+            }
+            case "INITIAL_TILES":
+            case "NEW_TILE": {
+                long sum = 0;
+                for (String t : data.split(","))
+                    if (!t.isEmpty()) sum += Tile.parse(t);
+                return sum;
+            }
+            case "SCORE": {
+                String[] p = data.split("\\|");
+                return p[0].length() + Integer.parseInt(p[1]);
+            }
+            case "PLAYER_COUNT":
+            case "GAME_START":
+            case "JOIN_OK":
+            case "JOIN":
+                return Integer.parseInt(data.trim());
+            default:
+                return type.length() + data.length();
+        }
+    }
+
+    // "=0-2;~3:R1,R2,R3;+BJoker(6),B7,B8" → 번호 / 타일 종류 코드 합
+    private static long textDiff(String diff) {
+        long sum = 0;
+        if (diff.isEmpty()) return sum;
+        for (String item : diff.split(";")) {
+            char op = item.charAt(0);
+            if (op == '=') {
+                int dash = item.indexOf('-');
+                sum += Integer.parseInt(dash < 0 ? item.substring(1) : item.substring(1, dash));
+                if (dash >= 0) sum += Integer.parseInt(item.substring(dash + 1));
+                continue;
+            }
+            String meld = op == '~' ? item.substring(item.indexOf(':') + 1) : item.substring(1);
+            for (String t : meld.split(",")) {
+                int paren = t.indexOf('(');
+                sum += Tile.parse(t, 0, paren < 0 ? t.length() : paren);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long binaryDecode() {
+        ByteBuffer in = ByteBuffer.wrap(binaryFrames[nextIndex()]);
+        Wire.readVarint(in); // 길이 (스트림에서 자를 때 이미 씀)
+        int op = in.get() & 0xFF;
+
+        switch (op) {
+            case Wire.OP_PLAY:
+                return Wire.readBoard(in).size();
+            case Wire.OP_BOARD:
+                return Wire.readInt(in) + Wire.readBoard(in).size();
+            case Wire.OP_PLAY_OK:
+                return Wire.readString(in).length() + Wire.readInt(in) + binaryDiff(in);
+            case Wire.OP_INITIAL_TILES:
+            case Wire.OP_NEW_TILE: {
+                long sum = 0;
+                for (byte t : Wire.readTiles(in)) sum += t;
+                return sum;
+            }
+            case Wire.OP_SCORE:
+                return Wire.readString(in).length() + Wire.readInt(in);
+            case Wire.OP_PLAYER_COUNT:
+            case Wire.OP_GAME_START:
+            case Wire.OP_JOIN_OK:
+            case Wire.OP_JOIN:
+                return Wire.readInt(in);
+            case Wire.OP_TEXT:
+                return Wire.readString(in).length();
+            default:
+                return Wire.typeName(op).length() + Wire.fieldsToText(op, in).length();
+        }
+    }
+
+    private static long binaryDiff(ByteBuffer in) {
+        long sum = 0;
+        int n = Wire.readVarint(in);
+        for (int i = 0; i < n; i++) {
+            int kind = in.get();
+            if (kind == Wire.DIFF_KEEP) {
+                int lo = Wire.readVarint(in);
+                int span = Wire.readVarint(in);
+                sum += span > 0 ? lo + lo + span : lo;
+                continue;
+            }
+            if (kind == Wire.DIFF_CHANGE) Wire.readVarint(in);
+            for (byte t : Wire.readMeld(in)) sum += t;
+        }
+        return sum;
+    }
+}
@@ -2,6 +2,7 @@ package client;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.HashMap;
@@ -12,8 +13,8 @@ public class BoardPanel extends JPanel {
     // 보드 위의 멜드(줄) 구조
     private final List<List<TileView>> melds = new ArrayList<>();
 
-    private static final int TILE_W = 60;
-    private static final int TILE_H = 80;
+    private static final int TILE_W = TileImages.WIDTH;
+    private static final int TILE_H = TileImages.HEIGHT;
 
     private RoomView room;
 
@@ -162,11 +163,13 @@ public class BoardPanel extends JPanel {
 
 
 
-    // 멜드를 화면에 다시 배치
+    // 멜드를 화면에 다시 배치 (컴포넌트 트리는 그대로 두고 바뀐 것만 반영)
+    // - 이미 보드에 있는 TileView 는 위치만 옮김 (같은 자리면 setBounds 가 아무것도 하지 않음)
+    // - 새로 올라온 타일만 add, 멜드에서 빠진 타일만 remove
+    // - 스크롤 높이가 바뀔 때만 revalidate, 다시 그리기는 한 번
     private void layoutMelds() {
 
-        removeAll();
-
+        int mark = ++layoutPass;
         int y = 20;
 
         for (List<TileView> meld : melds) {
@@ -174,18 +177,29 @@ public class BoardPanel extends JPanel {
 
             for (TileView tv : meld) {
                 tv.setBounds(x, y, TILE_W, TILE_H);
-                add(tv);
+                tv.boardMark = mark;
+                if (tv.getParent() != this) add(tv);
                 x += TILE_W + 10;
             }
 
             y += TILE_H + 40;
         }
 
+        for (int i = getComponentCount() - 1; i >= 0; i--) {
+            Component c = getComponent(i);
+            if (c instanceof TileView tv && tv.boardMark != mark)
+                remove(i);
+        }
+
+        int oldHeight = preferred.height;
         updatePreferredSizeByMeldCount();
-        revalidate();
+        if (preferred.height != oldHeight) revalidate();
         repaint();
     }
 
+    // layoutMelds 한 번마다 +1, 이번 배치에 들어간 타일은 TileView.boardMark 에 이 값을 남김
+    private int layoutPass = 0;
+
 
     // 서버 전송용 문자열로 변환
     public String encodeMeldsForServer() {
@@ -210,27 +224,131 @@ public class BoardPanel extends JPanel {
     }
 
 
-    // 서버에서 전달된 보드 상태를 로딩
-    public void loadBoardFromServer(String encoded) {
+    // 서버 보드 상태 (boardVersion 기준, 멜드별 타일 문자열)
+    // 화면의 melds 는 내 턴 동안 드래그로 달라질 수 있으므로 따로 보관하고, 서버 갱신 때 화면을 여기에 맞춤
+    private final List<String[]> serverMelds = new ArrayList<>();
+    private int boardVersion = 0;
+    private boolean syncing = false; // BOARD_SYNC 를 보내고 전체 보드를 기다리는 중
+
+    // PLAY_OK 변경분 항목 하나: meld 가 null 이면 직전 서버 멜드 [lo, hi] 유지, 아니면 그 멜드 (바뀐 멜드 / 새 멜드)
+    // 텍스트는 applyBoardDiff(int, String) 이 나누고, 바이너리 프레임은 MessageDispatcher 가 필드에서 바로 만듦
+    public record DiffItem(int lo, int hi, String[] meld) {}
+
+    // PLAY_OK 변경분 적용 (=a-b 유지, ~k:타일 변경, +타일 추가, 나머지 직전 멜드는 삭제)
+    // 버전이 이어지지 않거나 형식이 맞지 않으면 false → 호출한 쪽이 BOARD_SYNC 요청
+    public boolean applyBoardDiff(int version, String diff) {
+
+        List<DiffItem> items = new ArrayList<>();
+
+        try {
+            if (!diff.isEmpty()) {
+                for (String item : diff.split(";")) {
+
+                    char op = item.charAt(0);
+
+                    if (op == '=') {
+                        int dash = item.indexOf('-');
+                        int a = Integer.parseInt(dash < 0 ? item.substring(1) : item.substring(1, dash));
+                        int b = dash < 0 ? a : Integer.parseInt(item.substring(dash + 1));
+                        items.add(new DiffItem(a, b, null));
+                    } else if (op == '~') {
+                        items.add(new DiffItem(0, 0, item.substring(item.indexOf(':') + 1).split(",")));
+                    } else if (op == '+') {
+                        items.add(new DiffItem(0, 0, item.substring(1).split(",")));
+                    } else {
+                        throw new IllegalArgumentException(item);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            items = null;
+        }
 
-        removeAll();
-        melds.clear();
+        return applyBoardDiff(version, items);
+    }
+
+    // items 가 null 이면 형식 오류
+    public boolean applyBoardDiff(int version, List<DiffItem> items) {
+
+        if (version <= boardVersion) return true;  // 이미 반영된 버전
+        if (syncing) return true;                  // 전체 보드가 오면 그걸로 맞춤
+        if (version != boardVersion + 1 || items == null) {
+            syncing = true;
+            return false;
+        }
+
+        List<String[]> next = new ArrayList<>();
+
+        for (DiffItem item : items) {
+            if (item.meld() != null) {
+                next.add(item.meld());
+                continue;
+            }
+            if (item.lo() < 0 || item.hi() >= serverMelds.size()) {
+                syncing = true;
+                return false;
+            }
+            for (int k = item.lo(); k <= item.hi(); k++)
+                next.add(serverMelds.get(k));
+        }
+
+        serverMelds.clear();
+        serverMelds.addAll(next);
+        boardVersion = version;
+        showServerBoard();
+        return true;
+    }
 
-        if (encoded == null || encoded.isBlank()) {
-            repaint();
+    // 전체 보드 (BOARD|버전|보드) 로딩
+    public void loadBoardFromServer(int version, String encoded) {
+
+        List<String[]> melds = new ArrayList<>();
+
+        if (encoded != null && !encoded.isBlank()) {
+            for (String m : encoded.split(";"))
+                melds.add(m.split(","));
+        }
+
+        loadBoardFromServer(version, melds);
+    }
+
+    // 멜드별 타일 문자열로 받은 전체 보드
+    public void loadBoardFromServer(int version, List<String[]> melds) {
+
+        serverMelds.clear();
+        serverMelds.addAll(melds);
+
+        boardVersion = version;
+        syncing = false;
+        showServerBoard();
+    }
+
+    // 화면을 서버 보드에 맞춤: 보드에 있던 타일(손패에서 온 것 제외)은 같은 타일 문자열끼리 재사용하고 모자란 것만 생성
+    // 타일 문자열별 대기열은 갱신마다 비우기만 하고 계속 씀
+    private final Map<String, ArrayDeque<TileView>> reuse = new HashMap<>();
+
+    private void showServerBoard() {
+
+        if (batching) {
+            boardStale = true;
             return;
         }
 
-        String[] mstrs = encoded.split(";");
+        for (ArrayDeque<TileView> q : reuse.values()) q.clear();
+        for (List<TileView> meld : melds)
+            for (TileView tv : meld)
+                if (!tv.isFromHand())
+                    reuse.computeIfAbsent(tv.getTileId(), k -> new ArrayDeque<>()).add(tv);
 
-        for (String m : mstrs) {
+        melds.clear();
 
-            String[] ids = m.split(",");
+        for (String[] ids : serverMelds) {
 
-            List<TileView> meld = new ArrayList<>();
+            List<TileView> meld = new ArrayList<>(ids.length);
 
             for (String id : ids) {
-                TileView tv = createTile(id);
+                ArrayDeque<TileView> q = reuse.get(id);
+                TileView tv = (q == null || q.isEmpty()) ? createTile(id) : q.poll();
                 meld.add(tv);
             }
 
@@ -240,6 +358,22 @@ public class BoardPanel extends JPanel {
         layoutMelds();
     }
 
+    // 메시지 배치(MessageDispatcher) 동안에는 서버 보드(serverMelds)만 갱신하고 화면 배치는 끝에 한 번
+    private boolean batching = false;
+    private boolean boardStale = false;
+
+    public void beginBatch() {
+        batching = true;
+    }
+
+    public void endBatch() {
+        batching = false;
+        if (boardStale) {
+            boardStale = false;
+            showServerBoard();
+        }
+    }
+
     public Pos getBackupPosition(TileView tv) {
         return boardBackup.get(tv);
     }
@@ -257,7 +391,7 @@ public class BoardPanel extends JPanel {
                 evt -> room.handleDragging(tv, (Point) evt.getNewValue()));
 
         tv.addPropertyChangeListener("tileDropped",
-                evt -> room.handleDrop(tv));
+                evt -> room.handleDrop(tv, (Point) evt.getNewValue()));
 
         tv.addPropertyChangeListener("tileReturn",
                 evt -> room.handleTileReturn(tv));
@@ -2,9 +2,13 @@ package client;
 
 import javax.swing.*;
 
-public class ClientApp implements NetIO.MessageHandler {
+public class ClientApp {
+
+    // -Drummikub.netStats=true: 게임이 끝날 때 메시지 묶음 통계 출력 (디버그용)
+    private static final boolean NET_STATS = Boolean.getBoolean("rummikub.netStats");
 
     private final NetIO net = new NetIO();
+    private final MessageDispatcher dispatcher = new MessageDispatcher(this);
 
     private LoginView login;
     private LobbyView lobby;
@@ -16,10 +20,11 @@ public class ClientApp implements NetIO.MessageHandler {
     private int playerCount = 0;
 
     // INITIAL_TILES 패킷이 RoomView 생성보다 먼저 도착하는 경우 대비
-    private String pendingInitialTiles = null;
+    private String[] pendingInitialTiles = null;
 
     public ClientApp() {
-        net.setHandler(this);
+        // 수신 스레드는 나누고 쌓기만, 화면 갱신은 EDT 에서 프레임당 한 번 (MessageDispatcher)
+        net.setHandler(dispatcher);
     }
 
     public void setLogin(LoginView login) { this.login = login; }
@@ -31,12 +36,14 @@ public class ClientApp implements NetIO.MessageHandler {
             this.myName = name;
             net.connect(host, port);
             net.send("LOGIN|" + name);
+            // -Drummikub.wire=binary: 로그인 직후 바이너리 프레임 협상 (보드 / 손패 / 방 목록은 MessageDispatcher 가 필드를 바로 읽음)
+            if ("binary".equals(System.getProperty("rummikub.wire"))) net.requestBinary();
 
             SwingUtilities.invokeLater(() -> {
                 lobby = new LobbyView(this);
                 lobby.setVisible(true);
                 if (login != null) login.dispose();
-                requestRoomList();
+                subscribeRoomList();
             });
 
         } catch (Exception ex) {
@@ -59,25 +66,39 @@ public class ClientApp implements NetIO.MessageHandler {
 
             lobby.setVisible(true);
             lobby.toFront();
-            requestRoomList();
+            subscribeRoomList();
         });
     }
 
 
     public void requestRoomList() { net.send("LIST"); }
+    // 로비에 있는 동안 방 목록 변경분(ROOM_LIST_DELTA)을 푸시로 받음 (방에 들어가면 서버가 해제)
+    public void subscribeRoomList() { net.send("LIST_SUBSCRIBE"); }
     public void requestCreateRoom(String roomName) { net.send("CREATE|" + roomName); }
     public void requestJoinRoom(int roomId) { net.send("JOIN|" + roomId); }
 
     public void send(String line) { net.send(line); }
 
-    // 서버 메시지 처리
-    @Override
-    public void onMessage(String line) {
+    // 메시지 묶음 앞뒤: 그 사이의 보드 배치 / 채팅 로그는 RoomView 가 모았다가 한 번에
+    private RoomView batchRoom;
+
+    void beginBatch() {
+        batchRoom = room;
+        if (batchRoom != null) batchRoom.beginBatch();
+    }
+
+    void endBatch() {
+        if (batchRoom != null) batchRoom.endBatch();
+        batchRoom = null;
+    }
+
+    // 서버 메시지 처리 (EDT, MessageDispatcher 가 묶음 단위로 호출)
+    // 바이너리 프레임에서 필드를 읽은 메시지는 msg.fields() 를 쓰고, 텍스트 줄이면 data 를 나눔
+    void handle(MessageDispatcher.Msg msg) {
 
-        String type = line;
-        String data = "";
-        int idx = line.indexOf('|');
-        if (idx >= 0) { type = line.substring(0, idx); data = line.substring(idx + 1); }
+        String type = msg.type();
+        String data = msg.data();
+        String line = msg.line();
 
         switch (type) {
 
@@ -85,23 +106,25 @@ public class ClientApp implements NetIO.MessageHandler {
                 if (lobby != null) lobby.updateRoomList(data);
                 break;
 
-            case "JOIN_OK": {
-                final String roomId = data;
-
-                SwingUtilities.invokeLater(() -> {
-                    room = new RoomView(this, roomId);
-                    room.setVisible(true);
+            case "ROOM_LIST_DELTA":
+                if (lobby == null) break;
+                if (msg.fields() instanceof MessageDispatcher.ListDelta d) lobby.applyRoomListDelta(d.version(), d.op(), d.body());
+                else lobby.applyRoomListDelta(data);
+                break;
 
-                    // RoomView 생성 이후에 초기 패킷을 적용해야 하는 경우 처리
-                    if (pendingInitialTiles != null) {
-                        room.setInitialHand(pendingInitialTiles);
-                        room.appendLog("내 손패: " + pendingInitialTiles);
-                        pendingInitialTiles = null;
-                    }
+            case "JOIN_OK": {
+                room = new RoomView(this, data);
+                room.setVisible(true);
+
+                // RoomView 생성 이후에 초기 패킷을 적용해야 하는 경우 처리
+                if (pendingInitialTiles != null) {
+                    room.setInitialHand(pendingInitialTiles);
+                    room.appendLog("내 손패: " + String.join(",", pendingInitialTiles));
+                    pendingInitialTiles = null;
+                }
 
-                    if (lobby != null) lobby.dispose();
-                    refreshStartButton();
-                });
+                if (lobby != null) lobby.dispose();
+                refreshStartButton();
                 break;
             }
 
@@ -133,7 +156,10 @@ public class ClientApp implements NetIO.MessageHandler {
 
             case "GAME_END": {
                 String winner = data.trim();
-                if (room != null) room.showGameEndPopup(winner);
+                if (NET_STATS) System.out.println("[NET] " + dispatcher.stats());
+                // 모달 팝업은 묶음이 끝난 뒤에 (묶음의 나머지 메시지 / 보드 배치가 팝업을 닫을 때까지 밀리지 않게)
+                RoomView r = room;
+                if (r != null) SwingUtilities.invokeLater(() -> r.showGameEndPopup(winner));
                 break;
             }
 
@@ -144,19 +170,37 @@ public class ClientApp implements NetIO.MessageHandler {
                 }
                 break;
 
-            case "INITIAL_TILES":
+            case "INITIAL_TILES": {
+                String[] tiles = (msg.fields() instanceof String[] t) ? t : RoomView.splitTiles(data);
                 if (room != null) {
-                    room.setInitialHand(data);
-                    room.appendLog("내 손패: " + data);
+                    room.setInitialHand(tiles);
+                    room.appendLog("내 손패: " + String.join(",", tiles));
                 } else {
                     // RoomView가 아직 준비되지 않은 경우 잠시 보관
-                    pendingInitialTiles = data;
+                    pendingInitialTiles = tiles;
                 }
                 break;
+            }
 
-            case "PLAY_OK": {
-                String[] p = data.split("\\|");
-                if (room != null) room.applyPlayOk(p[0], p[1]);
+            case "PLAY_OK": { // PLAY_OK|이름|버전|변경분
+                if (room == null) break;
+                if (msg.fields() instanceof MessageDispatcher.PlayOk ok) {
+                    room.applyPlayOk(ok.who(), ok.version(), ok.diff());
+                    break;
+                }
+                String[] p = data.split("\\|", 3);
+                if (p.length == 3) room.applyPlayOk(p[0], Integer.parseInt(p[1]), p[2]);
+                break;
+            }
+
+            case "BOARD": { // BOARD|버전|보드 전체
+                if (room == null) break;
+                if (msg.fields() instanceof MessageDispatcher.Board b) {
+                    room.loadBoard(b.version(), b.melds());
+                    break;
+                }
+                String[] p = data.split("\\|", 2);
+                if (p.length == 2) room.loadBoard(Integer.parseInt(p[0]), p[1]);
                 break;
             }
 
@@ -169,8 +213,13 @@ public class ClientApp implements NetIO.MessageHandler {
 
             case "NEW_TILE":
                 if (room != null) {
-                    room.addHandTile(data.trim());
-                    room.appendLog("새 타일: " + data);
+                    if (msg.fields() instanceof String[] tiles) {
+                        for (String id : tiles) room.addHandTile(id);
+                        room.appendLog("새 타일: " + String.join(",", tiles));
+                    } else {
+                        room.addHandTile(data.trim());
+                        room.appendLog("새 타일: " + data);
+                    }
                 }
                 break;
 
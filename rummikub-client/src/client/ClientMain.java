@@ -8,6 +8,9 @@ import com.formdev.flatlaf.FlatIntelliJLaf;
 
 public class ClientMain {
     public static void main(String[] args) {
+        // 타일 PNG 디코딩 / 축소는 로그인 화면을 띄우는 동안 백그라운드에서
+        TileImages.start();
+
         try {
             UIManager.setLookAndFeel(new FlatIntelliJLaf());
         } catch (Exception ex) {
@@ -22,6 +22,9 @@ public class LobbyView extends JFrame {
     private final JButton btnJoin    = new JButton("참가");
     private final JLabel  status     = new JLabel(" ", SwingConstants.LEFT);
 
+    // 마지막으로 반영한 ROOM_LIST_DELTA 버전 (EDT 전용)
+    private long listVersion = -1;
+
     public LobbyView(ClientApp app) {
         this.app = app;
         setTitle("Rummikub - Lobby");
@@ -99,19 +102,75 @@ public class LobbyView extends JFrame {
         });
     }
 
-    // 서버에서 온 ROOM_LIST 데이터를 파싱하여 리스트 반영
+    // 아래 갱신 메서드는 모두 EDT 에서 호출됨 (ClientApp.handle, 메시지 묶음 안) → 바로 반영
+
+    // 서버에서 온 ROOM_LIST 데이터를 파싱하여 리스트 반영 (버전 없는 목록: 구독 전 LIST 응답)
     public void updateRoomList(String data) {
-        List<RoomItem> items = parse(data);
-        SwingUtilities.invokeLater(() -> {
-            model.clear();
-            for (RoomItem it : items) model.addElement(it);
-            status.setText("방 수: " + items.size());
-        });
+        showRooms(parse(data));
+    }
+
+    private void showRooms(List<RoomItem> items) {
+        model.clear();
+        for (RoomItem it : items) model.addElement(it);
+        status.setText("방 수: " + items.size());
+    }
+
+    // ROOM_LIST_DELTA 적용 (버전|FULL|목록, 버전|PUT|id,name,count, 버전|DEL|id)
+    // 이미 반영한 버전 이하의 목록 / 변경분은 버림 (늦게 온 옛 목록이 새 변경을 되돌리지 않도록)
+    public void applyRoomListDelta(String data) {
+        String[] p = data.split("\\|", 3);
+        if (p.length < 3) return;
+
+        long version;
+        try {
+            version = Long.parseLong(p[0]);
+        } catch (NumberFormatException e) {
+            return;
+        }
+        applyRoomListDelta(version, p[1], p[2]);
+    }
+
+    // 바이너리 프레임에서 필드를 바로 읽은 ROOM_LIST_DELTA
+    public void applyRoomListDelta(long version, String op, String body) {
+        if (version <= listVersion) return;
+        listVersion = version;
+
+        if (op.equals("FULL")) {
+            showRooms(parse(body));
+            return;
+        }
+        if (op.equals("PUT")) {
+            List<RoomItem> parsed = parse(body);
+            if (parsed.isEmpty()) return;
+            RoomItem it = parsed.get(0);
+            int idx = indexOfRoom(it.id);
+            if (idx >= 0) {
+                model.set(idx, it);
+            } else {
+                // id 순서 유지
+                int pos = 0;
+                while (pos < model.size() && model.get(pos).id < it.id) pos++;
+                model.add(pos, it);
+            }
+        } else if (op.equals("DEL")) {
+            try {
+                int idx = indexOfRoom(Integer.parseInt(body.trim()));
+                if (idx >= 0) model.remove(idx);
+            } catch (NumberFormatException ignore) {}
+        }
+        status.setText("방 수: " + model.size());
+    }
+
+    private int indexOfRoom(int id) {
+        for (int i = 0; i < model.size(); i++) {
+            if (model.get(i).id == id) return i;
+        }
+        return -1;
     }
 
     // 하단 상태 메시지 업데이트
     public void showInfo(String msg) {
-        SwingUtilities.invokeLater(() -> status.setText(msg));
+        status.setText(msg);
     }
 
     private static List<RoomItem> parse(String data) {
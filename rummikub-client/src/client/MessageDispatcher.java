@@ -0,0 +1,198 @@
+package client;
+
+import common.Wire;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+// 수신 스레드 → EDT 사이의 배치 단계
+// NetIO 수신 스레드는 줄을 종류 / 본문으로 나눠 대기열에 쌓기만 하고, EDT 는 한 프레임(16ms)에 한 번 대기열을 통째로 처리
+//   - 바이너리 모드면 보드 / 손패 / 방 목록 프레임은 텍스트 줄로 되돌리지 않고 필드를 바로 읽어 Msg.fields 에 담음
+//   - 직전 처리 뒤 한 프레임이 지났으면 바로(invokeLater), 아니면 다음 프레임에 (Swing Timer)
+//   - 한 배치 안에서 뒤에 BOARD(보드 전체)가 있으면 앞의 BOARD 는 버림, ROOM_LIST 도 마지막 것부터만
+//   - 배치 처리 중에는 보드 배치 / 채팅 로그를 모았다가 끝에 한 번 (ClientApp.beginBatch / endBatch)
+// GAME_START, INITIAL_TILES, PLAY_OK, SCORE x4, TURN 같은 묶음이 EDT 작업 하나, 보드 배치 한 번이 됨
+public final class MessageDispatcher implements NetIO.MessageHandler {
+
+    private static final int FRAME_MILLIS = 16;
+    private static final long FRAME_NANOS = FRAME_MILLIS * 1_000_000L;
+
+    // 수신 스레드에서 나눈 메시지
+    // fields: 바이너리 프레임에서 읽은 필드 (PlayOk / Board / ListDelta / 타일 String[]), 텍스트 줄이면 null
+    // 필드를 읽은 메시지의 data 는 문자열 필드 하나짜리(ROOM_LIST)만 채우고, line 은 null
+    record Msg(String type, String data, String line, Object fields) {
+
+        static Msg parse(String line) {
+            int idx = line.indexOf('|');
+            return idx < 0 ? new Msg(line, "", line, null)
+                    : new Msg(line.substring(0, idx), line.substring(idx + 1), line, null);
+        }
+    }
+
+    record PlayOk(String who, int version, List<BoardPanel.DiffItem> diff) {}
+    record Board(int version, List<String[]> melds) {}
+    record ListDelta(long version, String op, String body) {}
+
+    private final ClientApp app;
+    private final Timer frameTimer;
+
+    private final Object lock = new Object();
+    private List<Msg> pending = new ArrayList<>();
+    private List<Msg> spare = new ArrayList<>();
+    private boolean scheduled;
+    private volatile long lastFlushNanos;
+
+    // 지표
+    private long batches;
+    private long messages;
+    private long dropped;
+
+    public MessageDispatcher(ClientApp app) {
+        this.app = app;
+        this.frameTimer = new Timer(FRAME_MILLIS, e -> flush());
+        frameTimer.setRepeats(false);
+    }
+
+    // NetIO 수신 스레드
+    @Override
+    public void onMessage(String line) {
+        enqueue(Msg.parse(line));
+    }
+
+    // NetIO 수신 스레드 (바이너리 모드, payload 는 이 호출 안에서만 유효하므로 필요한 것은 모두 복사)
+    @Override
+    public void onFrame(ByteBuffer payload) {
+        int op = payload.get(payload.position()) & 0xFF;
+        if (!decodesFields(op)) {
+            enqueue(Msg.parse(Wire.toText(payload)));
+            return;
+        }
+
+        payload.get();
+        String type = Wire.typeName(op);
+        Msg m = switch (op) {
+            case Wire.OP_PLAY_OK -> new Msg(type, "", null,
+                    new PlayOk(Wire.readString(payload), Wire.readInt(payload), readDiff(payload)));
+            case Wire.OP_BOARD -> new Msg(type, "", null, new Board(Wire.readInt(payload), readBoard(payload)));
+            case Wire.OP_INITIAL_TILES, Wire.OP_NEW_TILE -> new Msg(type, "", null, Wire.readTileNames(payload));
+            case Wire.OP_ROOM_LIST -> new Msg(type, Wire.readString(payload), null, null);
+            default -> new Msg(type, "", null,
+                    new ListDelta(Wire.readInt(payload), Wire.readString(payload), Wire.readString(payload)));
+        };
+        enqueue(m);
+    }
+
+    private static boolean decodesFields(int op) {
+        return op == Wire.OP_PLAY_OK || op == Wire.OP_BOARD || op == Wire.OP_INITIAL_TILES
+                || op == Wire.OP_NEW_TILE || op == Wire.OP_ROOM_LIST || op == Wire.OP_ROOM_LIST_DELTA;
+    }
+
+    private static List<String[]> readBoard(ByteBuffer in) {
+        int n = Wire.readVarint(in);
+        List<String[]> melds = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) melds.add(Wire.readMeldNames(in));
+        return melds;
+    }
+
+    // 변경분 항목 (=a-b / ~k:멜드 / +멜드), 바꾸는 자리 번호 k 는 화면에서 쓰지 않음
+    private static List<BoardPanel.DiffItem> readDiff(ByteBuffer in) {
+        int n = Wire.readVarint(in);
+        List<BoardPanel.DiffItem> items = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int kind = in.get();
+            if (kind == Wire.DIFF_KEEP) {
+                int lo = Wire.readVarint(in);
+                items.add(new BoardPanel.DiffItem(lo, lo + Wire.readVarint(in), null));
+            } else if (kind == Wire.DIFF_CHANGE) {
+                Wire.readVarint(in);
+                items.add(new BoardPanel.DiffItem(0, 0, Wire.readMeldNames(in)));
+            } else if (kind == Wire.DIFF_ADD) {
+                items.add(new BoardPanel.DiffItem(0, 0, Wire.readMeldNames(in)));
+            } else {
+                throw new IllegalArgumentException("diff item " + kind);
+            }
+        }
+        return items;
+    }
+
+    private void enqueue(Msg m) {
+        synchronized (lock) {
+            pending.add(m);
+            if (scheduled) return;
+            scheduled = true;
+        }
+
+        long wait = lastFlushNanos + FRAME_NANOS - System.nanoTime();
+        if (wait <= 0) {
+            SwingUtilities.invokeLater(this::flush);
+        } else {
+            frameTimer.setInitialDelay((int) Math.max(1, wait / 1_000_000));
+            frameTimer.restart();
+        }
+    }
+
+    // EDT: 모인 메시지를 한 번에
+    private void flush() {
+        List<Msg> batch;
+        synchronized (lock) {
+            batch = pending;
+            pending = spare;
+            scheduled = false;
+        }
+        lastFlushNanos = System.nanoTime();
+
+        // 버전이 붙은 전체 목록(FULL)만 앞선 목록 / 델타를 대신함, 버전 없는 ROOM_LIST 는 앞선 ROOM_LIST 만
+        int lastBoard = -1, lastList = -1, lastFull = -1;
+        for (int i = 0; i < batch.size(); i++) {
+            Msg m = batch.get(i);
+            String t = m.type();
+            if (t.equals("BOARD")) lastBoard = i;
+            else if (t.equals("ROOM_LIST")) lastList = i;
+            else if (t.equals("ROOM_LIST_DELTA") && isFullList(m)) lastFull = i;
+        }
+
+        app.beginBatch();
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                Msg m = batch.get(i);
+                String t = m.type();
+                if ((i < lastBoard && t.equals("BOARD"))
+                        || (i < lastList && t.equals("ROOM_LIST"))
+                        || (i < lastFull && (t.equals("ROOM_LIST") || t.equals("ROOM_LIST_DELTA")))) {
+                    dropped++;
+                    continue;
+                }
+                // 한 메시지의 예외가 묶음의 나머지 메시지까지 버리지 않도록 메시지마다 잡음
+                try {
+                    app.handle(m);
+                } catch (RuntimeException e) {
+                    System.out.println("❌ 메시지 처리 실패: " + (m.line() != null ? m.line() : m.type()) + " (" + e + ")");
+                }
+            }
+        } finally {
+            app.endBatch();
+            batches++;
+            messages += batch.size();
+            batch.clear();
+            spare = batch;
+        }
+    }
+
+    // ROOM_LIST_DELTA 가 버전|FULL|... 인지
+    private static boolean isFullList(Msg m) {
+        if (m.fields() instanceof ListDelta d) return d.op().equals("FULL");
+        String data = m.data();
+        int bar = data.indexOf('|');
+        return bar >= 0 && data.startsWith("FULL|", bar + 1);
+    }
+
+    // EDT 에서만 읽음
+    public String stats() {
+        return "batches " + batches + ", messages " + messages
+                + (batches > 0 ? " (" + String.format("%.1f", (double) messages / batches) + " msg/batch)" : "")
+                + ", collapsed " + dropped;
+    }
+}
@@ -1,10 +1,17 @@
 package client;
 
+import common.Wire;
+
 import java.io.*;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 // 서버와 라인(문자열) 단위 송수신을 담당하는 경량 I/O 유틸
+// requestBinary() 로 바이너리 프레임(common.Wire)을 협상할 수 있고, 그 경우에도 send 는 문자열 그대로 받음
 public class NetIO {
 
     //수신 콜백 인터페이스
@@ -12,15 +19,30 @@ public class NetIO {
     public interface MessageHandler {
         void onMessage(String line);
         default void onClosed() {}           // 연결 종료 알림
+
+        // 바이너리 모드에서 프레임 하나 수신 (payload 는 opcode 부터, 호출 중에만 유효)
+        // 기본은 텍스트 줄로 바꿔 onMessage 로 넘김 → 필드를 직접 읽고 싶은 핸들러만 재정의
+        default void onFrame(ByteBuffer payload) {
+            onMessage(Wire.toText(payload));
+        }
     }
 
     private Socket socket;
-    private BufferedReader in;
-    private PrintWriter out;
+    private Wire.StreamReader in;
+    private OutputStream out;
     private Thread listener;
     private final AtomicBoolean running = new AtomicBoolean(false);
     private volatile MessageHandler handler;
 
+    // 바이너리 협상 상태 (송신 쪽은 out 락으로 보호)
+    private volatile boolean binary = false;
+    private boolean negotiating = false;
+    private final List<String> heldDuringNegotiation = new ArrayList<>();
+    private final Object sendLock = new Object();
+
+    private volatile long bytesSent;
+    private volatile long bytesReceived;
+
     public NetIO() {}
 
     // 기존 생성 패턴 지원용 생성자
@@ -31,12 +53,21 @@ public class NetIO {
 
     public void setHandler(MessageHandler h) { this.handler = h; }
 
+    public boolean isBinary() { return binary; }
+    public long bytesSent() { return bytesSent; }
+    public long bytesReceived() { return bytesReceived; }
+
     // 서버에 연결한 뒤, 수신 전용 스레드 시작
     public void connect(String host, int port) throws IOException {
         close(); // 열려 있는 연결이 있다면 정리
         socket = new Socket(host, port);
-        in  = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
-        out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), "UTF-8"), true); // auto-flush
+        in  = new Wire.StreamReader(socket.getInputStream());
+        out = new BufferedOutputStream(socket.getOutputStream());
+        binary = false;
+        negotiating = false;
+        heldDuringNegotiation.clear();
+        bytesSent = 0;
+        bytesReceived = 0;
 
         running.set(true);
         listener = new Thread(this::listenLoop, "NetIO-Listener");
@@ -44,13 +75,34 @@ public class NetIO {
         listener.start();
     }
 
+    // LOGIN 바로 다음에 호출: 바이너리 프레임 요청
+    // 서버 응답(PROTO|BIN / PROTO|TEXT)이 올 때까지 보낼 줄은 모아 두었다가 정해진 형식으로 보냄
+    public void requestBinary() {
+        synchronized (sendLock) {
+            write("PROTO|BIN");
+            negotiating = true;
+        }
+    }
+
     // 서버로부터 들어오는 메시지를 계속 읽어 핸들러에 전달
     private void listenLoop() {
+        Wire.StreamReader r = in;
         try {
-            String line;
-            while (running.get() && (line = in.readLine()) != null) {
-                MessageHandler h = handler;
-                if (h != null) h.onMessage(line);
+            while (running.get()) {
+                if (binary) {
+                    ByteBuffer frame = r.readFrame();
+                    if (frame == null) break;
+                    bytesReceived = r.bytesRead();
+                    MessageHandler h = handler;
+                    if (h != null) h.onFrame(frame);
+                } else {
+                    String line = r.readLine();
+                    if (line == null) break;
+                    bytesReceived = r.bytesRead();
+                    if (negotiating && onNegotiationReply(line)) continue;
+                    MessageHandler h = handler;
+                    if (h != null) h.onMessage(line);
+                }
             }
         } catch (IOException ignore) {
             // 소켓 종료 또는 네트워크 오류는 종료 처리로 이어짐
@@ -62,11 +114,39 @@ public class NetIO {
         }
     }
 
-    // 서버에 문자열 한 줄 전송
+    // 협상 응답이면 전환 후 true (모르는 서버는 PROTO 를 ERROR 로 답하므로 텍스트 유지)
+    private boolean onNegotiationReply(String line) {
+        boolean accepted = line.equals("PROTO|BIN");
+        if (!accepted && !line.equals("PROTO|TEXT") && !line.startsWith("ERROR|알 수 없는 명령: PROTO"))
+            return false;
+
+        synchronized (sendLock) {
+            binary = accepted;
+            negotiating = false;
+            for (String msg : heldDuringNegotiation) write(msg);
+            heldDuringNegotiation.clear();
+        }
+        return true;
+    }
+
+    // 서버에 문자열 한 줄 전송 (바이너리 모드면 프레임으로 바꿔서)
     public void send(String msg) {
-        PrintWriter o = out;
-        if (o != null) {
-            o.println(msg);
+        synchronized (sendLock) {
+            if (negotiating) heldDuringNegotiation.add(msg);
+            else write(msg);
+        }
+    }
+
+    private void write(String msg) {
+        OutputStream o = out;
+        if (o == null) return;
+        byte[] bytes = binary ? Wire.toBinary(msg) : (msg + "\n").getBytes(StandardCharsets.UTF_8);
+        try {
+            o.write(bytes);
+            o.flush();
+            bytesSent += bytes.length;
+        } catch (IOException ignore) {
+            // 끊어진 연결은 수신 스레드 쪽에서 종료 처리
         }
     }
 
@@ -81,8 +161,6 @@ public class NetIO {
     // 소켓 및 스트림 정리
     private void safeClose() {
         try { if (socket != null && !socket.isClosed()) socket.close(); } catch (IOException ignore) {}
-        try { if (in != null) in.close(); } catch (IOException ignore) {}
-        if (out != null) out.close();
         socket = null; in = null; out = null;
     }
 }
@@ -23,6 +23,7 @@ public class RoomView extends JFrame {
     private final JLabel lbScore = new JLabel("점수: 0");
     private JLayeredPane layeredPane;
     private final int DRAG_LAYER = JLayeredPane.DRAG_LAYER;
+    private final DragGhost dragGhost = new DragGhost();
 
     private final JButton btnStart = new JButton("게임 시작");
     private final JButton btnPlay  = new JButton("수 제출");
@@ -53,6 +54,7 @@ public class RoomView extends JFrame {
         bg.setLayout(new BorderLayout(12,12));
         setContentPane(bg);
         layeredPane = getLayeredPane();
+        layeredPane.add(dragGhost, Integer.valueOf(DRAG_LAYER));
 
         // 상단 영역 : 턴 표시, 점수 표시
         JPanel north = translucentPanel(new BorderLayout());
@@ -143,26 +145,20 @@ public class RoomView extends JFrame {
         boardPanel.setRoom(this);
     }
 
-    // 드롭 처리
-    public void handleDrop(TileView tv) {
-    if (!myTurn) return;
+    // 드롭 처리 (localPoint: 마우스를 놓은 위치, 타일 기준 좌표)
+    public void handleDrop(TileView tv, Point localPoint) {
 
-    // 드래그 레이어에서 제거
-    layeredPane.remove(tv);
-    layeredPane.repaint();
+    // 드래그 고스트 지우기 (고스트가 있던 자리만 다시 그림)
+    dragGhost.clear();
 
-    // 보드 기준 좌표 계산
-    Point mouse = MouseInfo.getPointerInfo().getLocation();
-    SwingUtilities.convertPointFromScreen(mouse, spBoard.getViewport());
+    if (!myTurn) return;
 
-    // viewport 좌표 + 스크롤 오프셋 → 실제 boardPanel 기준 좌표
-    int realX = mouse.x + spBoard.getHorizontalScrollBar().getValue();
-    int realY = mouse.y + spBoard.getVerticalScrollBar().getValue();
-    Point dropPoint = new Point(realX, realY);
+    // 타일 좌표 → boardPanel 좌표 (스크롤 오프셋 포함, handleDragging 과 같은 변환)
+    Point dropPoint = SwingUtilities.convertPoint(tv, localPoint, boardPanel);
 
     Rectangle visible = spBoard.getViewport().getViewRect();
 
-    if (visible.contains(realX, realY)) {
+    if (visible.contains(dropPoint)) {
 
         // 손패에서 드래그했다면 무조건 공백 제거
         if (tv.isFromHand()) {
@@ -179,7 +175,9 @@ public class RoomView extends JFrame {
     } else {
 
         // 손패로 돌아갈 수 있는 조건: fromHand == true
+        // (이미 보드에 올렸던 타일이면 보드 멜드에서도 빼야 다음 배치 때 보드로 다시 끌려가지 않음)
         if (tv.isFromHand()) {
+            boardPanel.removeTile(tv);
             handPanel.addTile(tv);
             handPanel.restoreTile(tv);
             justPlayedTiles.remove(tv);
@@ -188,46 +186,35 @@ public class RoomView extends JFrame {
 }
 
     // 드래그 중 위치 업데이트
+    // 타일 컴포넌트는 원래 패널(손패 / 보드)에 그대로 두고(흐리게 표시), 드래그 레이어의 고스트만 마우스를 따라감
+    // → 프레임마다 고스트의 이전 / 새 위치를 합친 영역만 다시 그림
     public void handleDragging(TileView tv, Point localPoint) {
 
         if (!myTurn) return;
 
-        if (tv.getParent() != layeredPane) {
-
-            Point screenPos = tv.getLocationOnScreen();
-            SwingUtilities.convertPointFromScreen(screenPos, layeredPane);
-
-            layeredPane.add(tv, DRAG_LAYER);
-            tv.setLocation(screenPos);
-
-            layeredPane.revalidate();
-            layeredPane.repaint();
-        }
-
-        int offsetX = tv.getOffsetX();
-        int offsetY = tv.getOffsetY();
-
-        Point mouseScreen = MouseInfo.getPointerInfo().getLocation();
-
-        SwingUtilities.convertPointFromScreen(mouseScreen, layeredPane);
-
-        int tileX = mouseScreen.x - offsetX;
-        int tileY = mouseScreen.y - offsetY;
-
-        tv.setLocation(tileX, tileY);
-
-        layeredPane.repaint();
+        Point p = SwingUtilities.convertPoint(tv, localPoint, layeredPane);
+        dragGhost.moveTo(tv, p.x - tv.getOffsetX(), p.y - tv.getOffsetY());
     }
 
     // 게임 시작 시 서버가 전달한 손패 구성
     public void setInitialHand(String csv) {
+        setInitialHand(splitTiles(csv));
+    }
+
+    // "R1,BL3" → 타일 문자열 (빈 목록이면 길이 0)
+    static String[] splitTiles(String csv) {
+        if (csv == null || csv.isBlank()) return new String[0];
+        String[] ids = csv.split(",");
+        for (int i = 0; i < ids.length; i++) ids[i] = ids[i].trim();
+        return ids;
+    }
+
+    public void setInitialHand(String[] ids) {
 
         handPanel.clearTiles();
-        if (csv == null || csv.isBlank()) return;
 
-        for (String s : csv.split(",")) {
+        for (String id : ids) {
 
-            String id = s.trim();
             Image img = loadTileImage(id);
 
             TileView tv = new TileView(id, img);
@@ -235,7 +222,7 @@ public class RoomView extends JFrame {
             tv.setFromHand(true);
 
             // 리스너 연결
-            tv.addPropertyChangeListener("tileDropped", evt -> handleDrop(tv));
+            tv.addPropertyChangeListener("tileDropped", evt -> handleDrop(tv, (Point) evt.getNewValue()));
             tv.addPropertyChangeListener("tileDragging", evt -> handleDragging(tv, (Point) evt.getNewValue()));
             tv.addPropertyChangeListener("tileReturn", evt -> handleTileReturn(tv));
 
@@ -266,7 +253,7 @@ public class RoomView extends JFrame {
 
         // 드래그 이벤트 연결
         tv.addPropertyChangeListener("tileDropped", 
-            evt -> handleDrop(tv));
+            evt -> handleDrop(tv, (Point) evt.getNewValue()));
         tv.addPropertyChangeListener("tileDragging",
             evt -> handleDragging(tv, (Point) evt.getNewValue()));
         tv.addPropertyChangeListener("tileReturn",
@@ -279,7 +266,7 @@ public class RoomView extends JFrame {
     // 터블 클릭으로 손패 복귀 요청
     public void handleTileReturn(TileView tv) {
 
-        layeredPane.remove(tv);
+        dragGhost.clear();
         boardPanel.removeTile(tv);
 
         handPanel.restoreTile(tv);
@@ -306,10 +293,30 @@ public class RoomView extends JFrame {
     }
 
     // 제출 성공 시 보드 갱신
-    public void applyPlayOk(String who, String boardEncoded) {
+    // 보드 변경분을 적용하지 못하면(버전 누락) 전체 보드를 다시 요청
+    public void applyPlayOk(String who, int version, String diff) {
+        playOk(who, boardPanel.applyBoardDiff(version, diff));
+    }
+
+    // 바이너리 프레임에서 바로 읽은 변경분
+    public void applyPlayOk(String who, int version, List<BoardPanel.DiffItem> diff) {
+        playOk(who, boardPanel.applyBoardDiff(version, diff));
+    }
+
+    private void playOk(String who, boolean applied) {
         appendLog("✔ " + who + " 수 성공");
         justPlayedTiles.clear();
-        boardPanel.loadBoardFromServer(boardEncoded);
+        if (!applied)
+            app.send("BOARD_SYNC");
+    }
+
+    // BOARD_SYNC 응답 (보드 전체)
+    public void loadBoard(int version, String boardEncoded) {
+        boardPanel.loadBoardFromServer(version, boardEncoded);
+    }
+
+    public void loadBoard(int version, List<String[]> melds) {
+        boardPanel.loadBoardFromServer(version, melds);
     }
 
     // 제출 실패 시 복구
@@ -355,37 +362,45 @@ public class RoomView extends JFrame {
         btnStart.setEnabled(on);
     }
 
+    // EDT 가 아니면 EDT 로 넘기고, 메시지 배치 중이면 모았다가 endBatch 에서 한 번에 붙임
     public void appendLog(String line) {
-        SwingUtilities.invokeLater(() -> {
-            taChat.append(line + "\n");
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> appendLog(line));
+            return;
+        }
+        if (pendingLog != null) {
+            pendingLog.append(line).append('\n');
+            return;
+        }
+        taChat.append(line + "\n");
+        taChat.setCaretPosition(taChat.getDocument().getLength());
+    }
+
+    // MessageDispatcher 가 한 번에 처리하는 메시지 묶음의 앞뒤 (EDT)
+    private StringBuilder pendingLog;
+
+    public void beginBatch() {
+        pendingLog = new StringBuilder();
+        boardPanel.beginBatch();
+    }
+
+    public void endBatch() {
+        boardPanel.endBatch();
+        StringBuilder log = pendingLog;
+        pendingLog = null;
+        if (log != null && !log.isEmpty()) {
+            taChat.append(log.toString());
             taChat.setCaretPosition(taChat.getDocument().getLength());
-        });
+        }
     }
 
     private Image loadTileImage(String id) {
         return loadTileImageStatic(id);
     }
 
+    // 시작할 때 한 번 디코딩해 둔 캐시에서 (TileImages)
     public static Image loadTileImageStatic(String id) {
-        try {
-            String fixedId = id;
-
-            if (id.contains("Joker")) {
-                int idx = id.indexOf("(");
-                if (idx > 0) {
-                    fixedId = id.substring(0, idx);
-                }
-            }
-
-            var url = RoomView.class.getClassLoader()
-                    .getResource("assets/images/" + fixedId + ".png");
-            if (url != null) return ImageIO.read(url);
-
-            File f = new File("assets/images/" + fixedId + ".png");
-            if (f.exists()) return ImageIO.read(f);
-
-        } catch (Exception ignored) {}
-        return null;
+        return TileImages.get(id);
     }
 
 
@@ -412,18 +427,40 @@ public class RoomView extends JFrame {
         return card;
     }
 
+    // 창 크기에 맞춰 늘린 배경 + 어둡게 덮기를 창 크기가 바뀔 때만 한 번 그려 두고(화면과 같은 형식의 이미지)
+    // 그 뒤로는 다시 그릴 영역(clip)만큼 복사
     static class BackgroundPanel extends JPanel {
 
         private final BufferedImage img;
+        private Image scaled;
 
         BackgroundPanel(BufferedImage img){ this.img = img; }
 
         @Override protected void paintComponent(Graphics g){
 
-            super.paintComponent(g);
-            if (img == null) return;
+            if (img == null) {
+                super.paintComponent(g);
+                return;
+            }
 
             int w = getWidth(), h = getHeight();
+            if (scaled == null || scaled.getWidth(null) != w || scaled.getHeight(null) != h) {
+                GraphicsConfiguration gc = getGraphicsConfiguration();
+                BufferedImage buf = (gc != null)
+                        ? gc.createCompatibleImage(w, h, Transparency.OPAQUE)
+                        : new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+                Graphics2D bg = buf.createGraphics();
+                bg.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                paintScaled(bg, w, h);
+                bg.dispose();
+                scaled = buf;
+            }
+
+            g.drawImage(scaled, 0, 0, null);
+        }
+
+        private void paintScaled(Graphics g, int w, int h) {
+
             double s = Math.max(
                     w / (double) img.getWidth(),
                     h / (double) img.getHeight());
@@ -434,6 +471,8 @@ public class RoomView extends JFrame {
             int dx = (w - dw)/2;
             int dy = (h - dh)/2;
 
+            g.setColor(getBackground());
+            g.fillRect(0,0,w,h);
             g.drawImage(img, dx, dy, dw, dh, null);
 
             g.setColor(new Color(0,0,0,60));
@@ -441,6 +480,54 @@ public class RoomView extends JFrame {
         }
     }
 
+    // 드래그 레이어: 끌고 있는 타일의 이미지만 그리는 투명 컴포넌트 (마우스 이벤트는 받지 않음)
+    static class DragGhost extends JComponent {
+
+        private Image img;
+        private final Rectangle at = new Rectangle();
+
+        DragGhost() {
+            setOpaque(false);
+        }
+
+        void moveTo(TileView tv, int x, int y) {
+
+            Container parent = getParent();
+            if (parent != null && (getWidth() != parent.getWidth() || getHeight() != parent.getHeight()))
+                setBounds(0, 0, parent.getWidth(), parent.getHeight());
+
+            Rectangle dirty = new Rectangle(at);
+            if (img == null) dirty.setBounds(x, y, 0, 0);
+
+            img = tv.image();
+            at.setBounds(x, y, tv.getWidth(), tv.getHeight());
+
+            dirty.add(at);
+            repaint(dirty);
+        }
+
+        void clear() {
+            if (img == null) return;
+            img = null;
+            repaint(at);
+        }
+
+        @Override public boolean contains(int x, int y) {
+            return false;
+        }
+
+        @Override protected void paintComponent(Graphics g) {
+
+            if (img == null) return;
+
+            Graphics2D g2 = (Graphics2D) g;
+            Composite old = g2.getComposite();
+            g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.85f));
+            g2.drawImage(img, at.x, at.y, at.width, at.height, null);
+            g2.setComposite(old);
+        }
+    }
+
     private int playersInRoom() {
         return app.getPlayerCount();
     }
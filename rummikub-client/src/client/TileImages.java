@@ -0,0 +1,108 @@
+package client;
+
+import common.Tile;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.net.URL;
+import java.util.concurrent.CountDownLatch;
+
+// 타일 이미지 캐시: assets/images 의 타일 PNG 54장을 시작할 때 한 번만 디코딩
+// 원본(741x1024)을 TileView 가 그리는 크기(60x80)로 미리 줄여 화면과 같은 형식의 이미지(compatible image)로 보관
+//   → 보드를 다시 만들 때 PNG 디코딩이 없고, 그릴 때도 확대 / 축소 없이 1:1 복사
+// start() 가 백그라운드 스레드에서 읽기 시작하고, 다 읽기 전에 get() 을 부르면 끝날 때까지 기다림
+public final class TileImages {
+
+    public static final int WIDTH = 60;
+    public static final int HEIGHT = 80;
+
+    private static final Image[] IMAGES = new Image[Tile.KIND_COUNT];
+    private static final CountDownLatch LOADED = new CountDownLatch(1);
+    private static Thread loader;
+
+    private TileImages() {}
+
+    // ClientMain 에서 로그인 화면을 띄우기 전에 한 번
+    public static synchronized void start() {
+        if (loader != null) return;
+        loader = Thread.ofPlatform().name("tile-images").daemon(true).start(TileImages::loadAll);
+    }
+
+    // "R5", "BL13", "RJoker(7)" → 캐시한 이미지 (모르는 타일이면 null)
+    public static Image get(String id) {
+        int end = id.indexOf('(');
+        int kind = Tile.parse(id, 0, end < 0 ? id.length() : end);
+        if (kind < 0) return null;
+        return get(kind);
+    }
+
+    public static Image get(int kind) {
+        if (LOADED.getCount() > 0) {
+            start();
+            try {
+                LOADED.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return IMAGES[kind];
+    }
+
+    private static void loadAll() {
+        long t0 = System.nanoTime();
+        try {
+            for (int k = 0; k < Tile.KIND_COUNT; k++) {
+                BufferedImage src = read("assets/images/" + Tile.name(k) + ".png");
+                if (src != null) IMAGES[k] = scale(src, WIDTH, HEIGHT);
+            }
+        } finally {
+            LOADED.countDown();
+        }
+        System.out.println("[IMG] tile images " + Tile.KIND_COUNT + " 장 준비 ("
+                + (System.nanoTime() - t0) / 1_000_000 + " ms)");
+    }
+
+    private static BufferedImage read(String path) {
+        try {
+            URL url = TileImages.class.getClassLoader().getResource(path);
+            if (url != null) return ImageIO.read(url);
+            File f = new File(path);
+            if (f.exists()) return ImageIO.read(f);
+        } catch (Exception ignored) {}
+        return null;
+    }
+
+    // 반씩 여러 번 줄인 뒤 마지막에 목표 크기로 (한 번에 12배 줄이면 bilinear 도 계단이 생김)
+    private static Image scale(BufferedImage src, int w, int h) {
+        BufferedImage cur = src;
+        int cw = src.getWidth(), ch = src.getHeight();
+        while (cw / 2 >= w && ch / 2 >= h) {
+            cw /= 2;
+            ch /= 2;
+            cur = draw(cur, new BufferedImage(cw, ch, BufferedImage.TYPE_INT_ARGB), cw, ch);
+        }
+        return draw(cur, compatible(w, h), w, h);
+    }
+
+    private static BufferedImage draw(Image src, BufferedImage dst, int w, int h) {
+        Graphics2D g = dst.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(src, 0, 0, w, h, null);
+        g.dispose();
+        return dst;
+    }
+
+    // 화면 장치와 같은 픽셀 형식 (헤드리스면 premultiplied ARGB)
+    private static BufferedImage compatible(int w, int h) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return gc.createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+}
@@ -29,6 +29,9 @@ public class TileView extends JComponent {
     public boolean isFromHand() { return fromHand; }
     public void setFromHand(boolean v) { this.fromHand = v; }
 
+    // BoardPanel 이 마지막으로 배치한 회차 (배치에서 빠진 타일을 찾는 데 씀)
+    int boardMark;
+
     public TileView(String tileId, Image img) {
         this.tileId = tileId;
         this.img = img;
@@ -36,8 +39,8 @@ public class TileView extends JComponent {
         // 타일 문자열 파싱
         parseTileId(tileId);
 
-        setSize(60, 80);
-        setPreferredSize(new Dimension(60, 80));
+        setSize(TileImages.WIDTH, TileImages.HEIGHT);
+        setPreferredSize(new Dimension(TileImages.WIDTH, TileImages.HEIGHT));
 
         addMouseListener(mouseListener);
         addMouseMotionListener(mouseMotionListener);
@@ -51,10 +54,19 @@ public class TileView extends JComponent {
         return tileId;
     }
 
+    // 드래그 고스트용
+    Image image() {
+        return img;
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
 
-        g.drawImage(img, 0, 0, getWidth(), getHeight(), null);
+        // 캐시 이미지는 이미 타일 크기라 그대로 복사 (크기가 다를 때만 늘리거나 줄임)
+        if (img != null && img.getWidth(null) == getWidth() && img.getHeight(null) == getHeight())
+            g.drawImage(img, 0, 0, null);
+        else
+            g.drawImage(img, 0, 0, getWidth(), getHeight(), null);
 
         if (dragging) {
             Graphics2D g2 = (Graphics2D) g;
@@ -104,11 +116,7 @@ public class TileView extends JComponent {
             offsetX = e.getX();
             offsetY = e.getY();
 
-            if (getParent() != null) {
-                getParent().setComponentZOrder(TileView.this, 0);
-                getParent().repaint();
-            }
-
+            // 자기 자리만 흐리게 다시 그림 (끌고 다니는 모습은 RoomView 의 드래그 고스트가 그림)
             repaint();
         }
 
@@ -119,7 +127,8 @@ public class TileView extends JComponent {
             dragging = false;
             repaint();
 
-            firePropertyChange("tileDropped", false, true);
+            // 놓은 위치 (이 타일 기준 좌표) → RoomView 가 보드 좌표로 바꿈
+            firePropertyChange("tileDropped", null, new Point(e.getX(), e.getY()));
         }
 
         @Override
@@ -145,9 +154,6 @@ public class TileView extends JComponent {
                     null,
                     new Point(e.getX(), e.getY())
             );
-
-            if (getParent() != null)
-                getParent().repaint();
         }
     };
 }
\ No newline at end of file
@@ -9,8 +9,8 @@ public class TwoRowHandPanel extends JPanel {
 
     private final List<TileView> tileViews = new ArrayList<>();
 
-    private static final int TILE_WIDTH = 60;
-    private static final int TILE_HEIGHT = 80;
+    private static final int TILE_WIDTH = TileImages.WIDTH;
+    private static final int TILE_HEIGHT = TileImages.HEIGHT;
     private static final int TILE_GAP = 10;
 
     public TwoRowHandPanel() {
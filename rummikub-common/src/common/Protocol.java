@@ -26,9 +26,23 @@ public class Protocol {
     public static final String INITIAL_TILES = "INITIAL_TILES";  // INITIAL_TILES|R1,BL3,Y10,...
     public static final String WIN = "WIN";  // WIN|플레이어이름
     public static final String GAME_OVER = "GAME_OVER"; // GAME_OVER|플레이어이름
-    public static final String BOARD = "BOARD";  // BOARD|R1,R2,R3;BL5,BL6,BL7
-    public static final String PLAY_OK = "PLAY_OK";  // PLAY_OK|플레이어이름|보드상태
+    public static final String BOARD = "BOARD";  // BOARD|버전|R1,R2,R3;BL5,BL6,BL7 (BOARD_SYNC 응답)
+    public static final String BOARD_SYNC = "BOARD_SYNC";  // 보드 버전이 어긋난 클라이언트의 전체 보드 요청
+    public static final String PLAY_OK = "PLAY_OK";  // PLAY_OK|플레이어이름|버전|변경분 (=a-b 유지, ~k:타일 변경, +타일 추가)
     public static final String PLAY_FAIL = "PLAY_FAIL";  // PLAY_FAIL
 
+    // 누적 점수 순위 (서버 재시작 후에도 유지)
+    public static final String LEADERBOARD = "LEADERBOARD";  // LEADERBOARD|n → LEADERBOARD|이름,점수,승수;... (최대 100명)
+
+    // 와이어 형식 협상 (LOGIN 바로 다음 줄, 자세한 형식은 Wire)
+    public static final String PROTO = "PROTO";  // PROTO|BIN 요청 → PROTO|BIN(수락, 이후 바이너리) / PROTO|TEXT(거절)
+
+    // 로비 방 목록
+    public static final String LIST = "LIST";                          // LIST → ROOM_LIST|id,name,count;...
+    public static final String ROOM_LIST = "ROOM_LIST";
+    public static final String LIST_SUBSCRIBE = "LIST_SUBSCRIBE";      // 로비에 있는 동안 델타 푸시 요청
+    public static final String LIST_UNSUBSCRIBE = "LIST_UNSUBSCRIBE";
+    public static final String ROOM_LIST_DELTA = "ROOM_LIST_DELTA";    // ROOM_LIST_DELTA|버전|FULL|목록, |PUT|id,name,count, |DEL|id
+
     private Protocol() {} // 인스턴스 생성 방지
 }
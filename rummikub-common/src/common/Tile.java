@@ -2,7 +2,41 @@ package common;
 
 import java.io.Serializable;
 
+/**
+ * 타일 모델 + 정수 타일 코드 변환기
+ *
+ * 타일 종류(kind, 0~53): 색상 4 × 숫자 13 = 52 + 조커 2
+ *   kind = color * 13 + (number - 1),  조커: RED_JOKER(52), BLACK_JOKER(53)
+ *   color 순서: R(0), BL(1), Y(2), B(3)
+ *
+ * 물리 타일 id(0~105): 같은 종류의 두 번째 장까지 구분
+ *   일반 타일 id = kind * 2 + copy (0~103),  조커 104(R), 105(B)
+ *
+ * 문자열("BL13", "RJoker")은 프로토콜 경계에서만 쓰고, 서버 내부는 kind 코드(byte)로 처리
+ */
 public class Tile implements Serializable {
+
+    public static final int COLOR_COUNT = 4;
+    public static final int MAX_NUMBER = 13;
+
+    public static final int RED_JOKER = COLOR_COUNT * MAX_NUMBER;   // 52
+    public static final int BLACK_JOKER = RED_JOKER + 1;            // 53
+    public static final int KIND_COUNT = BLACK_JOKER + 1;           // 54
+    public static final int PHYSICAL_COUNT = RED_JOKER * 2 + 2;     // 106
+
+    public static final int JOKER_COLOR = COLOR_COUNT; // 조커의 colorOf 값
+
+    private static final String[] COLORS = { "R", "BL", "Y", "B" };
+    private static final String[] NAMES = new String[KIND_COUNT];
+
+    static {
+        for (int c = 0; c < COLOR_COUNT; c++)
+            for (int n = 1; n <= MAX_NUMBER; n++)
+                NAMES[kind(c, n)] = COLORS[c] + n;
+        NAMES[RED_JOKER] = "RJoker";
+        NAMES[BLACK_JOKER] = "BJoker";
+    }
+
     private String color;
     private int number;
     private boolean isJoker;
@@ -25,4 +59,91 @@ public class Tile implements Serializable {
     public String toString() {
         return getImageName();
     }
+
+    // ============================================================
+    // 정수 코드 ↔ 모델
+
+    public static Tile fromKind(int kind) {
+        if (isJoker(kind))
+            return new Tile(kind == RED_JOKER ? "R" : "B", 0, true);
+        return new Tile(COLORS[colorOf(kind)], numberOf(kind), false);
+    }
+
+    public int kind() {
+        return parse(getImageName());
+    }
+
+    // ============================================================
+    // 정수 코드 유틸
+
+    public static int kind(int color, int number) {
+        return color * MAX_NUMBER + (number - 1);
+    }
+
+    // 물리 타일 id → 종류
+    public static int kindOf(int physicalId) {
+        return physicalId < RED_JOKER * 2 ? physicalId >> 1 : RED_JOKER + (physicalId - RED_JOKER * 2);
+    }
+
+    public static boolean isJoker(int kind) {
+        return kind >= RED_JOKER;
+    }
+
+    // 0~3, 조커는 JOKER_COLOR
+    public static int colorOf(int kind) {
+        return kind >= RED_JOKER ? JOKER_COLOR : kind / MAX_NUMBER;
+    }
+
+    // 1~13, 조커는 0
+    public static int numberOf(int kind) {
+        return kind >= RED_JOKER ? 0 : kind % MAX_NUMBER + 1;
+    }
+
+    public static String name(int kind) {
+        return NAMES[kind];
+    }
+
+    public static int parse(String s) {
+        return parse(s, 0, s.length());
+    }
+
+    // s[from, to) 의 타일 이름을 종류 코드로 변환 ("R5", "BL13", "BJoker"), 못 읽으면 -1
+    public static int parse(String s, int from, int to) {
+        if (to - from < 2) return -1;
+
+        int color;
+        int p = from;
+        char c = s.charAt(p++);
+        if (c == 'R') {
+            color = 0;
+        } else if (c == 'B') {
+            if (s.charAt(p) == 'L') {
+                color = 1;
+                p++;
+            } else {
+                color = 3;
+            }
+        } else if (c == 'Y') {
+            color = 2;
+        } else {
+            return -1;
+        }
+
+        if (s.startsWith("Joker", p) && p + 5 == to) {
+            if (color == 0) return RED_JOKER;
+            if (color == 3) return BLACK_JOKER;
+            return -1;
+        }
+
+        int n = 0;
+        if (p >= to) return -1;
+        for (; p < to; p++) {
+            char d = s.charAt(p);
+            if (d < '0' || d > '9') return -1;
+            n = n * 10 + (d - '0');
+            if (n > MAX_NUMBER) return -1;
+        }
+        if (n < 1) return -1;
+        return kind(color, n);
+    }
 }
@@ -0,0 +1,669 @@
+package common;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 바이너리 와이어 프로토콜 (선택 사항, 기본은 TYPE|payload 텍스트 줄)
+ *
+ * 협상: 클라이언트가 LOGIN|이름 바로 다음 줄에 PROTO|BIN 을 보내면 서버가 PROTO|BIN(수락) 또는 PROTO|TEXT(거절)를
+ *       텍스트로 답함. 수락이면 그 다음부터 양방향 모두 바이너리 프레임
+ *       (서버는 PROTO|BIN 줄 직후부터 바이너리로 읽고, 클라이언트는 응답을 받을 때까지 보낼 줄을 모아 둠)
+ *
+ * 프레임 = 길이(varint, opcode 포함) + opcode(1바이트) + 필드들
+ * 필드 종류 (SCHEMA 의 글자)
+ *   i  정수 (zigzag varint)
+ *   s  문자열 (varint 길이 + UTF-8), 마지막 필드면 텍스트의 나머지 전부('|' 포함)
+ *   t  타일 목록 "R1,BL3" (개수 + 타일 1바이트씩)
+ *   b  보드 "R1,R2,R3;BJoker(6),BL7" (멜드 수 + 멜드마다 [타일 수 + 타일들])
+ *   d  보드 변경분 "=0-2;~3:R1,R2;+Y5,Y6,Y7" (항목 수 + 항목마다 [종류 + 번호 또는 멜드])
+ * 타일 1바이트 = Tile 종류 코드(0~53), 보드/변경분의 조커는 뒤에 값 1바이트(0 = 값 없음)
+ *
+ * 텍스트 줄과 1:1 로 바뀌고(toBinary / toText), 형식이 맞지 않는 줄은 OP_TEXT 에 줄 그대로 담아 보냄
+ * → 보내는 쪽은 지금처럼 문자열을 만들면 되고, 받는 쪽은 opcode 로 분기해 필드를 바로 읽음 (split 없음)
+ * 보내는 쪽은 만든 줄을 다시 훑어 프레임으로 바꾸므로 텍스트보다 인코딩 CPU 가 더 듦 (메시지당 약 3배, 브로드캐스트는 한 번만)
+ * → 바이너리의 이득은 전송 바이트와 받는 쪽 해석 비용 (서버 송신 CPU 는 늘어남)
+ */
+public final class Wire {
+
+    public static final int MAX_FRAME_BYTES = 64 * 1024;
+
+    // ============================================================
+    // opcode
+    public static final int OP_TEXT = 0;   // 바이너리로 못 바꾼 줄 그대로 (s)
+
+    // 클라이언트 → 서버
+    public static final int OP_LIST = 1;
+    public static final int OP_LIST_SUBSCRIBE = 2;
+    public static final int OP_LIST_UNSUBSCRIBE = 3;
+    public static final int OP_CREATE = 4;
+    public static final int OP_JOIN = 5;
+    public static final int OP_LEAVE = 6;
+    public static final int OP_CHAT = 7;   // 양방향
+    public static final int OP_PLAY = 8;
+    public static final int OP_NO_TILE = 9;
+    public static final int OP_BOARD_SYNC = 10;
+    public static final int OP_START_GAME = 11;
+    public static final int OP_EXIT = 12;
+    public static final int OP_LEADERBOARD = 13;   // 양방향 (요청 n / 응답 목록)
+
+    // 서버 → 클라이언트
+    public static final int OP_INFO = 32;
+    public static final int OP_ERROR = 33;
+    public static final int OP_OWNER = 34;
+    public static final int OP_PLAYER_COUNT = 35;
+    public static final int OP_GAME_START = 36;
+    public static final int OP_INITIAL_TILES = 37;
+    public static final int OP_TURN = 38;
+    public static final int OP_PLAY_OK = 39;
+    public static final int OP_PLAY_FAIL = 40;
+    public static final int OP_NEW_TILE = 41;
+    public static final int OP_SCORE = 42;
+    public static final int OP_GAME_END = 43;
+    public static final int OP_JOIN_OK = 44;
+    public static final int OP_BOARD = 45;
+    public static final int OP_ROOM_LIST = 46;
+    public static final int OP_ROOM_LIST_DELTA = 47;
+
+    // 변경분 항목 종류
+    public static final int DIFF_KEEP = 0;    // =a-b
+    public static final int DIFF_CHANGE = 1;  // ~k:멜드
+    public static final int DIFF_ADD = 2;     // +멜드
+
+    private static final String[] NAMES = new String[64];
+    private static final String[] SCHEMA = new String[64];
+    private static final Map<String, Integer> OPCODES = new HashMap<>();
+
+    static {
+        op(OP_TEXT, null, "s");
+        op(OP_LIST, "LIST", "");
+        op(OP_LIST_SUBSCRIBE, "LIST_SUBSCRIBE", "");
+        op(OP_LIST_UNSUBSCRIBE, "LIST_UNSUBSCRIBE", "");
+        op(OP_CREATE, "CREATE", "s");
+        op(OP_JOIN, "JOIN", "i");
+        op(OP_LEAVE, "LEAVE", "");
+        op(OP_CHAT, "CHAT", "s");
+        op(OP_PLAY, "PLAY", "b");
+        op(OP_NO_TILE, "NO_TILE", "");
+        op(OP_BOARD_SYNC, "BOARD_SYNC", "");
+        op(OP_START_GAME, "START_GAME", "");
+        op(OP_EXIT, "EXIT", "");
+        op(OP_LEADERBOARD, "LEADERBOARD", "s");
+
+        op(OP_INFO, "INFO", "s");
+        op(OP_ERROR, "ERROR", "s");
+        op(OP_OWNER, "OWNER", "s");
+        op(OP_PLAYER_COUNT, "PLAYER_COUNT", "i");
+        op(OP_GAME_START, "GAME_START", "i");
+        op(OP_INITIAL_TILES, "INITIAL_TILES", "t");
+        op(OP_TURN, "TURN", "s");
+        op(OP_PLAY_OK, "PLAY_OK", "sid");
+        op(OP_PLAY_FAIL, "PLAY_FAIL", "s");
+        op(OP_NEW_TILE, "NEW_TILE", "t");
+        op(OP_SCORE, "SCORE", "si");
+        op(OP_GAME_END, "GAME_END", "s");
+        op(OP_JOIN_OK, "JOIN_OK", "i");
+        op(OP_BOARD, "BOARD", "ib");
+        op(OP_ROOM_LIST, "ROOM_LIST", "s");
+        op(OP_ROOM_LIST_DELTA, "ROOM_LIST_DELTA", "iss");
+    }
+
+    private static void op(int code, String name, String schema) {
+        NAMES[code] = name;
+        SCHEMA[code] = schema;
+        if (name != null) OPCODES.put(name, code);
+    }
+
+    private Wire() {}
+
+    // opcode → 텍스트 메시지 타입 (모르는 opcode 나 OP_TEXT 는 null)
+    public static String typeName(int op) {
+        return op >= 0 && op < NAMES.length ? NAMES[op] : null;
+    }
+
+    // ============================================================
+    // 텍스트 줄 → 바이너리 프레임 (길이 포함)
+    public static byte[] toBinary(String line) {
+        Out out = new Out(line.length() + 8);
+        if (!encodeFields(line, out)) {
+            out.reset();
+            out.u8(OP_TEXT);
+            out.string(line, 0, line.length());
+        }
+        return out.toFrame();
+    }
+
+    private static boolean encodeFields(String line, Out out) {
+        int sep = line.indexOf('|');
+        Integer op = OPCODES.get(sep < 0 ? line : line.substring(0, sep));
+        if (op == null) return false;
+
+        String schema = SCHEMA[op];
+        if (schema.isEmpty() != (sep < 0)) return false;
+        out.u8(op);
+
+        int from = sep + 1;
+        for (int f = 0; f < schema.length(); f++) {
+            boolean last = f == schema.length() - 1;
+            int to = last ? line.length() : line.indexOf('|', from);
+            if (to < 0) return false;
+
+            boolean ok;
+            switch (schema.charAt(f)) {
+                case 'i': ok = encodeInt(line, from, to, out); break;
+                case 's': out.string(line, from, to); ok = true; break;
+                case 't': ok = encodeTiles(line, from, to, out); break;
+                case 'b': ok = encodeBoard(line, from, to, out); break;
+                case 'd': ok = encodeDiff(line, from, to, out); break;
+                default: ok = false;
+            }
+            if (!ok) return false;
+            from = to + 1;
+        }
+        return true;
+    }
+
+    // 되돌렸을 때 같은 문자열이 되는 정수만 ("007", "+1", " 3" 은 거절)
+    private static boolean encodeInt(String s, int from, int to, Out out) {
+        int p = from;
+        boolean neg = p < to && s.charAt(p) == '-';
+        if (neg) p++;
+        if (p == to || to - p > 9) return false;
+        if (s.charAt(p) == '0' && (to - p > 1 || neg)) return false;
+
+        int v = 0;
+        for (; p < to; p++) {
+            char c = s.charAt(p);
+            if (c < '0' || c > '9') return false;
+            v = v * 10 + (c - '0');
+        }
+        out.varint(zigzag(neg ? -v : v));
+        return true;
+    }
+
+    // s[from, to) 의 타일 하나, 정확히 Tile.name 과 같아야 함 (못 읽으면 -1)
+    private static int canonicalTile(String s, int from, int to) {
+        int kind = Tile.parse(s, from, to);
+        if (kind < 0) return -1;
+        String name = Tile.name(kind);
+        return name.length() == to - from && s.regionMatches(from, name, 0, name.length()) ? kind : -1;
+    }
+
+    private static boolean encodeTiles(String s, int from, int to, Out out) {
+        if (from == to) {
+            out.varint(0);
+            return true;
+        }
+        int count = 1;
+        for (int i = from; i < to; i++)
+            if (s.charAt(i) == ',') count++;
+        out.varint(count);
+
+        int a = from;
+        while (a <= to) {
+            int b = s.indexOf(',', a);
+            if (b < 0 || b > to) b = to;
+            int kind = canonicalTile(s, a, b);
+            if (kind < 0) return false;
+            out.u8(kind);
+            a = b + 1;
+        }
+        return true;
+    }
+
+    // "R1,BJoker(6),R3" (조커만 괄호 값 허용)
+    private static boolean encodeMeld(String s, int from, int to, Out out) {
+        if (from == to) return false;
+        int count = 1;
+        for (int i = from; i < to; i++)
+            if (s.charAt(i) == ',') count++;
+        out.varint(count);
+
+        int a = from;
+        while (a <= to) {
+            int b = s.indexOf(',', a);
+            if (b < 0 || b > to) b = to;
+
+            int paren = s.indexOf('(', a);
+            if (paren < 0 || paren > b) paren = b;
+            int kind = canonicalTile(s, a, paren);
+            if (kind < 0) return false;
+            out.u8(kind);
+
+            if (Tile.isJoker(kind)) {
+                int value = 0;
+                if (paren < b) {
+                    // "(v)" 1~13
+                    if (s.charAt(b - 1) != ')' || b - paren < 3 || b - paren > 4) return false;
+                    for (int i = paren + 1; i < b - 1; i++) {
+                        char c = s.charAt(i);
+                        if (c < '0' || c > '9') return false;
+                        value = value * 10 + (c - '0');
+                    }
+                    if (value < 1 || value > Tile.MAX_NUMBER || s.charAt(paren + 1) == '0') return false;
+                }
+                out.u8(value);
+            } else if (paren < b) {
+                return false;
+            }
+            a = b + 1;
+        }
+        return true;
+    }
+
+    private static boolean encodeBoard(String s, int from, int to, Out out) {
+        if (from == to) {
+            out.varint(0);
+            return true;
+        }
+        int count = 1;
+        for (int i = from; i < to; i++)
+            if (s.charAt(i) == ';') count++;
+        out.varint(count);
+
+        int a = from;
+        while (a <= to) {
+            int b = s.indexOf(';', a);
+            if (b < 0 || b > to) b = to;
+            if (!encodeMeld(s, a, b, out)) return false;
+            a = b + 1;
+        }
+        return true;
+    }
+
+    private static boolean encodeDiff(String s, int from, int to, Out out) {
+        if (from == to) {
+            out.varint(0);
+            return true;
+        }
+        int count = 1;
+        for (int i = from; i < to; i++)
+            if (s.charAt(i) == ';') count++;
+        out.varint(count);
+
+        int a = from;
+        while (a <= to) {
+            int b = s.indexOf(';', a);
+            if (b < 0 || b > to) b = to;
+            if (a == b) return false;
+
+            char kind = s.charAt(a);
+            if (kind == '=') {
+                int dash = s.indexOf('-', a);
+                if (dash < 0 || dash > b) dash = b;
+                int lo = parseIndex(s, a + 1, dash);
+                int hi = dash == b ? lo : parseIndex(s, dash + 1, b);
+                if (lo < 0 || hi <= lo && dash != b) return false;
+                out.u8(DIFF_KEEP);
+                out.varint(lo);
+                out.varint(hi - lo);
+            } else if (kind == '~') {
+                int colon = s.indexOf(':', a);
+                if (colon < 0 || colon > b) return false;
+                int k = parseIndex(s, a + 1, colon);
+                if (k < 0) return false;
+                out.u8(DIFF_CHANGE);
+                out.varint(k);
+                if (!encodeMeld(s, colon + 1, b, out)) return false;
+            } else if (kind == '+') {
+                out.u8(DIFF_ADD);
+                if (!encodeMeld(s, a + 1, b, out)) return false;
+            } else {
+                return false;
+            }
+            a = b + 1;
+        }
+        return true;
+    }
+
+    // 음이 아닌 정수 (앞자리 0 불가), 아니면 -1
+    private static int parseIndex(String s, int from, int to) {
+        if (from == to || to - from > 9 || (s.charAt(from) == '0' && to - from > 1)) return -1;
+        int v = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            v = v * 10 + (c - '0');
+        }
+        return v;
+    }
+
+    // ============================================================
+    // 바이너리 프레임 → 텍스트 줄 (payload 는 opcode 부터, 길이 제외)
+    // 타입별로 필드를 직접 읽지 않는 쪽(GUI 클라이언트 등)이 기존 줄 처리 코드를 그대로 쓰기 위한 변환
+    public static String toText(ByteBuffer payload) {
+        int op = payload.get() & 0xFF;
+        if (op == OP_TEXT) return readString(payload);
+
+        String name = typeName(op);
+        if (name == null) throw new IllegalArgumentException("unknown opcode " + op);
+        StringBuilder sb = new StringBuilder(name);
+        String schema = SCHEMA[op];
+        for (int f = 0; f < schema.length(); f++) {
+            sb.append('|');
+            appendField(schema.charAt(f), payload, sb);
+        }
+        return sb.toString();
+    }
+
+    // opcode 를 읽은 뒤의 필드들만 텍스트로 (TYPE| 뒤 부분)
+    public static String fieldsToText(int op, ByteBuffer payload) {
+        String schema = SCHEMA[op];
+        if (schema.length() == 1 && schema.charAt(0) == 's') return readString(payload);
+
+        StringBuilder sb = new StringBuilder();
+        for (int f = 0; f < schema.length(); f++) {
+            if (f > 0) sb.append('|');
+            appendField(schema.charAt(f), payload, sb);
+        }
+        return sb.toString();
+    }
+
+    private static void appendField(char type, ByteBuffer in, StringBuilder sb) {
+        switch (type) {
+            case 'i':
+                sb.append(readInt(in));
+                break;
+            case 's':
+                sb.append(readString(in));
+                break;
+            case 't': {
+                int n = readVarint(in);
+                for (int i = 0; i < n; i++) {
+                    if (i > 0) sb.append(',');
+                    sb.append(Tile.name(tile(in)));
+                }
+                break;
+            }
+            case 'b': {
+                int n = readVarint(in);
+                for (int i = 0; i < n; i++) {
+                    if (i > 0) sb.append(';');
+                    appendMeld(in, sb);
+                }
+                break;
+            }
+            case 'd': {
+                int n = readVarint(in);
+                for (int i = 0; i < n; i++) {
+                    if (i > 0) sb.append(';');
+                    int kind = in.get();
+                    if (kind == DIFF_KEEP) {
+                        int lo = readVarint(in);
+                        int span = readVarint(in);
+                        sb.append('=').append(lo);
+                        if (span > 0) sb.append('-').append(lo + span);
+                    } else if (kind == DIFF_CHANGE) {
+                        sb.append('~').append(readVarint(in)).append(':');
+                        appendMeld(in, sb);
+                    } else if (kind == DIFF_ADD) {
+                        sb.append('+');
+                        appendMeld(in, sb);
+                    } else {
+                        throw new IllegalArgumentException("diff item " + kind);
+                    }
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("schema " + type);
+        }
+    }
+
+    private static void appendMeld(ByteBuffer in, StringBuilder sb) {
+        int n = readVarint(in);
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(',');
+            int kind = tile(in);
+            sb.append(Tile.name(kind));
+            if (Tile.isJoker(kind)) {
+                int v = in.get();
+                if (v > 0) sb.append('(').append(v).append(')');
+            }
+        }
+    }
+
+    private static int tile(ByteBuffer in) {
+        int kind = in.get();
+        if (kind < 0 || kind >= Tile.KIND_COUNT) throw new IllegalArgumentException("tile " + kind);
+        return kind;
+    }
+
+    // ============================================================
+    // 필드 직접 읽기 (받는 쪽 빠른 경로)
+
+    public static int readVarint(ByteBuffer in) {
+        int v = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.get();
+            v |= (b & 0x7F) << shift;
+            if (b >= 0) return v;
+        }
+        throw new IllegalArgumentException("varint too long");
+    }
+
+    public static int readInt(ByteBuffer in) {
+        int z = readVarint(in);
+        return (z >>> 1) ^ -(z & 1);
+    }
+
+    public static String readString(ByteBuffer in) {
+        int len = readVarint(in);
+        if (len > in.remaining()) throw new BufferUnderflowException();
+        String s;
+        if (in.hasArray()) {
+            s = new String(in.array(), in.arrayOffset() + in.position(), len, StandardCharsets.UTF_8);
+        } else {
+            byte[] tmp = new byte[len];
+            in.duplicate().get(tmp);
+            s = new String(tmp, StandardCharsets.UTF_8);
+        }
+        in.position(in.position() + len);
+        return s;
+    }
+
+    // 타일 목록 → 종류 코드
+    public static byte[] readTiles(ByteBuffer in) {
+        byte[] out = new byte[readVarint(in)];
+        for (int i = 0; i < out.length; i++)
+            out[i] = (byte) tile(in);
+        return out;
+    }
+
+    // 멜드 하나 → 종류 코드 (조커 값은 건너뜀), 모르는 타일이면 null
+    public static byte[] readMeld(ByteBuffer in) {
+        byte[] meld = new byte[readVarint(in)];
+        boolean ok = true;
+        for (int i = 0; i < meld.length; i++) {
+            int kind = in.get();
+            if (kind < 0 || kind >= Tile.KIND_COUNT) {
+                ok = false;
+                continue;
+            }
+            meld[i] = (byte) kind;
+            if (Tile.isJoker(kind)) in.get();
+        }
+        return ok ? meld : null;
+    }
+
+    // 타일 목록 → 타일 문자열 ("R1", "BL3")
+    public static String[] readTileNames(ByteBuffer in) {
+        String[] out = new String[readVarint(in)];
+        for (int i = 0; i < out.length; i++)
+            out[i] = Tile.name(tile(in));
+        return out;
+    }
+
+    // 멜드 하나 → 타일 문자열 (조커 값은 텍스트와 같게 "BJoker(6)")
+    public static String[] readMeldNames(ByteBuffer in) {
+        String[] out = new String[readVarint(in)];
+        for (int i = 0; i < out.length; i++) {
+            int kind = tile(in);
+            String name = Tile.name(kind);
+            if (Tile.isJoker(kind)) {
+                int v = in.get();
+                if (v > 0) name = name + "(" + v + ")";
+            }
+            out[i] = name;
+        }
+        return out;
+    }
+
+    // 보드 → 멜드별 종류 코드, 모르는 타일이 있으면 null (GameCore.parseMoveData 와 같은 약속)
+    public static List<byte[]> readBoard(ByteBuffer in) {
+        int n = readVarint(in);
+        List<byte[]> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            byte[] meld = readMeld(in);
+            if (meld == null) return null;
+            out.add(meld);
+        }
+        return out;
+    }
+
+    private static int zigzag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    // ============================================================
+    // 프레임 쓰기 버퍼 (앞에 길이 varint 를 붙여 완성)
+    private static final class Out {
+        private byte[] buf;
+        private int len;
+
+        Out(int capacity) {
+            buf = new byte[capacity];
+        }
+
+        void reset() {
+            len = 0;
+        }
+
+        void u8(int v) {
+            if (len == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+            buf[len++] = (byte) v;
+        }
+
+        void varint(int v) {
+            while ((v & ~0x7F) != 0) {
+                u8((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            u8(v);
+        }
+
+        void string(String s, int from, int to) {
+            byte[] b = s.substring(from, to).getBytes(StandardCharsets.UTF_8);
+            varint(b.length);
+            if (len + b.length > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + b.length));
+            System.arraycopy(b, 0, buf, len, b.length);
+            len += b.length;
+        }
+
+        byte[] toFrame() {
+            int header = 1;
+            for (int v = len; (v & ~0x7F) != 0; v >>>= 7) header++;
+            byte[] frame = new byte[header + len];
+            int p = 0;
+            int v = len;
+            while ((v & ~0x7F) != 0) {
+                frame[p++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            frame[p++] = (byte) v;
+            System.arraycopy(buf, 0, frame, p, len);
+            return frame;
+        }
+    }
+
+    // ============================================================
+    // 블로킹 스트림 읽기: 텍스트 줄과 바이너리 프레임을 같은 버퍼에서 이어 읽음 (협상 직후 모드 전환용)
+    // readFrame 이 돌려주는 버퍼는 다음 read 호출 전까지만 유효
+    public static final class StreamReader {
+        private final InputStream in;
+        private final byte[] buf = new byte[8192];
+        private int pos, limit;
+        private byte[] scratch = new byte[256];
+        private long bytesRead;
+
+        public StreamReader(InputStream in) {
+            this.in = in;
+        }
+
+        public long bytesRead() {
+            return bytesRead;
+        }
+
+        private boolean fill() throws IOException {
+            int n = in.read(buf, 0, buf.length);
+            if (n <= 0) return false;
+            pos = 0;
+            limit = n;
+            bytesRead += n;
+            return true;
+        }
+
+        private int next() throws IOException {
+            if (pos == limit && !fill()) return -1;
+            return buf[pos++] & 0xFF;
+        }
+
+        // '\n' 까지 한 줄 (UTF-8, 끝의 '\r' 제거), 연결이 끝났으면 null
+        public String readLine() throws IOException {
+            int n = 0;
+            while (true) {
+                if (pos == limit && !fill()) {
+                    if (n == 0) return null;
+                    break;
+                }
+                int start = pos;
+                while (pos < limit && buf[pos] != '\n') pos++;
+                int len = pos - start;
+                if (n + len > scratch.length) scratch = Arrays.copyOf(scratch, Math.max(scratch.length * 2, n + len));
+                System.arraycopy(buf, start, scratch, n, len);
+                n += len;
+                if (pos < limit) {
+                    pos++; // '\n'
+                    break;
+                }
+            }
+            if (n > 0 && scratch[n - 1] == '\r') n--;
+            return new String(scratch, 0, n, StandardCharsets.UTF_8);
+        }
+
+        // 프레임 하나 (opcode 부터), 연결이 끝났으면 null
+        public ByteBuffer readFrame() throws IOException {
+            int b = next();
+            if (b < 0) return null;
+            int len = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (shift > 21) throw new IOException("frame length too long");
+                len |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) break;
+                b = next();
+                if (b < 0) throw new EOFException();
+            }
+            if (len == 0 || len > MAX_FRAME_BYTES) throw new IOException("bad frame length " + len);
+
+            if (len > scratch.length) scratch = new byte[Math.max(scratch.length * 2, len)];
+            int n = 0;
+            while (n < len) {
+                if (pos == limit && !fill()) throw new EOFException();
+                int r = Math.min(len - n, limit - pos);
+                System.arraycopy(buf, pos, scratch, n, r);
+                pos += r;
+                n += r;
+            }
+            return ByteBuffer.wrap(scratch, 0, len);
+        }
+    }
+}
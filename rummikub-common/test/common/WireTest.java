@@ -0,0 +1,84 @@
+package common;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 텍스트 줄 → toBinary → toText 가 원래 줄, 형식이 맞지 않는 줄은 OP_TEXT 로 그대로
+class WireTest {
+
+    // 프레임 길이를 건너뛴 payload (opcode 부터)
+    static ByteBuffer payload(String line) {
+        ByteBuffer frame = ByteBuffer.wrap(Wire.toBinary(line));
+        int len = Wire.readVarint(frame);
+        assertEquals(frame.remaining(), len, line);
+        return frame;
+    }
+
+    static int roundTrip(String line) {
+        ByteBuffer p = payload(line);
+        int op = p.get(p.position()) & 0xFF;
+        assertEquals(line, Wire.toText(p));
+        assertFalse(p.hasRemaining(), line);
+        return op;
+    }
+
+    @Test
+    void everyMessageTypeRoundTrips() {
+        String[] lines = {
+                "LIST", "LIST_SUBSCRIBE", "LIST_UNSUBSCRIBE", "CREATE|방 | 이름", "JOIN|12", "LEAVE",
+                "CHAT|안녕|하세요", "PLAY|R1,R2,R3;BL5,BJoker(6),BL7;RJoker,Y9,B9",
+                "NO_TILE", "BOARD_SYNC", "START_GAME", "EXIT", "LEADERBOARD|10",
+                "INFO|x", "ERROR|", "OWNER|p0", "PLAYER_COUNT|4", "GAME_START|-3",
+                "INITIAL_TILES|R1,BL13,Y7,B2,RJoker,BJoker", "INITIAL_TILES|", "TURN|p1",
+                "PLAY_OK|p1|7|=0-2;~3:R1,R2,RJoker(3);+Y5,Y6,Y7;=5",
+                "PLAY_OK|p1|8|", "PLAY_FAIL|이유", "NEW_TILE|BL4", "SCORE|p2|-45",
+                "GAME_END|p0", "JOIN_OK|2147483", "BOARD|0|", "BOARD|9|R13,RJoker(12),R11",
+                "ROOM_LIST|1,a,2;2,b,4", "ROOM_LIST_DELTA|3|방|대기",
+        };
+        for (String line : lines)
+            assertNotEquals(Wire.OP_TEXT, roundTrip(line), line);
+    }
+
+    // 바이너리로 바꾸면 다른 문자열이 되는 줄은 OP_TEXT 로 보내 글자 그대로 되돌림
+    @Test
+    void nonCanonicalLinesFallBackToText() {
+        String[] lines = {
+                "HELLO|world", "", "JOIN|007", "JOIN|+1", "JOIN|abc", "GAME_START|-0",
+                "PLAY|R1,R2,Q3", "PLAY|R1(1),R2,R3", "PLAY|RJoker(14),R2,R3", "PLAY|RJoker(0)",
+                "PLAY|R1,,R2", "PLAY_OK|p1|7|=2-1", "PLAY_OK|p1|7|*3", "PLAY_OK|p1|7|=01",
+                "SCORE|p2", "LIST|extra", "NEW_TILE|r1",
+        };
+        for (String line : lines)
+            assertEquals(Wire.OP_TEXT, roundTrip(line), line);
+    }
+
+    @Test
+    void fieldReadersMatchText() {
+        ByteBuffer p = payload("PLAY|R1,R2,R3;BL5,BJoker(6),BL7");
+        assertEquals(Wire.OP_PLAY, p.get());
+        List<byte[]> board = Wire.readBoard(p);
+        assertEquals(2, board.size());
+        assertArrayEquals(new byte[] { (byte) Tile.kind(1, 5), Tile.BLACK_JOKER, (byte) Tile.kind(1, 7) }, board.get(1));
+
+        p = payload("INITIAL_TILES|R1,BL13");
+        assertEquals(Wire.OP_INITIAL_TILES, p.get());
+        assertArrayEquals(new byte[] { (byte) Tile.kind(0, 1), (byte) Tile.kind(1, 13) }, Wire.readTiles(p));
+
+        p = payload("NEW_TILE|BL4");
+        assertEquals(Wire.OP_NEW_TILE, p.get());
+        assertArrayEquals(new String[] { "BL4" }, Wire.readTileNames(p));
+
+        // 이름으로 읽은 멜드는 텍스트 조각과 같은 문자열 (조커 값 포함)
+        p = payload("BOARD|9|R13,RJoker(12),R11;BJoker,Y9,B9");
+        assertEquals(Wire.OP_BOARD, p.get());
+        assertEquals(9, Wire.readInt(p));
+        assertEquals(2, Wire.readVarint(p));
+        assertArrayEquals(new String[] { "R13", "RJoker(12)", "R11" }, Wire.readMeldNames(p));
+        assertArrayEquals(new String[] { "BJoker", "Y9", "B9" }, Wire.readMeldNames(p));
+        assertFalse(p.hasRemaining());
+    }
+}
@@ -0,0 +1,99 @@
+package server;
+
+import common.Tile;
+
+import java.util.Arrays;
+import java.util.List;
+
+// 직전 보드 → 현재 보드 변경분 (PLAY_OK|이름|버전|변경분 의 마지막 부분)
+// 현재 보드 순서대로 항목을 ';' 로 나열
+//   =a, =a-b       직전 보드 a(~b)번 멜드를 그대로 유지
+//   ~k:R3,R4,R5    직전 보드 k번 멜드가 이 멜드로 바뀜 (같은 종류 타일이 가장 많이 겹치는 멜드와 짝지음)
+//   +R1,R2,RJoker(3)  새 멜드
+// 어느 항목에서도 가리키지 않은 직전 멜드는 삭제된 것
+// 멜드가 같다 = 타일 순서와 조커 값까지 같음 (encodeBoard 로 보이는 문자열이 같음)
+final class BoardDiff {
+
+    private BoardDiff() {}
+
+    static String encode(List<byte[]> oldMelds, List<byte[]> oldValues,
+                         List<byte[]> newMelds, List<byte[]> newValues) {
+
+        int oldN = oldMelds.size(), newN = newMelds.size();
+        int[] src = new int[newN];          // 대응하는 직전 멜드 번호 (-1: 새 멜드)
+        boolean[] exact = new boolean[newN];
+        boolean[] used = new boolean[oldN];
+        Arrays.fill(src, -1);
+
+        // 1) 그대로 남은 멜드: 같은 자리를 먼저 보고, 없으면 아직 안 쓴 아무 멜드
+        for (int i = 0; i < newN && i < oldN; i++) {
+            if (same(oldMelds.get(i), oldValues.get(i), newMelds.get(i), newValues.get(i))) {
+                src[i] = i;
+                exact[i] = true;
+                used[i] = true;
+            }
+        }
+        for (int i = 0; i < newN; i++) {
+            if (src[i] >= 0) continue;
+            for (int j = 0; j < oldN; j++) {
+                if (!used[j] && same(oldMelds.get(j), oldValues.get(j), newMelds.get(i), newValues.get(i))) {
+                    src[i] = j;
+                    exact[i] = true;
+                    used[j] = true;
+                    break;
+                }
+            }
+        }
+
+        // 2) 바뀐 멜드: 남은 직전 멜드 중 겹치는 타일이 가장 많은 것
+        int[] count = new int[Tile.KIND_COUNT];
+        int[] seen = new int[Tile.KIND_COUNT];
+        for (int i = 0; i < newN; i++) {
+            if (src[i] >= 0) continue;
+            for (byte t : newMelds.get(i)) count[t]++;
+
+            int best = -1, bestOverlap = 0;
+            for (int j = 0; j < oldN; j++) {
+                if (used[j]) continue;
+                int overlap = 0;
+                for (byte t : oldMelds.get(j))
+                    if (seen[t]++ < count[t]) overlap++;
+                for (byte t : oldMelds.get(j)) seen[t] = 0;
+                if (overlap > bestOverlap) {
+                    bestOverlap = overlap;
+                    best = j;
+                }
+            }
+            for (byte t : newMelds.get(i)) count[t] = 0;
+
+            if (best >= 0) {
+                src[i] = best;
+                used[best] = true;
+            }
+        }
+
+        // 3) 인코딩 (연속으로 유지된 멜드는 범위 하나로)
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < newN; i++) {
+            if (sb.length() > 0) sb.append(';');
+
+            if (exact[i]) {
+                int end = i;
+                while (end + 1 < newN && exact[end + 1] && src[end + 1] == src[end] + 1) end++;
+                sb.append('=').append(src[i]);
+                if (end > i) sb.append('-').append(src[end]);
+                i = end;
+                continue;
+            }
+
+            if (src[i] >= 0) sb.append('~').append(src[i]).append(':');
+            else sb.append('+');
+            GameCore.appendMeld(sb, newMelds.get(i), newValues.get(i));
+        }
+        return sb.toString();
+    }
+
+    private static boolean same(byte[] m1, byte[] v1, byte[] m2, byte[] v2) {
+        return Arrays.equals(m1, m2) && Arrays.equals(v1, v2);
+    }
+}
@@ -1,57 +1,108 @@
 package server;
 
-import java.io.*;
-import java.net.Socket;
+import common.Wire;
 
-public class ClientSession extends Thread {
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.List;
 
-    private Socket socket;
-    private GameServer server;
+// 클라이언트 한 명의 프로토콜 처리 (LOGIN 이후 TYPE|payload 라인 해석)
+// 실제 소켓 입출력은 하위 클래스(SocketSession: 블로킹 스레드, NioSession: 셀렉터)가 담당
+// LOGIN 바로 다음 줄이 PROTO|BIN 이면 이후 양방향을 바이너리 프레임(common.Wire)으로 전환
+public abstract class ClientSession {
 
-    private BufferedReader in;
-    private PrintWriter out;
+    // -Drummikub.wire.binary=false 면 PROTO|BIN 요청을 거절하고 텍스트로만 통신
+    private static final boolean BINARY_ALLOWED =
+            Boolean.parseBoolean(System.getProperty("rummikub.wire.binary", "true"));
+
+    // 닉네임 최대 글자(코드 포인트) 수 (넘으면 잘라 씀, 방 / 저널 / 점수 저장소에 그대로 들어가므로)
+    static final int MAX_NAME = 32;
+
+    protected final GameServer server;
 
     private String playerName;
     private Room currentRoom; // null이면 로비
 
-    public ClientSession(Socket socket, GameServer server) {
-        this.socket = socket;
+    private boolean protoOpen;             // LOGIN 직후 한 줄 동안만 PROTO 협상 가능
+    private volatile boolean binaryWire;   // 읽기 스레드가 바꾸고 방 스레드의 send 가 읽음
+
+    protected ClientSession(GameServer server) {
         this.server = server;
-        try {
-            in  = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
-            out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), "UTF-8"), true); // auto-flush
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
     }
 
-    @Override
-    public void run() {
-        try {
+    // 수신한 한 줄 처리 (첫 줄은 닉네임)
+    protected void onLine(String line) {
+        if (playerName == null) {
             // 첫 메시지는 닉네임 (LOGIN|닉네임, 또는 닉네임만)
-            String first = in.readLine();
-            if (first == null) return;
-
-            if (first.startsWith("LOGIN|")) {
-                playerName = first.substring("LOGIN|".length());
+            if (line.startsWith("LOGIN|")) {
+                playerName = line.substring("LOGIN|".length());
             } else {
-                playerName = first;
+                playerName = line;
             }
+            if (playerName.codePointCount(0, playerName.length()) > MAX_NAME)
+                playerName = playerName.substring(0, playerName.offsetByCodePoints(0, MAX_NAME));
             System.out.println("👤 Player connected: " + playerName);
             send("INFO|로비에 입장했습니다.");
+            protoOpen = true;
+            return;
+        }
+        if (protoOpen) {
+            protoOpen = false;
+            if (line.startsWith("PROTO|")) {
+                negotiate(line.substring("PROTO|".length()));
+                return;
+            }
+        }
+        handleMessage(line);
+    }
 
-            String line;
-            while ((line = in.readLine()) != null) {
-                handleMessage(line);
+    // 응답은 텍스트로 보낸 뒤 전환 (이 시점에는 로비 푸시 구독 전이라 다른 스레드의 send 가 끼어들지 않음)
+    private void negotiate(String mode) {
+        if (mode.equals("BIN") && BINARY_ALLOWED) {
+            send("PROTO|BIN");
+            binaryWire = true;
+        } else {
+            send("PROTO|TEXT");
+        }
+    }
+
+    // 바이너리 모드 여부 (하위 클래스: 읽기는 줄 대신 프레임, 쓰기는 Frame 의 바이너리 버퍼)
+    protected boolean isBinaryWire() {
+        return binaryWire;
+    }
+
+    // 수신한 바이너리 프레임 하나 처리 (payload 는 opcode 부터, 호출 중에만 유효)
+    // PLAY 는 보드를 종류 코드로 바로 읽고, 나머지는 필드를 텍스트로 바꿔 같은 처리로 넘김
+    protected void onFrame(ByteBuffer payload) {
+        try {
+            int op = payload.get() & 0xFF;
+            if (op == Wire.OP_PLAY) {
+                handlePlay(Wire.readBoard(payload));
+            } else if (op == Wire.OP_TEXT) {
+                handleMessage(Wire.readString(payload));
+            } else {
+                String type = Wire.typeName(op);
+                if (type == null) {
+                    send("ERROR|알 수 없는 명령: " + op);
+                    return;
+                }
+                dispatch(type, Wire.fieldsToText(op, payload));
             }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            // 잘린 프레임 / 잘못된 타일 코드 등
+            send("ERROR|잘못된 메시지 형식");
+        }
+    }
 
-        } catch (IOException e) {
+    // 연결이 끊어졌을 때 한 번 호출
+    protected void onDisconnected() {
+        if (playerName != null) {
             System.out.println("⚠️ 연결 종료: " + playerName);
-        } finally {
-            if (currentRoom != null) {
-                currentRoom.removePlayer(this);
-            }
-            try { socket.close(); } catch (IOException ignore) {}
+        }
+        server.roomList().unsubscribe(this);
+        if (currentRoom != null) {
+            currentRoom.removePlayer(this);
         }
     }
 
@@ -66,13 +117,24 @@ public class ClientSession extends Thread {
         } else {
             type = msg;
         }
+        dispatch(type, data);
+    }
 
+    private void dispatch(String type, String data) {
         try {
             switch (type) {
                 case "LIST":
                     handleListRooms();
                     break;
 
+                case "LIST_SUBSCRIBE":   // 로비에 있는 동안 ROOM_LIST_DELTA 푸시 받기
+                    server.roomList().subscribe(this);
+                    break;
+
+                case "LIST_UNSUBSCRIBE":
+                    server.roomList().unsubscribe(this);
+                    break;
+
                 case "CREATE": // CREATE|방이름
                     handleCreateRoom(data);
                     break;
@@ -97,6 +159,10 @@ public class ClientSession extends Thread {
                     handleNoTile();
                     break;
 
+                case "BOARD_SYNC": // 보드 버전이 어긋났을 때 전체 보드 요청
+                    if (currentRoom != null) currentRoom.sendBoard(this);
+                    break;
+
                 case "START_GAME": // 방장이 [게임 시작] 눌렀을 때
                     handleStartGame();
                     break;
@@ -105,6 +171,14 @@ public class ClientSession extends Thread {
                     handleExit();
                     break;
 
+                case "LEADERBOARD": // LEADERBOARD|n → 누적 점수 상위 n 명
+                    handleLeaderboard(data);
+                    break;
+
+                case "PROTO":  // 협상은 LOGIN 직후에만
+                    send("PROTO|TEXT");
+                    break;
+
                 default:
                     send("ERROR|알 수 없는 명령: " + type);
             }
@@ -114,8 +188,18 @@ public class ClientSession extends Thread {
     }
 
     private void handleListRooms() throws IOException {
-        String roomListMsg = server.buildRoomListMessage();
-        send(roomListMsg);
+        server.roomList().list(this);
+    }
+
+    private void handleLeaderboard(String n) {
+        int count = 10;
+        try {
+            if (!n.isBlank()) count = Integer.parseInt(n.trim());
+        } catch (NumberFormatException e) {
+            send("ERROR|순위 개수 형식이 올바르지 않습니다.");
+            return;
+        }
+        send(server.scores().leaderboardMessage(count));
     }
 
     private void handleCreateRoom(String roomName) throws IOException {
@@ -123,12 +207,12 @@ public class ClientSession extends Thread {
             roomName = playerName + "의 방";
         }
         Room room = server.createRoom(roomName);
+        server.roomList().unsubscribe(this); // 방에 들어가면 로비 푸시 중단
         if (currentRoom != null) {
             currentRoom.removePlayer(this);
         }
         currentRoom = room;
-        room.addPlayer(this);
-        send("JOIN_OK|" + room.getId());
+        room.addPlayer(this); // JOIN_OK 는 방에서 입장 처리 후 전송
     }
 
     private void handleJoinRoom(String roomIdStr) throws IOException {
@@ -139,12 +223,12 @@ public class ClientSession extends Thread {
                 send("ERROR|존재하지 않는 방 ID 입니다.");
                 return;
             }
+            server.roomList().unsubscribe(this); // 방에 들어가면 로비 푸시 중단
             if (currentRoom != null) {
                 currentRoom.removePlayer(this);
             }
             currentRoom = room;
-            room.addPlayer(this);
-            send("JOIN_OK|" + room.getId());
+            room.addPlayer(this); // JOIN_OK 는 방에서 입장 처리 후 전송
         } catch (NumberFormatException e) {
             send("ERROR|방 번호 형식이 올바르지 않습니다.");
         }
@@ -170,6 +254,13 @@ public class ClientSession extends Thread {
         }
     }
 
+    // 바이너리 PLAY (모르는 타일이 있었으면 null → 규칙 위반으로 처리)
+    private void handlePlay(List<byte[]> melds) {
+        if (currentRoom != null) {
+            currentRoom.handlePlay(playerName, melds);
+        }
+    }
+
     private void handleNoTile() {
         if (currentRoom != null) {
             currentRoom.handleNoTile(playerName);
@@ -189,15 +280,20 @@ public class ClientSession extends Thread {
             currentRoom.removePlayer(this);
         }
         send("INFO|서버에서 연결 종료");
-        socket.close();
+        closeConnection();
     }
 
+    // 한 줄 전송 (NetIO 쪽의 readLine()과 짝 맞음)
     public void send(String msg) {
-        synchronized (out) {
-            out.println(msg); // NetIO 쪽의 readLine()과 짝 맞음
-        }
+        send(Frame.of(msg));
     }
 
+    // 이미 인코딩된 줄 전송 (브로드캐스트는 한 번 인코딩한 Frame 을 모든 세션에 그대로 넘김)
+    abstract void send(Frame frame);
+
+    // 연결 종료 요청 (이미 큐에 들어간 메시지는 가능한 한 전송 후 종료)
+    protected abstract void closeConnection() throws IOException;
+
     public String getPlayerName() {
         return playerName;
     }
@@ -0,0 +1,47 @@
+package server;
+
+import common.Wire;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// 전송용으로 인코딩이 끝난 한 줄 (UTF-8 + '\n')
+// 브로드캐스트는 메시지를 한 번만 인코딩해 같은 Frame 을 모든 세션에 넘기므로 내용은 절대 바꾸지 않음
+// 바이너리 프로토콜 세션이 있으면 바이너리 프레임(Wire)도 처음 필요할 때 한 번만 만들어 공유
+final class Frame {
+
+    private final String msg;
+    private final byte[] bytes;
+    private volatile byte[] binary;
+
+    private Frame(String msg, byte[] bytes) {
+        this.msg = msg;
+        this.bytes = bytes;
+    }
+
+    static Frame of(String msg) {
+        return new Frame(msg, (msg + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 원래 줄 (줄바꿈 없음)
+    String message() {
+        return msg;
+    }
+
+    // 텍스트 줄 길이
+    int length() {
+        return bytes.length;
+    }
+
+    // 세션 쓰기 큐용 읽기 전용 뷰 (내용은 공유, position 은 뷰마다 따로)
+    ByteBuffer buffer(boolean binaryWire) {
+        return ByteBuffer.wrap(binaryWire ? binary() : bytes).asReadOnlyBuffer();
+    }
+
+    // 여러 스레드가 동시에 만들어도 결과가 같으므로 락 없이 마지막 값을 씀
+    private byte[] binary() {
+        byte[] b = binary;
+        if (b == null) binary = b = Wire.toBinary(msg);
+        return b;
+    }
+}
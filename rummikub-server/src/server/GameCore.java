@@ -1,10 +1,17 @@
 package server;
 
+import common.Tile;
+import common.Wire;
+
+import java.nio.ByteBuffer;
 import java.util.*;
 
+// 타일은 내부적으로 common.Tile 의 종류 코드(0~53)를 byte 로 다루고,
+// 문자열 변환은 parseMoveData / encodeBoard / getHand / drawRandomTileFor 에서만 함
 public class GameCore {
 
-    private Map<String, List<String>> hands = new HashMap<>();
+    // 플레이어별 손패: 타일 종류별 개수 (Tile.KIND_COUNT 칸)
+    private Map<String, int[]> hands = new HashMap<>();
     private List<String> turnOrder = new ArrayList<>();
     private int turnIndex = 0;
 
@@ -12,40 +19,79 @@ public class GameCore {
 
     private Map<String, Boolean> playedThisTurn = new HashMap<>();
 
-    private List<String> tilePool = new ArrayList<>();
-    private Random random = new Random();
+    // 타일 더미: 물리 타일 id(0~105), 앞쪽 poolSize 개가 남은 타일 (뒤에서부터 뽑음)
+    private byte[] tilePool = new byte[Tile.PHYSICAL_COUNT];
+    private int poolSize = 0;
+    private long seed;                  // 셔플 시드 (리플레이 헤더에 기록, 같은 시드면 같은 더미, 판마다 새로)
 
-    private List<List<String>> tableMelds = new ArrayList<>();
+    // 테이블 멜드 (타일 종류 코드) + 같은 위치 타일의 숫자 값 (조커는 추론된 값)
+    private List<byte[]> tableMelds = new ArrayList<>();
+    private List<byte[]> tableValues = new ArrayList<>();
 
     private Map<String, Boolean> initialMeldDone = new HashMap<>();
 
-    private Map<String, Integer> jokerValueMap = new HashMap<>();
+    // 라운드 점수 변화를 넘겨받는 누적 점수 저장소 (없으면 방 안에서만 유지)
+    private ScoreStore scoreStore;
+
+    // 보드 버전: 보드가 바뀔 때마다 +1, 직전 버전 보드는 변경분(PLAY_OK) 계산용으로 보관
+    private int boardVersion = 0;
+    private List<byte[]> prevMelds = new ArrayList<>();
+    private List<byte[]> prevValues = new ArrayList<>();
+
+    // 마지막으로 받아들인 PLAY 에서 손패에서 빠진 타일 / 클라이언트가 제출한 보드 (저널 / 리플레이 기록용)
+    private byte[] lastFromHand = new byte[0];
+    private List<byte[]> lastSubmitted = new ArrayList<>();
+
+    // PLAY 검증용 타일 종류별 개수 (Tile.KIND_COUNT 칸, 방 액터 한 스레드에서만 쓰므로 할당 없이 재사용)
+    // oldCount: 턴 시작 보드, newCount: 제출 보드, playedCount: 늘어난 개수 = 이번 턴에 손패에서 낸 타일
+    private final int[] oldCount = new int[Tile.KIND_COUNT];
+    private final int[] newCount = new int[Tile.KIND_COUNT];
+    private final int[] playedCount = new int[Tile.KIND_COUNT];
+    private static final byte[] NONE = new byte[0];
+
+    // 나간 플레이어 / 재활용(recycle) 때 돌려받은 손패 배열 (다음 입장에 다시 씀)
+    private final ArrayDeque<int[]> spareHands = new ArrayDeque<>();
+
+    // 멜드 내용 → 조커 값 캐시: 현재 보드(tableMelds / tableValues)의 멜드를 내용 해시로 찾는 열린 주소 테이블
+    // 제출 보드에서 지금 보드와 내용이 같은 멜드는 이미 검증된 것이므로 값 배열을 그대로 쓰고, 새로 생기거나 바뀐 멜드만 검증
+    // 보드가 교체된 뒤 처음 검증할 때 다시 채움 (배열은 재사용, 값 배열은 만든 뒤 수정하지 않으므로 보드끼리 공유해도 됨)
+    private int[] meldSlots = new int[64];      // 멜드 번호 + 1 (0 = 빈 칸)
+    private int[] meldHashes = new int[32];     // indexedBoard 멜드별 Arrays.hashCode
+    private List<byte[]> indexedBoard;
+    private int[] meldClaims = new int[32];     // 초기 30 검사에서 짝지어진 멜드 (claimPass 와 같으면 이번 검사에서 이미 씀)
+    private int claimPass;
+    private long meldsValidated;                // 지표: 실제로 검증한 멜드 / 캐시에서 찾은 멜드
+    private long meldsCached;
 
 
     public GameCore() {
-        initTilePool();
+        this(new SplittableRandom().nextLong());
     }
 
-    private void initTilePool() {
-        String[] colors = { "R", "BL", "Y", "B" };
+    // 방에서는 방별 생성기(GameServer.splitRandom)에서 뽑은 시드로 만듦
+    public GameCore(long seed) {
+        this.seed = seed;
+        initTilePool(new SplittableRandom(seed));
+    }
 
-        for (int set = 0; set < 2; set++) {
-            for (String c : colors) {
-                for (int n = 1; n <= 13; n++) {
-                    tilePool.add(c + n);
-                }
-            }
+    private void initTilePool(SplittableRandom random) {
+        for (int id = 0; id < Tile.PHYSICAL_COUNT; id++) {
+            tilePool[id] = (byte) id;
+        }
+        poolSize = Tile.PHYSICAL_COUNT;
+
+        // Fisher-Yates 셔플
+        for (int i = poolSize - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte tmp = tilePool[i];
+            tilePool[i] = tilePool[j];
+            tilePool[j] = tmp;
         }
-
-        tilePool.add("RJoker");
-        tilePool.add("BJoker");
-
-        Collections.shuffle(tilePool, random);
     }
 
     // ============================================================
     // 서버 재조합 진입점
-    public List<List<String>> rearrangeServerSide(List<List<String>> oldBoard, List<String> tilesFromPlayer) {
+    public List<byte[]> rearrangeServerSide(List<byte[]> oldBoard, byte[] tilesFromPlayer) {
         try {
             return MeldRearranger.rearrange(oldBoard, tilesFromPlayer);
         } catch (MeldRearranger.RearrangeFailedException e) {
@@ -63,43 +109,39 @@ public class GameCore {
         if (!playerName.equals(getCurrentTurnPlayer()))
             return false;
 
-        // 1) 기존 보드 백업
-        List<List<String>> oldBoard = deepCopy(tableMelds);
-
         // 2) 클라이언트가 보낸 보드 파싱
-        List<List<String>> clientBoard = parseMoveData(moveData);
-
-        // 3) 기존 보드 타일 삭제 여부 검사 (A-1: 멜드 분해 허용 + 타일 미삭제 보장)
-        if (!validateBoardConsistency(oldBoard, clientBoard)) {
-            System.out.println("[RULE] Board tile removed illegally.");
+        List<byte[]> clientBoard = parseMoveData(moveData);
+        if (clientBoard == null) {
+            System.out.println("[RULE] Unknown tile in move: " + moveData);
             return false;
         }
+        return handlePlay(playerName, clientBoard);
+    }
 
-        // 4) 플레이어 손패에 없는 타일 사용 방지
-        for (List<String> meld : clientBoard) {
-            for (String t : meld) {
+    // 바이너리 프로토콜: 보드가 이미 종류 코드로 옴 (파싱 단계 없음), 모르는 타일이 있었으면 null
+    public boolean handlePlay(String playerName, List<byte[]> clientBoard) {
+        playedThisTurn.putIfAbsent(playerName, false);
 
-                if (oldBoardContains(oldBoard, t))
-                    continue;
+        // 0) 턴 체크
+        if (!playerName.equals(getCurrentTurnPlayer()))
+            return false;
 
-                if (!hands.get(playerName).contains(t)) {
-                    System.out.println("[RULE] Illegal tile usage: " + t);
-                    return false;
-                }
-            }
+        if (clientBoard == null) {
+            System.out.println("[RULE] Unknown tile in move.");
+            return false;
         }
 
-        // 5) 이번 턴 실제로 낸 타일 계산 (oldBoard 기준)
-        List<String> justPlayed = calcJustPlayedTilesCorrect(oldBoard, clientBoard);
+        // 1) 기존 보드 (멜드 배열은 교체만 하고 수정하지 않으므로 복사 불필요)
+        List<byte[]> oldBoard = tableMelds;
 
-        // 6) 타일을 실제로 1개도 안 냈으면 제출 실패
-        if (justPlayed.isEmpty()) {
-            System.out.println("[RULE] No tiles played.");
+        // 3) ~ 6) 보드 타일 보존, 손패 개수, 이번 턴에 낸 타일 (타일 종류별 개수 배열 몇 번 훑기, 할당 없음)
+        int[] hand = hands.get(playerName);
+        byte[] justPlayed = checkPlayedTiles(hand, oldBoard, clientBoard);
+        if (justPlayed == null)
             return false;
-        }
 
         // 7) 서버 측 자동 재조합 시도
-        List<List<String>> finalBoard = rearrangeServerSide(oldBoard, justPlayed);
+        List<byte[]> finalBoard = rearrangeServerSide(oldBoard, justPlayed);
         if (finalBoard != null) {
             System.out.println("[REARRANGE] 서버 자동 재조합 성공, 보드 갱신됨.");
         } else {
@@ -108,7 +150,8 @@ public class GameCore {
         }
 
         // 8) 최종 보드 기준으로 전체 멜드 유효성 + 조커 값 확정 (A-2)
-        if (!validateRemainingMeldsAfterRearrange(oldBoard, finalBoard)) {
+        List<byte[]> finalValues = new ArrayList<>(finalBoard.size());
+        if (!validateRemainingMeldsAfterRearrange(finalBoard, finalValues)) {
             // 내부에서 이미 로그를 찍었으므로 여기서는 false만 리턴
             return false;
         }
@@ -116,23 +159,30 @@ public class GameCore {
         // 9) 초기 30 검사 (최종 보드 기준 + justPlayed 사용)
         if (!initialMeldDone.getOrDefault(playerName, false)) {
 
+            // 이번 턴에 낸 타일 한 장은 최종 보드의 멜드 하나에만 셈 (newCount 를 남은 장 수로 씀)
+            // 턴 시작 보드에 그대로 있는 멜드는 건너뜀 → 같은 종류의 다른 한 장이 든 옛 멜드가 점수에 들어가지 않게
+            System.arraycopy(playedCount, 0, newCount, 0, Tile.KIND_COUNT);
+            claimPass++;
+
             int sum = 0;
 
             for (int mi = 0; mi < finalBoard.size(); mi++) {
 
-                List<String> meld = finalBoard.get(mi);
-                boolean used = false;
+                byte[] meld = finalBoard.get(mi);
+                if (claimUnchangedMeld(meld))
+                    continue;
 
-                // 이 멜드에 플레이어가 이번 턴에 낸 타일이 1개라도 포함되어 있으면
-                for (String t : meld) {
-                    if (justPlayed.contains(t)) {
+                // 이 멜드에 플레이어가 이번 턴에 낸 타일(아직 다른 멜드에 세지 않은 것)이 1개라도 포함되어 있으면
+                boolean used = false;
+                for (byte t : meld) {
+                    if (newCount[t] > 0) {
+                        newCount[t]--;
                         used = true;
-                        break;
                     }
                 }
 
                 if (used)
-                    sum += computeMeldScore(finalBoard, mi);
+                    sum += computeMeldScore(finalValues.get(mi));
             }
 
             if (sum < 30) {
@@ -144,12 +194,13 @@ public class GameCore {
         }
 
         // 10) 손패에서 제거
-        List<String> hand = hands.get(playerName);
-        for (String t : justPlayed)
-            hand.remove(t);
+        for (byte t : justPlayed)
+            hand[t]--;
+        lastFromHand = justPlayed;
+        lastSubmitted = clientBoard;
 
         // 11) 서버 보드 교체 (최종 보드로)
-        tableMelds = deepCopy(finalBoard);
+        replaceBoard(finalBoard, finalValues);
 
         playedThisTurn.put(playerName, true);
         return true;
@@ -157,59 +208,51 @@ public class GameCore {
 
     // ============================================================
     // VALIDATION
-    private boolean validateAndFixJoker(List<String> meld, int meldIndex) {
+    // 멜드가 SET/RUN 이면 values 에 각 타일의 숫자(조커는 추론값)를 채우고 true
+    private boolean validateMeld(byte[] meld, byte[] values) {
 
-        List<Integer> nums = new ArrayList<>();
-        List<String> colors = new ArrayList<>();
         int jokerCount = 0;
-
-        for (String t : meld) {
-            if (t.contains("Joker")) {
-                nums.add(0);
-                colors.add("J");
+        for (byte t : meld)
+            if (Tile.isJoker(t))
                 jokerCount++;
-            } else {
-                nums.add(Integer.parseInt(t.replaceAll("[^0-9]", "")));
-                colors.add(extractColor(t));
-            }
-        }
 
-        // SET
-        if (isValidSet(nums, colors, jokerCount)) {
+        // 조커를 뺀 숫자 (오름차순)
+        int[] real = new int[meld.length - jokerCount];
+        int r = 0;
+        for (byte t : meld)
+            if (!Tile.isJoker(t))
+                real[r++] = Tile.numberOf(t);
+        Arrays.sort(real);
 
-            int base = 0;
-            for (int n : nums)
-                if (n != 0)
-                    base = n;
+        // SET
+        if (isValidSet(meld, real, jokerCount)) {
 
-            for (int ti = 0; ti < meld.size(); ti++) {
-                if (meld.get(ti).contains("Joker"))
-                    jokerValueMap.put(meldIndex + ":" + ti, base);
-            }
+            int base = real[0];
+            for (int ti = 0; ti < meld.length; ti++)
+                values[ti] = (byte) (Tile.isJoker(meld[ti]) ? base : Tile.numberOf(meld[ti]));
 
             return true;
         }
 
         // RUN
-        if (isValidRun(nums, colors, jokerCount)) {
-
-            List<Integer> real = new ArrayList<>();
-            for (int n : nums)
-                if (n != 0)
-                    real.add(n);
-
-            Collections.sort(real);
+        if (isValidRun(meld, real, jokerCount)) {
 
-            List<Integer> full = inferJokerValues(real, jokerCount);
+            // 조커는 빈 칸을 먼저 채우고, 남으면 위쪽(13 을 넘으면 아래쪽)으로 확장
+            // → MeldRearranger 가 배치하는 순서와 같은 값
+            int start = Math.min(real[0], Tile.MAX_NUMBER + 1 - meld.length);
 
-            int fullIdx = 0;
+            boolean[] present = new boolean[Tile.MAX_NUMBER + 1];
+            for (int n : real)
+                present[n] = true;
 
-            for (int ti = 0; ti < meld.size(); ti++) {
+            int next = start;
+            for (int ti = 0; ti < meld.length; ti++) {
 
-                if (!meld.get(ti).contains("Joker")) {
-                    fullIdx++;
+                if (!Tile.isJoker(meld[ti])) {
+                    values[ti] = (byte) Tile.numberOf(meld[ti]);
                 } else {
-                    jokerValueMap.put(meldIndex + ":" + ti, full.get(fullIdx));
+                    while (present[next]) next++;
+                    values[ti] = (byte) next++;
                 }
             }
             return true;
@@ -218,238 +261,320 @@ public class GameCore {
         return false;
     }
 
-    private List<Integer> inferJokerValues(List<Integer> nums, int jokerCount) {
-
-        List<Integer> full = new ArrayList<>();
-        if (nums.isEmpty()) return full;
-
-        int expected = nums.get(0);
-
-        for (int n : nums) {
-            while (expected < n && jokerCount > 0) {
-                full.add(expected);
-                expected++;
-                jokerCount--;
-            }
-            full.add(n);
-            expected = n + 1;
-        }
-
-        while (jokerCount-- > 0)
-            full.add(expected++);
-
-        return full;
-    }
-
     // ============================================================
     // SET / RUN VALIDATION
-    private boolean isValidSet(List<Integer> nums, List<String> colors, int jokerCount) {
+    // real: 조커를 뺀 숫자 (오름차순)
+    private boolean isValidSet(byte[] meld, int[] real, int jokerCount) {
 
-        Set<Integer> ns = new HashSet<>();
-        for (int n : nums)
-            if (n != 0)
-                ns.add(n);
-
-        if (ns.size() != 1)
+        if (real.length == 0 || real[0] != real[real.length - 1])
             return false;
 
-        List<String> realColors = new ArrayList<>();
-        for (String c : colors)
-            if (!c.equals("J"))
-                realColors.add(c);
-
-        Set<String> unique = new HashSet<>(realColors);
-        if (unique.size() != realColors.size())
-            return false;
+        // 색상 중복 검사 (비트마스크)
+        int colorMask = 0;
+        for (byte t : meld) {
+            if (Tile.isJoker(t)) continue;
+            int bit = 1 << Tile.colorOf(t);
+            if ((colorMask & bit) != 0)
+                return false;
+            colorMask |= bit;
+        }
 
-        return unique.size() + jokerCount >= 3;
+        int size = real.length + jokerCount;
+        return size >= 3 && size <= Tile.COLOR_COUNT;
     }
 
-    private boolean isValidRun(List<Integer> nums, List<String> colors, int jokerCount) {
-        String col = null;
+    private boolean isValidRun(byte[] meld, int[] real, int jokerCount) {
+        int col = -1;
 
-        for (String c : colors) {
-            if (!c.equals("J")) {
-                if (col == null)
-                    col = c;
-                else if (!col.equals(c))
+        for (byte t : meld) {
+            if (!Tile.isJoker(t)) {
+                if (col < 0)
+                    col = Tile.colorOf(t);
+                else if (col != Tile.colorOf(t))
                     return false;
             }
         }
 
-        List<Integer> real = new ArrayList<>();
-        for (int n : nums)
-            if (n != 0)
-                real.add(n);
-
-        if (real.isEmpty())
+        if (real.length == 0)
             return false;
 
-        Collections.sort(real);
-
-        int gaps = 0;
-        for (int i = 1; i < real.size(); i++)
-            gaps += (real.get(i) - real.get(i - 1) - 1);
+        // 같은 숫자 중복 불가, 1~13 안에 들어가야 함
+        for (int i = 1; i < real.length; i++)
+            if (real[i] == real[i - 1])
+                return false;
 
-        return gaps <= jokerCount;
+        // 빈 칸 수 = 범위 - 실제 타일 수 ≤ 조커 수
+        int span = real[real.length - 1] - real[0] + 1;
+        return span <= meld.length && meld.length <= Tile.MAX_NUMBER;
     }
 
     // ============================================================
-    // BOARD CONSISTENCY CHECK
-    private boolean validateBoardConsistency(List<List<String>> oldBoard, List<List<String>> newBoard) {
-        // 1. oldBoard flatten 후 타일 개수 카운트
-        Map<String, Integer> oldCount = new HashMap<>();
-        for (List<String> meld : oldBoard) {
-            for (String t : meld) {
-                oldCount.put(t, oldCount.getOrDefault(t, 0) + 1);
-            }
+    // BOARD CONSISTENCY CHECK (타일 종류별 개수)
+    // 3) 기존 보드 타일 삭제 여부 (A-1: 멜드 분해 허용 + 타일 미삭제 보장): 모든 종류가 newBoard 에 같은 개수 이상
+    // 4) 늘어난 개수만큼 손패에 있어야 함 (손패에 없는 타일 / 가진 것보다 많이 내기 방지)
+    // 5) 늘어난 타일 = 이번 턴에 낸 타일, 6) 하나도 없으면 제출 실패
+    // 통과하면 이번 턴에 낸 타일 (newBoard 순서), 아니면 null
+    byte[] checkPlayedTiles(int[] hand, List<byte[]> oldBoard, List<byte[]> newBoard) {
+        countKinds(oldBoard, oldCount);
+        countKinds(newBoard, newCount);
+
+        if (!keepsOldTiles()) {
+            System.out.println("[RULE] Board tile removed illegally.");
+            return null;
         }
 
-        // 2. newBoard flatten 후 타일 개수 카운트
-        Map<String, Integer> newCount = new HashMap<>();
-        for (List<String> meld : newBoard) {
-            for (String t : meld) {
-                newCount.put(t, newCount.getOrDefault(t, 0) + 1);
+        int played = countPlayed();
+        for (int k = 0; k < Tile.KIND_COUNT; k++) {
+            if (playedCount[k] > (hand == null ? 0 : hand[k])) {
+                System.out.println("[RULE] Illegal tile usage: " + Tile.name(k)
+                        + " (played=" + playedCount[k] + ", hand=" + (hand == null ? 0 : hand[k]) + ")");
+                return null;
             }
         }
 
-        // 3. oldBoard 에 있던 모든 타일이
-        //    newBoard 에 "같은 개수 이상" 존재하는지 확인
-        for (Map.Entry<String, Integer> e : oldCount.entrySet()) {
-            String tile = e.getKey();
-            int cntOld = e.getValue();
-            int cntNew = newCount.getOrDefault(tile, 0);
+        if (played == 0) {
+            System.out.println("[RULE] No tiles played.");
+            return null;
+        }
+        return collectPlayed(newBoard, played);
+    }
+
+    boolean validateBoardConsistency(List<byte[]> oldBoard, List<byte[]> newBoard) {
+        countKinds(oldBoard, oldCount);
+        countKinds(newBoard, newCount);
+        return keepsOldTiles();
+    }
+
+    private static void countKinds(List<byte[]> board, int[] count) {
+        Arrays.fill(count, 0);
+        for (byte[] meld : board)
+            for (byte t : meld)
+                count[t]++;
+    }
 
-            if (cntNew < cntOld) {
+    private boolean keepsOldTiles() {
+        for (int k = 0; k < Tile.KIND_COUNT; k++) {
+            if (newCount[k] < oldCount[k]) {
                 // 기존 보드에 있던 타일이 사라졌거나 개수가 줄었음 → 불법
-                System.out.println("[RULE] Board tile removed illegally: " + tile
-                        + " (old=" + cntOld + ", new=" + cntNew + ")");
+                System.out.println("[RULE] Board tile removed illegally: " + Tile.name(k)
+                        + " (old=" + oldCount[k] + ", new=" + newCount[k] + ")");
                 return false;
             }
         }
         return true;
     }
 
+    // playedCount = newCount - oldCount (음수는 0), 합을 리턴
+    private int countPlayed() {
+        int n = 0;
+        for (int k = 0; k < Tile.KIND_COUNT; k++) {
+            int d = Math.max(0, newCount[k] - oldCount[k]);
+            playedCount[k] = d;
+            n += d;
+        }
+        return n;
+    }
+
+    // newBoard 에서 종류별로 playedCount 개씩 앞에서부터 (newCount 는 여기서 남은 개수로 씀)
+    private byte[] collectPlayed(List<byte[]> newBoard, int n) {
+        if (n == 0) return NONE;
+        System.arraycopy(playedCount, 0, newCount, 0, Tile.KIND_COUNT);
+
+        byte[] out = new byte[n];
+        int p = 0;
+        for (byte[] m : newBoard)
+            for (byte t : m)
+                if (newCount[t] > 0) {
+                    newCount[t]--;
+                    out[p++] = t;
+                }
+        return out;
+    }
+
     // ============================================================
-    // 남은 조각 멜드 유효성 검사
-    private boolean validateRemainingMeldsAfterRearrange(List<List<String>> oldBoard,
-                                                        List<List<String>> newBoard) {
-        jokerValueMap.clear();
+    // 남은 조각 멜드 유효성 검사 (values 에 멜드별 숫자 값을 채움)
+    // 지금 보드(tableMelds)에 내용이 같은 멜드가 있으면 검증 생략 → 보드 크기가 아니라 이번 수로 바뀐 멜드 수만큼 검증
+    boolean validateRemainingMeldsAfterRearrange(List<byte[]> newBoard, List<byte[]> values) {
+        values.clear();
 
         for (int mi = 0; mi < newBoard.size(); mi++) {
 
-            List<String> meld = newBoard.get(mi);
+            byte[] meld = newBoard.get(mi);
 
             // 길이 3 미만이면 무조건 불가 (SET/RUN 최소 길이)
-            if (meld.size() < 3) {
-                System.out.println("[RULE] Invalid meld length (<3) at index " + mi + ": " + meld);
+            if (meld.length < 3) {
+                System.out.println("[RULE] Invalid meld length (<3) at index " + mi + ": " + meldToString(meld));
                 return false;
             }
 
-            // 기존에 사용하던 조커 포함 검증 + 조커 값 확정 로직 재사용
-            if (!validateAndFixJoker(meld, mi)) {
-                System.out.println("[RULE] Invalid meld after rearrange at index " + mi + ": " + meld);
-                return false;
+            // 지금 보드에 같은 멜드가 있으면 그 조커 값, 없으면 조커 포함 검증 + 조커 값 확정
+            byte[] v = cachedValues(meld);
+            if (v != null) {
+                meldsCached++;
+            } else {
+                v = new byte[meld.length];
+                if (!validateMeld(meld, v)) {
+                    System.out.println("[RULE] Invalid meld after rearrange at index " + mi + ": " + meldToString(meld));
+                    return false;
+                }
+                meldsValidated++;
             }
+            values.add(v);
         }
         return true;
     }
 
-    private boolean oldBoardContains(List<List<String>> oldBoard, String tile) {
-        for (List<String> meld : oldBoard)
-            if (meld.contains(tile))
+    // 지금 보드에서 내용이 같은 멜드의 조커 값 (없으면 null)
+    private byte[] cachedValues(byte[] meld) {
+        if (indexedBoard != tableMelds)
+            indexBoard();
+
+        int h = Arrays.hashCode(meld);
+        int mask = meldSlots.length - 1;
+        for (int p = (h ^ (h >>> 16)) & mask; meldSlots[p] != 0; p = (p + 1) & mask) {
+            int i = meldSlots[p] - 1;
+            if (meldHashes[i] == h && Arrays.equals(indexedBoard.get(i), meld))
+                return tableValues.get(i);
+        }
+        return null;
+    }
+
+    // 지금 보드에 내용이 같고 이번 검사에서 아직 짝지어지지 않은 멜드가 있으면 짝짓고 true
+    // (같은 멜드가 두 번 나오면 하나만 옛 멜드, 나머지는 새 멜드)
+    private boolean claimUnchangedMeld(byte[] meld) {
+        if (indexedBoard != tableMelds)
+            indexBoard();
+
+        int h = Arrays.hashCode(meld);
+        int mask = meldSlots.length - 1;
+        for (int p = (h ^ (h >>> 16)) & mask; meldSlots[p] != 0; p = (p + 1) & mask) {
+            int i = meldSlots[p] - 1;
+            if (meldClaims[i] != claimPass && meldHashes[i] == h && Arrays.equals(indexedBoard.get(i), meld)) {
+                meldClaims[i] = claimPass;
                 return true;
+            }
+        }
         return false;
     }
 
-    // ============================================================
-    // JUST PLAYED TILES
-    private List<String> calcJustPlayedTilesCorrect(List<List<String>> oldBoard,
-                                                    List<List<String>> newBoard) {
-
-        List<String> oldFlat = new ArrayList<>();
-        for (List<String> m : oldBoard)
-            oldFlat.addAll(m);
-
-        List<String> newFlat = new ArrayList<>();
-        for (List<String> m : newBoard)
-            newFlat.addAll(m);
+    private void indexBoard() {
+        List<byte[]> board = tableMelds;
+        int n = board.size();
+
+        int cap = meldSlots.length;
+        while (cap < n * 2) cap <<= 1;
+        if (cap != meldSlots.length) meldSlots = new int[cap];
+        else Arrays.fill(meldSlots, 0);
+        if (meldHashes.length < n) {
+            meldHashes = new int[cap];
+            meldClaims = new int[cap];
+        }
 
-        List<String> diff = new ArrayList<>(newFlat);
-        diff.removeAll(oldFlat);
+        int mask = cap - 1;
+        for (int i = 0; i < n; i++) {
+            int h = Arrays.hashCode(board.get(i));
+            meldHashes[i] = h;
+            int p = (h ^ (h >>> 16)) & mask;
+            while (meldSlots[p] != 0) p = (p + 1) & mask;
+            meldSlots[p] = i + 1;
+        }
+        indexedBoard = board;
+    }
 
-        return diff;
+    // 실제로 검증한 멜드 / 지금 보드에서 찾아 검증을 건너뛴 멜드
+    String meldCacheStats() {
+        long total = meldsValidated + meldsCached;
+        return "validated " + meldsValidated + ", cached " + meldsCached
+                + (total > 0 ? " (" + meldsCached * 100 / total + "% cached)" : "");
     }
 
-    private List<List<String>> deepCopy(List<List<String>> src) {
-        List<List<String>> out = new ArrayList<>();
-        for (List<String> m : src)
-            out.add(new ArrayList<>(m));
-        return out;
+    // ============================================================
+    // JUST PLAYED TILES
+    // newBoard 에서 oldBoard 보다 (종류별 개수가) 늘어난 타일
+    // 이미 보드에 있는 종류를 하나 더 내도 낸 타일로 셈 (handlePlay 3) ~ 5) 단계와 같은 규칙)
+    private byte[] calcJustPlayedTilesCorrect(List<byte[]> oldBoard,
+                                              List<byte[]> newBoard) {
+        countKinds(oldBoard, oldCount);
+        countKinds(newBoard, newCount);
+        return collectPlayed(newBoard, countPlayed());
     }
 
     // ============================================================
     // SCORE
-    // 최종 보드 기준으로 점수 계산 (조커 값은 jokerValueMap 에서 읽음)
-    private int computeMeldScore(List<List<String>> board, int meldIndex) {
-
-        List<String> meld = board.get(meldIndex);
+    // 멜드 점수 = 타일 숫자 값의 합 (조커는 확정된 값)
+    private int computeMeldScore(byte[] values) {
         int sum = 0;
-
-        for (int ti = 0; ti < meld.size(); ti++) {
-
-            String t = meld.get(ti);
-
-            if (t.contains("Joker")) {
-                sum += jokerValueMap.getOrDefault(meldIndex + ":" + ti, 0);
-            } else {
-                sum += Integer.parseInt(t.replaceAll("[^0-9]", ""));
-            }
-        }
-
+        for (byte v : values)
+            sum += v;
         return sum;
     }
 
     // ============================================================
     // PARSE (decode board)
-    public List<List<String>> parseMoveData(String moveData) {
-
-        jokerValueMap.clear();
+    // "R1,R2,R3;BL5,BJoker(6),BL7" → 멜드별 종류 코드, 모르는 타일이 있으면 null
+    // 조커 뒤의 (값)은 서버가 검증 시 다시 추론하므로 무시
+    public List<byte[]> parseMoveData(String moveData) {
 
-        List<List<String>> out = new ArrayList<>();
+        List<byte[]> out = new ArrayList<>();
         if (moveData == null || moveData.isBlank())
             return out;
 
-        String[] melds = moveData.split(";");
+        int len = moveData.length();
+        int meldStart = 0;
 
-        for (int mi = 0; mi < melds.length; mi++) {
+        while (meldStart <= len) {
 
-            String[] tiles = melds[mi].split(",");
-            List<String> meld = new ArrayList<>();
+            int meldEnd = moveData.indexOf(';', meldStart);
+            if (meldEnd < 0) meldEnd = len;
 
-            for (int ti = 0; ti < tiles.length; ti++) {
+            // 마지막 빈 멜드는 무시 (split 과 동일)
+            if (meldStart == meldEnd && meldEnd == len) break;
 
-                String raw = tiles[ti].trim();
+            int count = 1;
+            for (int i = meldStart; i < meldEnd; i++)
+                if (moveData.charAt(i) == ',') count++;
 
-                if (raw.contains("(")) {
-                    String id = raw.substring(0, raw.indexOf("("));
-                    int val = Integer.parseInt(raw.substring(raw.indexOf("(") + 1, raw.indexOf(")")));
+            byte[] meld = new byte[count];
+            int ti = 0;
+            int tileStart = meldStart;
 
-                    jokerValueMap.put(mi + ":" + ti, val);
-                    meld.add(id);
-                } else {
-                    meld.add(raw);
-                }
+            while (ti < count) {
+                int tileEnd = moveData.indexOf(',', tileStart);
+                if (tileEnd < 0 || tileEnd > meldEnd) tileEnd = meldEnd;
+
+                int a = tileStart, b = tileEnd;
+                while (a < b && moveData.charAt(a) <= ' ') a++;
+                while (b > a && moveData.charAt(b - 1) <= ' ') b--;
+
+                int paren = moveData.indexOf('(', a);
+                if (paren >= 0 && paren < b) b = paren;
+
+                int kind = Tile.parse(moveData, a, b);
+                if (kind < 0)
+                    return null;
+
+                meld[ti++] = (byte) kind;
+                tileStart = tileEnd + 1;
             }
             out.add(meld);
+
+            meldStart = meldEnd + 1;
         }
         return out;
     }
 
+    private static String meldToString(byte[] meld) {
+        StringJoiner sj = new StringJoiner(", ", "[", "]");
+        for (byte t : meld)
+            sj.add(Tile.name(t));
+        return sj.toString();
+    }
+
     // ============================================================
     // BASIC SYSTEM
     public boolean hasWon(String playerName) {
-        return hands.get(playerName) != null && hands.get(playerName).isEmpty();
+        int[] hand = hands.get(playerName);
+        return hand != null && handSize(hand) == 0;
     }
 
     public String getCurrentTurnPlayer() {
@@ -468,31 +593,50 @@ public class GameCore {
         return turnOrder.get(turnIndex);
     }
 
+    // 손패 문자열 목록 (종류 코드 순)
     public List<String> getHand(String playerName) {
-        List<String> original = hands.get(playerName);
-        return original == null ? new ArrayList<>() : new ArrayList<>(original);
+        List<String> out = new ArrayList<>();
+        int[] hand = hands.get(playerName);
+        if (hand == null) return out;
+
+        for (int k = 0; k < Tile.KIND_COUNT; k++)
+            for (int c = 0; c < hand[k]; c++)
+                out.add(Tile.name(k));
+        return out;
     }
 
     public String drawRandomTileFor(String player) {
         if (!player.equals(getCurrentTurnPlayer()))
             return null;
 
-        String tile = drawFromPool();
-        if (tile != null)
-            hands.get(player).add(tile);
+        int tile = drawFromPool();
+        if (tile < 0)
+            return null;
+
+        hands.get(player)[tile]++;
+        return Tile.name(tile);
+    }
 
-        return tile;
+    // 남은 더미에서 한 장 (타일 종류 코드), 없으면 -1
+    private int drawFromPool() {
+        if (poolSize == 0)
+            return -1;
+        return Tile.kindOf(tilePool[--poolSize]);
     }
 
-    private String drawFromPool() {
-        if (tilePool.isEmpty())
-            return null;
-        return tilePool.remove(0);
+    private static int handSize(int[] hand) {
+        int n = 0;
+        for (int c : hand)
+            n += c;
+        return n;
     }
 
     public void onPlayerJoin(String name) {
 
-        hands.putIfAbsent(name, new ArrayList<>());
+        if (!hands.containsKey(name)) {
+            int[] spare = spareHands.poll();
+            hands.put(name, spare != null ? spare : new int[Tile.KIND_COUNT]);
+        }
         initialMeldDone.putIfAbsent(name, false);
 
         if (!turnOrder.contains(name))
@@ -500,11 +644,12 @@ public class GameCore {
 
         totalScores.putIfAbsent(name, 0);
 
-        if (hands.get(name).isEmpty()) {
+        int[] hand = hands.get(name);
+        if (handSize(hand) == 0) {
             for (int i = 0; i < 14; i++) {
-                String t = drawFromPool();
-                if (t != null)
-                    hands.get(name).add(t);
+                int t = drawFromPool();
+                if (t >= 0)
+                    hand[t]++;
             }
         }
     }
@@ -512,7 +657,11 @@ public class GameCore {
     public void onPlayerLeave(String name) {
 
         turnOrder.remove(name);
-        hands.remove(name);
+        int[] hand = hands.remove(name);
+        if (hand != null) {
+            Arrays.fill(hand, 0);
+            spareHands.add(hand);
+        }
         initialMeldDone.remove(name);
         totalScores.remove(name);
 
@@ -527,15 +676,61 @@ public class GameCore {
         endRoundAndUpdateScores(winnerName);
     }
 
+    // ============================================================
+    // ROUND RESET / RECYCLE
+    // 다음 판: 자리(턴 순서)와 누적 점수는 그대로 두고 나머지를 제자리에서 비운 뒤, 새 시드로 더미를 다시 섞어 자리 순서대로 14장씩
+    // 맵 / 손패 배열 / 더미 배열은 그대로 씀 (새로 만드는 건 셔플용 SplittableRandom 하나)
+    // 보드 버전은 이어서 +1 (클라이언트가 들고 있는 버전보다 작아지지 않게, 빈 보드는 GAME_START 때 BOARD 로 보냄)
+    void resetRound(long seed) {
+        this.seed = seed;
+        initTilePool(new SplittableRandom(seed));
+
+        turnIndex = 0;
+        for (int[] hand : hands.values())
+            Arrays.fill(hand, 0);
+        initialMeldDone.replaceAll((p, done) -> false);
+        playedThisTurn.replaceAll((p, played) -> false);
+
+        replaceBoard(List.of(), List.of());
+        prevMelds = List.of();
+        prevValues = List.of();
+        lastFromHand = NONE;
+        lastSubmitted = List.of();
+
+        for (String p : turnOrder)
+            onPlayerJoin(p);
+    }
+
+    // GameCorePool 에 돌려받은 코어를 새 방에 줄 때: 플레이어 / 누적 점수 / 보드 버전까지 비우고 새 판
+    void recycle(long seed) {
+        for (int[] hand : hands.values()) {
+            Arrays.fill(hand, 0);
+            spareHands.add(hand);
+        }
+        hands.clear();
+        turnOrder.clear();
+        totalScores.clear();
+        initialMeldDone.clear();
+        playedThisTurn.clear();
+        scoreStore = null;
+        resetRound(seed);
+        boardVersion = 0;
+    }
+
+    void setScoreStore(ScoreStore scoreStore) {
+        this.scoreStore = scoreStore;
+    }
+
     // 승자/패자 점수 계산
     private void endRoundAndUpdateScores(String winner) {
 
         int winnerDelta = 0;
+        Map<String, Integer> roundDeltas = new HashMap<>();
 
         for (String player : turnOrder) {
 
-            List<String> hand = hands.getOrDefault(player, new ArrayList<>());
-            int remainScore = computeHandScore(hand);
+            int[] hand = hands.get(player);
+            int remainScore = (hand == null) ? 0 : computeHandScore(hand);
 
             if (player.equals(winner)) {
                 // 승자는 일반적으로 손패가 0장이므로 별도 처리 X
@@ -544,6 +739,7 @@ public class GameCore {
                 // 패자: 자기 손패 점수만큼 -점수
                 int cur = totalScores.getOrDefault(player, 0);
                 totalScores.put(player, cur - remainScore);
+                roundDeltas.put(player, -remainScore);
 
                 // 승자에게 더해줄 점수 누적
                 winnerDelta += remainScore;
@@ -553,6 +749,11 @@ public class GameCore {
         // 승자: (모든 패자 손패 점수 합)만큼 +
         int curWinScore = totalScores.getOrDefault(winner, 0);
         totalScores.put(winner, curWinScore + winnerDelta);
+        roundDeltas.put(winner, winnerDelta);
+
+        // 방을 넘는 누적 점수 / 리더보드 (메모리 인덱스만 바로 갱신, 파일 쓰기는 저장소가 모아서)
+        if (scoreStore != null)
+            scoreStore.recordRound(winner, roundDeltas);
 
         System.out.println("[SCORE] Round end. Winner = " + winner);
         for (String p : turnOrder) {
@@ -561,19 +762,12 @@ public class GameCore {
     }
 
     // 손에 남은 타일 점수 계산
-    private int computeHandScore(List<String> hand) {
+    private int computeHandScore(int[] hand) {
         int sum = 0;
-        for (String t : hand) {
-            if (t.contains("Joker")) {
-                // 조커는 페널티 크게
-                sum += 30;
-            } else {
-                try {
-                    sum += Integer.parseInt(t.replaceAll("[^0-9]", ""));
-                } catch (NumberFormatException ignored) {
-                    // 이상한 문자열이면 0으로
-                }
-            }
+        for (int k = 0; k < Tile.KIND_COUNT; k++) {
+            if (hand[k] == 0) continue;
+            // 조커는 페널티 크게
+            sum += hand[k] * (Tile.isJoker(k) ? 30 : Tile.numberOf(k));
         }
         return sum;
     }
@@ -584,26 +778,22 @@ public class GameCore {
     }
 
     // ============================================================
-    // COLOR PARSING (정확한 색상 추출)
-    private String extractColor(String tile) {
-
-        // 조커는 별도 처리
-        if (tile.contains("Joker"))
-            return "J";
-
-        // 2글자 색상 먼저 체크 (BL = Blue)
-        if (tile.startsWith("BL"))
-            return "BL";
+    // BOARD VERSION
+    private void replaceBoard(List<byte[]> melds, List<byte[]> values) {
+        prevMelds = tableMelds;
+        prevValues = tableValues;
+        tableMelds = melds;
+        tableValues = values;
+        boardVersion++;
+    }
 
-        // 1글자 색상
-        if (tile.startsWith("B"))
-            return "B";   // Black
-        if (tile.startsWith("R"))
-            return "R";
-        if (tile.startsWith("Y"))
-            return "Y";
+    public int getBoardVersion() {
+        return boardVersion;
+    }
 
-        return ""; // 못 읽을 일이 없지만 안정성 위해
+    // 직전 버전 → 현재 보드 변경분 (BoardDiff 형식)
+    public String encodeBoardDiff() {
+        return BoardDiff.encode(prevMelds, prevValues, tableMelds, tableValues);
     }
 
     // ============================================================
@@ -617,25 +807,180 @@ public class GameCore {
             if (mi > 0)
                 sb.append(";");
 
-            List<String> meld = tableMelds.get(mi);
+            appendMeld(sb, tableMelds.get(mi), tableValues.get(mi));
+        }
+
+        return sb.toString();
+    }
+
+    // "R1,R2,RJoker(3)" (조커는 확정된 값을 괄호로)
+    static void appendMeld(StringBuilder sb, byte[] meld, byte[] values) {
 
-            for (int ti = 0; ti < meld.size(); ti++) {
+        for (int ti = 0; ti < meld.length; ti++) {
 
-                if (ti > 0)
-                    sb.append(",");
+            if (ti > 0)
+                sb.append(",");
 
-                String t = meld.get(ti);
+            sb.append(Tile.name(meld[ti]));
 
-                if (t.contains("Joker")) {
-                    int v = jokerValueMap.getOrDefault(mi + ":" + ti, 0);
-                    sb.append(t).append("(").append(v).append(")");
-                } else {
-                    sb.append(t);
-                }
-            }
+            if (Tile.isJoker(meld[ti]))
+                sb.append("(").append(values[ti]).append(")");
+        }
+    }
+
+    // ============================================================
+    // STATE RESTORE (벤치마크 / 복구용, 같은 패키지에서만)
+
+    // 검증을 통과한 멜드만 보드로 설정 (조커 값도 다시 확정), 실패하면 보드 유지
+    boolean restoreBoard(List<byte[]> melds) {
+        List<byte[]> values = new ArrayList<>(melds.size());
+        if (!validateRemainingMeldsAfterRearrange(melds, values))
+            return false;
+
+        replaceBoard(new ArrayList<>(melds), values);
+        return true;
+    }
+
+    // 플레이어 손패(타일 종류별 개수)와 초기 등록 여부를 그대로 설정, 처음 보는 이름이면 턴 순서 끝에 추가
+    void restorePlayer(String name, int[] hand, boolean initialMeld) {
+        hands.put(name, Arrays.copyOf(hand, Tile.KIND_COUNT));
+        initialMeldDone.put(name, initialMeld);
+        totalScores.putIfAbsent(name, 0);
+        playedThisTurn.put(name, false);
+
+        if (!turnOrder.contains(name))
+            turnOrder.add(name);
+    }
+
+    // 저널 재생: 이미 받아들여졌던 PLAY 결과를 검증 없이 그대로 적용
+    void applyPlay(String player, List<byte[]> melds, List<byte[]> values, byte[] fromHand) {
+        int[] hand = hands.get(player);
+        if (hand != null)
+            for (byte t : fromHand)
+                hand[t]--;
+        initialMeldDone.put(player, true);
+        replaceBoard(melds, values);
+        lastFromHand = fromHand;
+        playedThisTurn.put(player, true);
+    }
+
+    // 리플레이 재생: 기록된 제출 보드로 손패에서 나간 타일을 다시 계산하고(handlePlay 5단계와 같은 규칙) 최종 보드를 그대로 적용
+    void applyRecordedPlay(String player, List<byte[]> submitted, List<byte[]> melds, List<byte[]> values) {
+        applyPlay(player, melds, values, calcJustPlayedTilesCorrect(tableMelds, submitted));
+    }
+
+    // 리플레이 검증: 재조합 결과가 기록과 다를 때 (재조합 탐색은 시간 한도가 있어 같은 입력에도 성공 / 실패가 갈릴 수 있음)
+    // 버전은 그대로 두고 보드만 기록된 최종 보드로 맞춤
+    void overrideBoard(List<byte[]> melds, List<byte[]> values) {
+        tableMelds = melds;
+        tableValues = values;
+    }
+
+    long seed() {
+        return seed;
+    }
+
+    // 마지막 PLAY 직전 보드 / 제출 보드 (리플레이 기록용)
+    List<byte[]> previousBoardMelds() {
+        return prevMelds;
+    }
+
+    List<byte[]> lastSubmitted() {
+        return lastSubmitted;
+    }
+
+    // 현재 보드 (저널 기록용, 교체만 되고 수정되지 않으므로 그대로 넘김)
+    List<byte[]> boardMelds() {
+        return tableMelds;
+    }
+
+    List<byte[]> boardValues() {
+        return tableValues;
+    }
+
+    byte[] lastFromHand() {
+        return lastFromHand;
+    }
+
+    // 남은 더미 (물리 타일 id, 뒤에서부터 뽑힘)
+    byte[] poolOrder() {
+        return Arrays.copyOf(tilePool, poolSize);
+    }
+
+    void restorePool(byte[] ids) {
+        System.arraycopy(ids, 0, tilePool, 0, ids.length);
+        poolSize = ids.length;
+    }
+
+    // ============================================================
+    // SNAPSHOT (GameJournal: 세그먼트를 넘길 때 / 재시작 직후)
+    // 턴 순서, 플레이어별 손패 / 초기 등록 / 누적 점수 / 이번 턴 제출 여부, 남은 더미, 보드 버전 + 보드
+    void writeSnapshot(GameJournal.Out out) {
+        out.varint(turnOrder.size());
+        for (String p : turnOrder)
+            out.string(p);
+        out.varint(turnIndex);
+
+        out.varint(hands.size());
+        for (Map.Entry<String, int[]> e : hands.entrySet()) {
+            out.string(e.getKey());
+            for (int c : e.getValue())
+                out.u8(c);
+        }
+        writeFlags(out, initialMeldDone);
+        writeFlags(out, playedThisTurn);
+        out.varint(totalScores.size());
+        for (Map.Entry<String, Integer> e : totalScores.entrySet()) {
+            out.string(e.getKey());
+            out.int32(e.getValue());
         }
 
-        return sb.toString();
+        out.bytes(tilePool, poolSize);
+        out.int32(boardVersion);
+        out.board(tableMelds, tableValues);
+    }
+
+    void readSnapshot(ByteBuffer in) {
+        turnOrder.clear();
+        for (int i = Wire.readVarint(in); i > 0; i--)
+            turnOrder.add(Wire.readString(in));
+        turnIndex = Wire.readVarint(in);
+
+        hands.clear();
+        for (int i = Wire.readVarint(in); i > 0; i--) {
+            String name = Wire.readString(in);
+            int[] hand = new int[Tile.KIND_COUNT];
+            for (int k = 0; k < Tile.KIND_COUNT; k++)
+                hand[k] = in.get();
+            hands.put(name, hand);
+        }
+        readFlags(in, initialMeldDone);
+        readFlags(in, playedThisTurn);
+        totalScores.clear();
+        for (int i = Wire.readVarint(in); i > 0; i--)
+            totalScores.put(Wire.readString(in), in.getInt());
+
+        restorePool(GameJournal.readBytes(in));
+        boardVersion = in.getInt();
+        tableMelds = new ArrayList<>();
+        tableValues = new ArrayList<>();
+        GameJournal.readBoard(in, tableMelds, tableValues);
+        prevMelds = tableMelds;
+        prevValues = tableValues;
+    }
+
+    private static void writeFlags(GameJournal.Out out, Map<String, Boolean> flags) {
+        out.varint(flags.size());
+        for (Map.Entry<String, Boolean> e : flags.entrySet()) {
+            out.string(e.getKey());
+            out.u8(e.getValue() ? 1 : 0);
+        }
+    }
+
+    private static void readFlags(ByteBuffer in, Map<String, Boolean> flags) {
+        flags.clear();
+        for (int i = Wire.readVarint(in); i > 0; i--)
+            flags.put(Wire.readString(in), in.get() != 0);
     }
 
     public boolean playedThisTurn(String p) {
@@ -0,0 +1,51 @@
+package server;
+
+import java.util.ArrayDeque;
+
+// 끝난 방의 GameCore 재활용: 방이 목록에서 빠질 때 돌려받고, 새 방을 만들 때 비우고(recycle) 새 시드로 섞어서 줌
+// 짧은 게임이 분당 수천 판 도는 경우 방마다 맵 / 손패 / 더미 / 검증용 배열을 새로 만들지 않게
+// 최대 max 개까지만 보관 (넘치면 버림), -Drummikub.corePool.max=256 (0 이면 끔)
+final class GameCorePool {
+
+    private final ArrayDeque<GameCore> free = new ArrayDeque<>();
+    private final int max;
+
+    // 지표
+    private long created;
+    private long reused;
+    private long dropped;
+
+    GameCorePool(int max) {
+        this.max = max;
+    }
+
+    static GameCorePool open() {
+        return new GameCorePool(Integer.getInteger("rummikub.corePool.max", 256));
+    }
+
+    GameCore acquire(long seed) {
+        GameCore core;
+        synchronized (this) {
+            core = free.poll();
+            if (core == null) created++;
+            else reused++;
+        }
+        if (core == null) return new GameCore(seed);
+        core.recycle(seed);
+        return core;
+    }
+
+    // 돌려준 뒤에는 그 코어를 더 쓰면 안 됨 (다른 방의 액터가 가져감)
+    synchronized void release(GameCore core) {
+        if (free.size() >= max) {
+            dropped++;
+            return;
+        }
+        free.push(core);
+    }
+
+    synchronized String stats() {
+        return "created " + created + ", reused " + reused + ", idle " + free.size()
+                + (dropped > 0 ? ", dropped " + dropped : "");
+    }
+}
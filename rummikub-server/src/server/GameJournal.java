@@ -0,0 +1,594 @@
+package server;
+
+import common.Tile;
+import common.Wire;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+// 진행 중인 게임의 선행 기록(write-ahead) 저널: 서버가 죽어도 방과 GameCore 상태를 다시 세움
+//
+// 방 액터가 상태를 바꾸기로 결정할 때마다 레코드 하나를 덧붙임
+//   CREATE(방 이름, 셔플된 타일 더미) / JOIN / START / PLAY(확정된 보드 + 손에서 나간 타일) / NO_TILE / LEAVE
+//   재생은 규칙 검증이나 재조합 없이 기록된 결정만 다시 적용 (PLAY 는 보드 교체, NO_TILE 은 기록된 더미 순서대로 뽑기)
+// 레코드: [길이 int][CRC32 int][종류 1B][방 id int][내용]
+//
+// 그룹 커밋: 방 스레드는 메모리 버퍼에 덧붙이기만 하고, writer 스레드가 flushMillis 마다 버퍼를 통째로 바꿔 write + force 한 번
+//   → 서버가 죽으면 마지막 flushMillis 동안의 결정은 잃을 수 있음 (그 사이 클라이언트에는 이미 보냈을 수 있음)
+//   버퍼가 MAX_PENDING 을 넘으면 방 스레드가 writer 를 기다림
+//
+// 세그먼트: journal-00000001.log, ... segmentBytes 를 넘으면 다음 파일로 넘어가면서 살아 있는 방마다 SNAPSHOT 레코드를 요청
+//   모든 방이 새 세그먼트에 스냅샷을 남기면 그 이전 세그먼트는 삭제
+// 재시작: 세그먼트를 순서대로 mmap 해 재생 (깨진 / 잘린 레코드에서 멈춤) → 방 복구 → 새 세그먼트에 전부 스냅샷 후 옛 세그먼트 삭제
+//
+// -Drummikub.journal.dir=data -Drummikub.journal.flushMillis=5 -Drummikub.journal.segmentBytes=67108864
+// dir 을 빈 값으로 주면 저널을 끔
+public final class GameJournal implements Closeable {
+
+    static final byte CREATE = 1;
+    static final byte JOIN = 2;
+    static final byte START = 3;
+    static final byte PLAY = 4;
+    static final byte NO_TILE = 5;
+    static final byte LEAVE = 6;
+    static final byte SNAPSHOT = 7;
+
+    private static final int SEGMENT_MAGIC = 0x524B4A4E; // "RKJN"
+    private static final int SEGMENT_HEADER = 12;        // magic + 세그먼트 번호(long)
+    private static final int MAX_PENDING = 16 << 20;
+
+    private final Path dir;
+    private final long flushNanos;
+    private final long segmentBytes;
+
+    // 방 스레드들이 덧붙이는 버퍼 (lock), writer 가 spare 와 바꿔 감
+    private final Object lock = new Object();
+    private Out pending = new Out(1 << 16);
+    private Out spare = new Out(1 << 16);
+    private int pendingRecords;
+
+    // writer 쪽 (flush 는 synchronized)
+    private FileChannel segment;
+    private long segmentSeq;
+    private long segmentSize;
+    private long deletedBefore;
+    private Thread writer;
+    private volatile boolean closed;
+    private GameServer server; // 세그먼트를 넘길 때 스냅샷을 요청할 방 목록
+
+    // 스냅샷 라운드: 새 세그먼트 번호로 요청, 남은 방이 0 이 되면 그 이전 세그먼트를 지워도 됨
+    private final AtomicInteger snapshotsPending = new AtomicInteger();
+    private volatile long snapshotRound;    // 진행 중인 라운드의 세그먼트 번호 (0: 없음)
+    private volatile long deletableBefore;
+
+    // 지표
+    private volatile long records;
+    private volatile long groups;
+    private volatile long bytesWritten;
+    private volatile long snapshots;
+    private volatile long fsyncNanos;
+    private volatile long stalls;
+
+    private GameJournal(Path dir, long flushMillis, long segmentBytes) {
+        this.dir = dir;
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(flushMillis);
+        this.segmentBytes = segmentBytes;
+    }
+
+    // 시스템 속성대로 열기 (아직 재생 / 쓰기 전, recover 로 시작)
+    public static GameJournal open() {
+        String d = System.getProperty("rummikub.journal.dir", "data");
+        long flush = Long.getLong("rummikub.journal.flushMillis", 5);
+        long seg = Long.getLong("rummikub.journal.segmentBytes", 64L << 20);
+        return open(d.isEmpty() ? null : Path.of(d), flush, seg);
+    }
+
+    // dir 이 null 이면 아무것도 기록하지 않음
+    public static GameJournal open(Path dir, long flushMillis, long segmentBytes) {
+        return new GameJournal(dir, Math.max(1, flushMillis), Math.max(SEGMENT_HEADER + 1, segmentBytes));
+    }
+
+    public boolean enabled() {
+        return dir != null;
+    }
+
+    // ============================================================
+    // 기록 (방 액터에서 호출, 방 하나의 레코드는 결정한 순서대로 들어감)
+
+    // 방 생성: 셔플된 더미(물리 타일 id)까지 남겨야 재생 때 같은 타일이 같은 순서로 나옴
+    void created(int roomId, String name, byte[] pool) {
+        if (dir == null) return;
+        synchronized (lock) {
+            int start = begin(CREATE, roomId);
+            pending.string(name);
+            pending.bytes(pool, pool.length);
+            end(start);
+        }
+    }
+
+    void joined(int roomId, String player) {
+        named(JOIN, roomId, player);
+    }
+
+    void started(int roomId) {
+        if (dir == null) return;
+        synchronized (lock) {
+            end(begin(START, roomId));
+        }
+    }
+
+    // 받아들인 PLAY: 최종 보드(조커 값 포함) + 이번에 손에서 나간 타일
+    void played(int roomId, String player, List<byte[]> melds, List<byte[]> values, byte[] fromHand) {
+        if (dir == null) return;
+        synchronized (lock) {
+            int start = begin(PLAY, roomId);
+            pending.string(player);
+            pending.board(melds, values);
+            pending.bytes(fromHand, fromHand.length);
+            end(start);
+        }
+    }
+
+    void noTile(int roomId, String player) {
+        named(NO_TILE, roomId, player);
+    }
+
+    void left(int roomId, String player) {
+        named(LEAVE, roomId, player);
+    }
+
+    // 방 전체 상태 (앞선 레코드 없이 이것만으로 방을 세움)
+    void snapshot(Room room) {
+        if (dir == null) return;
+        synchronized (lock) {
+            int start = begin(SNAPSHOT, room.getId());
+            room.writeSnapshot(pending);
+            end(start);
+            snapshots++;
+        }
+    }
+
+    private void named(byte type, int roomId, String player) {
+        if (dir == null) return;
+        synchronized (lock) {
+            int start = begin(type, roomId);
+            pending.string(player);
+            end(start);
+        }
+    }
+
+    // lock 안에서: 길이 / CRC 자리를 비워 두고 종류 + 방 id
+    private int begin(byte type, int roomId) {
+        int start = pending.len;
+        pending.int32(0);
+        pending.int32(0);
+        pending.u8(type);
+        pending.int32(roomId);
+        return start;
+    }
+
+    // lock 안에서: 길이 / CRC 채우고, 버퍼가 너무 쌓였으면 writer 가 가져갈 때까지 대기
+    private void end(int start) {
+        int len = pending.len - start - 8;
+        CRC32 crc = new CRC32();
+        crc.update(pending.buf, start + 8, len);
+        pending.putInt(start, len);
+        pending.putInt(start + 4, (int) crc.getValue());
+        pendingRecords++;
+
+        if (pending.len >= MAX_PENDING && writer != null && !closed) {
+            stalls++;
+            try {
+                while (pending.len >= MAX_PENDING && !closed && writer.isAlive()) lock.wait(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // ============================================================
+    // 재시작: 세그먼트 재생 → 방 복구 → 새 세그먼트에 스냅샷 → writer 시작
+    // GameServer 생성자에서 방이 움직이기 전에 한 번 호출 (돌려준 방은 아직 등록 전)
+
+    List<Room> recover(GameServer server) throws IOException {
+        this.server = server;
+        if (dir == null) return List.of();
+        Files.createDirectories(dir);
+
+        long t0 = System.nanoTime();
+        List<Path> old = segments();
+        Map<Integer, Room> rooms = new TreeMap<>();
+        long replayed = 0;
+        long lastSeq = old.isEmpty() ? 0 : seqOf(old.get(old.size() - 1));
+        for (Path p : old) {
+            long n = replaySegment(p, rooms, server);
+            if (n < 0) {
+                // 깨진 레코드 뒤는 순서를 믿을 수 없으므로 이후 세그먼트도 버림
+                replayed += -n - 1;
+                break;
+            }
+            replayed += n;
+        }
+        List<Room> out = new ArrayList<>(rooms.values());
+        for (Room r : out) r.finishReplay();
+
+        // 재생한 상태를 새 세그먼트 하나로 (force 까지 끝나야 옛 세그먼트 삭제)
+        openSegment(lastSeq + 1);
+        for (Room r : out) snapshot(r);
+        flush();
+        for (Path p : old) Files.deleteIfExists(p);
+        deletedBefore = segmentSeq;
+
+        if (!old.isEmpty() || !out.isEmpty()) {
+            System.out.println("📒 Journal: " + replayed + " records replayed, " + out.size() + " rooms recovered in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0) + " ms (" + dir.toAbsolutePath() + ")");
+        }
+
+        writer = Thread.ofPlatform().name("journal-writer").daemon(true).start(this::writeLoop);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::closeQuietly, "journal-flush"));
+        return out;
+    }
+
+    // 재생한 레코드 수, 깨진 레코드에서 멈췄으면 -(재생 수 + 1)
+    private long replaySegment(Path p, Map<Integer, Room> rooms, GameServer server) throws IOException {
+        try (FileChannel ch = FileChannel.open(p, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < SEGMENT_HEADER) return 0;
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (map.getInt() != SEGMENT_MAGIC) {
+                System.out.println("⚠️ " + p.getFileName() + ": 저널 세그먼트가 아님, 건너뜀");
+                return 0;
+            }
+            map.getLong();
+
+            long count = 0;
+            CRC32 crc = new CRC32();
+            while (map.remaining() >= 8) {
+                int pos = map.position();
+                int len = map.getInt();
+                int stored = map.getInt();
+                if (len <= 0 || len > map.remaining()) {
+                    System.out.println("⚠️ " + p.getFileName() + ": 끝의 잘린 레코드 " + (size - pos) + " B 버림");
+                    return -count - 1;
+                }
+                ByteBuffer body = map.slice(map.position(), len);
+                crc.reset();
+                crc.update(body.duplicate());
+                if ((int) crc.getValue() != stored) {
+                    System.out.println("⚠️ " + p.getFileName() + ": CRC 불일치 (" + pos + "), 이후 레코드 버림");
+                    return -count - 1;
+                }
+                apply(body, rooms, server);
+                map.position(map.position() + len);
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private static void apply(ByteBuffer in, Map<Integer, Room> rooms, GameServer server) {
+        byte type = in.get();
+        int id = in.getInt();
+
+        if (type == CREATE) {
+            String name = Wire.readString(in);
+            rooms.put(id, Room.replayCreate(id, name, readBytes(in), server));
+            return;
+        }
+        if (type == SNAPSHOT) {
+            rooms.put(id, Room.fromSnapshot(id, in, server));
+            return;
+        }
+
+        Room r = rooms.get(id);
+        if (r == null) return; // 이미 지운 세그먼트에서 끝난 방
+
+        switch (type) {
+            case JOIN -> r.replayJoin(Wire.readString(in));
+            case START -> r.replayStart();
+            case PLAY -> {
+                String player = Wire.readString(in);
+                List<byte[]> melds = new ArrayList<>();
+                List<byte[]> values = new ArrayList<>();
+                readBoard(in, melds, values);
+                r.replayPlay(player, melds, values, readBytes(in));
+            }
+            case NO_TILE -> r.replayNoTile(Wire.readString(in));
+            case LEAVE -> {
+                if (r.replayLeave(Wire.readString(in))) rooms.remove(id);
+            }
+            default -> System.out.println("⚠️ 알 수 없는 저널 레코드: " + type);
+        }
+    }
+
+    // ============================================================
+    // 읽기 도우미 (Room / GameCore 스냅샷에서도 사용)
+
+    static byte[] readBytes(ByteBuffer in) {
+        byte[] b = new byte[Wire.readVarint(in)];
+        in.get(b);
+        return b;
+    }
+
+    // 멜드 수, 멜드마다 [길이][종류 코드...][조커 값...] (숫자 타일의 값은 숫자 그대로라 생략)
+    static void readBoard(ByteBuffer in, List<byte[]> melds, List<byte[]> values) {
+        int n = Wire.readVarint(in);
+        for (int i = 0; i < n; i++) {
+            byte[] meld = new byte[Wire.readVarint(in)];
+            in.get(meld);
+            byte[] vals = new byte[meld.length];
+            for (int j = 0; j < meld.length; j++)
+                vals[j] = Tile.isJoker(meld[j]) ? in.get() : (byte) Tile.numberOf(meld[j]);
+            melds.add(meld);
+            values.add(vals);
+        }
+    }
+
+    // ============================================================
+    // writer 스레드
+
+    // close() 는 closed + notifyAll 로 깨워 끝나기를 기다림 (interrupt 하면 쓰는 중인 FileChannel 이 닫혀 버림)
+    // 쓰기에 실패한 배치는 버퍼 앞으로 되돌려 다시 시도, 채널이 닫혔으면 더 쓸 수 없으므로 크게 알리고 멈춤
+    private void writeLoop() {
+        long wait = flushNanos;
+        while (true) {
+            synchronized (lock) {
+                try {
+                    if (!closed) TimeUnit.NANOSECONDS.timedWait(lock, wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (closed || Thread.currentThread().isInterrupted()) return; // close() 에서 마지막 flush
+            }
+            try {
+                flush();
+                wait = flushNanos;
+            } catch (IOException e) {
+                if (!segment.isOpen()) {
+                    System.out.println("❌ 저널 쓰기 실패, 기록 중단 (남은 레코드는 메모리에만 있음): " + e);
+                    return;
+                }
+                wait = Math.min(wait * 2, TimeUnit.SECONDS.toNanos(1));
+                System.out.println("❌ 저널 쓰기 실패, " + TimeUnit.NANOSECONDS.toMillis(wait) + " ms 뒤 다시 시도: " + e);
+            }
+        }
+    }
+
+    // 모인 레코드를 한 번에 write + force (그룹 커밋)
+    private synchronized void flush() throws IOException {
+        // 버퍼를 가져가기 전에 읽어야 이 값을 만든 스냅샷 레코드가 이번 배치 안에 있음이 보장됨
+        long deleteBefore = deletableBefore;
+
+        Out batch;
+        int n;
+        synchronized (lock) {
+            batch = pending;
+            n = pendingRecords;
+            pending = spare;
+            pendingRecords = 0;
+            lock.notifyAll();
+        }
+
+        if (batch.len > 0) {
+            long t;
+            try {
+                ByteBuffer buf = ByteBuffer.wrap(batch.buf, 0, batch.len);
+                while (buf.hasRemaining()) segment.write(buf);
+                t = System.nanoTime();
+                segment.force(false);
+            } catch (IOException e) {
+                requeue(batch, n);
+                throw e;
+            }
+            fsyncNanos += System.nanoTime() - t;
+
+            segmentSize += batch.len;
+            bytesWritten += batch.len;
+            records += n;
+            groups++;
+        }
+        batch.len = 0;
+        spare = batch;
+
+        if (segmentSize >= segmentBytes) roll();
+        if (deleteBefore > deletedBefore) {
+            for (Path p : segments())
+                if (seqOf(p) < deleteBefore) Files.deleteIfExists(p);
+            deletedBefore = deleteBefore;
+        }
+    }
+
+    // 쓰기 실패: 일부만 쓰였을 수 있는 꼬리를 잘라 내고, 배치를 그사이 쌓인 레코드 앞에 되돌려 놓음 (순서 유지)
+    private void requeue(Out batch, int n) {
+        if (segment.isOpen()) {
+            try {
+                segment.truncate(segmentSize);
+                segment.position(segmentSize);
+            } catch (IOException ignored) {
+                // 다음 write 가 다시 실패하며 알려 줌
+            }
+        }
+        synchronized (lock) {
+            Out later = pending;
+            batch.append(later);
+            later.len = 0;
+            pending = batch;
+            pendingRecords += n;
+            spare = later;
+        }
+    }
+
+    // 다음 세그먼트로 넘어가고, 진행 중인 라운드가 없으면 살아 있는 방마다 스냅샷 요청
+    private void roll() throws IOException {
+        segment.close();
+        openSegment(segmentSeq + 1);
+        if (server == null || snapshotRound != 0) return;
+
+        List<Room> rooms = server.getRooms();
+        long seq = segmentSeq;
+        snapshotRound = seq;
+        snapshotsPending.set(rooms.size() + 1);
+        for (Room r : rooms) r.requestSnapshot(this, seq);
+        snapshotDone(seq);
+    }
+
+    // 방 하나가 seq 세그먼트에 스냅샷을 남김 (이미 빠진 방은 남기지 않고 완료만 알림)
+    void snapshotDone(long seq) {
+        if (snapshotsPending.decrementAndGet() == 0) {
+            deletableBefore = seq;
+            snapshotRound = 0;
+        }
+    }
+
+    private void openSegment(long seq) throws IOException {
+        Path p = dir.resolve(String.format("journal-%08d.log", seq));
+        segment = FileChannel.open(p, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER).putInt(SEGMENT_MAGIC).putLong(seq);
+        header.flip();
+        while (header.hasRemaining()) segment.write(header);
+        segmentSeq = seq;
+        segmentSize = SEGMENT_HEADER;
+    }
+
+    private List<Path> segments() throws IOException {
+        List<Path> out = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "journal-*.log")) {
+            for (Path p : ds) if (seqOf(p) > 0) out.add(p);
+        }
+        out.sort(Comparator.comparingLong(GameJournal::seqOf));
+        return out;
+    }
+
+    private static long seqOf(Path p) {
+        String f = p.getFileName().toString();
+        try {
+            return Long.parseLong(f.substring("journal-".length(), f.length() - ".log".length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public String stats() {
+        long g = groups;
+        return "records " + records + ", groups " + g + (g > 0 ? " (" + records / g + " rec/group)" : "")
+                + ", bytes " + bytesWritten + ", snapshots " + snapshots
+                + ", fsync avg " + (g > 0 ? TimeUnit.NANOSECONDS.toMicros(fsyncNanos / g) : 0) + " µs"
+                + ", stalls " + stalls + ", segment " + segmentSeq;
+    }
+
+    // 남은 레코드를 쓰고 닫음
+    @Override
+    public void close() throws IOException {
+        if (dir == null || segment == null) return;
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            lock.notifyAll();
+        }
+        if (writer != null) {
+            // 쓰는 중이던 배치(write + force)를 마칠 때까지 기다림
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+        segment.close();
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            System.out.println("❌ 저널 쓰기 실패: " + e.getMessage());
+        }
+    }
+
+    // ============================================================
+    // 레코드 버퍼 (정수는 big-endian 고정 4바이트, 길이 / 개수는 varint, 문자열은 UTF-8)
+    static final class Out {
+        private byte[] buf;
+        private int len;
+
+        Out(int capacity) {
+            buf = new byte[capacity];
+        }
+
+        private void ensure(int extra) {
+            if (len + extra > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + extra));
+        }
+
+        void u8(int v) {
+            ensure(1);
+            buf[len++] = (byte) v;
+        }
+
+        void int32(int v) {
+            ensure(4);
+            putInt(len, v);
+            len += 4;
+        }
+
+        void putInt(int at, int v) {
+            buf[at] = (byte) (v >>> 24);
+            buf[at + 1] = (byte) (v >>> 16);
+            buf[at + 2] = (byte) (v >>> 8);
+            buf[at + 3] = (byte) v;
+        }
+
+        void varint(int v) {
+            while ((v & ~0x7F) != 0) {
+                u8((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            u8(v);
+        }
+
+        void string(String s) {
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            bytes(b, b.length);
+        }
+
+        void bytes(byte[] b, int n) {
+            varint(n);
+            ensure(n);
+            System.arraycopy(b, 0, buf, len, n);
+            len += n;
+        }
+
+        void append(Out o) {
+            ensure(o.len);
+            System.arraycopy(o.buf, 0, buf, len, o.len);
+            len += o.len;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, len);
+        }
+
+        void board(List<byte[]> melds, List<byte[]> values) {
+            varint(melds.size());
+            for (int i = 0; i < melds.size(); i++) {
+                byte[] meld = melds.get(i);
+                byte[] vals = values.get(i);
+                varint(meld.length);
+                ensure(meld.length * 2);
+                System.arraycopy(meld, 0, buf, len, meld.length);
+                len += meld.length;
+                for (int j = 0; j < meld.length; j++)
+                    if (Tile.isJoker(meld[j])) buf[len++] = vals[j];
+            }
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package server;
+
+import common.Tile;
+import common.Wire;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// 끝난 게임 한 판의 리플레이 (압축 바이너리) + GameCore 로 다시 돌려 보기
+//
+// [방 id int][시작 시각 long][시드 long][시작 상태 = GameCore 스냅샷][자리 이름들][수 ...][END]
+//   시작 상태에 턴 순서, 손패, 남은 더미 순서(물리 타일 id), 보드가 들어 있으므로 이후 뽑기는 모두 더미 순서로 정해짐
+// 수 (턴 주인은 GameCore 가 알고 있으므로 PLAY / NO_TILE 에는 플레이어를 적지 않음)
+//   0x01~0x3F  NO_TILE n 번 연속 (이번 턴에 낸 게 없으면 한 장 뽑고 턴 넘김)
+//   0x40       PLAY: 제출 보드(직전 보드 기준) + 최종 보드(제출 보드 기준, 같으면 0) + 최종 보드의 조커 값
+//   0x80 | i   LEAVE: i 번 자리 (i < 63)
+//   0xC0       JOIN: 이름 (게임 중 입장, 더미에서 14장)
+//   0xFF       END
+// 보드: 멜드 수, 멜드마다 varint v — 홀수 v = 2k+1 이면 기준 보드 k 번 멜드 그대로, 짝수 v = 2n 이면 새 멜드 n 장(종류 코드)
+//
+// 재생은 Room 과 같은 순서로 GameCore 를 부름
+//   빠른 재생: 기록된 최종 보드를 그대로 적용 (GameCore.applyRecordedPlay)
+//   검증 재생: 제출 보드를 GameCore.handlePlay 로 다시 검사하고 최종 보드 / 조커 값이 기록과 같은지 비교 (규칙 엔진 회귀 확인용)
+//     서버 재조합(MeldRearranger)은 시간 한도가 있어서 한쪽만 시간이 넘으면 그쪽은 제출 보드를 그대로 씀
+//     → 어느 한쪽이 제출 보드와 같으면 어긋남이 아니라 solverTimeouts 로 세고 기록된 보드로 맞춘 뒤 계속
+public final class GameReplay {
+
+    static final int OP_PLAY = 0x40;
+    static final int OP_LEAVE = 0x80;
+    static final int OP_JOIN = 0xC0;
+    static final int OP_END = 0xFF;
+    private static final int MAX_DRAW_RUN = 0x3F;
+    private static final int MAX_SEATS = 0x3F;
+
+    final int roomId;
+    final long startedAt;
+    final long seed;
+    private final ByteBuffer body; // 시작 상태부터 END 까지
+
+    private GameReplay(int roomId, long startedAt, long seed, ByteBuffer body) {
+        this.roomId = roomId;
+        this.startedAt = startedAt;
+        this.seed = seed;
+        this.body = body;
+    }
+
+    // Recorder.finish 가 만든 바이트 (아카이브 레코드 하나, 복사하지 않고 그대로 씀)
+    static GameReplay parse(ByteBuffer game) {
+        ByteBuffer in = game.duplicate();
+        int roomId = in.getInt();
+        long startedAt = in.getLong();
+        long seed = in.getLong();
+        return new GameReplay(roomId, startedAt, seed, in.slice());
+    }
+
+    // ============================================================
+    // 기록 (Room 액터 안에서만)
+
+    static final class Recorder {
+        private final GameJournal.Out out = new GameJournal.Out(1024);
+        private final List<String> seats = new ArrayList<>();
+        private int draws; // 아직 쓰지 않은 연속 NO_TILE
+        private int moves;
+
+        // 게임 시작 직후 (손패를 나눠 준 뒤, 첫 턴 전)
+        Recorder(int roomId, GameCore core, List<String> members) {
+            out.int32(roomId);
+            long now = System.currentTimeMillis();
+            out.int32((int) (now >>> 32));
+            out.int32((int) now);
+            long seed = core.seed();
+            out.int32((int) (seed >>> 32));
+            out.int32((int) seed);
+            core.writeSnapshot(out);
+
+            out.varint(members.size());
+            for (String m : members) {
+                out.string(m);
+                seats.add(m);
+            }
+        }
+
+        void noTile() {
+            moves++;
+            if (++draws == MAX_DRAW_RUN) flushDraws();
+        }
+
+        // 받아들인 PLAY 직후 (보드 교체 후, 턴 넘기기 전)
+        void play(GameCore core) {
+            flushDraws();
+            moves++;
+            List<byte[]> submitted = core.lastSubmitted();
+            List<byte[]> melds = core.boardMelds();
+            out.u8(OP_PLAY);
+            writeBoard(out, core.previousBoardMelds(), submitted);
+            if (sameBoard(submitted, melds)) out.varint(0);
+            else writeBoard(out, submitted, melds);
+
+            List<byte[]> values = core.boardValues();
+            for (int i = 0; i < melds.size(); i++) {
+                byte[] m = melds.get(i);
+                for (int j = 0; j < m.length; j++)
+                    if (Tile.isJoker(m[j])) out.u8(values.get(i)[j]);
+            }
+        }
+
+        void join(String name) {
+            flushDraws();
+            moves++;
+            out.u8(OP_JOIN);
+            out.string(name);
+            seats.add(name);
+        }
+
+        void leave(String name) {
+            flushDraws();
+            moves++;
+            int seat = seats.indexOf(name);
+            if (seat < 0 || seat >= MAX_SEATS) return; // 기록할 수 없는 자리 (재생은 여기서 어긋남 → 검증에서 드러남)
+            out.u8(OP_LEAVE | seat);
+        }
+
+        int moves() {
+            return moves;
+        }
+
+        byte[] finish() {
+            flushDraws();
+            out.u8(OP_END);
+            return out.toByteArray();
+        }
+
+        private void flushDraws() {
+            if (draws == 0) return;
+            out.u8(draws);
+            draws = 0;
+        }
+    }
+
+    // 보드가 같은 멜드 배열들로 되어 있으면 멜드 수 0 하나로 (최종 보드 = 제출 보드인 흔한 경우)
+    private static boolean sameBoard(List<byte[]> a, List<byte[]> b) {
+        if (a.size() != b.size() || a.isEmpty()) return false;
+        for (int i = 0; i < a.size(); i++)
+            if (!Arrays.equals(a.get(i), b.get(i))) return false;
+        return true;
+    }
+
+    // target 을 base 멜드 참조 / 새 멜드로 (같은 멜드는 base 에서 앞쪽부터 한 번씩만 참조)
+    static void writeBoard(GameJournal.Out out, List<byte[]> base, List<byte[]> target) {
+        out.varint(target.size());
+        boolean[] used = new boolean[base.size()];
+        for (byte[] m : target) {
+            int ref = -1;
+            for (int k = 0; k < base.size(); k++) {
+                if (!used[k] && Arrays.equals(base.get(k), m)) {
+                    ref = k;
+                    break;
+                }
+            }
+            if (ref >= 0) {
+                used[ref] = true;
+                out.varint(2 * ref + 1);
+            } else {
+                out.varint(2 * m.length);
+                for (byte t : m) out.u8(t);
+            }
+        }
+    }
+
+    static List<byte[]> readBoard(ByteBuffer in, List<byte[]> base) {
+        int n = Wire.readVarint(in);
+        List<byte[]> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int v = Wire.readVarint(in);
+            if ((v & 1) != 0) {
+                out.add(base.get(v >>> 1));
+            } else {
+                byte[] m = new byte[v >>> 1];
+                in.get(m);
+                out.add(m);
+            }
+        }
+        return out;
+    }
+
+    // ============================================================
+    // 재생
+
+    // 재생 결과 (검증 재생에서 어긋난 첫 수가 있으면 failure 에 설명)
+    static final class Result {
+        int moves;
+        int plays;
+        int draws;
+        int solverTimeouts;
+        String winner;
+        String failure;
+        GameCore core;
+
+        boolean ok() {
+            return failure == null;
+        }
+    }
+
+    // verify=false: 기록된 결과를 그대로 적용 (빠름), true: 제출 보드를 규칙 엔진으로 다시 검사
+    Result simulate(boolean verify) {
+        Result r = new Result();
+        ByteBuffer in = body.duplicate();
+        GameCore core = new GameCore(seed);
+        r.core = core;
+        core.readSnapshot(in);
+
+        List<String> seats = new ArrayList<>();
+        for (int i = Wire.readVarint(in); i > 0; i--) seats.add(Wire.readString(in));
+        List<String> members = new ArrayList<>(seats);
+
+        while (true) {
+            int op = in.get() & 0xFF;
+            if (op == OP_END) break;
+
+            if (op < OP_PLAY) {
+                // Room.noTile 과 같은 처리
+                for (int i = 0; i < op; i++) {
+                    String p = core.getCurrentTurnPlayer();
+                    if (!core.playedThisTurn(p)) core.drawRandomTileFor(p);
+                    core.nextTurnAndGetPlayer();
+                }
+                r.moves += op;
+                r.draws += op;
+                continue;
+            }
+
+            r.moves++;
+            if (op == OP_PLAY) {
+                r.plays++;
+                String p = core.getCurrentTurnPlayer();
+                List<byte[]> submitted = readBoard(in, core.boardMelds());
+                List<byte[]> melds = in.get(in.position()) == 0 ? skipSame(in, submitted) : readBoard(in, submitted);
+                List<byte[]> values = new ArrayList<>(melds.size());
+                for (byte[] m : melds) {
+                    byte[] v = new byte[m.length];
+                    for (int j = 0; j < m.length; j++)
+                        v[j] = Tile.isJoker(m[j]) ? in.get() : (byte) Tile.numberOf(m[j]);
+                    values.add(v);
+                }
+
+                if (verify) {
+                    if (!core.handlePlay(p, submitted)) {
+                        r.failure = "move " + r.moves + ": " + p + " 의 PLAY 를 규칙 엔진이 거부";
+                        return r;
+                    }
+                    if (!sameMelds(core.boardMelds(), melds) || !sameMelds(core.boardValues(), values)) {
+                        if (!sameMelds(core.boardMelds(), submitted) && !sameMelds(melds, submitted)) {
+                            r.failure = "move " + r.moves + ": " + p + " 의 최종 보드가 기록과 다름 → " + core.encodeBoard();
+                            return r;
+                        }
+                        r.solverTimeouts++;
+                        core.overrideBoard(melds, values);
+                    }
+                } else {
+                    core.applyRecordedPlay(p, submitted, melds, values);
+                }
+
+                // Room.afterPlay 와 같은 처리
+                core.setPlayedThisTurn(p, true);
+                if (core.hasWon(p)) {
+                    core.onRoundWin(p);
+                    r.winner = p;
+                } else {
+                    core.nextTurnAndGetPlayer();
+                }
+            } else if (op == OP_JOIN) {
+                String name = Wire.readString(in);
+                seats.add(name);
+                members.add(name);
+                core.onPlayerJoin(name);
+            } else if ((op & 0xC0) == OP_LEAVE) {
+                // Room.leaveSeat 과 같은 처리 (게임 중이므로 한 명 남으면 그 사람 승리)
+                String name = seats.get(op & MAX_SEATS);
+                members.remove(name);
+                if (members.size() == 1) {
+                    r.winner = members.get(0);
+                    core.onRoundWin(r.winner);
+                } else {
+                    core.onPlayerLeave(name);
+                }
+            } else {
+                r.failure = "move " + r.moves + ": 알 수 없는 수 0x" + Integer.toHexString(op);
+                return r;
+            }
+        }
+        return r;
+    }
+
+    private static List<byte[]> skipSame(ByteBuffer in, List<byte[]> submitted) {
+        in.get();
+        return submitted;
+    }
+
+    private static boolean sameMelds(List<byte[]> a, List<byte[]> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++)
+            if (!Arrays.equals(a.get(i), b.get(i))) return false;
+        return true;
+    }
+
+    int bodyBytes() {
+        return body.remaining();
+    }
+}
@@ -3,35 +3,96 @@ package server;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 public class GameServer {
 
+    // 연결 처리 방식
+    public enum IoMode {
+        THREAD,  // 연결당 플랫폼 스레드 (블로킹 readLine)
+        VIRTUAL, // 연결당 가상 스레드 (Java 21, 코드는 블로킹 그대로)
+        NIO      // 셀렉터 + 고정 I/O 루프
+    }
+
+    private final IoMode mode;
     private ServerSocket serverSocket;
-    // 여러 개의 방 관리
-    private List<Room> rooms = Collections.synchronizedList(new ArrayList<>());
-    private int nextRoomId = 0;
+    private Thread.Builder sessionThreads;
+    private NioServer nioServer;
+
+    // 모든 방의 메일박스가 공유하는 실행 풀 (방 수와 무관하게 크기 고정)
+    private final ExecutorService roomScheduler;
+
+    // 여러 개의 방 관리 (락 없는 id 인덱스 + 스냅샷)
+    private final RoomRegistry rooms = new RoomRegistry();
+    // 로비용 방 목록 캐시 / 델타 푸시
+    private final RoomListFeed roomList;
+    // 방을 넘는 누적 점수 + 리더보드 (파일 저장)
+    private final ScoreStore scores;
+    // 진행 중인 게임 저널 (재시작 때 방 복구, 복구에 실패하면 꺼진 저널로 교체)
+    private GameJournal journal;
+    // 끝난 게임 리플레이 보관
+    private final ReplayArchive replays;
+    // 방별 난수의 뿌리: 방을 만들 때마다 split (-Drummikub.seed=N 이면 같은 순서로 만든 방은 같은 더미)
+    private final SplittableRandom seeds;
+    // 빠진 방의 GameCore 재활용
+    private final GameCorePool cores = GameCorePool.open();
 
     public GameServer(int port) {
+        this(port, IoMode.THREAD, 0);
+    }
+
+    public GameServer(int port, IoMode mode, int ioThreads) {
+        this(port, mode, ioThreads, Runtime.getRuntime().availableProcessors());
+    }
+
+    public GameServer(int port, IoMode mode, int ioThreads, int roomThreads) {
+        this.mode = mode;
+        this.roomScheduler = Executors.newFixedThreadPool(Math.max(1, roomThreads),
+                Thread.ofPlatform().name("room-", 0).daemon(true).factory());
+        this.roomList = new RoomListFeed(roomScheduler);
+        this.scores = openScores();
+        this.journal = GameJournal.open();
+        this.replays = ReplayArchive.open();
+        this.seeds = openSeeds();
+        recoverRooms();
         try {
-            serverSocket = new ServerSocket(port);
-            System.out.println("🎮 Rummikub Server started on port " + port);
+            if (mode == IoMode.NIO) {
+                nioServer = new NioServer(port, ioThreads, this);
+            } else {
+                serverSocket = new ServerSocket(port);
+                sessionThreads = (mode == IoMode.VIRTUAL)
+                        ? Thread.ofVirtual().name("session-", 0)
+                        : Thread.ofPlatform().name("session-", 0);
+            }
+            System.out.println("🎮 Rummikub Server started on port " + port + " (" + mode + ")");
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    // 실제 바인딩된 포트 (port 0 으로 띄운 부하 테스트용)
+    public int getLocalPort() {
+        return (mode == IoMode.NIO) ? nioServer.getLocalPort() : serverSocket.getLocalPort();
+    }
+
     // 메인 accept 루프
     public void start() {
+        if (mode == IoMode.NIO) {
+            nioServer.start();
+            return;
+        }
+
         while (true) {
             try {
                 Socket socket = serverSocket.accept();
                 System.out.println("✅ New client: " + socket);
 
-                ClientSession session = new ClientSession(socket, this);
-                session.start();
+                SocketSession session = new SocketSession(socket, this);
+                sessionThreads.start(session);
 
             } catch (IOException e) {
                 System.out.println("❌ Connection error: " + e.getMessage());
@@ -39,43 +100,121 @@ public class GameServer {
         }
     }
 
+    // 시드를 주지 않으면 무작위로 정하고 로그에 남김 (같은 값을 -Drummikub.seed 로 주면 딜 재현)
+    private static SplittableRandom openSeeds() {
+        Long fixed = Long.getLong("rummikub.seed");
+        long seed = (fixed != null) ? fixed : new SplittableRandom().nextLong();
+        System.out.println("🎲 seed " + seed + (fixed != null ? " (-Drummikub.seed)" : ""));
+        return new SplittableRandom(seed);
+    }
+
+    // 새 방의 난수 (SplittableRandom 은 스레드 안전하지 않으므로 split 만 잠금)
+    synchronized SplittableRandom splitRandom() {
+        return seeds.split();
+    }
+
+    // 저장소를 못 열면(권한 / 깨진 스냅샷) 메모리 전용으로라도 서버는 띄움
+    private static ScoreStore openScores() {
+        try {
+            return ScoreStore.open();
+        } catch (IOException e) {
+            System.out.println("❌ 점수 저장소 열기 실패, 메모리에만 유지: " + e.getMessage());
+            try {
+                return ScoreStore.open(null, 0);
+            } catch (IOException impossible) {
+                throw new IllegalStateException(impossible);
+            }
+        }
+    }
+
+    // 저널을 재생해 죽기 전의 방을 다시 등록 (세션은 없고 자리만 남음 → 같은 이름으로 JOIN 하면 이어서 진행)
+    // reattachSeconds 안에 돌아오지 않은 자리는 나간 것으로 처리 (-Drummikub.reattachSeconds=300)
+    // 저널을 못 읽으면 빈 서버로 시작
+    private void recoverRooms() {
+        long reattachMillis = TimeUnit.SECONDS.toMillis(Long.getLong("rummikub.reattachSeconds", 300));
+        try {
+            int maxId = -1;
+            for (Room room : journal.recover(this)) {
+                rooms.add(room);
+                roomList.put(room);
+                room.expireAbsentSeats(reattachMillis);
+                maxId = Math.max(maxId, room.getId());
+            }
+            rooms.advanceTo(maxId + 1);
+        } catch (IOException e) {
+            System.out.println("❌ 저널 복구 실패, 방 없이 저널 끄고 시작: " + e.getMessage());
+            journal = GameJournal.open(null, 0, 0);
+        }
+    }
+
+    ScoreStore scores() {
+        return scores;
+    }
+
+    GameJournal journal() {
+        return journal;
+    }
+
+    ReplayArchive replays() {
+        return replays;
+    }
+
+    GameCorePool cores() {
+        return cores;
+    }
+
+    ExecutorService roomScheduler() {
+        return roomScheduler;
+    }
+
+    RoomListFeed roomList() {
+        return roomList;
+    }
+
     // ===== 방 관리 메서드들 =====
 
     /** 방 생성 */
-    public synchronized Room createRoom(String roomName) {
-        Room room = new Room(nextRoomId++, roomName, this);
+    public Room createRoom(String roomName) {
+        Room room = new Room(rooms.nextId(), roomName, this);
+        // CREATE 보다 먼저 등록: 그사이 세그먼트를 넘기면 이 방도 스냅샷 대상이어야 옛 세그먼트를 지워도 방이 남음
         rooms.add(room);
+        journal.created(room.getId(), roomName, room.initialPool());
+        roomList.put(room);
         System.out.println("🆕 Room created: " + roomName + " (id=" + room.getId() + ")");
         return room;
     }
 
-    /** 전체 방 리스트 반환 (복사본) */
-    public synchronized List<Room> getRooms() {
-        return new ArrayList<>(rooms);
+    /** 마지막 플레이어가 나간 방 제거 (Room 액터에서 호출) */
+    void removeRoom(Room room) {
+        if (rooms.remove(room)) {
+            roomList.remove(room);
+            System.out.println("🗑 Room removed: " + room.getName() + " (id=" + room.getId() + ")");
+        }
+    }
+
+    /** 제거 직전에 JOIN 으로 잡힌 방을 다시 등록 (Room 액터에서 호출) */
+    void restoreRoom(Room room) {
+        if (rooms.add(room)) roomList.put(room);
+    }
+
+    /** 방 인원 변경 알림 (Room 액터에서 호출) */
+    void roomUpdated(Room room) {
+        roomList.put(room);
+    }
+
+    /** 전체 방 리스트 반환 (읽기 전용 스냅샷) */
+    public List<Room> getRooms() {
+        return rooms.snapshot();
     }
 
     /** 방 ID로 방 찾기 */
-    public synchronized Room findRoomById(int id) {
-        for (Room r : rooms) {
-            if (r.getId() == id) return r;
-        }
-        return null;
+    public Room findRoomById(int id) {
+        return rooms.find(id);
     }
 
-    /** 클라이언트에게 전달할 방 리스트 문자열 생성 */
-    public synchronized String buildRoomListMessage() {
+    /** 클라이언트에게 전달할 방 리스트 문자열 (변경이 있을 때만 다시 조립) */
+    public String buildRoomListMessage() {
         // 예: "ROOM_LIST|0,방1,2;1,방2,1"
-        StringBuilder sb = new StringBuilder();
-        sb.append("ROOM_LIST|");
-        for (int i = 0; i < rooms.size(); i++) {
-            Room r = rooms.get(i);
-            if (i > 0) sb.append(";");
-            sb.append(r.getId())
-            .append(",")
-            .append(r.getName())
-            .append(",")
-            .append(r.getPlayerCount());
-        }
-        return sb.toString();
+        return roomList.listMessage();
     }
-}
\ No newline at end of file
+}
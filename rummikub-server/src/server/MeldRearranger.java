@@ -1,7 +1,23 @@
 package server;
 
+import common.Tile;
+
 import java.util.*;
 
+// 서버 측 멜드 재조합: 기존 보드 + 이번 턴에 낸 타일 전체를 유효한 RUN / SET 으로 빠짐없이 나누는 완전 탐색
+// 타일은 common.Tile 의 종류 코드(0~53) byte 로 다룸
+//
+// 숫자 1 → 13 순서로 한 칸씩 진행하면서, 각 숫자에서
+// - 이어지는 중인 RUN(길이 1, 2 는 반드시 이어야 함 / 3 이상은 이어가거나 끝냄)과 새 RUN 에 타일을 주고
+// - 남은 같은 숫자 타일은 SET 으로 묶음
+// 다음 숫자로 넘어갈 때의 상태는 "색별 열린 RUN 개수(길이 1 / 2 / 3+) + 남은 조커 수" 뿐이므로
+// 실패한 (숫자, 상태)를 기억하면 같은 상태를 다시 탐색하지 않음
+//
+// 탐색량 줄이기 (해가 있으면 아래 조건을 만족하는 해도 반드시 있음)
+// - 조커는 같은 자리의 실제 타일이 모자랄 때만 RUN 에 씀 (실제 타일과 맞바꿔도 두 멜드 모두 유효)
+// - 끝낼 수 있는 RUN 을 끝내고 같은 색 새 RUN 을 시작하지 않음 (둘을 이어 붙여도 유효)
+//
+// 시간 한도를 넘기면 실패로 처리 (호출 쪽은 클라이언트 보드로 검증)
 public class MeldRearranger {
 
     // ================================
@@ -12,209 +28,364 @@ public class MeldRearranger {
         }
     }
 
+    // 탐색 시간 한도 (기본 2ms, -Drummikub.solver.budgetMicros=N 으로 조정)
+    private static final long BUDGET_NANOS =
+            Long.getLong("rummikub.solver.budgetMicros", 2000L) * 1000L;
+
+    private static final int REAL_KINDS = Tile.RED_JOKER; // 52
+    private static final int N = Tile.MAX_NUMBER;
+
     // ================================
     // 외부 호출 진입점
-    public static List<List<String>> rearrange(
-            List<List<String>> oldBoard,
-            List<String> tilesFromPlayer
+    public static List<byte[]> rearrange(
+            List<byte[]> oldBoard,
+            byte[] tilesFromPlayer
     ) throws RearrangeFailedException {
+        return rearrange(oldBoard, tilesFromPlayer, BUDGET_NANOS);
+    }
 
-        // 1) 풀(pool) 만들기
-        List<String> pool = buildTilePool(oldBoard, tilesFromPlayer);
-
-        // 2) 풀을 이용해 멜드 생성
-        List<List<String>> newMelds = buildMeldsGreedy(pool);
+    // 시간 한도를 직접 주는 버전 (테스트)
+    static List<byte[]> rearrange(List<byte[]> oldBoard, byte[] tilesFromPlayer, long budgetNanos)
+            throws RearrangeFailedException {
 
-        // 3) 모든 타일 사용했는지 확인
-        int used = newMelds.stream().mapToInt(List::size).sum();
-        if (used != pool.size()) {
-            throw new RearrangeFailedException("남는 타일 있음 → 재조합 실패");
-        }
+        Solver s = new Solver(System.nanoTime() + budgetNanos);
 
-        return newMelds;
-    }
+        // 1) 풀(pool) 만들기: 기존 보드 타일 전부 해제 + 이번 턴에 낸 타일
+        for (byte[] meld : oldBoard)
+            for (byte t : meld)
+                s.add(t);
+        for (byte t : tilesFromPlayer)
+            s.add(t);
 
-    // ================================
-    // 풀 생성
-    private static List<String> buildTilePool(List<List<String>> oldBoard, List<String> tilesFromPlayer) {
-        List<String> pool = new ArrayList<>();
+        if (s.overflow)
+            throw new RearrangeFailedException("같은 타일이 너무 많음 → 재조합 실패");
 
-        // 기존 보드 타일 전부 해제
-        for (List<String> meld : oldBoard)
-            pool.addAll(meld);
+        // 2) 어떤 멜드에도 들어갈 수 없는 타일이 있으면 바로 실패
+        if (!s.everyTilePlaceable())
+            throw new RearrangeFailedException("놓을 수 없는 타일 있음 → 재조합 실패");
 
-        // 이번 턴에 플레이어가 낸 타일 추가
-        pool.addAll(tilesFromPlayer);
+        // 3) 전체 분할 탐색
+        if (!s.search()) {
+            throw new RearrangeFailedException(s.timedOut
+                    ? "시간 초과 → 재조합 실패"
+                    : "남는 타일 있음 → 재조합 실패");
+        }
 
-        return pool;
+        return s.buildMelds();
     }
 
     // ================================
-    // 그리디 방식 멜드 생성
-    private static List<List<String>> buildMeldsGreedy(List<String> pool)
-            throws RearrangeFailedException {
+    // 탐색 상태
+    private static final class Solver {
 
-        List<String> remain = new ArrayList<>(pool);
-        sortTiles(remain);
+        // 색별 열린 RUN 개수: 색마다 9비트 (길이1 3비트 | 길이2 3비트 | 길이3+ 3비트)
+        private static final int BITS = 9;
 
-        List<List<String>> output = new ArrayList<>();
-        boolean changed = true;
+        // cnt[color * 13 + (number - 1)] = 장 수 (0~2)
+        private final int[] cnt = new int[REAL_KINDS];
+        private int jokerTotal = 0;
+        private final byte[] jokerKinds = new byte[2];
+        boolean overflow = false;
 
-        while (changed) {
-            changed = false;
+        // 숫자별 선택 (성공한 경로만 의미 있음)
+        // 색마다 6비트 (이어간 3+ RUN 수 3비트 | 새 RUN 수 3비트) + SET 조커 수(2비트) + SET 개수(2비트)
+        private final int[] decision = new int[N + 2];
+
+        private final FailedStates failed = new FailedStates();
+        private final long deadline;
+        private int nodes = 0;
+        boolean timedOut = false;
+
+        Solver(long deadline) {
+            this.deadline = deadline;
+        }
 
-            // 1) Run 탐색
-            List<String> run = tryExtractRun(remain);
-            if (run != null) {
-                output.add(run);
-                remain.removeAll(run);
-                changed = true;
-                continue;
+        void add(byte t) {
+            if (Tile.isJoker(t)) {
+                if (jokerTotal == 2) { overflow = true; return; }
+                jokerKinds[jokerTotal++] = t;
+                return;
             }
+            if (cnt[t] == 2) { overflow = true; return; }
+            cnt[t]++;
+        }
 
-            // 2) Set 탐색
-            List<String> set = tryExtractSet(remain);
-            if (set != null) {
-                output.add(set);
-                remain.removeAll(set);
-                changed = true;
+        // ------------------------------
+        // 사전 가지치기: 각 타일이 SET 이나 RUN 중 하나에라도 들어갈 수 있는지
+        boolean everyTilePlaceable() {
+            for (int k = 0; k < REAL_KINDS; k++) {
+                if (cnt[k] == 0) continue;
+                int c = k / N, n = k % N + 1;
+
+                int colors = 0;
+                for (int cc = 0; cc < Tile.COLOR_COUNT; cc++)
+                    if (cnt[cc * N + n - 1] > 0) colors++;
+                if (colors + jokerTotal >= 3) continue;
+
+                boolean runOk = false;
+                for (int s = Math.max(1, n - 2); s <= n && s + 2 <= N && !runOk; s++) {
+                    int missing = 0;
+                    for (int m = s; m < s + 3; m++)
+                        if (cnt[c * N + m - 1] == 0) missing++;
+                    runOk = missing <= jokerTotal;
+                }
+                if (!runOk) return false;
             }
+            return true;
         }
 
-        return output;
-    }
+        boolean search() {
+            return solveNumber(1, 0L, jokerTotal);
+        }
 
-    // ================================
-    // 타일 정렬
-    private static void sortTiles(List<String> tiles) {
-        tiles.sort((a, b) -> {
-            int na = extractNum(a);
-            int nb = extractNum(b);
-            return Integer.compare(na, nb);
-        });
-    }
+        // ------------------------------
+        // 숫자 n 을 처리 (runs: n-1 까지의 열린 RUN 상태, jokers: 남은 조커)
+        private boolean solveNumber(int n, long runs, int jokers) {
+            if (n > N) {
+                // 끝: 길이 3 미만 RUN 이 없고 조커도 모두 썼어야 함
+                for (int c = 0; c < Tile.COLOR_COUNT; c++)
+                    if ((runs >>> (c * BITS)) % 64 != 0) return false;
+                return jokers == 0;
+            }
 
-    // ================================
-    // Run 추출
-    private static List<String> tryExtractRun(List<String> tiles) {
+            // 첫 노드부터 256 노드마다 시간 확인
+            if ((++nodes & 255) == 1 && System.nanoTime() > deadline)
+                timedOut = true;
+            if (timedOut)
+                return false;
+
+            long key = runs | (long) jokers << 36 | (long) n << 38;
+            if (failed.contains(key))
+                return false;
+
+            // 길이 1, 2 RUN 은 이 숫자에서 반드시 이어져야 함: 모자란 만큼 조커가 있어야 함
+            int deficit = 0;
+            for (int c = 0; c < Tile.COLOR_COUNT; c++) {
+                int st = (int) (runs >>> (c * BITS));
+                int forced = (st & 7) + ((st >> 3) & 7);
+                deficit += Math.max(0, forced - cnt[c * N + n - 1]);
+            }
 
-        // 색깔별 그룹화
-        Map<String, List<String>> byColor = new HashMap<>();
+            if (deficit <= jokers && chooseColor(n, 0, runs, jokers, 0, 0, 0))
+                return true;
 
-        for (String t : tiles) {
-            String c = extractColor(t);
-            if (c.equals("J")) continue;
-            byColor.computeIfAbsent(c, k -> new ArrayList<>()).add(t);
+            if (!timedOut) failed.add(key);
+            return false;
         }
 
-        for (String color : byColor.keySet()) {
+        // 색 c 의 RUN 배분을 정하고 다음 색으로
+        // runs: 색 c 미만은 다음 숫자의 상태로 이미 바뀐 RUN 상태
+        // setTotal / setMax: 지금까지 SET 으로 남긴 실제 타일 수 / 한 색의 최대 장 수, choice: 색별 선택
+        private boolean chooseColor(int n, int c, long runs, int jokers,
+                                    int setTotal, int setMax, int choice) {
+            if (c == Tile.COLOR_COUNT)
+                return chooseSets(n, runs, jokers, setTotal, setMax, choice);
+
+            // 이미 실패한 중간 상태 (앞 색들의 선택이 달라도 결과가 같으면 다시 보지 않음)
+            long key = 0;
+            if (c > 0) {
+                key = runs | (long) jokers << 36 | (long) n << 38 | (long) c << 42
+                        | (long) setTotal << 44 | (long) setMax << 48;
+                if (failed.contains(key))
+                    return false;
+            }
 
-            List<String> sameColor = new ArrayList<>(byColor.get(color));
-            sameColor.sort(Comparator.comparingInt(MeldRearranger::extractNum));
+            int st = (int) (runs >>> (c * BITS)) & ((1 << BITS) - 1);
+            int c1 = st & 7, c2 = (st >> 3) & 7, c3 = (st >> 6) & 7;
+            int a = cnt[c * N + n - 1];
 
-            // 숫자 기반 연속 run 찾기
-            List<String> run = new ArrayList<>();
-            int prev = -999;
+            // 3+ RUN 을 모두 이어가면서 새 RUN 0..b 개 → 그다음 3+ RUN 일부를 끝내는 경우
+            boolean ok = false;
+            int maxNew = a + jokers - (c1 + c2 + c3);
+            for (int b = 0; b <= maxNew && !ok; b++)
+                ok = tryColor(n, c, runs, jokers, setTotal, setMax, choice, c1, c2, c3, b, a);
+            for (int e3 = c3 - 1; e3 >= 0 && !ok; e3--)
+                ok = tryColor(n, c, runs, jokers, setTotal, setMax, choice, c1, c2, e3, 0, a);
 
-            for (String t : sameColor) {
-                int num = extractNum(t);
+            if (!ok && c > 0 && !timedOut) failed.add(key);
+            return ok;
+        }
 
-                if (run.isEmpty()) {
-                    run.add(t);
-                    prev = num;
-                } else if (num == prev + 1) {
-                    run.add(t);
-                    prev = num;
-                }
-            }
+        private boolean tryColor(int n, int c, long runs, int jokers, int setTotal, int setMax, int choice,
+                                 int c1, int c2, int e3, int b, int a) {
+            if (timedOut) return false;
+
+            int need = c1 + c2 + e3 + b;   // 이 숫자에서 RUN 에 들어갈 타일 수
+            int real = Math.min(need, a);
+            int joker = need - real;
+            if (joker > jokers) return false;
+            if (b > 7 || c2 + e3 > 7) return false;
+
+            long st = b | (long) c1 << 3 | (long) (c2 + e3) << 6;
+            long mask = ((1L << BITS) - 1) << (c * BITS);
+            int left = a - real;
+            return chooseColor(n, c + 1, (runs & ~mask) | st << (c * BITS), jokers - joker,
+                    setTotal + left, Math.max(setMax, left), choice | (e3 | b << 3) << (6 * c));
+        }
 
-            // 조커 보완
-            if (run.size() >= 2) {
-                int expected = extractNum(run.get(0)) + 1;
+        // 남은 실제 타일 + 조커 일부로 SET 을 만들 수 있는지 보고 다음 숫자로
+        private boolean chooseSets(int n, long next, int jokers, int setTotal, int setMax, int choice) {
+            for (int js = 0; js <= jokers; js++) {
+                int g = setCount(setTotal + js, setMax);
+                if (g < 0) continue;
 
-                for (String t : tiles) {
-                    if (isJoker(t) && run.size() < 13) {
-                        // 조커를 중간에 넣는 것은 서버 검증 시 validateAndFixJoker()가 처리해줌
-                        run.add(t);
-                        break;
-                    }
-                }
+                decision[n] = choice | js << 24 | g << 26;
+                if (solveNumber(n + 1, next, jokers - js))
+                    return true;
+                if (timedOut) return false;
             }
-
-            if (run.size() >= 3)
-                return run;
+            return false;
         }
 
-        return null;
-    }
+        // t 장(색별 최대 maxPerColor 장)을 색이 겹치지 않는 3~4장 SET 들로 나눌 때의 SET 수, 불가능하면 -1
+        private static int setCount(int t, int maxPerColor) {
+            if (t == 0) return 0;
+            int g = Math.max(maxPerColor, (t + 3) / 4);
+            return g * 3 <= t ? g : -1;
+        }
 
-    // ================================
-    // Set 추출
-    private static List<String> tryExtractSet(List<String> tiles) {
+        // ------------------------------
+        // 성공한 선택을 다시 따라가며 실제 멜드를 만듦
+        // RUN 은 GameCore 검증과 같은 규칙으로 배치: 조커는 빈 칸 → 위쪽 확장(13 초과 시 아래쪽)
+        List<byte[]> buildMelds() {
+            List<byte[]> out = new ArrayList<>();
+            int[] nextJoker = { 0 };
+
+            // 열린 RUN: 색별 목록 (시작 숫자, 길이, 조커 위치 비트)
+            List<List<int[]>> open = new ArrayList<>();
+            for (int c = 0; c < Tile.COLOR_COUNT; c++) open.add(new ArrayList<>());
+
+            for (int n = 1; n <= N; n++) {
+                int d = decision[n];
+                int[] setReal = new int[Tile.COLOR_COUNT];
+
+                for (int c = 0; c < Tile.COLOR_COUNT; c++) {
+                    int e3 = (d >> (6 * c)) & 7, b = (d >> (6 * c + 3)) & 7;
+                    int a = cnt[c * N + n - 1];
+                    List<int[]> runs = open.get(c);
+
+                    // 이어갈 RUN: 길이 1, 2 전부 + 3 이상 중 e3 개
+                    List<int[]> cont = new ArrayList<>();
+                    int long3 = 0;
+                    for (int[] r : runs) {
+                        if (r[1] < 3) cont.add(r);
+                        else if (long3++ < e3) cont.add(r);
+                        else out.add(runMeld(c, r, nextJoker));
+                    }
+                    for (int i = 0; i < b; i++)
+                        cont.add(new int[] { n, 0, 0 });
+
+                    int real = Math.min(a, cont.size());
+                    for (int i = 0; i < cont.size(); i++) {
+                        int[] r = cont.get(i);
+                        if (i >= real) r[2] |= 1 << r[1];
+                        r[1]++;
+                    }
+                    setReal[c] = a - real;
+                    open.set(c, cont);
+                }
 
-        Map<Integer, List<String>> byNum = new HashMap<>();
+                int js = (d >> 24) & 3, g = (d >> 26) & 3;
+                if (g > 0) buildSets(n, setReal, js, g, nextJoker, out);
+            }
 
-        for (String t : tiles) {
-            if (isJoker(t)) continue;
+            for (int c = 0; c < Tile.COLOR_COUNT; c++)
+                for (int[] r : open.get(c))
+                    out.add(runMeld(c, r, nextJoker));
 
-            int n = extractNum(t);
-            byNum.computeIfAbsent(n, k -> new ArrayList<>()).add(t);
+            return out;
         }
 
-        for (int num : byNum.keySet()) {
+        private byte[] runMeld(int color, int[] r, int[] nextJoker) {
+            int start = r[0], len = r[1], mask = r[2];
 
-            List<String> sameNum = new ArrayList<>(byNum.get(num));
+            int minReal = 0;
+            for (int p = 0; p < len; p++)
+                if ((mask & (1 << p)) == 0) { minReal = start + p; break; }
+            int s = Math.min(minReal, N + 1 - len);
 
-            // 색 중복 제거 위해
-            Set<String> colors = new HashSet<>();
-            for (String t : sameNum)
-                colors.add(extractColor(t));
+            boolean[] real = new boolean[N + 2];
+            for (int p = 0; p < len; p++)
+                if ((mask & (1 << p)) == 0) real[start + p] = true;
+
+            byte[] meld = new byte[len];
+            for (int p = 0; p < len; p++) {
+                int num = s + p;
+                meld[p] = real[num] ? (byte) Tile.kind(color, num) : jokerKinds[nextJoker[0]++];
+            }
+            return meld;
+        }
 
-            List<String> set = new ArrayList<>(sameNum);
+        // 색별 실제 타일을 g 개 SET 에 돌아가며 나누고, 조커는 작은 SET 부터 채움
+        private void buildSets(int n, int[] setReal, int js, int g, int[] nextJoker, List<byte[]> out) {
+            byte[][] sets = new byte[g][4];
+            int[] size = new int[g];
 
-            // 조커 보완
-            for (String t : tiles) {
-                if (isJoker(t) && set.size() < 4) {
-                    set.add(t);
+            int p = 0;
+            for (int c = 0; c < Tile.COLOR_COUNT; c++) {
+                for (int i = 0; i < setReal[c]; i++) {
+                    sets[p][size[p]++] = (byte) Tile.kind(c, n);
+                    p = (p + 1) % g;
                 }
             }
-
-            if (set.size() >= 3)
-                return set;
+            for (int i = 0; i < js; i++) {
+                int min = 0;
+                for (int k = 1; k < g; k++)
+                    if (size[k] < size[min]) min = k;
+                sets[min][size[min]++] = jokerKinds[nextJoker[0]++];
+            }
+            for (int k = 0; k < g; k++)
+                out.add(Arrays.copyOf(sets[k], size[k]));
         }
-
-        return null;
     }
 
     // ================================
-    // 유틸 함수
-    private static boolean isJoker(String t) {
-        return t.contains("Joker");
-    }
+    // 실패한 상태 키 집합: 박싱 없는 개방 주소법 해시 (키는 0 이상)
+    private static final class FailedStates {
+        private static final long EMPTY = -1L;
 
-    private static int extractNum(String t) {
-        if (isJoker(t)) return 0;
-        String num = t.replaceAll("[^0-9]", "");
-        return Integer.parseInt(num);
-    }
+        private long[] keys = new long[256];
+        private int size = 0;
 
-    private static String extractColor(String tile) {
+        FailedStates() {
+            Arrays.fill(keys, EMPTY);
+        }
 
-        if (tile.contains("Joker"))
-            return "J";
+        boolean contains(long key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == EMPTY) return false;
+                if (keys[i] == key) return true;
+            }
+        }
 
-        // 2글자 색상 BL
-        if (tile.startsWith("BL"))
-            return "BL";
+        void add(long key) {
+            if ((size + 1) * 2 > keys.length) grow();
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == EMPTY) {
+                    keys[i] = key;
+                    size++;
+                    return;
+                }
+                if (keys[i] == key) return;
+            }
+        }
 
-        // 1글자 색상
-        if (tile.startsWith("B"))
-            return "B";
-        if (tile.startsWith("R"))
-            return "R";
-        if (tile.startsWith("Y"))
-            return "Y";
+        private void grow() {
+            long[] old = keys;
+            keys = new long[old.length * 2];
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+            for (long k : old)
+                if (k != EMPTY) add(k);
+        }
 
-        return "";
+        private static int hash(long key) {
+            long h = key;
+            h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+            h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+            return (int) (h ^ (h >>> 33));
+        }
     }
 }
@@ -0,0 +1,139 @@
+package server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// 셀렉터 기반 서버 코어
+// accept 는 호출 스레드에서 받고, 연결은 고정 개수의 I/O 루프에 라운드로빈으로 분배
+// 세션 수와 무관하게 스레드는 ioThreads 개만 사용 (유휴 로비 연결 수만 개 유지 목적)
+public class NioServer {
+
+    // 루프 하나가 공유하는 읽기 버퍼 크기 (세션별 버퍼는 미완성 줄이 있을 때만 생성)
+    static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    // 한 번의 write 로 모아 보내는 최대 줄 수
+    static final int WRITE_BATCH = 64;
+
+    private final GameServer server;
+    private final ServerSocketChannel acceptChannel;
+    private final IoLoop[] loops;
+    private int nextLoop = 0;
+
+    public NioServer(int port, int ioThreads, GameServer server) throws IOException {
+        this.server = server;
+        this.acceptChannel = ServerSocketChannel.open();
+        acceptChannel.bind(new InetSocketAddress(port), 1024);
+
+        loops = new IoLoop[Math.max(1, ioThreads)];
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new IoLoop(i);
+        }
+    }
+
+    int getLocalPort() {
+        return acceptChannel.socket().getLocalPort();
+    }
+
+    // 메인 accept 루프 (블로킹 accept → 논블로킹 채널로 전환 후 I/O 루프에 등록)
+    public void start() {
+        for (IoLoop loop : loops) {
+            Thread t = new Thread(loop, "nio-loop-" + loop.index);
+            t.setDaemon(true);
+            t.start();
+        }
+        System.out.println("🧵 NIO mode: " + loops.length + " I/O loops");
+
+        while (acceptChannel.isOpen()) {
+            try {
+                SocketChannel ch = acceptChannel.accept();
+                ch.configureBlocking(false);
+                ch.socket().setTcpNoDelay(true);
+
+                IoLoop loop = loops[nextLoop];
+                nextLoop = (nextLoop + 1) % loops.length;
+                loop.register(new NioSession(ch, loop, server));
+
+            } catch (IOException e) {
+                System.out.println("❌ Connection error: " + e.getMessage());
+            }
+        }
+    }
+
+    // 셀렉터 하나를 도는 I/O 루프
+    static final class IoLoop implements Runnable {
+
+        final int index;
+        final Selector selector;
+
+        // 다른 스레드에서 요청된 작업 (채널 등록 / 쓰기 시작)
+        private final Queue<NioSession> pendingRegister = new ConcurrentLinkedQueue<>();
+        private final Queue<NioSession> pendingWrite = new ConcurrentLinkedQueue<>();
+
+        // 루프 스레드 전용 읽기 버퍼 (줄 디코딩을 위해 heap 버퍼 사용)
+        final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+
+        // 루프 스레드 전용 gathering write 버퍼 목록 (세션 큐 앞쪽 줄들을 한 번의 write 로)
+        final ByteBuffer[] writeBatch = new ByteBuffer[WRITE_BATCH];
+
+        IoLoop(int index) throws IOException {
+            this.index = index;
+            this.selector = Selector.open();
+        }
+
+        void register(NioSession s) {
+            pendingRegister.add(s);
+            selector.wakeup();
+        }
+
+        void requestWrite(NioSession s) {
+            pendingWrite.add(s);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    selector.select();
+
+                    NioSession s;
+                    while ((s = pendingRegister.poll()) != null) {
+                        try {
+                            s.attach(s.channel().register(selector, SelectionKey.OP_READ, s));
+                        } catch (IOException e) {
+                            s.close();
+                        }
+                    }
+                    while ((s = pendingWrite.poll()) != null) {
+                        s.flush();
+                    }
+
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey key = it.next();
+                        it.remove();
+
+                        NioSession session = (NioSession) key.attachment();
+                        if (!key.isValid()) {
+                            session.close();
+                            continue;
+                        }
+                        if (key.isReadable()) session.onReadable(readBuffer);
+                        if (key.isValid() && key.isWritable()) session.flush();
+                    }
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                System.out.println("❌ NIO loop " + index + " stopped: " + e.getMessage());
+            }
+        }
+    }
+}
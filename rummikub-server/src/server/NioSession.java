@@ -0,0 +1,245 @@
+package server;
+
+import common.Wire;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 논블로킹 채널 세션
+// 읽기: 루프 공유 버퍼로 읽고 '\n' 단위로 잘라 onLine 호출 (미완성 줄만 세션에 보관)
+//       바이너리로 협상된 뒤에는 길이 접두 프레임 단위로 잘라 onFrame 호출 (같은 버퍼 안에서 전환될 수 있음)
+// 쓰기: send()는 OutboundQueue 에 넣기만 하고, 실제 write 는 I/O 루프 스레드가 여러 줄을 모아 한 번에(gathering write) 수행
+//       느린 클라이언트로 판정되면(워터마크) 루프에서 연결을 끊음
+public class NioSession extends ClientSession {
+
+    // 한 줄 최대 길이 (넘으면 비정상 클라이언트로 보고 연결 종료)
+    private static final int MAX_LINE_BYTES = 64 * 1024;
+
+    private final SocketChannel channel;
+    private final NioServer.IoLoop loop;
+    private SelectionKey key;
+
+    // 아직 '\n'(바이너리: 프레임 끝)을 만나지 못한 수신 바이트 (없으면 null)
+    private byte[] partial;
+    private int partialLen = 0;
+
+    private final OutboundQueue outQueue = new OutboundQueue(this::evict);
+    private final AtomicBoolean writeScheduled = new AtomicBoolean(false);
+    private volatile boolean closeAfterFlush = false;
+    private volatile boolean evicted = false;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    public NioSession(SocketChannel channel, NioServer.IoLoop loop, GameServer server) {
+        super(server);
+        this.channel = channel;
+        this.loop = loop;
+    }
+
+    SocketChannel channel() { return channel; }
+
+    void attach(SelectionKey key) { this.key = key; }
+
+    // ============================================================
+    // READ (루프 스레드)
+    void onReadable(ByteBuffer buf) {
+        try {
+            int n;
+            do {
+                buf.clear();
+                n = channel.read(buf);
+                if (n < 0) {
+                    close();
+                    return;
+                }
+                if (n > 0) {
+                    int end = buf.position();
+                    int start = 0;
+                    while (start < end && !closed.get())
+                        start = isBinaryWire() ? splitFrames(buf.array(), start, end) : splitLines(buf.array(), start, end);
+                    if (closed.get()) return;
+                }
+            } while (n == buf.capacity());
+        } catch (IOException e) {
+            close();
+        } catch (RuntimeException e) {
+            // 스레드 모드에서 세션 스레드가 죽는 것과 같게: 이 세션만 종료하고 루프는 유지
+            System.out.println("메시지 처리 중 오류: " + e);
+            close();
+        }
+    }
+
+    // a[start, end) 를 줄 단위로 처리, 도중에 바이너리로 바뀌면 그 다음 위치를 돌려줌 (나머지는 splitFrames)
+    private int splitLines(byte[] a, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (a[i] != '\n') continue;
+
+            String line;
+            if (partialLen > 0) {
+                appendPartial(a, start, i - start);
+                line = decode(partial, 0, partialLen);
+                partial = null;
+                partialLen = 0;
+            } else {
+                line = decode(a, start, i - start);
+            }
+            start = i + 1;
+
+            onLine(line);
+            if (closed.get()) return end;
+            if (isBinaryWire()) return start;
+        }
+
+        if (start < end) {
+            appendPartial(a, start, end - start);
+            if (partialLen > MAX_LINE_BYTES) {
+                System.out.println("❌ Line too long, closing: " + getPlayerName());
+                close();
+            }
+        }
+        return end;
+    }
+
+    // a[start, end) 를 프레임 단위로 처리 (앞에 남은 조각이 있으면 이어 붙여서), 항상 end 까지 소비
+    private int splitFrames(byte[] a, int start, int end) {
+        if (partialLen == 0) {
+            int used = frames(a, start, end);
+            if (used < end) appendPartial(a, used, end - used);
+            return end;
+        }
+
+        appendPartial(a, start, end - start);
+        int used = frames(partial, 0, partialLen);
+        if (closed.get()) return end;
+        if (used == partialLen) {
+            partial = null;
+            partialLen = 0;
+        } else if (used > 0) {
+            System.arraycopy(partial, used, partial, 0, partialLen - used);
+            partialLen -= used;
+        }
+        return end;
+    }
+
+    // 완성된 프레임을 모두 처리하고 처리한 끝 위치를 돌려줌 (미완성 프레임은 그 앞에서 멈춤)
+    private int frames(byte[] a, int off, int end) {
+        while (off < end) {
+            int p = off, len = 0, shift = 0;
+            while (true) {
+                if (p == end) return off;
+                int b = a[p++];
+                len |= (b & 0x7F) << shift;
+                if (b >= 0) break;
+                shift += 7;
+                if (shift > 14) { // 3바이트 넘는 길이는 상한 초과
+                    len = -1;
+                    break;
+                }
+            }
+            if (len <= 0 || len > Wire.MAX_FRAME_BYTES) {
+                System.out.println("❌ Bad frame length, closing: " + getPlayerName());
+                close();
+                return end;
+            }
+            if (end - p < len) return off;
+
+            onFrame(ByteBuffer.wrap(a, p, len).slice());
+            if (closed.get()) return end;
+            off = p + len;
+        }
+        return off;
+    }
+
+    private void appendPartial(byte[] a, int off, int len) {
+        if (partial == null) {
+            partial = new byte[Math.max(256, len)];
+        } else if (partialLen + len > partial.length) {
+            partial = Arrays.copyOf(partial, Math.max(partial.length * 2, partialLen + len));
+        }
+        System.arraycopy(a, off, partial, partialLen, len);
+        partialLen += len;
+    }
+
+    private static String decode(byte[] a, int off, int len) {
+        if (len > 0 && a[off + len - 1] == '\r') len--;
+        return new String(a, off, len, StandardCharsets.UTF_8);
+    }
+
+    // ============================================================
+    // WRITE
+    @Override
+    void send(Frame frame) {
+        if (closed.get()) return;
+        if (!outQueue.offer(frame.buffer(isBinaryWire()))) {
+            evict();
+            return;
+        }
+        scheduleWrite();
+    }
+
+    // 느린 클라이언트 (send 또는 OutboundQueue 감시 스레드)
+    // OP_WRITE 를 기다리는 중일 수 있으므로 플래그와 무관하게 루프에 종료 요청
+    private void evict() {
+        evicted = true;
+        loop.requestWrite(this);
+    }
+
+    private void scheduleWrite() {
+        if (writeScheduled.compareAndSet(false, true)) {
+            loop.requestWrite(this);
+        }
+    }
+
+    // 큐에 쌓인 메시지를 가능한 만큼 전송 (루프 스레드)
+    // 소켓 버퍼가 가득 차면 OP_WRITE 를 걸고 다음 writable 이벤트에서 이어서 전송
+    void flush() {
+        if (closed.get() || key == null) return;
+        if (evicted) {
+            System.out.println("🐢 느린 클라이언트 연결 종료: " + getPlayerName() + " (" + OutboundQueue.stats() + ")");
+            close();
+            return;
+        }
+        ByteBuffer[] batch = loop.writeBatch;
+        try {
+            while (true) {
+                int n;
+                while ((n = outQueue.peek(batch)) > 0) {
+                    outQueue.written(channel.write(batch, 0, n));
+                    if (batch[n - 1].hasRemaining()) {
+                        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                }
+
+                key.interestOps(SelectionKey.OP_READ);
+                writeScheduled.set(false);
+
+                // 플래그를 내리는 사이에 들어온 메시지가 있으면 다시 잡아서 처리
+                if (outQueue.isEmpty() || !writeScheduled.compareAndSet(false, true)) break;
+            }
+            if (closeAfterFlush) close();
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    @Override
+    protected void closeConnection() {
+        closeAfterFlush = true;
+        scheduleWrite();
+    }
+
+    // 채널 정리 + 방 퇴장 처리 (한 번만)
+    void close() {
+        if (!closed.compareAndSet(false, true)) return;
+        if (key != null) key.cancel();
+        try { channel.close(); } catch (IOException ignore) {}
+        outQueue.close();
+        partial = null;
+        onDisconnected();
+    }
+}
@@ -0,0 +1,211 @@
+package server;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 세션 하나의 송신 대기열 (바이트 기준 상한 + 워터마크)
+// send 쪽(방 액터 / 세션 스레드)은 offer 로 Frame 버퍼를 넣기만 하고, 실제 write 는 세션 전용 writer 가 함
+// (SocketSession: writer 스레드, NioSession: I/O 루프)
+//
+// 대기 바이트가 high watermark 를 넘으면 느린 클라이언트 후보로 표시하고, low watermark 아래로 빠지면 해제
+// 표시된 채로 slowMillis 가 지나거나 high 의 4배(hard limit)를 넘으면 offer 가 false → 세션이 연결을 끊음
+// 방이 조용해져 offer 가 더 오지 않아도 감시 스레드가 slowMillis/4 마다 표시된 큐만 확인해 onSlow 로 끊음
+// (SocketSession writer 는 write 에 막혀 있을 수 있으므로 큐 쪽에서 판정)
+//
+// -Drummikub.out.highWatermark=65536 -Drummikub.out.lowWatermark=16384 -Drummikub.out.slowMillis=5000
+// 락은 ReentrantLock (가상 스레드 writer 가 기다리는 동안 캐리어에 고정되지 않게), 락 안에서는 I/O 하지 않음
+final class OutboundQueue {
+
+    static final int HIGH_WATERMARK = Integer.getInteger("rummikub.out.highWatermark", 64 * 1024);
+    static final int LOW_WATERMARK = Integer.getInteger("rummikub.out.lowWatermark", 16 * 1024);
+    static final long SLOW_NANOS = TimeUnit.MILLISECONDS.toNanos(Long.getLong("rummikub.out.slowMillis", 5000));
+    static final long HARD_LIMIT = HIGH_WATERMARK * 4L;
+
+    // ============================================================
+    // 전체 세션 합계 지표
+    private static final AtomicLong totalQueued = new AtomicLong();
+    private static final AtomicLong peakDepth = new AtomicLong();
+    private static final AtomicInteger overHigh = new AtomicInteger();
+    private static final LongAdder evictions = new LongAdder();
+
+    static long totalQueuedBytes() { return totalQueued.get(); }
+    static long peakQueuedBytes() { return peakDepth.get(); }   // 세션 하나의 최대 대기 바이트
+    static int sessionsOverHigh() { return overHigh.get(); }
+    static long evictions() { return evictions.sum(); }
+
+    // high 를 넘은 채인 큐 (감시 대상)
+    private static final Set<OutboundQueue> watched = ConcurrentHashMap.newKeySet();
+    private static final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("out-watchdog").daemon(true).factory());
+
+    static {
+        long tick = Math.max(1, TimeUnit.NANOSECONDS.toMillis(SLOW_NANOS) / 4);
+        watchdog.scheduleWithFixedDelay(OutboundQueue::sweep, tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    private static void sweep() {
+        for (OutboundQueue q : watched)
+            if (q.expire()) q.onSlow.run();
+    }
+
+    static String stats() {
+        return "queued " + totalQueuedBytes() + " B, peak/session " + peakQueuedBytes()
+                + " B, over high " + sessionsOverHigh() + ", evicted " + evictions();
+    }
+
+    // ============================================================
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+
+    private final Runnable onSlow; // 감시 스레드에서 느린 클라이언트로 판정했을 때 (세션이 연결 종료)
+    private final ArrayDeque<ByteBuffer> frames = new ArrayDeque<>();
+    private long queued;       // 아직 안 보낸 바이트
+    private long overSince;    // high 를 넘은 시각 (0 이면 정상)
+    private boolean closed;
+    private boolean finishing; // EXIT: 남은 것까지 보내고 끝냄
+
+    OutboundQueue(Runnable onSlow) {
+        this.onSlow = onSlow;
+    }
+
+    // 세션의 와이어 형식(텍스트 / 바이너리)으로 꺼낸 Frame 버퍼를 넣음
+    // false 면 느린 클라이언트로 판정된 것 (큐는 비우고 닫음, 호출한 쪽이 연결 종료)
+    boolean offer(ByteBuffer frame) {
+        lock.lock();
+        try {
+            if (closed || finishing) return true;
+            int n = frame.remaining();
+            frames.add(frame);
+            queued += n;
+            totalQueued.addAndGet(n);
+            peakDepth.accumulateAndGet(queued, Math::max);
+
+            if (queued > HIGH_WATERMARK && overSince == 0) {
+                overSince = System.nanoTime();
+                overHigh.incrementAndGet();
+                watched.add(this);
+            }
+            if (overSince != 0 && (queued > HARD_LIMIT || System.nanoTime() - overSince > SLOW_NANOS)) {
+                evictions.increment();
+                discard();
+                return false;
+            }
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 앞쪽 버퍼를 최대 batch.length 개 꺼내지 않고 채움 (writer 가 모아서 한 번에 write)
+    int peek(ByteBuffer[] batch) {
+        lock.lock();
+        try {
+            int n = 0;
+            for (ByteBuffer b : frames) {
+                if (n == batch.length) break;
+                batch[n++] = b;
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // write 로 bytes 만큼 나간 뒤 호출: 다 보낸 버퍼 제거 + 워터마크 갱신
+    void written(long bytes) {
+        lock.lock();
+        try {
+            if (closed) return;
+            while (!frames.isEmpty() && !frames.peek().hasRemaining())
+                frames.poll();
+            queued -= bytes;
+            totalQueued.addAndGet(-bytes);
+            if (overSince != 0 && queued <= LOW_WATERMARK) {
+                overSince = 0;
+                overHigh.decrementAndGet();
+                watched.remove(this);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 감시 스레드: high 를 넘은 지 slowMillis 가 지났으면 비우고 닫은 뒤 true
+    private boolean expire() {
+        lock.lock();
+        try {
+            if (closed || overSince == 0 || System.nanoTime() - overSince <= SLOW_NANOS) return false;
+            evictions.increment();
+            discard();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isEmpty() {
+        lock.lock();
+        try {
+            return frames.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 보낼 게 생길 때까지 대기 (SocketSession writer), 닫혔거나 finish 후 다 보냈으면 false
+    boolean await() throws InterruptedException {
+        lock.lock();
+        try {
+            while (frames.isEmpty() && !closed && !finishing)
+                notEmpty.await();
+            return !frames.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 이후 offer 는 무시하고, writer 는 남은 것을 다 보낸 뒤 종료
+    void finish() {
+        lock.lock();
+        try {
+            finishing = true;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 연결 종료: 남은 버퍼 버림
+    void close() {
+        lock.lock();
+        try {
+            if (!closed) discard();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void discard() {
+        closed = true;
+        frames.clear();
+        totalQueued.addAndGet(-queued);
+        queued = 0;
+        if (overSince != 0) {
+            overSince = 0;
+            overHigh.decrementAndGet();
+            watched.remove(this);
+        }
+        notEmpty.signal();
+    }
+}
@@ -0,0 +1,226 @@
+package server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+// 끝난 게임의 리플레이(GameReplay) 보관: 하루에 파일 하나 (replays-20261018.rkr), 게임마다 레코드 하나를 덧붙임
+// 파일: [magic "RKRP" int][버전 int] 뒤로 레코드 [길이 int][CRC32 int][GameReplay 바이트]
+//
+// 방 액터는 게임이 끝날 때 바이트를 큐에 넣기만 하고 archive-writer 스레드가 파일에 씀 (force 없음, 서버가 죽으면 큐에 남은 게임은 잃음)
+// 읽기는 Reader: 파일을 mmap 해서 게임 하나씩 (잘린 / 깨진 레코드에서 멈춤)
+//
+// -Drummikub.replay.dir=data/replays, 빈 값이면 기록하지 않음
+public final class ReplayArchive implements Closeable {
+
+    private static final int MAGIC = 0x524B5250; // "RKRP"
+    private static final int VERSION = 1;
+    private static final int HEADER = 8;
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final byte[] STOP = new byte[0];
+
+    private final Path dir;
+    private final BlockingQueue<byte[]> queue = new LinkedBlockingQueue<>();
+    private Thread writer;
+    private volatile boolean closed;
+
+    // writer 스레드 쪽
+    private FileChannel file;
+    private LocalDate fileDay;
+
+    // 지표
+    private volatile long games;
+    private volatile long moves;
+    private volatile long bytesWritten;
+    private volatile long dropped;
+
+    private ReplayArchive(Path dir) {
+        this.dir = dir;
+    }
+
+    public static ReplayArchive open() {
+        String d = System.getProperty("rummikub.replay.dir", "data/replays");
+        return open(d.isEmpty() ? null : Path.of(d));
+    }
+
+    // dir 이 null 이면 아무것도 기록하지 않음
+    public static ReplayArchive open(Path dir) {
+        ReplayArchive a = new ReplayArchive(dir);
+        if (dir != null) {
+            a.writer = Thread.ofPlatform().name("archive-writer").daemon(true).start(a::writeLoop);
+            Runtime.getRuntime().addShutdownHook(new Thread(a::closeQuietly, "archive-flush"));
+        }
+        return a;
+    }
+
+    public boolean enabled() {
+        return dir != null;
+    }
+
+    // 방 액터에서: 끝난 게임 하나 (Recorder.finish 결과)
+    void save(byte[] game, int moveCount) {
+        if (dir == null) return;
+        if (closed) {
+            dropped++;
+            return;
+        }
+        queue.add(game);
+        synchronized (this) {
+            games++;
+            moves += moveCount;
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            while (true) {
+                byte[] game = queue.take();
+                if (game == STOP) return;
+                write(game);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.out.println("❌ 리플레이 쓰기 실패, 이후 게임은 버림: " + e.getMessage());
+            closed = true;
+        }
+    }
+
+    // 큐에 모인 게임을 버퍼 하나로 모아 write 한 번
+    private void write(byte[] first) throws IOException {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(fileDay)) openFile(today);
+
+        int total = 0;
+        byte[][] batch = new byte[queue.size() + 1][];
+        int n = 0;
+        batch[n++] = first;
+        total += first.length + 8;
+        while (n < batch.length) {
+            byte[] g = queue.poll();
+            if (g == null) break;
+            if (g == STOP) {
+                queue.add(STOP);
+                break;
+            }
+            batch[n++] = g;
+            total += g.length + 8;
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(total);
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < n; i++) {
+            crc.reset();
+            crc.update(batch[i]);
+            buf.putInt(batch[i].length).putInt((int) crc.getValue()).put(batch[i]);
+        }
+        buf.flip();
+        while (buf.hasRemaining()) file.write(buf);
+        bytesWritten += total;
+    }
+
+    private void openFile(LocalDate day) throws IOException {
+        if (file != null) file.close();
+        Files.createDirectories(dir);
+        Path p = dir.resolve("replays-" + DAY.format(day) + ".rkr");
+        file = FileChannel.open(p, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (file.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            while (header.hasRemaining()) file.write(header);
+        }
+        fileDay = day;
+    }
+
+    public String stats() {
+        long g = games;
+        return "games " + g + ", moves " + moves + ", bytes " + bytesWritten
+                + (g > 0 ? " (" + bytesWritten / g + " B/game" + (moves > 0 ? ", " + String.format("%.2f", (double) bytesWritten / moves) + " B/move" : "") + ")" : "")
+                + (dropped > 0 ? ", dropped " + dropped : "");
+    }
+
+    // 큐에 남은 게임까지 쓰고 닫음
+    @Override
+    public void close() throws IOException {
+        if (dir == null || closed) return;
+        closed = true;
+        queue.add(STOP);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (file != null) file.close();
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            System.out.println("❌ 리플레이 쓰기 실패: " + e.getMessage());
+        }
+    }
+
+    // ============================================================
+    // 읽기: 파일 하나를 mmap 해서 앞에서부터 게임 하나씩
+
+    public static final class Reader implements Closeable {
+        private final FileChannel ch;
+        private final MappedByteBuffer map;
+        private final CRC32 crc = new CRC32();
+        private String error;
+
+        public Reader(Path file) throws IOException {
+            ch = FileChannel.open(file, StandardOpenOption.READ);
+            map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (map.remaining() < HEADER || map.getInt() != MAGIC || map.getInt() != VERSION) {
+                ch.close();
+                throw new IOException(file.getFileName() + ": 리플레이 파일이 아님");
+            }
+        }
+
+        // 다음 게임 (파일 끝이거나 깨진 레코드면 null, 깨진 경우 error() 에 이유)
+        public GameReplay next() {
+            if (map.remaining() < 8) {
+                if (map.hasRemaining()) error = "끝의 잘린 레코드 " + map.remaining() + " B";
+                return null;
+            }
+            int pos = map.position();
+            int len = map.getInt();
+            int stored = map.getInt();
+            if (len <= 0 || len > map.remaining()) {
+                error = "잘린 레코드 (" + pos + ")";
+                return null;
+            }
+            ByteBuffer game = map.slice(map.position(), len);
+            crc.reset();
+            crc.update(game.duplicate());
+            if ((int) crc.getValue() != stored) {
+                error = "CRC 불일치 (" + pos + ")";
+                return null;
+            }
+            map.position(map.position() + len);
+            return GameReplay.parse(game);
+        }
+
+        public String error() {
+            return error;
+        }
+
+        @Override
+        public void close() throws IOException {
+            ch.close();
+        }
+    }
+}
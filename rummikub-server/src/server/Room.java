@@ -1,23 +1,46 @@
 package server;
 
+import common.Wire;
+
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import server.GameCore;
 
+// 방 하나 = 액터 하나
+// addPlayer / removePlayer / requestStartGame / handlePlay / handleNoTile 은 어느 세션 스레드에서 호출되든
+// 메일박스(SerialExecutor)에 쌓였다가 순서대로 하나씩 실행되므로, 아래 상태와 GameCore 는 락 없이 다룸
+//
+// 상태를 바꾸는 결정은 GameJournal 에 먼저 남기고, 바꾸는 부분(joinSeat / leaveSeat / noTile / afterPlay)은
+// 저널 재생(replay*)과 같은 코드를 씀 → 재시작 후 세션 없이 이름만 있는 자리(members)로 방을 다시 세움
+// 게임이 시작되면 수마다 GameReplay.Recorder 에도 남기고, 끝나면 ReplayArchive 로 넘김
 public class Room {
 
     private final int id;
     private final String name;
     private final GameServer server;
+    private final Executor mailbox;
+    private final GameJournal journal;
+    private final ReplayArchive replays;
 
     private final List<ClientSession> players = new CopyOnWriteArrayList<>();
-    private final GameCore gameCore = new GameCore();
+    // 자리(플레이어 이름) 순서, 게임 규칙은 이 목록 기준 (평소에는 players 와 같고, 복구 직후에는 세션 없이 이름만)
+    private final List<String> members = new ArrayList<>();
+    private final SplittableRandom random; // 방별 난수 (서버 루트 생성기에서 split, 게임마다 셔플 시드를 뽑음)
+    private GameCore gameCore; // GameCorePool 에서 받고, 방이 목록에서 빠지면 돌려줌 (되살아나면 다시 받음)
 
     private String ownerName = null;
     private boolean gameStarted = false;
+    private boolean removed = false; // 빈 방이 되어 목록에서 빠진 상태
+    private GameReplay.Recorder recorder; // 진행 중인 게임의 리플레이 (저널로 복구한 게임은 기록하지 않음)
 
     private static final int MIN_PLAYER_TO_START = 2;
     private static final int MAX_PLAYERS = 4;
@@ -26,23 +49,53 @@ public class Room {
         this.id = id;
         this.name = name;
         this.server = server;
+        this.mailbox = new SerialExecutor(server.roomScheduler());
+        this.journal = server.journal();
+        this.replays = server.replays();
+        this.random = server.splitRandom();
+        this.gameCore = server.cores().acquire(random.nextLong());
+        gameCore.setScoreStore(server.scores());
     }
 
     public int getId() { return id; }
     public String getName() { return name; }
     public int getPlayerCount() { return players.size(); }
 
+    // 방을 만들 때 셔플된 더미 (저널 CREATE 레코드용)
+    byte[] initialPool() {
+        return gameCore.poolOrder();
+    }
+
 
     // ============================================================
     // PLAYER JOIN
     public void addPlayer(ClientSession session) {
+        mailbox.execute(() -> doAddPlayer(session));
+    }
+
+    private void doAddPlayer(ClientSession session) {
+
+        // 비어서 목록에서 빠지는 사이에 JOIN 이 들어온 경우 → 방을 되살림
+        // (저널에는 빈 방이 지워진 것으로 남았으므로 스냅샷으로 다시 세움)
+        if (removed) {
+            removed = false;
+            gameCore = server.cores().acquire(random.nextLong());
+            gameCore.setScoreStore(server.scores());
+            server.restoreRoom(this);
+            journal.snapshot(this);
+        }
+
+        // 재시작으로 복구된 자리에 같은 이름이 돌아온 경우
+        if (reattach(session)) return;
 
         players.add(session);
+        server.roomUpdated(this);
         String pn = session.getPlayerName();
-        gameCore.onPlayerJoin(pn);
+        journal.joined(id, pn);
 
-        if (ownerName == null) {
-            ownerName = pn;
+        boolean owner = joinSeat(pn);
+        if (recorder != null) recorder.join(pn);
+        if (owner) {
             sendTo(ownerName, "OWNER|true");
             sendTo(ownerName, "INFO|당신은 방장입니다.");
         }
@@ -50,29 +103,78 @@ public class Room {
         broadcast("INFO|" + pn + "님이 입장했습니다.");
         broadcast("PLAYER_COUNT|" + players.size());
 
-        if (!gameStarted && players.size() >= MAX_PLAYERS) {
+        if (!gameStarted && members.size() >= MAX_PLAYERS) {
             try { startGame(); }
             catch (IOException e) {
                 System.err.println("자동 게임 시작 실패");
             }
         }
+
+        // 입장 처리(방장/자동 시작 알림 포함)가 끝난 뒤에 입장 확인을 보냄
+        session.send("JOIN_OK|" + id);
+    }
+
+    // 자리 하나 추가 (실제 입장 / 저널 재생 공통), 첫 자리면 방장이 되고 true
+    private boolean joinSeat(String pn) {
+        members.add(pn);
+        gameCore.onPlayerJoin(pn);
+        if (ownerName != null) return false;
+        ownerName = pn;
+        return true;
+    }
+
+    // 세션 없이 남은 자리(복구된 방)에 같은 이름이 들어오면 자리만 다시 잇고 현재 상태를 보내 줌
+    private boolean reattach(ClientSession session) {
+        String pn = session.getPlayerName();
+        int seats = 0, online = 0;
+        for (String m : members) if (m.equals(pn)) seats++;
+        for (ClientSession s : players) if (s.getPlayerName().equals(pn)) online++;
+        if (seats <= online) return false;
+
+        players.add(session);
+        server.roomUpdated(this);
+        session.send("JOIN_OK|" + id);
+        if (pn.equals(ownerName)) session.send("OWNER|true");
+        broadcast("INFO|" + pn + "님이 다시 접속했습니다.");
+        broadcast("PLAYER_COUNT|" + players.size());
+
+        if (gameStarted) {
+            session.send("GAME_START|" + members.size());
+            session.send("INITIAL_TILES|" + String.join(",", gameCore.getHand(pn)));
+            session.send("BOARD|" + gameCore.getBoardVersion() + "|" + gameCore.encodeBoard());
+            session.send("TURN|" + gameCore.getCurrentTurnPlayer());
+        }
+        return true;
     }
 
 
     // ============================================================
     // PLAYER LEAVE
     public void removePlayer(ClientSession session) {
+        mailbox.execute(() -> doRemovePlayer(session));
+    }
 
-        players.remove(session);
-        String pn = session.getPlayerName();
+    private void doRemovePlayer(ClientSession session) {
 
-        if (players.size() == 1 && gameStarted) {
-            String winner = players.get(0).getPlayerName();
+        // EXIT 후 연결 종료로 한 번 더 들어오는 경우 무시
+        if (!players.remove(session)) return;
+        server.roomUpdated(this);
+        vacate(session.getPlayerName());
+    }
 
-            // 1) 라운드 점수 계산
-            gameCore.onRoundWin(winner);
+    // 자리 하나의 퇴장 처리 (세션이 나감 / 복구 후 돌아오지 않은 자리)
+    private void vacate(String pn) {
+        journal.left(id, pn);
+
+        String oldOwner = ownerName;
+        if (recorder != null) recorder.leave(pn);
+        String winner = leaveSeat(pn);
+
+        if (winner != null) {
+            archiveGame();
+            journal.snapshot(this); // 다시 섞은 다음 판 (재생으로는 같은 더미를 만들 수 없으므로)
 
-            // 2) 점수 브로드캐스트
+            // 점수 브로드캐스트 (라운드 점수 계산은 leaveSeat 에서)
             Map<String, Integer> scores = gameCore.getTotalScoresSnapshot();
             for (Map.Entry<String, Integer> entry : scores.entrySet()) {
                 String p = entry.getKey();
@@ -80,33 +182,57 @@ public class Room {
                 broadcast("SCORE|" + p + "|" + sc);
             }
 
-            // 3) 게임 종료 알림
+            // 게임 종료 알림
             broadcast("GAME_END|" + winner);
-
-            resetRoomState();
             return;
         }
 
         // 그 외 일반적인 퇴장 처리
-        gameCore.onPlayerLeave(pn);
-
         broadcast("INFO|" + pn + "님이 나갔습니다.");
         broadcast("PLAYER_COUNT|" + players.size());
 
-        if (pn.equals(ownerName)) {
-            if (!players.isEmpty()) {
-                ownerName = players.get(0).getPlayerName();
-                sendTo(ownerName, "OWNER|true");
-                broadcast("INFO|새 방장은 " + ownerName + "님입니다.");
-            } else {
-                ownerName = null;
-            }
+        if (pn.equals(oldOwner) && ownerName != null) {
+            sendTo(ownerName, "OWNER|true");
+            broadcast("INFO|새 방장은 " + ownerName + "님입니다.");
+        }
+
+        // 아무도 없으면 방 목록에서 제거하고 GameCore 는 풀로
+        if (members.isEmpty()) {
+            removed = true;
+            server.removeRoom(this);
+            server.cores().release(gameCore);
+            gameCore = null;
         }
     }
 
+    // 자리 하나를 비움 (실제 퇴장 / 저널 재생 공통)
+    // 게임 중 한 명만 남으면 그 사람의 승리로 라운드를 끝내고 승자 이름, 아니면 null
+    private String leaveSeat(String pn) {
+        members.remove(pn);
+
+        String winner = null;
+        if (members.size() == 1 && gameStarted) {
+            winner = members.get(0);
+            gameCore.onRoundWin(winner);
+        }
+
+        // 라운드가 끝난 경우에도 자리를 빼야 다음 판에 나간 사람에게 패를 돌리지 않음
+        gameCore.onPlayerLeave(pn);
+        if (pn.equals(ownerName))
+            ownerName = members.isEmpty() ? null : members.get(0);
+
+        if (winner != null)
+            resetRoomState();
+        return winner;
+    }
+
     // ============================================================
     // GAME START
     public void requestStartGame(String requester) {
+        mailbox.execute(() -> doRequestStartGame(requester));
+    }
+
+    private void doRequestStartGame(String requester) {
 
         if (!requester.equals(ownerName)) {
             sendTo(requester, "ERROR|방장만 시작할 수 있습니다.");
@@ -116,7 +242,7 @@ public class Room {
             sendTo(requester, "ERROR|이미 시작됨");
             return;
         }
-        if (players.size() < MIN_PLAYER_TO_START) {
+        if (members.size() < MIN_PLAYER_TO_START) {
             sendTo(requester, "ERROR|" + MIN_PLAYER_TO_START + "명 이상 필요합니다.");
             return;
         }
@@ -129,8 +255,13 @@ public class Room {
 
     private void startGame() throws IOException {
 
+        journal.started(id);
         gameStarted = true;
-        broadcast("GAME_START|" + players.size());
+        recorder = replays.enabled() ? new GameReplay.Recorder(id, gameCore, members) : null;
+        broadcast("GAME_START|" + members.size());
+        // 같은 방에서 다시 시작한 판: 지난 판 보드를 비우게 빈 보드 (버전은 이어짐)
+        if (gameCore.getBoardVersion() > 0)
+            broadcast("BOARD|" + gameCore.getBoardVersion() + "|" + gameCore.encodeBoard());
 
         for (ClientSession s : players) {
             String pn = s.getPlayerName();
@@ -143,18 +274,32 @@ public class Room {
     // ============================================================
     // PLAY SUBMISSION
     public void handlePlay(String playerName, String meldData) {
+        mailbox.execute(() -> doHandlePlay(playerName, meldData, null));
+    }
+
+    // 바이너리 프로토콜 PLAY: 보드가 이미 종류 코드 (모르는 타일이 있었으면 null)
+    public void handlePlay(String playerName, List<byte[]> melds) {
+        mailbox.execute(() -> doHandlePlay(playerName, null, melds));
+    }
+
+    // meldData(텍스트) 와 melds(바이너리) 중 하나만 사용
+    private void doHandlePlay(String playerName, String meldData, List<byte[]> melds) {
+        if (removed) return; // GameCore 는 이미 풀로 돌려줌
 
         if (!playerName.equals(gameCore.getCurrentTurnPlayer())) {
             sendTo(playerName, "ERROR|당신의 턴이 아닙니다.");
             return;
         }
 
-        if (meldData == null || meldData.isBlank()) {
+        boolean empty = meldData != null ? meldData.isBlank() : melds != null && melds.isEmpty();
+        if (empty) {
             sendTo(playerName, "PLAY_FAIL|제출된 타일이 없습니다.");
             return;
         }
 
-        boolean ok = gameCore.handlePlay(playerName, meldData);
+        boolean ok = meldData != null
+                ? gameCore.handlePlay(playerName, meldData)
+                : gameCore.handlePlay(playerName, melds);
 
         if (!ok) {
             sendTo(playerName, "PLAY_FAIL|규칙 위반 또는 초기 30 부족");
@@ -163,14 +308,16 @@ public class Room {
 
         // 서버 안전 장치: play 성공 보정
         gameCore.setPlayedThisTurn(playerName, true);
+        journal.played(id, playerName, gameCore.boardMelds(), gameCore.boardValues(), gameCore.lastFromHand());
+        if (recorder != null) recorder.play(gameCore);
 
-                broadcast("PLAY_OK|" + playerName + "|" + gameCore.encodeBoard());
-
-        if (gameCore.hasWon(playerName)) {
-            // 라운드 점수/순위 계산
-            gameCore.onRoundWin(playerName);
+        // 보드 전체 대신 직전 버전과의 변경분 (버전이 어긋난 클라이언트는 BOARD_SYNC 로 전체를 받음)
+        broadcast("PLAY_OK|" + playerName + "|" + gameCore.getBoardVersion() + "|" + gameCore.encodeBoardDiff());
 
-            // 점수 브로드캐스트
+        if (afterPlay(playerName)) {
+            archiveGame();
+            journal.snapshot(this); // 다시 섞은 다음 판 (재생으로는 같은 더미를 만들 수 없으므로)
+            // 점수 브로드캐스트 (라운드 점수/순위 계산은 afterPlay 에서)
             Map<String, Integer> scores = gameCore.getTotalScoresSnapshot();
             for (Map.Entry<String, Integer> entry : scores.entrySet()) {
                 String p = entry.getKey();
@@ -179,49 +326,182 @@ public class Room {
             }
 
             broadcast("GAME_END|" + playerName);
-            resetRoomState();
             return;
         }
 
-        String next = gameCore.nextTurnAndGetPlayer();
-        broadcast("TURN|" + next);
+        broadcast("TURN|" + gameCore.getCurrentTurnPlayer());
+    }
+
+    // 받아들인 PLAY 뒤처리 (실제 처리 / 저널 재생 공통): 손패를 다 냈으면 라운드를 끝내고 true, 아니면 턴 넘김
+    private boolean afterPlay(String playerName) {
+        if (gameCore.hasWon(playerName)) {
+            gameCore.onRoundWin(playerName);
+            resetRoomState();
+            return true;
+        }
+        gameCore.nextTurnAndGetPlayer();
+        return false;
+    }
+
+    // 끝난 게임의 리플레이를 보관소로
+    private void archiveGame() {
+        if (recorder == null) return;
+        replays.save(recorder.finish(), recorder.moves());
+        recorder = null;
+    }
+
+    // ============================================================
+    // BOARD SNAPSHOT (BOARD_SYNC → BOARD|버전|보드 전체)
+    public void sendBoard(ClientSession session) {
+        mailbox.execute(() -> {
+            if (removed) return; // GameCore 는 이미 풀로 돌려줌
+            session.send("BOARD|" + gameCore.getBoardVersion() + "|" + gameCore.encodeBoard());
+        });
     }
 
     // ============================================================
     // DRAW TILE / NEXT 턴
     public void handleNoTile(String playerName) {
+        mailbox.execute(() -> doHandleNoTile(playerName));
+    }
+
+    private void doHandleNoTile(String playerName) {
+        if (removed) return; // GameCore 는 이미 풀로 돌려줌
+
         // 1) 턴 체크
         if (!playerName.equals(gameCore.getCurrentTurnPlayer())) {
             sendTo(playerName, "ERROR|당신의 턴이 아닙니다.");
             return;
         }
+        journal.noTile(id, playerName);
+        if (recorder != null) recorder.noTile();
 
         // 2) 이미 이 턴에 무언가 냈다면 → 더 뽑지 않고 턴만 넘김
-        if (gameCore.playedThisTurn(playerName)) {
-            String next = gameCore.nextTurnAndGetPlayer();
-            broadcast("TURN|" + next);
-            return;
-        }
-
         // 3) 아직 아무 것도 안 냈다면 → 서버에서 한 장 뽑고 클라이언트에 알려주기
-        String tile = gameCore.drawRandomTileFor(playerName);
+        boolean played = gameCore.playedThisTurn(playerName);
+        String tile = noTile(playerName);
 
-        if (tile != null) {
-            sendTo(playerName, "NEW_TILE|" + tile);
-        } else {
-            // 더 뽑을 타일이 없을 때 선택적으로 안내
-            sendTo(playerName, "INFO|더 이상 뽑을 타일이 없습니다.");
+        if (!played) {
+            if (tile != null) {
+                sendTo(playerName, "NEW_TILE|" + tile);
+            } else {
+                // 더 뽑을 타일이 없을 때 선택적으로 안내
+                sendTo(playerName, "INFO|더 이상 뽑을 타일이 없습니다.");
+            }
         }
 
         // 4) 턴 넘기기
-        String next = gameCore.nextTurnAndGetPlayer();
-        broadcast("TURN|" + next);
+        broadcast("TURN|" + gameCore.getCurrentTurnPlayer());
+    }
+
+    // NO_TILE 상태 변화 (실제 처리 / 저널 재생 공통): 이번 턴에 낸 게 없으면 한 장 뽑고 턴 넘김, 뽑은 타일 (없으면 null)
+    private String noTile(String playerName) {
+        String tile = gameCore.playedThisTurn(playerName) ? null : gameCore.drawRandomTileFor(playerName);
+        gameCore.nextTurnAndGetPlayer();
+        return tile;
+    }
+
+    // ============================================================
+    // JOURNAL (GameJournal 재생 / 스냅샷, 재생 중에는 방이 아직 등록 전이라 메일박스를 거치지 않음)
+
+    static Room replayCreate(int id, String name, byte[] pool, GameServer server) {
+        Room r = new Room(id, name, server);
+        r.gameCore.setScoreStore(null); // 재생한 라운드 종료를 누적 점수에 다시 더하지 않도록
+        r.gameCore.restorePool(pool);
+        return r;
+    }
+
+    void replayJoin(String pn) {
+        joinSeat(pn);
+    }
+
+    void replayStart() {
+        gameStarted = true;
+    }
+
+    void replayPlay(String pn, List<byte[]> melds, List<byte[]> values, byte[] fromHand) {
+        gameCore.applyPlay(pn, melds, values, fromHand);
+        afterPlay(pn);
+    }
+
+    void replayNoTile(String pn) {
+        noTile(pn);
+    }
+
+    // 마지막 자리까지 비면 true (방 삭제)
+    boolean replayLeave(String pn) {
+        leaveSeat(pn);
+        return members.isEmpty();
+    }
+
+    // 재생이 끝난 방: 이후 라운드 점수는 다시 누적 점수로
+    void finishReplay() {
+        gameCore.setScoreStore(server.scores());
+    }
+
+    // 이름, 방장, 시작 여부, 자리, GameCore 전체
+    void writeSnapshot(GameJournal.Out out) {
+        out.string(name);
+        out.string(ownerName == null ? "" : ownerName);
+        out.u8(gameStarted ? 1 : 0);
+        out.varint(members.size());
+        for (String m : members) out.string(m);
+        gameCore.writeSnapshot(out);
+    }
+
+    static Room fromSnapshot(int id, ByteBuffer in, GameServer server) {
+        Room r = new Room(id, Wire.readString(in), server);
+        r.gameCore.setScoreStore(null);
+        String owner = Wire.readString(in);
+        r.ownerName = owner.isEmpty() ? null : owner;
+        r.gameStarted = in.get() != 0;
+        for (int i = Wire.readVarint(in); i > 0; i--) r.members.add(Wire.readString(in));
+        r.gameCore.readSnapshot(in);
+        return r;
+    }
+
+    // 복구된 방: millis 안에 같은 이름으로 다시 들어오지 않은 자리는 LEAVE 로 비움
+    // (그 자리 차례에서 게임이 멈추지 않고, 아무도 돌아오지 않은 방은 지워져 재시작마다 다시 복구되지 않음)
+    void expireAbsentSeats(long millis) {
+        CompletableFuture.delayedExecutor(millis, TimeUnit.MILLISECONDS, mailbox).execute(() -> {
+            if (removed) return;
+            List<String> absent = new ArrayList<>(members);
+            for (ClientSession s : players) absent.remove(s.getPlayerName());
+            if (absent.isEmpty()) return;
+            System.out.println("⌛ Room " + name + " (id=" + id + "): 돌아오지 않은 자리 비움 " + absent);
+            for (String pn : absent) {
+                if (removed) break;
+                vacate(pn);
+            }
+            // 비운 자리의 차례였으면 다음 사람에게 (남은 사람이 기다리지 않도록)
+            if (!removed && gameStarted) broadcast("TURN|" + gameCore.getCurrentTurnPlayer());
+        });
+    }
+
+    // 세그먼트를 넘길 때 GameJournal 이 요청 (방 상태는 메일박스 안에서만 읽음)
+    void requestSnapshot(GameJournal j, long seq) {
+        mailbox.execute(() -> {
+            if (!removed) j.snapshot(this);
+            j.snapshotDone(seq);
+        });
+    }
+
+    // 벤치마크 / 복구 검증용
+    GameCore gameCore() {
+        return gameCore;
+    }
+
+    List<String> members() {
+        return members;
     }
 
     // ============================================================
     // MESSAGE SENDING
+    // 락 없이 CopyOnWriteArrayList 스냅샷을 순회 (가상 스레드에서 모니터를 잡은 채 블로킹 write 하지 않도록)
+    // 메시지는 한 번만 인코딩하고 같은 Frame 을 모든 플레이어에게 넘김
     public void broadcast(String msg) {
-        for (ClientSession s : players) s.send(msg);
+        Frame frame = Frame.of(msg);
+        for (ClientSession s : players) s.send(frame);
     }
 
     public void sendTo(String name, String msg) {
@@ -232,7 +512,9 @@ public class Room {
             }
     }
 
+    // 판이 끝나면 같은 GameCore 를 제자리에서 다음 판으로 (방 난수에서 새 시드, 남은 자리 순서대로 14장씩)
     private void resetRoomState() {
         gameStarted = false;
+        gameCore.resetRound(random.nextLong());
     }
 }
@@ -0,0 +1,118 @@
+package server;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+
+// 로비 방 목록 피드
+// - 방마다 "id,name,count" 항목을 미리 만들어 두고, 방 생성/삭제/인원 변경 때만 해당 항목을 교체
+// - LIST 응답(ROOM_LIST|...)은 버전이 바뀐 뒤 처음 요청될 때 한 번만 조립하고 이후에는 캐시 재사용
+// - LIST_SUBSCRIBE 한 로비 클라이언트에게는 변경분만 ROOM_LIST_DELTA 로 푸시
+//
+// 변경 적용 / 구독 처리 / 델타 전송은 모두 피드 전용 메일박스에서 순서대로 실행되므로
+// 구독자는 FULL 다음에 그 이후의 변경을 빠짐없이, 순서대로 받음
+//
+// 구독 중인 세션의 LIST 도 메일박스에서 FULL 로 답함 (세션 스레드에서 만든 ROOM_LIST 가 더 새 델타 뒤에 도착해 목록을 되돌리지 않도록)
+//
+// ROOM_LIST_DELTA|버전|FULL|id,name,count;...   (구독 직후 / 구독 중 LIST 의 전체 목록)
+// ROOM_LIST_DELTA|버전|PUT|id,name,count         (방 추가 또는 인원 변경)
+// ROOM_LIST_DELTA|버전|DEL|id                    (방 삭제)
+public class RoomListFeed {
+
+    private final Executor mailbox;
+
+    // id 순 항목 (변경은 메일박스에서만, 읽기는 아무 스레드에서나)
+    private final ConcurrentSkipListMap<Integer, String> entries = new ConcurrentSkipListMap<>();
+    private volatile long version = 0;
+
+    // LIST 응답 캐시
+    private volatile Snapshot cached = new Snapshot(0, "ROOM_LIST|");
+
+    // 메일박스 전용
+    private final Set<ClientSession> subscribers = new LinkedHashSet<>();
+
+    private static final class Snapshot {
+        final long version;
+        final String message;
+        Snapshot(long version, String message) { this.version = version; this.message = message; }
+    }
+
+    public RoomListFeed(Executor pool) {
+        this.mailbox = new SerialExecutor(pool);
+    }
+
+    // ============================================================
+    // 변경 통지 (방 액터 / 생성 스레드에서 호출)
+
+    // 방 추가 또는 인원 변경: 호출 시점의 인원으로 항목을 만들어 넘김
+    public void put(Room room) {
+        int id = room.getId();
+        String entry = id + "," + room.getName() + "," + room.getPlayerCount();
+        mailbox.execute(() -> {
+            if (entry.equals(entries.put(id, entry))) return; // 실제 변화 없음
+            long v = ++version;
+            push("ROOM_LIST_DELTA|" + v + "|PUT|" + entry);
+        });
+    }
+
+    public void remove(Room room) {
+        int id = room.getId();
+        mailbox.execute(() -> {
+            if (entries.remove(id) == null) return;
+            long v = ++version;
+            push("ROOM_LIST_DELTA|" + v + "|DEL|" + id);
+        });
+    }
+
+    // ============================================================
+    // 구독
+
+    public void subscribe(ClientSession s) {
+        mailbox.execute(() -> {
+            subscribers.add(s);
+            s.send("ROOM_LIST_DELTA|" + version + "|FULL|" + buildEntries());
+        });
+    }
+
+    // LIST 요청: 구독 중이면 버전이 붙은 FULL, 아니면 캐시된 ROOM_LIST
+    public void list(ClientSession s) {
+        mailbox.execute(() -> {
+            if (subscribers.contains(s)) s.send("ROOM_LIST_DELTA|" + version + "|FULL|" + buildEntries());
+            else s.send(listMessage());
+        });
+    }
+
+    public void unsubscribe(ClientSession s) {
+        mailbox.execute(() -> subscribers.remove(s));
+    }
+
+    private void push(String msg) {
+        if (subscribers.isEmpty()) return;
+        Frame frame = Frame.of(msg);
+        for (ClientSession s : subscribers) s.send(frame);
+    }
+
+    // ============================================================
+    // LIST 응답 (아무 스레드에서나)
+    // 버전을 먼저 읽고 항목을 읽으므로, 조립 도중 변경이 끼면 다음 요청에서 다시 조립됨
+    public String listMessage() {
+        Snapshot s = cached;
+        long v = version;
+        if (s.version == v) return s.message;
+
+        String msg = "ROOM_LIST|" + buildEntries();
+        if (v > cached.version) cached = new Snapshot(v, msg);
+        return msg;
+    }
+
+    private String buildEntries() {
+        StringBuilder sb = new StringBuilder(entries.size() * 24);
+        for (Map.Entry<Integer, String> e : entries.entrySet()) {
+            if (sb.length() > 0) sb.append(";");
+            sb.append(e.getValue());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package server;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// 방 목록 (락 없음)
+// - id 조회: ConcurrentHashMap, O(1)
+// - 전체 순회: id 순으로 정렬된 불변 배열 스냅샷 (추가/삭제 때만 CAS 로 교체)
+// LIST / JOIN 이 훨씬 잦고 CREATE / 삭제는 드물다는 전제
+// 같은 방에 대한 add / remove 는 동시에 일어나지 않음 (생성 직후 1회 + 이후에는 그 방의 액터 안에서만 호출)
+public class RoomRegistry {
+
+    private static final Room[] EMPTY = new Room[0];
+
+    private final AtomicInteger nextId = new AtomicInteger(0);
+    private final ConcurrentHashMap<Integer, Room> byId = new ConcurrentHashMap<>();
+    private final AtomicReference<Room[]> snapshot = new AtomicReference<>(EMPTY);
+
+    public int nextId() {
+        return nextId.getAndIncrement();
+    }
+
+    // 복구한 방 id 와 겹치지 않도록 다음 id 를 최소 next 로
+    public void advanceTo(int next) {
+        nextId.accumulateAndGet(next, Math::max);
+    }
+
+    public Room find(int id) {
+        return byId.get(id);
+    }
+
+    // 이미 등록된 방이면 false
+    public boolean add(Room room) {
+        if (byId.putIfAbsent(room.getId(), room) != null) return false;
+
+        while (true) {
+            Room[] cur = snapshot.get();
+            int pos = Arrays.binarySearch(cur, room, (a, b) -> Integer.compare(a.getId(), b.getId()));
+            if (pos >= 0) return true; // 다른 스레드가 이미 반영
+
+            int ins = -pos - 1;
+            Room[] next = new Room[cur.length + 1];
+            System.arraycopy(cur, 0, next, 0, ins);
+            next[ins] = room;
+            System.arraycopy(cur, ins, next, ins + 1, cur.length - ins);
+            if (snapshot.compareAndSet(cur, next)) return true;
+        }
+    }
+
+    // 등록되어 있지 않으면 false
+    public boolean remove(Room room) {
+        if (!byId.remove(room.getId(), room)) return false;
+
+        while (true) {
+            Room[] cur = snapshot.get();
+            int idx = -1;
+            for (int i = 0; i < cur.length; i++) {
+                if (cur[i] == room) { idx = i; break; }
+            }
+            if (idx < 0) return true;
+
+            Room[] next = (cur.length == 1) ? EMPTY : new Room[cur.length - 1];
+            System.arraycopy(cur, 0, next, 0, idx);
+            System.arraycopy(cur, idx + 1, next, idx, cur.length - idx - 1);
+            if (snapshot.compareAndSet(cur, next)) return true;
+        }
+    }
+
+    // 호출 시점의 일관된 목록 (id 오름차순, 읽기 전용)
+    public List<Room> snapshot() {
+        return Collections.unmodifiableList(Arrays.asList(snapshot.get()));
+    }
+
+    public int size() {
+        return snapshot.get().length;
+    }
+}
@@ -0,0 +1,469 @@
+package server;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+// 방을 넘어 누적되는 플레이어 점수 + 리더보드 (서버 재시작 후에도 유지)
+//
+// 파일 두 개 (rummikub.scores.dir, 기본 data/)
+//   scores.snap  전체 플레이어 누적값 스냅샷 (세대 번호 + CRC)
+//   scores.log   스냅샷 이후 변경분을 배치 단위로 덧붙이는 로그 (배치마다 길이 + CRC, 헤더에 세대 번호)
+//
+// 라운드가 끝나면(GameCore.endRoundAndUpdateScores → recordRound) 메모리 인덱스는 바로 갱신하고,
+// 파일 쓰기는 writer 스레드가 flushMillis 마다 모아서 한 번에 함
+//   - 같은 배치 안에서 같은 플레이어의 여러 라운드는 레코드 하나로 합침
+//   - 배치당 write 1번 + force 1번 → 게임 종료가 몰려도 쓰기 횟수는 배치 수만큼만
+//   - 로그가 스냅샷의 2배(최소 1MB)를 넘으면 스냅샷을 새로 쓰고 로그를 비움 (세대 번호로 중복 반영 방지)
+//
+// 리더보드: (점수 내림차순, 이름) 순서의 ConcurrentSkipListSet → LEADERBOARD|n 은 앞에서 n 개만 읽음 (전체 순회 없음)
+// -Drummikub.scores.dir=data -Drummikub.scores.flushMillis=200, dir 을 빈 값으로 주면 파일 없이 메모리에만 유지
+public final class ScoreStore implements Closeable {
+
+    public static final int MAX_LEADERBOARD = 100;
+
+    private static final int SNAP_MAGIC = 0x524B5343;   // "RKSC"
+    private static final int LOG_MAGIC = 0x524B4C47;    // "RKLG"
+    private static final long MIN_COMPACT_BYTES = 1 << 20;
+
+    // 한 플레이어의 누적 기록 (불변, 갱신은 새 객체로 교체)
+    public record Rank(String name, long total, int rounds, int wins) {}
+
+    private static final Comparator<Rank> ORDER = Comparator
+            .comparingLong((Rank r) -> -r.total)
+            .thenComparing(Rank::name);
+
+    // 누적 중인 변경분 (배치 안에서 플레이어별로 합침)
+    private static final class Delta {
+        long score;
+        int rounds;
+        int wins;
+    }
+
+    // ============================================================
+    // 메모리 인덱스 (recordRound 가 lock 안에서 갱신, 리더보드 조회는 락 없이)
+    private final Object lock = new Object();
+    private final Map<String, Rank> byName = new HashMap<>();
+    private final ConcurrentSkipListSet<Rank> ranking = new ConcurrentSkipListSet<>(ORDER);
+    private Map<String, Delta> pending = new HashMap<>();
+
+    // 파일 쪽 (writer 스레드만 사용)
+    private final Path dir;
+    private final long flushNanos;
+    private final Map<String, Rank> persisted = new HashMap<>(); // 스냅샷 + 로그에 이미 쓴 값
+    private FileChannel log;
+    private long generation;
+    private long snapshotBytes;
+    private Thread writer;
+    private volatile boolean closed;
+
+    // 지표
+    private long roundsRecorded;     // lock
+    private volatile long batches;
+    private volatile long recordsWritten;
+    private volatile long bytesWritten;
+    private volatile long compactions;
+
+    private ScoreStore(Path dir, long flushMillis) {
+        this.dir = dir;
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(flushMillis);
+    }
+
+    // 시스템 속성대로 열기
+    public static ScoreStore open() throws IOException {
+        String d = System.getProperty("rummikub.scores.dir", "data");
+        long flush = Long.getLong("rummikub.scores.flushMillis", 200);
+        return open(d.isEmpty() ? null : Path.of(d), flush);
+    }
+
+    // dir 이 null 이면 메모리 전용
+    public static ScoreStore open(Path dir, long flushMillis) throws IOException {
+        ScoreStore s = new ScoreStore(dir, flushMillis);
+        if (dir != null) {
+            s.recover();
+            s.writer = Thread.ofPlatform().name("score-writer").daemon(true).start(s::writeLoop);
+            Runtime.getRuntime().addShutdownHook(new Thread(s::closeQuietly, "score-flush"));
+        }
+        return s;
+    }
+
+    // ============================================================
+    // 기록 / 조회
+
+    // 라운드 하나의 점수 변화 (패자는 음수, 승자는 양수)
+    public void recordRound(String winner, Map<String, Integer> deltas) {
+        synchronized (lock) {
+            roundsRecorded++;
+            for (Map.Entry<String, Integer> e : deltas.entrySet()) {
+                String name = e.getKey();
+                int d = e.getValue();
+                int win = name.equals(winner) ? 1 : 0;
+
+                Rank old = byName.get(name);
+                Rank now = old == null
+                        ? new Rank(name, d, 1, win)
+                        : new Rank(name, old.total + d, old.rounds + 1, old.wins + win);
+                byName.put(name, now);
+                // 지우고 넣는 순서라 조회 중에 잠깐 빠질 수는 있어도 두 번 보이지는 않음
+                if (old != null) ranking.remove(old);
+                ranking.add(now);
+
+                if (dir != null) {
+                    Delta p = pending.computeIfAbsent(name, k -> new Delta());
+                    p.score += d;
+                    p.rounds++;
+                    p.wins += win;
+                }
+            }
+        }
+    }
+
+    // 상위 n 명 (n 은 1~MAX_LEADERBOARD 로 자름)
+    public List<Rank> top(int n) {
+        n = Math.max(1, Math.min(n, MAX_LEADERBOARD));
+        List<Rank> out = new ArrayList<>(n);
+        for (Rank r : ranking) {
+            out.add(r);
+            if (out.size() == n) break;
+        }
+        return out;
+    }
+
+    // LEADERBOARD|이름,점수,승수;...
+    public String leaderboardMessage(int n) {
+        StringBuilder sb = new StringBuilder("LEADERBOARD|");
+        List<Rank> top = top(n);
+        for (int i = 0; i < top.size(); i++) {
+            Rank r = top.get(i);
+            if (i > 0) sb.append(';');
+            sb.append(r.name).append(',').append(r.total).append(',').append(r.wins);
+        }
+        return sb.toString();
+    }
+
+    public Rank get(String name) {
+        synchronized (lock) {
+            return byName.get(name);
+        }
+    }
+
+    public int playerCount() {
+        synchronized (lock) {
+            return byName.size();
+        }
+    }
+
+    public String stats() {
+        long rounds;
+        synchronized (lock) {
+            rounds = roundsRecorded;
+        }
+        return "rounds " + rounds + ", batches " + batches + ", records " + recordsWritten
+                + ", bytes " + bytesWritten + (rounds > 0 ? " (" + bytesWritten / rounds + " B/round)" : "")
+                + ", compactions " + compactions;
+    }
+
+    // ============================================================
+    // 복구: 스냅샷 읽기 → 같은 세대 로그 재생 (잘린 마지막 배치는 버림)
+
+    private void recover() throws IOException {
+        Files.createDirectories(dir);
+        Path snap = dir.resolve("scores.snap");
+        if (Files.exists(snap)) {
+            byte[] all = Files.readAllBytes(snap);
+            readSnapshot(all);
+            snapshotBytes = all.length;
+        }
+
+        Path logPath = dir.resolve("scores.log");
+        log = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long replayed = replayLog();
+        if (replayed < 0) {
+            // 다른 세대(이미 스냅샷에 들어간 로그)거나 헤더가 깨짐 → 새로 시작
+            startLog();
+        }
+
+        synchronized (lock) {
+            for (Rank r : persisted.values()) {
+                byName.put(r.name, r);
+                ranking.add(r);
+            }
+        }
+        System.out.println("🏆 Score store: " + persisted.size() + " players (" + dir.toAbsolutePath() + ")");
+    }
+
+    private void readSnapshot(byte[] all) throws IOException {
+        if (all.length < 8) throw new IOException("scores.snap too short");
+        CRC32 crc = new CRC32();
+        crc.update(all, 0, all.length - 4);
+        int stored = ByteBuffer.wrap(all, all.length - 4, 4).getInt();
+        if ((int) crc.getValue() != stored) throw new IOException("scores.snap CRC mismatch");
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(all, 0, all.length - 4));
+        if (in.readInt() != SNAP_MAGIC) throw new IOException("scores.snap bad magic");
+        generation = in.readLong();
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            Rank r = new Rank(readName(in), in.readLong(), in.readInt(), in.readInt());
+            persisted.put(r.name, r);
+        }
+    }
+
+    // 재생한 배치 수, 세대가 다르거나 헤더가 없으면 -1
+    private long replayLog() throws IOException {
+        long size = log.size();
+        if (size < 12) return -1;
+
+        ByteBuffer header = ByteBuffer.allocate(12);
+        log.read(header, 0);
+        header.flip();
+        if (header.getInt() != LOG_MAGIC || header.getLong() != generation) return -1;
+
+        long pos = 12;
+        long count = 0;
+        ByteBuffer head = ByteBuffer.allocate(8);
+        while (pos + 8 <= size) {
+            head.clear();
+            log.read(head, pos);
+            head.flip();
+            int len = head.getInt();
+            int crc = head.getInt();
+            if (len <= 0 || pos + 8 + len > size) break;
+
+            ByteBuffer body = ByteBuffer.allocate(len);
+            log.read(body, pos + 8);
+            CRC32 c = new CRC32();
+            c.update(body.array(), 0, len);
+            if ((int) c.getValue() != crc) break;
+
+            applyBatch(body.array());
+            pos += 8 + len;
+            count++;
+        }
+        if (pos < size) {
+            System.out.println("⚠️ scores.log: 끝의 불완전한 배치 " + (size - pos) + " B 버림");
+            log.truncate(pos);
+        }
+        log.position(pos);
+        return count;
+    }
+
+    private void applyBatch(byte[] body) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            String name = readName(in);
+            long score = in.readLong();
+            int rounds = in.readInt();
+            int wins = in.readInt();
+            Rank old = persisted.get(name);
+            persisted.put(name, old == null
+                    ? new Rank(name, score, rounds, wins)
+                    : new Rank(name, old.total + score, old.rounds + rounds, old.wins + wins));
+        }
+    }
+
+    // 이름: varint 길이 + UTF-8 (writeUTF 는 65535 바이트를 넘으면 예외라 배치 전체를 잃게 됨)
+    private static void writeName(DataOutputStream out, String name) throws IOException {
+        byte[] b = name.getBytes(StandardCharsets.UTF_8);
+        int v = b.length;
+        while ((v & ~0x7F) != 0) {
+            out.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+        out.write(b);
+    }
+
+    private static String readName(DataInputStream in) throws IOException {
+        int len = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (shift > 28) throw new IOException("name length too long");
+            int b = in.readUnsignedByte();
+            len |= (b & 0x7F) << shift;
+            if (b < 0x80) break;
+        }
+        byte[] b = new byte[len];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private void startLog() throws IOException {
+        log.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(12).putInt(LOG_MAGIC).putLong(generation);
+        header.flip();
+        log.write(header, 0);
+        log.position(12);
+        log.force(false);
+    }
+
+    // ============================================================
+    // writer 스레드
+
+    // close() 는 closed + notifyAll 로 깨워 끝나기를 기다림 (interrupt 하면 쓰는 중인 FileChannel 이 닫혀 버림)
+    private void writeLoop() {
+        while (true) {
+            synchronized (lock) {
+                try {
+                    if (!closed) TimeUnit.NANOSECONDS.timedWait(lock, flushNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (closed || Thread.currentThread().isInterrupted()) return; // close() 에서 마지막 flush
+            }
+            try {
+                flush();
+            } catch (IOException e) {
+                // 실패한 배치는 pending 으로 되돌렸으므로 다음 주기에 다시 씀, 채널이 닫혔으면 더 쓸 수 없음
+                if (!log.isOpen()) {
+                    System.out.println("❌ 점수 저장 실패, 기록 중단 (이후 변경분은 메모리에만 있음): " + e);
+                    return;
+                }
+                System.out.println("❌ 점수 저장 실패, 다음 주기에 다시 시도: " + e);
+            }
+        }
+    }
+
+    // 모인 변경분을 배치 하나로 로그에 덧붙임 (writer 스레드 또는 close)
+    private synchronized void flush() throws IOException {
+        Map<String, Delta> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) return;
+            batch = pending;
+            pending = new HashMap<>();
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + batch.size() * 32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0); // 길이 자리
+        out.writeInt(0); // CRC 자리
+        out.writeInt(batch.size());
+        for (Map.Entry<String, Delta> e : batch.entrySet()) {
+            Delta d = e.getValue();
+            writeName(out, e.getKey());
+            out.writeLong(d.score);
+            out.writeInt(d.rounds);
+            out.writeInt(d.wins);
+        }
+
+        byte[] a = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(a, 8, a.length - 8);
+        ByteBuffer buf = ByteBuffer.wrap(a);
+        buf.putInt(0, a.length - 8).putInt(4, (int) crc.getValue());
+
+        long at = log.position();
+        try {
+            while (buf.hasRemaining()) log.write(buf);
+            log.force(false);
+        } catch (IOException e) {
+            requeue(batch, at);
+            throw e;
+        }
+
+        // force 까지 끝난 뒤에만 반영 (compact 가 persisted 로 스냅샷을 씀)
+        for (Map.Entry<String, Delta> e : batch.entrySet()) {
+            Delta d = e.getValue();
+            Rank old = persisted.get(e.getKey());
+            persisted.put(e.getKey(), old == null
+                    ? new Rank(e.getKey(), d.score, d.rounds, d.wins)
+                    : new Rank(e.getKey(), old.total + d.score, old.rounds + d.rounds, old.wins + d.wins));
+        }
+        batches++;
+        recordsWritten += batch.size();
+        bytesWritten += a.length;
+
+        if (log.size() > Math.max(MIN_COMPACT_BYTES, snapshotBytes * 2)) compact();
+    }
+
+    // 쓰기 실패: 일부만 쓰였을 수 있는 꼬리를 잘라 내고, 배치를 그사이 쌓인 변경분과 합쳐 pending 으로 되돌림
+    private void requeue(Map<String, Delta> batch, long at) {
+        if (log.isOpen()) {
+            try {
+                log.truncate(at);
+                log.position(at);
+            } catch (IOException ignored) {
+                // 다음 write 가 다시 실패하며 알려 줌
+            }
+        }
+        synchronized (lock) {
+            for (Map.Entry<String, Delta> e : pending.entrySet()) {
+                Delta d = e.getValue();
+                Delta b = batch.computeIfAbsent(e.getKey(), k -> new Delta());
+                b.score += d.score;
+                b.rounds += d.rounds;
+                b.wins += d.wins;
+            }
+            pending = batch;
+        }
+    }
+
+    // persisted 전체를 다음 세대 스냅샷으로 쓰고(임시 파일 → 원자적 교체) 로그를 비움
+    // 교체 후 로그를 비우기 전에 죽어도, 로그 헤더의 세대가 스냅샷보다 낮으므로 재생하지 않음
+    private void compact() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + persisted.size() * 32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(SNAP_MAGIC);
+        out.writeLong(generation + 1);
+        out.writeInt(persisted.size());
+        for (Rank r : persisted.values()) {
+            writeName(out, r.name);
+            out.writeLong(r.total);
+            out.writeInt(r.rounds);
+            out.writeInt(r.wins);
+        }
+        CRC32 crc = new CRC32();
+        byte[] body = bytes.toByteArray();
+        crc.update(body);
+        out.writeInt((int) crc.getValue());
+        byte[] all = bytes.toByteArray();
+
+        Path tmp = dir.resolve("scores.snap.tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.wrap(all);
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        Files.move(tmp, dir.resolve("scores.snap"), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        generation++;
+        snapshotBytes = all.length;
+        bytesWritten += all.length;
+        compactions++;
+        startLog();
+    }
+
+    // 남은 변경분을 쓰고 닫음
+    @Override
+    public void close() throws IOException {
+        if (dir == null) return;
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            lock.notifyAll();
+        }
+        // 쓰는 중이던 배치(write + force)를 마칠 때까지 기다림
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        log.close();
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            System.out.println("❌ 점수 저장 실패: " + e.getMessage());
+        }
+    }
+}
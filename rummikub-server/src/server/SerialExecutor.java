@@ -0,0 +1,55 @@
+package server;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 방(Room) 하나의 메일박스
+// 넣은 작업은 넣은 순서대로, 한 번에 하나씩만 실행됨 (방 상태/GameCore 에 락 불필요)
+// 실제 실행은 공유 스케줄러 풀에서 이루어지므로 방이 수백 개여도 스레드 수는 풀 크기로 고정
+public class SerialExecutor implements Executor {
+
+    // 한 번 스케줄될 때 처리할 최대 작업 수 (바쁜 방이 풀 스레드를 독점하지 않도록)
+    private static final int MAX_BATCH = 64;
+
+    private final Executor pool;
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    public SerialExecutor(Executor pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        mailbox.add(command);
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            pool.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            for (int i = 0; i < MAX_BATCH; i++) {
+                Runnable r = mailbox.poll();
+                if (r == null) break;
+                try {
+                    r.run();
+                } catch (RuntimeException e) {
+                    // 한 명령의 오류로 방 전체가 멈추지 않도록 로그만 남김
+                    System.out.println("❌ Room command failed: " + e);
+                    e.printStackTrace();
+                }
+            }
+        } finally {
+            scheduled.set(false);
+            // 처리 도중 / 배치 한도 이후 남은 작업이 있으면 다시 스케줄
+            if (!mailbox.isEmpty()) schedule();
+        }
+    }
+}
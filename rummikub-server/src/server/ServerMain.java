@@ -1,10 +1,35 @@
 package server;
 
 public class ServerMain {
-    public static void main(String[] args) {
+    // 사용법: java server.ServerMain [port] [--mode=thread|virtual|nio] [--io-threads=N] [--room-threads=N]
+    //        java server.ServerMain --train   (AppCDS 아카이브용 학습 실행 후 종료)
+    public static void main(String[] args) throws Exception {
         int port = 9999; // 필요하면 포트 변경
-        GameServer server = new GameServer(port);
+        GameServer.IoMode mode = GameServer.IoMode.THREAD;
+        int ioThreads = Runtime.getRuntime().availableProcessors();
+        int roomThreads = Runtime.getRuntime().availableProcessors();
+        boolean train = false;
+
+        for (String a : args) {
+            if (a.startsWith("--mode=")) {
+                mode = GameServer.IoMode.valueOf(a.substring("--mode=".length()).toUpperCase());
+            } else if (a.startsWith("--io-threads=")) {
+                ioThreads = Integer.parseInt(a.substring("--io-threads=".length()));
+            } else if (a.startsWith("--room-threads=")) {
+                roomThreads = Integer.parseInt(a.substring("--room-threads=".length()));
+            } else if (a.equals("--train")) {
+                train = true;
+            } else {
+                port = Integer.parseInt(a);
+            }
+        }
+
+        if (train) {
+            ServerTraining.run();
+            return;
+        }
+
+        GameServer server = new GameServer(port, mode, ioThreads, roomThreads);
         server.start();
     }
 }
-
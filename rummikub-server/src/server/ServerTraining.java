@@ -0,0 +1,129 @@
+package server;
+
+import common.Tile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// AppCDS 학습 실행: java -XX:ArchiveClassesAtExit=server.jsa -jar rummikub-server.jar --train
+// 세션 방식(thread / virtual / nio)마다 임시 포트에 서버를 띄우고 로컬 봇 4명이
+// 로그인 → 방 생성/입장 → 자동 시작 → 몇 턴(PLAY 실패, NO_TILE) → 퇴장 까지 돌린 뒤 종료해서
+// 실제 서버가 첫 요청들을 처리할 때 읽는 클래스가 아카이브에 들어가게 함
+final class ServerTraining {
+
+    private static final int BOTS = 4;
+    private static final int TURNS = 8;
+
+    private ServerTraining() {}
+
+    static void run() throws IOException {
+        // 학습 실행이 작업 디렉터리에 점수 / 저널 파일을 남기지 않게 (모드별 서버 3개가 같은 파일을 열지 않도록)
+        if (System.getProperty("rummikub.scores.dir") == null) System.setProperty("rummikub.scores.dir", "");
+        if (System.getProperty("rummikub.journal.dir") == null) System.setProperty("rummikub.journal.dir", "");
+        if (System.getProperty("rummikub.replay.dir") == null) System.setProperty("rummikub.replay.dir", "");
+        for (GameServer.IoMode mode : GameServer.IoMode.values())
+            play(mode);
+        System.out.println("[TRAIN] done");
+    }
+
+    private static void play(GameServer.IoMode mode) throws IOException {
+        GameServer server = new GameServer(0, mode, 2, 2);
+        Thread acceptor = new Thread(server::start, "train-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        List<Bot> bots = new ArrayList<>();
+        for (int i = 0; i < BOTS; i++) {
+            Bot b = new Bot("train" + i, server.getLocalPort());
+            b.send("LOGIN|" + b.name);
+            b.await("INFO|");
+            bots.add(b);
+        }
+
+        // 방 생성 / 입장 → 4명이 되면 자동 시작
+        Bot owner = bots.get(0);
+        owner.send("LIST");
+        owner.await("ROOM_LIST|");
+        owner.send("CREATE|train");
+        String roomId = owner.await("JOIN_OK|").substring("JOIN_OK|".length());
+        for (int i = 1; i < BOTS; i++) {
+            bots.get(i).send("JOIN|" + roomId);
+            bots.get(i).await("JOIN_OK|");
+        }
+
+        // 마지막 입장자는 자동 시작 알림(TURN)을 JOIN_OK 보다 먼저 받으므로 나머지에게서 읽음
+        String turn = null;
+        for (int i = 0; i < BOTS - 1; i++)
+            turn = bots.get(i).await("TURN|").substring("TURN|".length());
+
+        // 차례인 봇: 손에 없는 타일로 PLAY(거절) → CHAT → NO_TILE(한 장 뽑고 턴 넘김)
+        for (int t = 0; t < TURNS; t++) {
+            Bot cur = find(bots, turn);
+            cur.send("PLAY|R1,R2,R3;BL7,Y7,B7");
+            cur.await("PLAY_FAIL|");
+            cur.send("CHAT|hi");
+            cur.send("NO_TILE");
+            for (Bot b : bots) turn = b.await("TURN|").substring("TURN|".length());
+        }
+
+        // 재조합 / 보드 인코딩 경로 (정상 PLAY 를 만들기 어려운 부분은 직접 호출)
+        GameCore core = new GameCore();
+        byte[] tiles = {
+                (byte) Tile.kind(0, 1), (byte) Tile.kind(0, 2), (byte) Tile.kind(0, 3),
+                (byte) Tile.kind(1, 7), (byte) Tile.kind(2, 7), (byte) Tile.RED_JOKER
+        };
+        List<byte[]> board = core.rearrangeServerSide(List.of(), tiles);
+        if (board != null) core.restoreBoard(board);
+        core.encodeBoard();
+
+        for (Bot b : bots) {
+            b.send("LEAVE");
+            b.send("EXIT");
+            b.close();
+        }
+    }
+
+    private static Bot find(List<Bot> bots, String name) {
+        for (Bot b : bots)
+            if (b.name.equals(name)) return b;
+        throw new IllegalStateException("unknown turn player: " + name);
+    }
+
+    private static final class Bot {
+        final String name;
+        final Socket socket;
+        final BufferedReader in;
+        final PrintWriter out;
+
+        Bot(String name, int port) throws IOException {
+            this.name = name;
+            this.socket = new Socket("127.0.0.1", port);
+            socket.setSoTimeout(5000);
+            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+        }
+
+        void send(String line) {
+            out.println(line);
+        }
+
+        // prefix 로 시작하는 줄이 올 때까지 읽음
+        String await(String prefix) throws IOException {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith(prefix)) return line;
+            }
+            throw new IOException(name + ": 연결 종료 (" + prefix + " 대기 중)");
+        }
+
+        void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package server;
+
+import common.Wire;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+
+// 블로킹 소켓 세션 (연결당 스레드 1개, 줄 단위 읽기 루프 / 바이너리 협상 후에는 프레임 단위)
+// Thread 를 상속하지 않으므로 플랫폼/가상 스레드 어느 쪽에서도 실행 가능
+// 송신은 OutboundQueue 에 넣기만 하고, 세션 전용 writer 스레드(읽기 스레드와 같은 종류)가 모아서 write
+// → 느린 클라이언트 한 명의 write 가 방 브로드캐스트를 막지 않음
+public class SocketSession extends ClientSession implements Runnable {
+
+    // writer 가 한 번의 write 로 모아 보내는 최대 바이트 / 버퍼 수
+    private static final int COALESCE_BYTES = 16 * 1024;
+    private static final int COALESCE_FRAMES = 64;
+
+    private final Socket socket;
+    private final OutboundQueue outQueue = new OutboundQueue(this::evict);
+
+    private Wire.StreamReader in;
+    private OutputStream out;
+
+    public SocketSession(Socket socket, GameServer server) {
+        super(server);
+        this.socket = socket;
+        try {
+            in  = new Wire.StreamReader(socket.getInputStream()); // 줄과 바이너리 프레임을 같은 버퍼에서 이어 읽음
+            out = socket.getOutputStream(); // Frame 이 이미 UTF-8 바이트라 그대로 write
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void run() {
+        Thread.Builder writers = Thread.currentThread().isVirtual()
+                ? Thread.ofVirtual()
+                : Thread.ofPlatform().daemon(true);
+        writers.name(Thread.currentThread().getName() + "-writer").start(this::writeLoop);
+
+        try {
+            while (true) {
+                if (isBinaryWire()) {
+                    ByteBuffer frame = in.readFrame();
+                    if (frame == null) break;
+                    onFrame(frame);
+                } else {
+                    String line = in.readLine();
+                    if (line == null) break;
+                    onLine(line);
+                }
+            }
+        } catch (IOException ignore) {
+            // 소켓 종료 또는 네트워크 오류는 종료 처리로 이어짐
+        } finally {
+            outQueue.close();
+            onDisconnected();
+            try { socket.close(); } catch (IOException ignore) {}
+        }
+    }
+
+    // 큐에 쌓인 줄들을 한 버퍼로 모아 write 한 번 (한 줄이 버퍼보다 크면 그 줄만 따로)
+    private void writeLoop() {
+        ByteBuffer[] batch = new ByteBuffer[COALESCE_FRAMES];
+        byte[] buf = new byte[COALESCE_BYTES];
+        try {
+            while (outQueue.await()) {
+                int n = outQueue.peek(batch);
+                int len = 0;
+                for (int i = 0; i < n; i++) {
+                    ByteBuffer b = batch[i];
+                    int r = Math.min(b.remaining(), buf.length - len);
+                    b.get(buf, len, r);
+                    len += r;
+                    if (len == buf.length) break;
+                }
+                out.write(buf, 0, len);
+                outQueue.written(len);
+            }
+            // EXIT: 남은 줄까지 다 보낸 뒤 종료
+            socket.close();
+        } catch (IOException | InterruptedException ignore) {
+            // 끊어진 연결은 읽기 루프 쪽에서 종료 처리
+            try { socket.close(); } catch (IOException ignored) {}
+        }
+    }
+
+    @Override
+    void send(Frame frame) {
+        if (!outQueue.offer(frame.buffer(isBinaryWire()))) evict();
+    }
+
+    // 느린 클라이언트: 소켓을 닫으면 write 에 막힌 writer 와 읽기 루프가 함께 풀려 종료 처리로 이어짐
+    private void evict() {
+        System.out.println("🐢 느린 클라이언트 연결 종료: " + getPlayerName() + " (" + OutboundQueue.stats() + ")");
+        try { socket.close(); } catch (IOException ignore) {}
+    }
+
+    @Override
+    protected void closeConnection() {
+        outQueue.finish();
+    }
+}
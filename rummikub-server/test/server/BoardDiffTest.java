@@ -0,0 +1,157 @@
+package server;
+
+import common.Tile;
+import common.Wire;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// BoardDiff.encode → (바이너리 와이어 왕복) → 클라이언트 방식으로 적용 = 새 보드
+class BoardDiffTest {
+
+    // "R1,R2,R3;BL5,BJoker(6),BL7" → 멜드 / 값 (조커 값이 없으면 0)
+    static void parse(String s, List<byte[]> melds, List<byte[]> values) {
+        if (s.isEmpty()) return;
+        for (String m : s.split(";")) {
+            String[] ids = m.split(",");
+            byte[] meld = new byte[ids.length];
+            byte[] vals = new byte[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                int paren = ids[i].indexOf('(');
+                meld[i] = (byte) Tile.parse(paren < 0 ? ids[i] : ids[i].substring(0, paren));
+                vals[i] = (byte) (paren >= 0 ? Integer.parseInt(ids[i].substring(paren + 1, ids[i].length() - 1))
+                        : Tile.isJoker(meld[i]) ? 0 : Tile.numberOf(meld[i]));
+            }
+            melds.add(meld);
+            values.add(vals);
+        }
+    }
+
+    static List<String> render(List<byte[]> melds, List<byte[]> values) {
+        List<String> out = new ArrayList<>();
+        for (int i = 0; i < melds.size(); i++) {
+            StringBuilder sb = new StringBuilder();
+            GameCore.appendMeld(sb, melds.get(i), values.get(i));
+            out.add(sb.toString());
+        }
+        return out;
+    }
+
+    // BoardPanel.applyBoardDiff 와 같은 규칙
+    static List<String> apply(List<String> prev, String diff) {
+        List<String> next = new ArrayList<>();
+        if (diff.isEmpty()) return next;
+        for (String item : diff.split(";")) {
+            char op = item.charAt(0);
+            if (op == '=') {
+                int dash = item.indexOf('-');
+                int a = Integer.parseInt(dash < 0 ? item.substring(1) : item.substring(1, dash));
+                int b = dash < 0 ? a : Integer.parseInt(item.substring(dash + 1));
+                for (int k = a; k <= b; k++) next.add(prev.get(k));
+            } else if (op == '~') {
+                next.add(item.substring(item.indexOf(':') + 1));
+            } else if (op == '+') {
+                next.add(item.substring(1));
+            } else {
+                fail("알 수 없는 항목: " + item);
+            }
+        }
+        return next;
+    }
+
+    // PLAY_OK|이름|버전|변경분 을 바이너리로 보냈다가 되돌린 변경분
+    static String overWire(String diff) {
+        String line = "PLAY_OK|B|2|" + diff;
+        ByteBuffer frame = ByteBuffer.wrap(Wire.toBinary(line));
+        Wire.readVarint(frame);
+        assertNotEquals(Wire.OP_TEXT, frame.get(frame.position()), line);
+        String back = Wire.toText(frame);
+        assertEquals(line, back);
+        return back.substring(back.lastIndexOf('|') + 1);
+    }
+
+    static String check(String before, String after) {
+        List<byte[]> om = new ArrayList<>(), ov = new ArrayList<>(), nm = new ArrayList<>(), nv = new ArrayList<>();
+        parse(before, om, ov);
+        parse(after, nm, nv);
+        String diff = BoardDiff.encode(om, ov, nm, nv);
+        assertEquals(render(nm, nv), apply(render(om, ov), overWire(diff)), diff);
+        return diff;
+    }
+
+    @Test
+    void unchangedBoardIsOneRange() {
+        assertEquals("=0-2", check("R1,R2,R3;BL5,BL6,BL7;Y9,BL9,B9", "R1,R2,R3;BL5,BL6,BL7;Y9,BL9,B9"));
+    }
+
+    @Test
+    void addedMeldAtTheEnd() {
+        assertEquals("=0-1;+Y1,Y2,Y3", check("R1,R2,R3;BL5,BL6,BL7", "R1,R2,R3;BL5,BL6,BL7;Y1,Y2,Y3"));
+    }
+
+    @Test
+    void changedMeldPairsWithMostOverlap() {
+        assertEquals("=0;~1:BL5,BL6,BL7,BL8", check("R1,R2,R3;BL5,BL6,BL7", "R1,R2,R3;BL5,BL6,BL7,BL8"));
+    }
+
+    @Test
+    void removedAndReorderedMelds() {
+        check("R1,R2,R3;BL5,BL6,BL7;Y9,BL9,B9;R10,R11,R12", "R10,R11,R12;R1,R2,R3");
+        check("R1,R2,R3", "");
+        check("", "R1,R2,R3");
+    }
+
+    // 조커 값만 바뀌어도 같은 멜드가 아님
+    @Test
+    void jokerValueChangeIsAChange() {
+        String diff = check("R9,RJoker(10),R11", "R9,R10,R11;RJoker(12),R13,BJoker(11)");
+        assertFalse(diff.startsWith("="), diff);
+    }
+
+    @Test
+    void duplicateMeldsKeepDistinctSources() {
+        check("R1,R2,R3;R1,R2,R3", "R1,R2,R3;R1,R2,R3;R1,R2,R3");
+        check("R1,R2,R3;Y4,Y5,Y6;R1,R2,R3", "Y4,Y5,Y6;R1,R2,R3");
+    }
+
+    // 무작위 편집 (유지 / 타일 추가 / 삭제 / 새 멜드 / 섞기)
+    @Test
+    void randomEditsRoundTrip() {
+        Random rnd = new Random(42);
+        for (int round = 0; round < 2000; round++) {
+            List<String> before = new ArrayList<>();
+            int n = rnd.nextInt(12);
+            for (int i = 0; i < n; i++) before.add(run(rnd));
+
+            List<String> after = new ArrayList<>();
+            for (String m : before) {
+                int r = rnd.nextInt(10);
+                if (r < 6) after.add(m);
+                else if (r < 8) after.add(m + "," + Tile.name(Tile.kind(rnd.nextInt(4), 1 + rnd.nextInt(13))));
+                // 나머지는 삭제
+            }
+            for (int i = rnd.nextInt(3); i > 0; i--) after.add(rnd.nextInt(after.size() + 1), run(rnd));
+            if (rnd.nextBoolean()) Collections.shuffle(after, rnd);
+
+            check(String.join(";", before), String.join(";", after));
+        }
+    }
+
+    private static String run(Random rnd) {
+        int color = rnd.nextInt(4), start = 1 + rnd.nextInt(11), len = 3 + rnd.nextInt(Math.min(3, 12 - start));
+        String[] t = new String[len];
+        for (int i = 0; i < len; i++) t[i] = Tile.name(Tile.kind(color, start + i));
+        if (rnd.nextInt(4) == 0) {
+            int j = rnd.nextInt(len);
+            t[j] = Tile.name(Tile.RED_JOKER + rnd.nextInt(2)) + "(" + (start + j) + ")";
+        }
+        return String.join(",", Arrays.asList(t));
+    }
+}
@@ -0,0 +1,137 @@
+package server;
+
+import common.Tile;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// GameCore 규칙 (PLAY 검증 / 초기 30 / 조커 값 / 턴)
+class GameCoreTest {
+
+    @BeforeAll
+    static void quiet() {
+        // 규칙 엔진의 println 로그
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    // "R1,R2,R3;BL5,..." → 멜드 목록
+    static List<byte[]> board(String s) {
+        List<byte[]> out = new ArrayList<>();
+        for (String m : s.split(";")) {
+            String[] ids = m.split(",");
+            byte[] meld = new byte[ids.length];
+            for (int i = 0; i < ids.length; i++) meld[i] = (byte) Tile.parse(ids[i]);
+            out.add(meld);
+        }
+        return out;
+    }
+
+    static int[] hand(String csv) {
+        int[] h = new int[Tile.KIND_COUNT];
+        for (String t : csv.split(",")) h[Tile.parse(t)]++;
+        return h;
+    }
+
+    static GameCore core(String table, String player, String tiles, boolean initialDone) {
+        GameCore core = new GameCore(1);
+        if (table != null) assertTrue(core.restoreBoard(board(table)));
+        core.restorePlayer(player, hand(tiles), initialDone);
+        return core;
+    }
+
+    // 보드에 이미 있는 종류의 두 번째 장으로 만든 3점 멜드: 그 종류가 든 옛 멜드(55점)는 초기 30 에 들어가면 안 됨
+    @Test
+    void initialMeldDoesNotCountUntouchedOldMeldWithSameKind() {
+        GameCore core = core("R1,R2,R3,R4,R5,R6,R7,R8,R9,R10", "B", "R1,BL1,Y1,B5", false);
+
+        assertFalse(core.handlePlay("B", "R1,R2,R3,R4,R5,R6,R7,R8,R9,R10;R1,BL1,Y1"));
+        assertEquals(4, core.getHand("B").size());
+        assertEquals(1, core.getBoardVersion()); // restoreBoard 한 번뿐
+    }
+
+    @Test
+    void initialMeldOfThirtyWithDuplicateKindIsAccepted() {
+        GameCore core = core("R10,BL10,Y10", "B", "R10,R11,R12,B5", false);
+
+        assertTrue(core.handlePlay("B", "R10,BL10,Y10;R10,R11,R12"));
+        assertEquals(List.of("B5"), core.getHand("B"));
+    }
+
+    // 같은 멜드를 두 벌 내면 하나는 옛 멜드, 하나는 이번에 낸 멜드
+    @Test
+    void identicalSecondMeldCountsAsPlayed() {
+        GameCore core = core("R11,R12,R13", "B", "R11,R12,R13,B5", false);
+
+        assertTrue(core.handlePlay("B", "R11,R12,R13;R11,R12,R13"));
+        assertEquals(List.of("B5"), core.getHand("B"));
+    }
+
+    @Test
+    void secondCopyOfBoardKindLeavesTheHand() {
+        GameCore core = core("R1,R2,R3", "B", "R1,BL1,Y1,B5", true);
+
+        assertTrue(core.handlePlay("B", "R1,R2,R3;R1,BL1,Y1"));
+        assertEquals(List.of("B5"), core.getHand("B"));
+    }
+
+    @Test
+    void cannotPlayMoreCopiesThanInHand() {
+        GameCore core = core("R1,R2,R3", "B", "R1,BL1,Y1", true);
+
+        assertFalse(core.handlePlay("B", "R1,R2,R3;R1,BL1,Y1;R1,BL1,Y1"));
+        assertEquals(3, core.getHand("B").size());
+    }
+
+    @Test
+    void cannotRemoveBoardTiles() {
+        GameCore core = core("R1,R2,R3;BL5,Y5,B5", "B", "R4,B9", true);
+
+        assertFalse(core.handlePlay("B", "R1,R2,R3,R4"));
+    }
+
+    @Test
+    void mustPlayAtLeastOneTile() {
+        GameCore core = core("R1,R2,R3", "B", "R4", true);
+
+        assertFalse(core.handlePlay("B", "R1,R2,R3"));
+    }
+
+    @Test
+    void initialMeldBelowThirtyIsRejected() {
+        GameCore core = core(null, "B", "R1,R2,R3,B5", false);
+
+        assertFalse(core.handlePlay("B", "R1,R2,R3"));
+        assertEquals(4, core.getHand("B").size());
+    }
+
+    @Test
+    void jokerValueIsInferred() {
+        GameCore core = core(null, "B", "R9,RJoker,R11,B5", false);
+
+        assertTrue(core.handlePlay("B", "R9,RJoker,R11"));
+        assertEquals("R9,RJoker(10),R11", core.encodeBoard());
+    }
+
+    @Test
+    void invalidMeldsAreRejected() {
+        GameCore core = core(null, "B", "R9,R10,BL11,Y9,Y9,B9", true);
+
+        assertFalse(core.handlePlay("B", "R9,R10,BL11"));   // 색이 다른 런
+        assertFalse(core.handlePlay("B", "Y9,Y9,B9"));      // 같은 색이 두 번 든 세트
+        assertFalse(core.handlePlay("B", "R9,R10"));        // 두 장
+    }
+
+    @Test
+    void notYourTurn() {
+        GameCore core = core(null, "A", "R1", true);
+        core.restorePlayer("B", hand("R11,R12,R13"), true);
+
+        assertFalse(core.handlePlay("B", "R11,R12,R13"));
+    }
+}
@@ -0,0 +1,144 @@
+package server;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// GameJournal: 진행 중인 방을 기록하고 바로 닫은 뒤 같은 디렉터리로 서버를 다시 띄우면 같은 상태
+// 세그먼트를 작게 잡아 세그먼트 넘김 + 스냅샷 + 옛 세그먼트 삭제까지 거침
+class GameJournalTest {
+
+    @TempDir
+    static Path dir;
+
+    @BeforeAll
+    static void setup() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setProperty("rummikub.journal.dir", dir.toString());
+        System.setProperty("rummikub.journal.segmentBytes", "512");
+        System.setProperty("rummikub.scores.dir", "");
+        System.setProperty("rummikub.replay.dir", "");
+    }
+
+    @AfterAll
+    static void clear() {
+        for (String p : new String[] { "rummikub.journal.dir", "rummikub.journal.segmentBytes",
+                "rummikub.scores.dir", "rummikub.replay.dir" })
+            System.clearProperty(p);
+    }
+
+    // 소켓 없는 세션: 첫 자리만 TURN 을 모음
+    static final class Seat extends ClientSession {
+        final BlockingQueue<String> turns;
+
+        Seat(String name, BlockingQueue<String> turns) {
+            super(null);
+            this.turns = turns;
+            onLine("LOGIN|" + name);
+        }
+
+        @Override
+        void send(Frame frame) {
+            String msg = frame.message();
+            if (turns != null && msg.startsWith("TURN|")) turns.add(msg.substring(5));
+        }
+
+        @Override
+        protected void closeConnection() {}
+    }
+
+    // 방 상태 요약 (방 액터가 멈춘 뒤에만)
+    static String describe(Room room) {
+        GameCore core = room.gameCore();
+        StringBuilder sb = new StringBuilder();
+        sb.append(room.getName()).append(' ').append(room.members())
+                .append(" turn=").append(core.getCurrentTurnPlayer())
+                .append(" v").append(core.getBoardVersion())
+                .append(" pool=").append(core.poolOrder().length)
+                .append(" board=").append(core.encodeBoard());
+        for (String m : room.members())
+            sb.append(' ').append(m).append(core.getHand(m)).append(core.playedThisTurn(m) ? "*" : "");
+        return sb.toString();
+    }
+
+    static String nextTurn(BlockingQueue<String> turns) throws InterruptedException {
+        String p = turns.poll(10, TimeUnit.SECONDS);
+        assertNotNull(p, "TURN 이 오지 않음");
+        return p;
+    }
+
+    @Test
+    void closeRightAfterPlayAndRecover() throws Exception {
+        GameServer server = new GameServer(0, GameServer.IoMode.NIO, 1);
+        Room room = server.createRoom("journal");
+        BlockingQueue<String> turns = new LinkedBlockingQueue<>();
+        for (int p = 0; p < 4; p++) room.addPlayer(new Seat("p" + p, p == 0 ? turns : null));
+
+        String player = nextTurn(turns);
+        for (int t = 0; t < 30; t++) {
+            room.handleNoTile(player);
+            player = nextTurn(turns);
+        }
+        server.journal().close(); // 마지막 배치까지 쓰고 닫힘 (예외 없음)
+        server.journal().close();
+        assertFalse(server.journal().stats().endsWith("segment 1"), server.journal().stats());
+        String before = describe(room);
+
+        GameServer recovered = new GameServer(0, GameServer.IoMode.NIO, 1);
+        Room again = recovered.findRoomById(room.getId());
+        assertNotNull(again);
+        assertEquals(before, describe(again));
+        recovered.journal().close();
+
+        // 복구 뒤에는 새 세그먼트 하나만 남음
+        try (var files = Files.list(dir)) {
+            assertEquals(1, files.filter(f -> f.getFileName().toString().startsWith("journal-")).count());
+        }
+    }
+
+    // 복구 뒤 아무도 돌아오지 않으면 자리를 비우고 방을 지움 → 다음 재시작에도 다시 나오지 않음
+    @Test
+    void seatsThatNeverReturnAreVacated() throws Exception {
+        GameServer server = new GameServer(0, GameServer.IoMode.NIO, 1);
+        Room room = server.createRoom("absent");
+        BlockingQueue<String> turns = new LinkedBlockingQueue<>();
+        for (int p = 0; p < 4; p++) room.addPlayer(new Seat("a" + p, p == 0 ? turns : null));
+        nextTurn(turns);
+        server.journal().close();
+
+        System.setProperty("rummikub.reattachSeconds", "0");
+        try {
+            GameServer recovered = new GameServer(0, GameServer.IoMode.NIO, 1);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (recovered.findRoomById(room.getId()) != null && System.nanoTime() < deadline) Thread.sleep(10);
+            assertNull(recovered.findRoomById(room.getId()));
+            recovered.journal().close();
+
+            GameServer again = new GameServer(0, GameServer.IoMode.NIO, 1);
+            assertNull(again.findRoomById(room.getId()));
+            again.journal().close();
+        } finally {
+            System.clearProperty("rummikub.reattachSeconds");
+        }
+    }
+
+    @Test
+    void disabledJournalCloses() throws IOException {
+        GameJournal j = GameJournal.open(null, 0, 0);
+        assertFalse(j.enabled());
+        j.joined(1, "p0");
+        j.close();
+    }
+}
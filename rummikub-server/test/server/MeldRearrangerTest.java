@@ -0,0 +1,182 @@
+package server;
+
+import common.Tile;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// MeldRearranger: 나눌 수 있는 풀이면 반드시 빠짐없이 나누고, 못 나누면 예외 (작은 풀은 전수 분할과 비교)
+class MeldRearrangerTest {
+
+    private static final long BUDGET = TimeUnit.SECONDS.toNanos(5);
+
+    static byte[] tiles(String csv) {
+        String[] ids = csv.split(",");
+        byte[] out = new byte[ids.length];
+        for (int i = 0; i < ids.length; i++) out[i] = (byte) Tile.parse(ids[i]);
+        return out;
+    }
+
+    static List<byte[]> solve(byte[] pool) {
+        try {
+            return MeldRearranger.rearrange(List.of(), pool, BUDGET);
+        } catch (MeldRearranger.RearrangeFailedException e) {
+            return null;
+        }
+    }
+
+    // 조커 값을 어떻게 주든 유효한 RUN(같은 색 3~13장 연속) 또는 SET(같은 숫자 3~4장, 색 중복 없음)이 되는지
+    static boolean valid(byte[] meld) {
+        int n = meld.length, jokers = 0;
+        List<Integer> real = new ArrayList<>();
+        for (byte t : meld) {
+            if (Tile.isJoker(t)) jokers++;
+            else real.add((int) t);
+        }
+        if (n < 3) return false;
+        if (real.isEmpty()) return n <= Tile.MAX_NUMBER;
+
+        boolean set = n <= 4;
+        int colors = 0;
+        for (int t : real) {
+            if (Tile.numberOf(t) != Tile.numberOf(real.get(0))) set = false;
+            if ((colors & 1 << Tile.colorOf(t)) != 0) set = false;
+            colors |= 1 << Tile.colorOf(t);
+        }
+        if (set) return true;
+
+        if (n > Tile.MAX_NUMBER) return false;
+        int lo = 14, hi = 0, numbers = 0;
+        for (int t : real) {
+            if (Tile.colorOf(t) != Tile.colorOf(real.get(0))) return false;
+            int v = Tile.numberOf(t);
+            if ((numbers & 1 << v) != 0) return false;
+            numbers |= 1 << v;
+            lo = Math.min(lo, v);
+            hi = Math.max(hi, v);
+        }
+        return hi - lo + 1 <= n; // 나머지 칸은 조커로 앞뒤에 (1~13 안에서 길이 n 을 잡을 수 있음)
+    }
+
+    // 결과가 풀을 빠짐없이 한 번씩 쓰고 모든 멜드가 유효한지
+    static void assertPartition(byte[] pool, List<byte[]> melds) {
+        int[] left = new int[Tile.KIND_COUNT];
+        for (byte t : pool) left[t]++;
+        for (byte[] m : melds) {
+            assertTrue(valid(m), () -> "잘못된 멜드 " + Arrays.toString(m));
+            for (byte t : m) left[t]--;
+        }
+        for (int k = 0; k < Tile.KIND_COUNT; k++) assertEquals(0, left[k], Tile.name(k));
+    }
+
+    // 전수 분할: 남은 첫 타일을 포함하는 부분집합마다 유효하면 나머지를 재귀로
+    static boolean bruteForce(List<Byte> rest) {
+        if (rest.isEmpty()) return true;
+        int others = rest.size() - 1;
+        for (int mask = 0; mask < 1 << others; mask++) {
+            if (Integer.bitCount(mask) < 2) continue;
+            byte[] meld = new byte[Integer.bitCount(mask) + 1];
+            List<Byte> next = new ArrayList<>();
+            meld[0] = rest.get(0);
+            int p = 1;
+            for (int i = 0; i < others; i++) {
+                if ((mask & 1 << i) != 0) meld[p++] = rest.get(i + 1);
+                else next.add(rest.get(i + 1));
+            }
+            if (valid(meld) && bruteForce(next)) return true;
+        }
+        return false;
+    }
+
+    @Test
+    void greedyCounterExamples() {
+        for (String pool : new String[] {
+                "R1,R2,R3,R4,R5,R6,R7,BL4,Y4",          // R4 를 SET 으로 빼야 함
+                "R1,R2,R3,R4,R5,R6,R1,R2,R3,R4,R5,R6",  // 같은 RUN 두 줄
+                "R3,R4,R5,R3,R4,R5,BL5,Y5,B5",
+                "R1,R2,R3,R4,BL4,Y4,B4,BL1,Y1",
+                "RJoker,R2,R3",                         // 조커가 1
+                "R11,R12,BJoker",                       // 조커가 13
+                "RJoker,R12,R13,BL13,Y13,BJoker",
+                "R1,RJoker,R3,BJoker,R5",
+        }) {
+            byte[] t = tiles(pool);
+            List<byte[]> melds = solve(t);
+            assertNotNull(melds, pool);
+            assertPartition(t, melds);
+        }
+    }
+
+    @Test
+    void unsolvablePoolsThrow() {
+        for (String pool : new String[] { "R1,R2", "R1,R2,R4", "R12,R13,RJoker,BJoker,R1", "R5,BL5,BL5" })
+            assertNull(solve(tiles(pool)), pool);
+    }
+
+    @Test
+    void agreesWithBruteForceOnSmallPools() {
+        Random rnd = new Random(7);
+        int solvable = 0;
+        for (int round = 0; round < 3000; round++) {
+            byte[] t = randomPool(rnd);
+            List<Byte> pool = new ArrayList<>();
+            for (byte b : t) pool.add(b);
+
+            boolean expected = bruteForce(pool);
+            List<byte[]> melds = solve(t);
+            assertEquals(expected, melds != null, () -> "pool " + Arrays.toString(t));
+            if (melds != null) {
+                assertPartition(t, melds);
+                solvable++;
+            }
+        }
+        assertTrue(solvable > 300 && solvable < 2700, "나눌 수 있는 / 없는 풀 비율이 치우침: " + solvable);
+    }
+
+    // 좁은 범위(세 색 / 숫자 5개)의 무작위 멜드 1~3개를 합친 뒤 가끔 한 장 빼거나 더함 (최대 12장)
+    private static byte[] randomPool(Random rnd) {
+        int base = rnd.nextInt(9);
+        int[] count = new int[Tile.KIND_COUNT];
+        List<Byte> pool = new ArrayList<>();
+        for (int m = 1 + rnd.nextInt(3); m > 0; m--) {
+            List<Integer> meld = new ArrayList<>();
+            if (rnd.nextBoolean()) {
+                int c = rnd.nextInt(3), start = 1 + base + rnd.nextInt(3);
+                for (int v = start; v < start + 3 + rnd.nextInt(2) && v <= Tile.MAX_NUMBER; v++) meld.add(Tile.kind(c, v));
+            } else {
+                int v = 1 + base + rnd.nextInt(5);
+                for (int c = 0; c < 3 + rnd.nextInt(2); c++) meld.add(Tile.kind(c, v));
+            }
+            if (rnd.nextInt(4) == 0) meld.set(rnd.nextInt(meld.size()), Tile.RED_JOKER + rnd.nextInt(2));
+            for (int k : meld) {
+                if (pool.size() == 12 || count[k] == (Tile.isJoker(k) ? 1 : 2)) continue;
+                count[k]++;
+                pool.add((byte) k);
+            }
+        }
+        int r = rnd.nextInt(3);
+        if (r == 0 && !pool.isEmpty()) pool.remove(rnd.nextInt(pool.size()));
+        if (r == 1 && pool.size() < 12) {
+            int k = Tile.kind(rnd.nextInt(3), 1 + base + rnd.nextInt(5));
+            if (count[k] < 2) pool.add((byte) k);
+        }
+        byte[] t = new byte[pool.size()];
+        for (int i = 0; i < t.length; i++) t[i] = pool.get(i);
+        return t;
+    }
+
+    // 시간 한도를 넘기면 일부만 나눈 보드가 아니라 예외
+    @Test
+    void exhaustedBudgetThrows() {
+        byte[] pool = tiles("R1,R2,R3,R4,R5,R6,R7,BL4,Y4");
+        MeldRearranger.RearrangeFailedException e = assertThrows(MeldRearranger.RearrangeFailedException.class,
+                () -> MeldRearranger.rearrange(List.of(), pool, -1));
+        assertTrue(e.getMessage().startsWith("시간 초과"), e.getMessage());
+    }
+}
@@ -0,0 +1,39 @@
+package server;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// OutboundQueue: high 를 넘긴 뒤 더 보낼 것이 없어도(offer 없음) slowMillis 가 지나면 감시 스레드가 끊음
+class OutboundQueueTest {
+
+    @Test
+    void quietSlowClientIsEvictedByWatchdog() throws InterruptedException {
+        CountDownLatch slow = new CountDownLatch(1);
+        OutboundQueue q = new OutboundQueue(slow::countDown);
+        assertTrue(q.offer(ByteBuffer.allocate(OutboundQueue.HIGH_WATERMARK + 1)));
+
+        long wait = TimeUnit.NANOSECONDS.toMillis(OutboundQueue.SLOW_NANOS) * 2 + 1000;
+        assertTrue(slow.await(wait, TimeUnit.MILLISECONDS));
+        assertTrue(q.isEmpty());
+        assertFalse(q.await()); // 닫힌 큐: writer 종료
+    }
+
+    @Test
+    void drainedQueueIsNotEvicted() throws InterruptedException {
+        CountDownLatch slow = new CountDownLatch(1);
+        OutboundQueue q = new OutboundQueue(slow::countDown);
+        ByteBuffer frame = ByteBuffer.allocate(OutboundQueue.HIGH_WATERMARK + 1);
+        assertTrue(q.offer(frame));
+        frame.position(frame.limit());
+        q.written(frame.limit());
+
+        long wait = TimeUnit.NANOSECONDS.toMillis(OutboundQueue.SLOW_NANOS) + 1000;
+        assertFalse(slow.await(wait, TimeUnit.MILLISECONDS));
+        assertTrue(q.offer(ByteBuffer.allocate(10)));
+    }
+}
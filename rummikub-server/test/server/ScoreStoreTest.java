@@ -0,0 +1,120 @@
+package server;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ScoreStore: 닫았다 다시 열면 누적값이 그대로 (로그 재생 / 스냅샷 압축 후)
+class ScoreStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void quiet() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    static void round(ScoreStore s, String winner, String... losers) {
+        Map<String, Integer> deltas = new HashMap<>();
+        int sum = 0;
+        for (String l : losers) {
+            deltas.put(l, -10);
+            sum += 10;
+        }
+        deltas.put(winner, sum);
+        s.recordRound(winner, deltas);
+    }
+
+    @Test
+    void reopenRestoresTotals() throws IOException {
+        ScoreStore s = ScoreStore.open(dir, 1);
+        round(s, "a", "b", "c");
+        round(s, "b", "a", "c");
+        round(s, "a", "b", "c");
+        s.close();
+
+        ScoreStore again = ScoreStore.open(dir, 1);
+        assertEquals(new ScoreStore.Rank("a", 30, 3, 2), again.get("a"));
+        assertEquals(new ScoreStore.Rank("b", 0, 3, 1), again.get("b"));
+        assertEquals(new ScoreStore.Rank("c", -30, 3, 0), again.get("c"));
+        assertEquals(List.of("a", "b", "c"), again.top(10).stream().map(ScoreStore.Rank::name).toList());
+        assertEquals("LEADERBOARD|a,30,2;b,0,1", again.leaderboardMessage(2));
+        again.close();
+    }
+
+    // writer 가 쓰는 중에 닫아도 배치를 잃지 않음 (짧은 주기로 열고 닫기 반복)
+    @Test
+    void closeWhileWriterIsBusyKeepsEveryRound() throws IOException {
+        for (int i = 0; i < 30; i++) {
+            ScoreStore s = ScoreStore.open(dir, 1);
+            for (int r = 0; r < 50; r++) round(s, "w", "l" + (r % 3));
+            s.close();
+            s.close(); // 두 번째는 아무것도 안 함
+        }
+        ScoreStore s = ScoreStore.open(dir, 1);
+        assertEquals(new ScoreStore.Rank("w", 30 * 50 * 10, 30 * 50, 30 * 50), s.get("w"));
+        assertEquals(new ScoreStore.Rank("l0", 30 * 17 * -10, 30 * 17, 0), s.get("l0"));
+        assertEquals(new ScoreStore.Rank("l2", 30 * 16 * -10, 30 * 16, 0), s.get("l2"));
+        s.close();
+    }
+
+    // 로그가 1MB 를 넘으면 스냅샷으로 압축 → 다시 열어도 같은 값, 이후 로그도 재생
+    @Test
+    void compactionKeepsTotals() throws IOException {
+        ScoreStore s = ScoreStore.open(dir, 60_000);
+        for (int r = 0; r < 30_000; r++) round(s, "winner", "loser-" + r, "loser-" + (r + 1) % 30_000, "loser-x" + r);
+        s.close();
+        assertTrue(Files.exists(dir.resolve("scores.snap")));
+        assertEquals(12, Files.size(dir.resolve("scores.log"))); // 압축 뒤 헤더만
+
+        s = ScoreStore.open(dir, 1);
+        assertEquals(30_000 * 30, s.get("winner").total());
+        assertEquals(-20, s.get("loser-5").total());
+        round(s, "loser-5", "winner");
+        s.close();
+
+        s = ScoreStore.open(dir, 1);
+        assertEquals(new ScoreStore.Rank("loser-5", -10, 3, 1), s.get("loser-5"));
+        assertEquals(60_001, s.playerCount());
+        s.close();
+    }
+
+    // writeUTF 한도(65535 바이트)를 넘는 이름 / 보조 평면 문자 이름도 같은 배치의 다른 플레이어와 함께 저장됨
+    @Test
+    void longAndNonBmpNamesArePersisted() throws IOException {
+        String longName = "가".repeat(30_000); // UTF-8 90000 B
+        String emoji = "🀄 player\u0000";
+        ScoreStore s = ScoreStore.open(dir, 60_000);
+        round(s, longName, emoji, "plain");
+        s.close();
+
+        s = ScoreStore.open(dir, 1);
+        assertEquals(new ScoreStore.Rank(longName, 20, 1, 1), s.get(longName));
+        assertEquals(new ScoreStore.Rank(emoji, -10, 1, 0), s.get(emoji));
+        assertEquals(new ScoreStore.Rank("plain", -10, 1, 0), s.get("plain"));
+        s.close();
+    }
+
+    @Test
+    void memoryOnlyStoreWritesNothing() throws IOException {
+        ScoreStore s = ScoreStore.open(null, 0);
+        round(s, "a", "b");
+        assertEquals(10, s.get("a").total());
+        s.close();
+        try (var files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+}